@@ -0,0 +1,76 @@
+package top.nextdoc4j.demo.benchmarks;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springdoc.core.customizers.GlobalOpenApiCustomizer;
+import org.springdoc.core.customizers.GlobalOperationCustomizer;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * globalOpenApiCustomizer 示例提升
+ * <p>
+ * 每次调用前用 apiErrorOperationCustomizer 重新生成 N 个带 x-pending-examples 的接口（不计时），
+ * 只测量提升到 components/examples 的耗时。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GlobalOpenApiCustomizerBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int operations;
+
+    private GlobalOperationCustomizer operationCustomizer;
+
+    private GlobalOpenApiCustomizer openApiCustomizer;
+
+    private List<HandlerMethod> handlerMethods;
+
+    private OpenAPI openApi;
+
+    @Setup
+    public void setUp(DemoApplicationState app) {
+        operationCustomizer = app.getBean("apiErrorOperationCustomizer", GlobalOperationCustomizer.class);
+        openApiCustomizer = app.getBean("globalOpenApiCustomizer", GlobalOpenApiCustomizer.class);
+        handlerMethods = ApiErrorOperationCustomizerBenchmark.repeat(app, operations);
+    }
+
+    @Setup(Level.Invocation)
+    public void prepare() {
+        Paths paths = new Paths();
+        for (int i = 0; i < handlerMethods.size(); i++) {
+            Operation operation = operationCustomizer.customize(new Operation(), handlerMethods.get(i));
+            paths.addPathItem("/benchmark/" + i, new PathItem().get(operation));
+        }
+        openApi = new OpenAPI().paths(paths);
+    }
+
+    @Benchmark
+    public OpenAPI hoist() {
+        openApiCustomizer.customise(openApi);
+        return openApi;
+    }
+}
@@ -0,0 +1,67 @@
+package top.nextdoc4j.demo.benchmarks;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import top.nextdoc4j.demo.springboot.configuration.apidoc.StreamingOpenApiResource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分组文档序列化
+ * <p>
+ * 文档只在 Setup 阶段构建一次，分别测量 JSON 流式输出、JSON 先完整序列化再输出（springdoc 默认方式）与 YAML。
+ * 配合 -prof gc 可对比两种 JSON 输出方式的内存分配。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"account", "system", "file", "auth", "logs"})
+    private String group;
+
+    private StreamingOpenApiResource resource;
+
+    private OpenAPI openApi;
+
+    @Setup
+    public void setUp(DemoApplicationState app) {
+        resource = app.resource(group);
+        openApi = resource.openApi(app.request(group), DemoApplicationState.API_DOCS_URL + "/" + group,
+                Locale.getDefault());
+    }
+
+    @Benchmark
+    public void jsonStreaming() throws IOException {
+        resource.writeJson(openApi, OutputStream.nullOutputStream(), true);
+    }
+
+    @Benchmark
+    public void jsonBuffered() throws IOException {
+        resource.writeJson(openApi, OutputStream.nullOutputStream(), false);
+    }
+
+    @Benchmark
+    public byte[] yaml() throws IOException {
+        return resource.writeYaml(openApi);
+    }
+}
@@ -0,0 +1,264 @@
+package top.nextdoc4j.demo.benchmarks.gateway;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 网关压测报告
+ * <p>
+ * 依次对每个网关按固定速率（开环）发送请求，请求在各路径间轮流分配，输出每个网关 × 路径的：
+ * 1. 请求数、失败数（非 2xx/304 或超时）、状态码分布、实际速率
+ * 2. p50 / p90 / p99 / 最大延迟与平均响应大小
+ * <p>
+ * 延迟从计划发送时间算起：网关变慢时请求不会因为客户端等待而推迟发送，排队时间计入延迟（避免协调遗漏）。
+ * 同时进行的请求超过 max-inflight 时不再发送，计为 dropped，说明客户端或网关已饱和，结果不可信。
+ * <p>
+ * 每个网关压测前后读取文档聚合状态（status-path），输出压测期间每个路由请求下游的次数与速率、共享进行中拉取的请求数：
+ * 同一路由的并发文档请求共享一次拉取，下游速率只取决于文档新鲜期，不随压测速率增加。
+ * <p>
+ * 网关与下游服务以 local 配置启动（application-local.yml），不依赖 Nacos。默认路径两种网关都有：单个服务文档、合并文档、
+ * 两个转发的接口；WebFlux 网关可加上文档索引 /api-doc/index。
+ * 参数（均可省略）：--gateways=http://127.0.0.1:9000,http://127.0.0.1:9001
+ * --paths=/user/v3/api-docs,/api-doc/merged,/user/api/user/1,/system/api/system/info
+ * --rps=200 --duration=30 --warmup=5 --timeout=5 --max-inflight=1000 --accept-encoding=gzip
+ * --status-path=/api-doc/aggregation
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public final class GatewayLoadReport {
+
+    /**
+     * 聚合状态中的单个路由（字段均为标量）
+     */
+    private static final Pattern STATUS = Pattern.compile("\\{[^{}]*}");
+
+    private static final Pattern ROUTE_ID = Pattern.compile("\"routeId\"\\s*:\\s*\"([^\"]+)\"");
+
+    private static final Pattern FETCHES = Pattern.compile("\"fetches\"\\s*:\\s*(\\d+)");
+
+    private static final Pattern COALESCED = Pattern.compile("\"coalesced\"\\s*:\\s*(\\d+)");
+
+    private GatewayLoadReport() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = parse(args);
+        List<String> gateways = split(options.getOrDefault("gateways", "http://127.0.0.1:9000,http://127.0.0.1:9001"));
+        List<String> paths = split(options.getOrDefault("paths",
+                "/user/v3/api-docs,/api-doc/merged,/user/api/user/1,/system/api/system/info"));
+        int rps = Integer.parseInt(options.getOrDefault("rps", "200"));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "5")));
+        Duration timeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout", "5")));
+        int maxInflight = Integer.parseInt(options.getOrDefault("max-inflight", "1000"));
+        String acceptEncoding = options.get("accept-encoding");
+        String statusPath = options.getOrDefault("status-path", "/api-doc/aggregation");
+
+        System.out.printf("rps=%d duration=%ss warmup=%ss timeout=%ss max-inflight=%d accept-encoding=%s%n", rps,
+                duration.toSeconds(), warmup.toSeconds(), timeout.toSeconds(), maxInflight, acceptEncoding);
+        System.out.printf("%-24s | %-26s | %8s | %6s | %7s | %7s | %8s | %8s | %8s | %8s | %9s | %s%n",
+                "gateway", "path", "requests", "errors", "dropped", "rps", "p50(ms)", "p90(ms)", "p99(ms)",
+                "max(ms)", "avg(KB)", "status");
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(timeout)
+                    .executor(executor)
+                    .build();
+            for (String gateway : gateways) {
+                List<HttpRequest> requests = paths.stream()
+                        .map(path -> request(gateway + path, timeout, acceptEncoding))
+                        .toList();
+                run(client, requests, rps, warmup, false, maxInflight, timeout);
+                HttpRequest status = request(gateway + statusPath, timeout, null);
+                Map<String, long[]> before = fetchCounts(client, status);
+                Recorder[] recorders = run(client, requests, rps, duration, true, maxInflight, timeout);
+                Map<String, long[]> after = fetchCounts(client, status);
+                for (int i = 0; i < paths.size(); i++) {
+                    recorders[i].report(gateway, paths.get(i), duration);
+                }
+                after.forEach((routeId, counts) -> {
+                    long[] previous = before.getOrDefault(routeId, new long[2]);
+                    long fetches = counts[0] - previous[0];
+                    System.out.printf("%-24s | %-26s | 下游拉取 %d 次（%.2f/s），共享拉取 %d 次%n", gateway,
+                            "route=" + routeId, fetches, fetches / (double) duration.toSeconds(),
+                            counts[1] - previous[1]);
+                });
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 按固定速率发送请求，结束后等待进行中的请求完成（最多一个超时时间）
+     */
+    private static Recorder[] run(HttpClient client, List<HttpRequest> requests, int rps, Duration duration,
+                                  boolean record, int maxInflight, Duration timeout) throws InterruptedException {
+        Recorder[] recorders = new Recorder[requests.size()];
+        Arrays.setAll(recorders, i -> new Recorder());
+        Semaphore inflight = new Semaphore(maxInflight);
+        long interval = TimeUnit.SECONDS.toNanos(1) / rps;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * interval;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Recorder recorder = recorders[(int) (i % requests.size())];
+            if (!inflight.tryAcquire()) {
+                recorder.drop();
+                continue;
+            }
+            client.sendAsync(requests.get((int) (i % requests.size())), HttpResponse.BodyHandlers.ofByteArray())
+                    .whenComplete((response, e) -> {
+                        long latency = System.nanoTime() - scheduled;
+                        inflight.release();
+                        if (!record) {
+                            return;
+                        }
+                        if (e != null) {
+                            recorder.record(latency, -1, 0);
+                        } else {
+                            recorder.record(latency, response.statusCode(), response.body().length);
+                        }
+                    });
+        }
+        if (!inflight.tryAcquire(maxInflight, timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+            System.out.printf("仍有 %d 个请求未完成%n", maxInflight - inflight.availablePermits());
+        } else {
+            inflight.release(maxInflight);
+        }
+        return recorders;
+    }
+
+    /**
+     * 读取文档聚合状态中每个路由的 fetches / coalesced，网关未开启聚合或请求失败时返回空
+     */
+    private static Map<String, long[]> fetchCounts(HttpClient client, HttpRequest request) {
+        Map<String, long[]> counts = new TreeMap<>();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return counts;
+            }
+            Matcher status = STATUS.matcher(response.body());
+            while (status.find()) {
+                String entry = status.group();
+                Matcher routeId = ROUTE_ID.matcher(entry);
+                if (routeId.find()) {
+                    counts.put(routeId.group(1), new long[]{count(FETCHES, entry), count(COALESCED, entry)});
+                }
+            }
+        } catch (IOException e) {
+            return counts;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return counts;
+    }
+
+    private static long count(Pattern pattern, String entry) {
+        Matcher matcher = pattern.matcher(entry);
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0;
+    }
+
+    private static HttpRequest request(String uri, Duration timeout, String acceptEncoding) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(uri)).timeout(timeout).GET();
+        if (acceptEncoding != null) {
+            builder.header("Accept-Encoding", acceptEncoding);
+        }
+        return builder.build();
+    }
+
+    private static List<String> split(String value) {
+        return Arrays.stream(value.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+
+    /**
+     * 单个网关 × 路径的结果
+     */
+    private static final class Recorder {
+
+        private long[] latencies = new long[1024];
+
+        private int count;
+
+        private int errors;
+
+        private int dropped;
+
+        private long bytes;
+
+        /**
+         * 状态码 -> 次数，-1 为超时或连接失败
+         */
+        private final Map<Integer, Integer> statuses = new TreeMap<>();
+
+        synchronized void record(long latency, int status, long size) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+            bytes += size;
+            statuses.merge(status, 1, Integer::sum);
+            if (status != 304 && (status < 200 || status >= 300)) {
+                errors++;
+            }
+        }
+
+        synchronized void drop() {
+            dropped++;
+        }
+
+        synchronized void report(String gateway, String path, Duration duration) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            System.out.printf("%-24s | %-26s | %8d | %6d | %7d | %7.1f | %8.2f | %8.2f | %8.2f | %8.2f | %9.1f | %s%n",
+                    gateway, path, count, errors, dropped, count / (double) duration.toSeconds(),
+                    percentile(sorted, 0.5), percentile(sorted, 0.9), percentile(sorted, 0.99),
+                    percentile(sorted, 1), count == 0 ? 0 : bytes / 1024.0 / count, statuses);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package top.nextdoc4j.demo.benchmarks;
+
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import top.nextdoc4j.demo.core.apidoc.ApiDocCircuitBreaker;
+import top.nextdoc4j.demo.core.apidoc.ApiDocFetcher;
+import top.nextdoc4j.demo.core.apidoc.ApiDocSnapshot;
+import top.nextdoc4j.demo.core.apidoc.ApiDocTarget;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 网关下游文档拉取：逐个拉取 vs 并行拉取
+ * <p>
+ * 进程内启动 N 个模拟服务（每个响应前等待固定延迟），分别测量：
+ * 1. serial：在调用线程上逐个拉取，即网关文档页依次请求各服务文档时的耗时
+ * 2. pool：{@link ApiDocFetcher#fetchAll} 在有界线程池（8 个线程，JDK 21 以下时 WebMVC 网关的回退方式）上并行拉取
+ * 3. virtual：{@link ApiDocFetcher#fetchAll} 每个文档一个虚拟线程（WebMVC 网关默认方式，需要 JDK 21）
+ * <p>
+ * 服务数超过池大小时，pool 分批完成，耗时约为 ⌈N / 8⌉ × 延迟；virtual 不受池大小限制，耗时约为单个延迟。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class ApiDocFanOutBenchmark {
+
+    private static final int POOL_SIZE = 8;
+
+    @Param({"3", "10", "30"})
+    private int services;
+
+    @Param({"100"})
+    private int latencyMillis;
+
+    @Param({"serial", "pool", "virtual"})
+    private String strategy;
+
+    private HttpServer server;
+
+    private ExecutorService serverExecutor;
+
+    private AsyncTaskExecutor executor;
+
+    private ApiDocFetcher fetcher;
+
+    private List<ApiDocTarget> targets;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] body = spec().getBytes(StandardCharsets.UTF_8);
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        if ("virtual".equals(strategy)) {
+            SimpleAsyncTaskExecutor virtualThreads = new SimpleAsyncTaskExecutor("api-doc-fetch-");
+            virtualThreads.setVirtualThreads(true);
+            executor = virtualThreads;
+        } else {
+            ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+            pool.setCorePoolSize(POOL_SIZE);
+            pool.setMaxPoolSize(POOL_SIZE);
+            pool.setThreadNamePrefix("api-doc-fetch-");
+            pool.initialize();
+            executor = pool;
+        }
+
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        fetcher = new ApiDocFetcher(httpClient, executor, UnaryOperator.identity(), 1024, Long.MAX_VALUE,
+                new ApiDocCircuitBreaker(0, Duration.ZERO, (key, from, to, failures) -> {
+                }),
+                (target, outcome, latency, error) -> {
+                });
+        int port = server.getAddress().getPort();
+        targets = IntStream.range(0, services)
+                .mapToObj(i -> new ApiDocTarget("service-" + i,
+                        URI.create("http://127.0.0.1:" + port + "/service-" + i + "/v3/api-docs"),
+                        Duration.ofSeconds(10)))
+                .toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        } else if (executor instanceof SimpleAsyncTaskExecutor virtualThreads) {
+            virtualThreads.close();
+        }
+    }
+
+    @Benchmark
+    public Map<String, ApiDocSnapshot> fetch() {
+        if ("serial".equals(strategy)) {
+            Map<String, ApiDocSnapshot> snapshots = new LinkedHashMap<>();
+            targets.forEach(target -> snapshots.put(target.id(), fetcher.fetch(target)));
+            return snapshots;
+        }
+        return fetcher.fetchAll(targets);
+    }
+
+    /**
+     * 约 30 KB 的文档
+     */
+    private static String spec() {
+        return IntStream.range(0, 400)
+                .mapToObj(i -> "\"/api/resource/" + i + "\":{\"get\":{\"summary\":\"接口 " + i
+                        + "\",\"operationId\":\"op" + i + "\"}}")
+                .collect(Collectors.joining(",", "{\"openapi\":\"3.0.1\",\"paths\":{", "}}"));
+    }
+}
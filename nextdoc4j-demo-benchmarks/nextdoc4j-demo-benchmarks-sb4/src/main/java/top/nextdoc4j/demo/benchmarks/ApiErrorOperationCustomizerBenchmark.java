@@ -0,0 +1,82 @@
+package top.nextdoc4j.demo.benchmarks;
+
+import io.swagger.v3.oas.models.Operation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springdoc.core.customizers.GlobalOperationCustomizer;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import top.nextdoc4j.demo.core.annotation.index.ApiErrorIndexes;
+import top.nextdoc4j.demo.springboot.configuration.GlobalOpenApiAutoConfiguration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link GlobalOpenApiAutoConfiguration} 中的 @ApiError 接口定制器处理 N 个接口
+ * <p>
+ * 取演示应用中声明了 @ApiError 的真实接口，循环复用到 N 个，每个接口使用新的 {@link Operation}。
+ * 定制器按类型与声明它的配置类查找，不依赖 Bean 名称。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiErrorOperationCustomizerBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int operations;
+
+    private GlobalOperationCustomizer customizer;
+
+    private List<HandlerMethod> handlerMethods;
+
+    @Setup
+    public void setUp(DemoApplicationState app) {
+        customizer = app.getBean(GlobalOpenApiAutoConfiguration.class, GlobalOperationCustomizer.class);
+        handlerMethods = repeat(app, operations);
+    }
+
+    @Benchmark
+    public void customize(Blackhole blackhole) {
+        for (HandlerMethod handlerMethod : handlerMethods) {
+            blackhole.consume(customizer.customize(new Operation(), handlerMethod));
+        }
+    }
+
+    /**
+     * 声明了 @ApiError 的接口，循环复用到 size 个
+     */
+    static List<HandlerMethod> repeat(DemoApplicationState app, int size) {
+        List<HandlerMethod> annotated = app.getBean("requestMappingHandlerMapping", RequestMappingHandlerMapping.class)
+                .getHandlerMethods()
+                .values()
+                .stream()
+                .filter(handlerMethod -> !ApiErrorIndexes.get(handlerMethod.getMethod()).isEmpty())
+                .toList();
+        if (annotated.isEmpty()) {
+            throw new IllegalStateException("未找到声明 @ApiError 的接口");
+        }
+        List<HandlerMethod> handlerMethods = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            handlerMethods.add(annotated.get(i % annotated.size()));
+        }
+        return handlerMethods;
+    }
+}
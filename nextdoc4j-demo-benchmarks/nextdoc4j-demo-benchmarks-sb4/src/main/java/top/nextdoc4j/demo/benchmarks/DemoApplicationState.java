@@ -0,0 +1,89 @@
+package top.nextdoc4j.demo.benchmarks;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import top.nextdoc4j.demo.springboot.Nextdoc4jDemoSb4Application;
+import top.nextdoc4j.demo.springboot.configuration.apidoc.StreamingMultipleOpenApiResource;
+import top.nextdoc4j.demo.springboot.configuration.apidoc.StreamingOpenApiResource;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 演示应用上下文
+ * <p>
+ * 每个 fork 启动一次完整的 SB4 单体应用（随机端口、关闭预热与文档缓存），
+ * 基准方法直接调用 springdoc 与项目定制器，不经过 HTTP 与 {@code ApiDocCache}。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@State(Scope.Benchmark)
+public class DemoApplicationState {
+
+    public static final String API_DOCS_URL = "/v3/api-docs";
+
+    /**
+     * 启动参数，以命令行参数传入，优先级高于 application.yml
+     */
+    public static final List<String> ARGS = List.of("--server.port=0",
+            "--spring.main.banner-mode=off",
+            "--project.api-doc.warmup.enabled=false",
+            "--project.api-doc.cache.enabled=false",
+            "--logging.level.root=WARN",
+            "--logging.level.top.nextdoc4j.demo=WARN",
+            "--logging.file.name=");
+
+    private ConfigurableApplicationContext context;
+
+    @Setup
+    public void start() {
+        context = new SpringApplicationBuilder(Nextdoc4jDemoSb4Application.class)
+                .run(ARGS.toArray(String[]::new));
+    }
+
+    @TearDown
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T getBean(String name, Class<T> type) {
+        return context.getBean(name, type);
+    }
+
+    /**
+     * 由指定配置类声明的 type 类型 Bean，同类型 Bean 有多个时按声明它的配置类区分，不依赖 Bean 名称
+     */
+    public <T> T getBean(Class<?> configuration, Class<T> type) {
+        ConfigurableListableBeanFactory beanFactory = context.getBeanFactory();
+        List<String> names = Arrays.stream(beanFactory.getBeanNamesForType(type))
+                .filter(name -> {
+                    String factoryBeanName = beanFactory.getBeanDefinition(name).getFactoryBeanName();
+                    return factoryBeanName != null && beanFactory.isTypeMatch(factoryBeanName, configuration);
+                })
+                .toList();
+        if (names.size() != 1) {
+            throw new IllegalStateException(configuration.getSimpleName() + " 中应只声明一个 "
+                    + type.getSimpleName() + "，实际：" + names);
+        }
+        return context.getBean(names.get(0), type);
+    }
+
+    /**
+     * 分组资源（与 /v3/api-docs/{group} 使用同一实例）
+     */
+    public StreamingOpenApiResource resource(String group) {
+        return context.getBean(StreamingMultipleOpenApiResource.class).getStreamingResource(group);
+    }
+
+    public HttpServletRequest request(String group) {
+        return new MockHttpServletRequest("GET", API_DOCS_URL + "/" + group);
+    }
+}
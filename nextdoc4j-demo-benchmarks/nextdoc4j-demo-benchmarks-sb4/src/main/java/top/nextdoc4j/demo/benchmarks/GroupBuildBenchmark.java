@@ -0,0 +1,54 @@
+package top.nextdoc4j.demo.benchmarks;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import jakarta.servlet.http.HttpServletRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import top.nextdoc4j.demo.springboot.configuration.apidoc.StreamingOpenApiResource;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分组文档完整构建
+ * <p>
+ * 与 /v3/api-docs/{group} 未命中缓存时相同：扫描接口、解析模型、执行全部定制器，不含序列化。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GroupBuildBenchmark {
+
+    @Param({"account", "system", "file", "auth"})
+    private String group;
+
+    private StreamingOpenApiResource resource;
+
+    private HttpServletRequest request;
+
+    @Setup
+    public void setUp(DemoApplicationState app) {
+        resource = app.resource(group);
+        request = app.request(group);
+    }
+
+    @Benchmark
+    public OpenAPI build() {
+        return resource.openApi(request, DemoApplicationState.API_DOCS_URL + "/" + group, Locale.getDefault());
+    }
+}
@@ -0,0 +1,110 @@
+package top.nextdoc4j.demo.benchmarks.synthetic;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.PathItem;
+import org.apache.catalina.webresources.TomcatURLStreamHandlerFactory;
+import org.springdoc.core.models.GroupedOpenApi;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.mock.web.MockHttpServletRequest;
+import top.nextdoc4j.demo.benchmarks.DemoApplicationState;
+import top.nextdoc4j.demo.springboot.Nextdoc4jDemoSb4Application;
+import top.nextdoc4j.demo.springboot.configuration.apidoc.StreamingMultipleOpenApiResource;
+import top.nextdoc4j.demo.springboot.configuration.apidoc.StreamingOpenApiResource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 隔离类加载器内的演示应用
+ * <p>
+ * 由 {@link SyntheticApi} 在隔离类加载器中加载，对外只暴露 JDK 类型（OpenAPI 以 Object 传递），
+ * 合成接口被组件扫描后归入 {@value #GROUP} 分组。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public class SyntheticApiBridge {
+
+    public static final String GROUP = "synthetic";
+
+    private ConfigurableApplicationContext context;
+
+    private StreamingOpenApiResource resource;
+
+    public void start() {
+        withClassLoader(() -> {
+            // URLStreamHandlerFactory 全局只能注册一次，隔离类加载器中的 Tomcat 不再注册
+            TomcatURLStreamHandlerFactory.disable();
+            context = new SpringApplicationBuilder(Nextdoc4jDemoSb4Application.class)
+                    .resourceLoader(new DefaultResourceLoader(getClass().getClassLoader()))
+                    .initializers(applicationContext -> applicationContext.getBeanFactory()
+                            .registerSingleton("syntheticApi", GroupedOpenApi.builder()
+                                    .group(GROUP)
+                                    .displayName("合成接口")
+                                    .pathsToMatch(SyntheticApiGenerator.PATH_PREFIX + "/**")
+                                    .build()))
+                    .run(DemoApplicationState.ARGS.toArray(String[]::new));
+            resource = context.getBean(StreamingMultipleOpenApiResource.class).getStreamingResource(GROUP);
+            return null;
+        });
+    }
+
+    /**
+     * 完整构建合成分组文档
+     */
+    public Object build() {
+        return withClassLoader(() -> resource.openApi(
+                new MockHttpServletRequest("GET", DemoApplicationState.API_DOCS_URL + "/" + GROUP),
+                DemoApplicationState.API_DOCS_URL + "/" + GROUP, Locale.getDefault()));
+    }
+
+    public byte[] writeJson(Object openApi) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        resource.writeJson((OpenAPI) openApi, out, true);
+        return out.toByteArray();
+    }
+
+    /**
+     * 文档规模：路径、接口、模型、示例数量
+     */
+    public Map<String, Integer> stats(Object openApi) {
+        OpenAPI api = (OpenAPI) openApi;
+        Map<String, Integer> stats = new LinkedHashMap<>();
+        stats.put("paths", api.getPaths() == null ? 0 : api.getPaths().size());
+        stats.put("operations", api.getPaths() == null ? 0 : api.getPaths().values().stream()
+                .map(PathItem::readOperations)
+                .mapToInt(java.util.List::size)
+                .sum());
+        stats.put("schemas", api.getComponents() == null || api.getComponents().getSchemas() == null
+                ? 0 : api.getComponents().getSchemas().size());
+        stats.put("examples", api.getComponents() == null || api.getComponents().getExamples() == null
+                ? 0 : api.getComponents().getExamples().size());
+        return stats;
+    }
+
+    public void close() {
+        if (context != null) {
+            withClassLoader(() -> {
+                context.close();
+                return null;
+            });
+        }
+    }
+
+    private <T> T withClassLoader(Supplier<T> action) {
+        Thread thread = Thread.currentThread();
+        ClassLoader original = thread.getContextClassLoader();
+        thread.setContextClassLoader(getClass().getClassLoader());
+        try {
+            return action.get();
+        } finally {
+            thread.setContextClassLoader(original);
+        }
+    }
+}
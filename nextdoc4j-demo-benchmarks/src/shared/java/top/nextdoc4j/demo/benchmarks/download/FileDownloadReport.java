@@ -0,0 +1,249 @@
+package top.nextdoc4j.demo.benchmarks.download;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.startup.Tomcat;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.util.unit.DataSize;
+import top.nextdoc4j.demo.controller.file.FileTransfer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 文件下载吞吐报告
+ * <p>
+ * 在嵌入式 Tomcat（NIO，默认开启 sendfile）上用 {@link FileTransfer} 输出不同大小的文件，依次比较两种传输方式：
+ * SENDFILE（容器以 FileChannel.transferTo 写入 socket）与 STREAM（经缓冲区复制，即原先的 InputStream.transferTo）。
+ * 输出每个大小 × 方式的：
+ * 1. 吞吐（MB/s）
+ * 2. 每 GB 的进程 CPU 时间与堆分配（所有线程，含客户端）、期间的 GC 次数
+ * <p>
+ * 客户端直接用 SocketChannel 读入一块复用的直接内存并丢弃，尽量不计入客户端自身的复制开销。
+ * 文件写在 --dir 下（默认临时目录），结束后删除；文件在页缓存中时测的是内存到 socket 的传输。
+ * 参数（均可省略）：--sizes=1MB,100MB,2GB --bytes-per-case=4GB --min-iterations=3 --dir=/tmp
+ * --strategies=SENDFILE,STREAM
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public final class FileDownloadReport {
+
+    /**
+     * 客户端读缓冲区
+     */
+    private static final ByteBuffer BUFFER = ByteBuffer.allocateDirect(1 << 20);
+
+    private FileDownloadReport() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        List<String> sizes = split(options.getOrDefault("sizes", "1MB,100MB,2GB"));
+        long bytesPerCase = DataSize.parse(options.getOrDefault("bytes-per-case", "4GB")).toBytes();
+        int minIterations = Integer.parseInt(options.getOrDefault("min-iterations", "3"));
+        Path dir = Path.of(options.getOrDefault("dir", System.getProperty("java.io.tmpdir")));
+        List<FileTransfer.Strategy> strategies = split(options.getOrDefault("strategies", "SENDFILE,STREAM"))
+                .stream()
+                .map(name -> FileTransfer.Strategy.valueOf(name.toUpperCase(Locale.ROOT)))
+                .toList();
+
+        Map<String, Path> files = new LinkedHashMap<>();
+        Tomcat tomcat = start(files);
+        int port = tomcat.getConnector().getLocalPort();
+        System.out.printf("bytes-per-case=%d min-iterations=%d dir=%s%n", bytesPerCase, minIterations, dir);
+        System.out.printf("%-8s | %-8s | %10s | %10s | %12s | %14s | %8s%n", "size", "strategy", "iterations",
+                "MB/s", "cpu(ms)/GB", "alloc(MB)/GB", "gc");
+        try {
+            for (String size : sizes) {
+                long bytes = DataSize.parse(size).toBytes();
+                Path file = create(dir, bytes);
+                files.put(size, file);
+                try {
+                    int iterations = (int) Math.max(minIterations, bytesPerCase / bytes);
+                    for (FileTransfer.Strategy strategy : strategies) {
+                        String path = "/" + strategy + "/" + size;
+                        download(port, path, bytes);
+                        report(size, bytes, strategy, iterations, () -> download(port, path, bytes));
+                    }
+                } finally {
+                    files.remove(size);
+                    Files.deleteIfExists(file);
+                }
+            }
+        } finally {
+            tomcat.stop();
+            tomcat.destroy();
+        }
+    }
+
+    private static void report(String size, long bytes, FileTransfer.Strategy strategy, int iterations,
+                               Runnable download) {
+        com.sun.management.OperatingSystemMXBean os =
+                (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        long cpu = os.getProcessCpuTime();
+        long allocated = allocatedBytes();
+        long gc = gcCount();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            download.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        double gigabytes = bytes * (double) iterations / (1L << 30);
+        System.out.printf("%-8s | %-8s | %10d | %10.1f | %12.1f | %14.1f | %8d%n", size, strategy, iterations,
+                bytes * (double) iterations / (1 << 20) / (elapsed / 1e9),
+                (os.getProcessCpuTime() - cpu) / 1e6 / gigabytes,
+                (allocatedBytes() - allocated) / (double) (1 << 20) / gigabytes, gcCount() - gc);
+    }
+
+    /**
+     * GET /{strategy}/{size}：按指定方式输出对应大小的文件
+     */
+    private static Tomcat start(Map<String, Path> files) throws LifecycleException, IOException {
+        Tomcat tomcat = new Tomcat();
+        tomcat.setPort(0);
+        tomcat.setBaseDir(Files.createTempDirectory("file-download-report").toString());
+        tomcat.getConnector();
+        Context context = tomcat.addContext("", null);
+        Tomcat.addServlet(context, "download", new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                String[] segments = request.getRequestURI().split("/");
+                FileTransfer.Strategy strategy = FileTransfer.Strategy.valueOf(segments[1]);
+                Path file = files.get(segments[2]);
+                if (file == null) {
+                    response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                    return;
+                }
+                FileSystemResource resource = new FileSystemResource(file);
+                if (strategy == FileTransfer.Strategy.SENDFILE
+                        && FileTransfer.select(resource, request, response) != FileTransfer.Strategy.SENDFILE) {
+                    response.sendError(HttpServletResponse.SC_NOT_IMPLEMENTED, "容器不支持 sendfile");
+                    return;
+                }
+                response.setContentType("application/octet-stream");
+                response.setContentLengthLong(resource.contentLength());
+                FileTransfer.transfer(strategy, resource, 0, resource.contentLength(), request, response);
+            }
+        });
+        context.addServletMappingDecoded("/*", "download");
+        tomcat.start();
+        return tomcat;
+    }
+
+    /**
+     * 写入指定大小的文件（非稀疏文件，内容为重复的数据块）
+     */
+    private static Path create(Path dir, long size) throws IOException {
+        Path file = Files.createTempFile(dir, "download-", ".bin");
+        ByteBuffer block = ByteBuffer.allocateDirect(1 << 20);
+        for (int i = 0; i < block.capacity(); i++) {
+            block.put((byte) (i * 31));
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            long written = 0;
+            while (written < size) {
+                block.clear().limit((int) Math.min(block.capacity(), size - written));
+                written += channel.write(block);
+            }
+        }
+        return file;
+    }
+
+    /**
+     * 下载并丢弃响应体，校验状态码与长度
+     */
+    private static void download(int port, String path, long expected) {
+        try (SocketChannel channel = SocketChannel.open(new InetSocketAddress("127.0.0.1", port))) {
+            channel.write(StandardCharsets.US_ASCII.encode("GET " + path + " HTTP/1.1\r\nHost: 127.0.0.1\r\n"
+                    + "Connection: close\r\n\r\n"));
+            ByteBuffer buffer = BUFFER.clear();
+            int headerEnd;
+            while ((headerEnd = headerEnd(buffer)) < 0) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("响应头不完整");
+                }
+            }
+            String head = new String(bytes(buffer, headerEnd), StandardCharsets.US_ASCII);
+            if (!head.startsWith("HTTP/1.1 200")) {
+                throw new IOException(head.lines().findFirst().orElse(head));
+            }
+            long received = buffer.position() - headerEnd;
+            while (true) {
+                buffer.clear();
+                int read = channel.read(buffer);
+                if (read < 0) {
+                    break;
+                }
+                received += read;
+            }
+            if (received != expected) {
+                throw new IOException(path + " 收到 " + received + " bytes，应为 " + expected);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int headerEnd(ByteBuffer buffer) {
+        for (int i = 3; i < buffer.position(); i++) {
+            if (buffer.get(i - 3) == '\r' && buffer.get(i - 2) == '\n' && buffer.get(i - 1) == '\r'
+                    && buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static byte[] bytes(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(0, bytes);
+        return bytes;
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return Arrays.stream(threads.getThreadAllocatedBytes(threads.getAllThreadIds()))
+                .filter(bytes -> bytes > 0)
+                .sum();
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                .sum();
+    }
+
+    private static List<String> split(String value) {
+        return Arrays.stream(value.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+}
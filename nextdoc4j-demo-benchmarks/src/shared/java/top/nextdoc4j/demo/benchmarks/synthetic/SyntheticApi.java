@@ -0,0 +1,203 @@
+package top.nextdoc4j.demo.benchmarks.synthetic;
+
+import top.nextdoc4j.demo.core.annotation.index.ApiErrorIndexProcessor;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 合成接口运行环境
+ * <p>
+ * 1. 按 {@link SyntheticApiSpec} 生成源码，并在进程内编译（执行 {@link ApiErrorIndexProcessor}，与正式构建一致）
+ * 2. 以「编译结果 + 当前 classpath」创建隔离类加载器，在其中启动完整的演示应用
+ * <p>
+ * {@code ApiErrorIndexes} 在类初始化时一次性加载索引，只有在隔离类加载器中重新加载全部类，
+ * 合成接口的 @ApiError 索引才会生效；同一进程可以先后启动不同规模而互不影响。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public class SyntheticApi implements AutoCloseable {
+
+    private final SyntheticApiSpec spec;
+
+    private final Path workDir;
+
+    private final URLClassLoader classLoader;
+
+    private final Object bridge;
+
+    private final Duration compileTime;
+
+    private final Duration startTime;
+
+    private SyntheticApi(SyntheticApiSpec spec) throws IOException {
+        this.spec = spec;
+        this.workDir = Files.createTempDirectory("nextdoc4j-synthetic-");
+        long start = System.nanoTime();
+        Path classesDir = compile(spec, workDir);
+        this.compileTime = Duration.ofNanos(System.nanoTime() - start);
+
+        List<URL> urls = new ArrayList<>();
+        urls.add(toUrl(classesDir));
+        for (String entry : classpath()) {
+            urls.add(toUrl(Path.of(entry)));
+        }
+        this.classLoader = new URLClassLoader("synthetic-api", urls.toArray(URL[]::new),
+                ClassLoader.getPlatformClassLoader());
+
+        start = System.nanoTime();
+        this.bridge = newBridge();
+        invoke("start");
+        this.startTime = Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    /**
+     * 生成、编译并启动
+     */
+    public static SyntheticApi start(SyntheticApiSpec spec) {
+        try {
+            return new SyntheticApi(spec);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public SyntheticApiSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * 生成与编译耗时
+     */
+    public Duration getCompileTime() {
+        return compileTime;
+    }
+
+    /**
+     * 应用启动耗时
+     */
+    public Duration getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * 完整构建合成分组文档，返回隔离类加载器中的 OpenAPI 实例
+     */
+    public Object build() {
+        return invoke("build");
+    }
+
+    public byte[] writeJson(Object openApi) {
+        return (byte[]) invoke("writeJson", openApi);
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<String, Integer> stats(Object openApi) {
+        return (Map<String, Integer>) invoke("stats", openApi);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            invoke("close");
+        } finally {
+            classLoader.close();
+            try (Stream<Path> paths = Files.walk(workDir)) {
+                paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    private static Path compile(SyntheticApiSpec spec, Path workDir) throws IOException {
+        Path sourceDir = workDir.resolve("src");
+        Path classesDir = Files.createDirectories(workDir.resolve("classes"));
+        List<Path> sources = SyntheticApiGenerator.write(spec, sourceDir);
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("当前运行环境不是 JDK，无法编译合成接口");
+        }
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null,
+                StandardCharsets.UTF_8)) {
+            List<String> options = List.of(
+                    "-d", classesDir.toString(),
+                    "-classpath", String.join(File.pathSeparator, classpath()),
+                    "-processor", ApiErrorIndexProcessor.class.getName(),
+                    "-parameters",
+                    "-encoding", StandardCharsets.UTF_8.name(),
+                    "-nowarn");
+            boolean success = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjectsFromPaths(sources)).call();
+            if (!success) {
+                throw new IllegalStateException("合成接口编译失败：\n" + diagnostics.getDiagnostics().stream()
+                        .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                        .limit(20)
+                        .map(Object::toString)
+                        .collect(Collectors.joining("\n")));
+            }
+        }
+        return classesDir;
+    }
+
+    private static List<String> classpath() {
+        return Stream.of(System.getProperty("java.class.path").split(File.pathSeparator))
+                .filter(entry -> !entry.isBlank())
+                .toList();
+    }
+
+    private static URL toUrl(Path path) {
+        try {
+            return path.toUri().toURL();
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private Object newBridge() {
+        try {
+            return classLoader.loadClass(SyntheticApiBridge.class.getName()).getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("创建 SyntheticApiBridge 失败", e);
+        }
+    }
+
+    private Object invoke(String name, Object... args) {
+        try {
+            Method method = args.length == 0
+                    ? bridge.getClass().getMethod(name)
+                    : bridge.getClass().getMethod(name, Object.class);
+            return method.invoke(bridge, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
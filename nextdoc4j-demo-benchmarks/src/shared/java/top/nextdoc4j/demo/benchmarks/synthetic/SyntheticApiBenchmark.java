@@ -0,0 +1,61 @@
+package top.nextdoc4j.demo.benchmarks.synthetic;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 合成接口分组文档构建
+ * <p>
+ * 在 100 / 1,000 / 10,000 个接口下测量完整构建耗时，配合 -prof gc 查看单次构建的内存分配；
+ * 冷启动耗时、常驻内存与文档体积见 {@link SyntheticApiScaleReport}。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SyntheticApiBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int operations;
+
+    @Param({"2"})
+    private int polymorphismDepth;
+
+    @Param({"0.3"})
+    private double apiErrorDensity;
+
+    private SyntheticApi api;
+
+    @Setup
+    public void setUp() {
+        api = SyntheticApi.start(SyntheticApiSpec.of(operations, polymorphismDepth, apiErrorDensity));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        api.close();
+    }
+
+    @Benchmark
+    public Object build() {
+        return api.build();
+    }
+}
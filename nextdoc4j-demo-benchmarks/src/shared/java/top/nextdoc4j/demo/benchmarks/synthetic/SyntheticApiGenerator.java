@@ -0,0 +1,196 @@
+package top.nextdoc4j.demo.benchmarks.synthetic;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 合成接口源码生成器
+ * <p>
+ * 按 {@link SyntheticApiSpec} 生成 N 个控制器 × M 个接口，结构参照演示中最复杂的日志接口：
+ * 1. 请求体 C{n}SaveReq#content 为 oneOf 多态，按 polymorphismDepth 逐层嵌套（同 OperateLogSaveReq）
+ * 2. 响应体 C{n}AnalysisResp#topOperator 为 anyOf，并带数组字段（同 OperateLogAnalysisResp）
+ * 3. 按 apiErrorDensity 随机为接口声明 1 ~ 4 个 @ApiError（含 bareContent 与 refExample）
+ * <p>
+ * 生成的类位于 {@value #PACKAGE}，路径前缀为 {@value #PATH_PREFIX}。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public final class SyntheticApiGenerator {
+
+    public static final String PACKAGE = "top.nextdoc4j.demo.synthetic";
+
+    public static final String PATH_PREFIX = "/synthetic";
+
+    private static final String[][] ERRORS = {
+            {"param.invalid", "400", "请求参数不合法", "false", "false"},
+            {"%s.not.found", "404", "资源不存在", "false", "false"},
+            {"forbidden", "403", "无权限", "true", "false"},
+            {"%s.conflict", "409", "资源冲突", "false", "false"},
+            {"server.error", "500", "服务器内部错误", "false", "true"}
+    };
+
+    private SyntheticApiGenerator() {
+    }
+
+    /**
+     * 生成源码
+     *
+     * @return 类全限定名 -> 源码
+     */
+    public static Map<String, String> generate(SyntheticApiSpec spec) {
+        Map<String, String> sources = new LinkedHashMap<>();
+        Random random = new Random(spec.seed());
+        for (int c = 0; c < spec.controllers(); c++) {
+            String prefix = "C" + c;
+            for (int level = 1; level <= spec.polymorphismDepth(); level++) {
+                boolean nested = level < spec.polymorphismDepth();
+                sources.put(prefix + "ContentL" + level + "A", content(prefix, level, "A", nested));
+                sources.put(prefix + "ContentL" + level + "B", content(prefix, level, "B", false));
+            }
+            sources.put(prefix + "SaveReq", saveReq(prefix, spec.polymorphismDepth()));
+            sources.put(prefix + "RankResp", rankResp(prefix + "RankResp", "操作人榜单项"));
+            sources.put(prefix + "MaskedRankResp", rankResp(prefix + "MaskedRankResp", "脱敏操作人榜单项"));
+            sources.put(prefix + "AnalysisResp", analysisResp(prefix));
+            sources.put("SyntheticController" + c, controller(c, spec, random));
+        }
+        Map<String, String> qualified = new LinkedHashMap<>();
+        sources.forEach((name, source) -> qualified.put(PACKAGE + "." + name, source));
+        return qualified;
+    }
+
+    /**
+     * 生成源码并写入目录
+     *
+     * @return 生成的源文件
+     */
+    public static List<Path> write(SyntheticApiSpec spec, Path sourceDir) throws IOException {
+        Path packageDir = sourceDir.resolve(PACKAGE.replace('.', '/'));
+        Files.createDirectories(packageDir);
+        List<Path> files = new ArrayList<>();
+        for (Map.Entry<String, String> entry : generate(spec).entrySet()) {
+            String simpleName = entry.getKey().substring(PACKAGE.length() + 1);
+            Path file = packageDir.resolve(simpleName + ".java");
+            Files.writeString(file, entry.getValue(), StandardCharsets.UTF_8);
+            files.add(file);
+        }
+        return files;
+    }
+
+    private static String content(String prefix, int level, String variant, boolean nested) {
+        String name = prefix + "ContentL" + level + variant;
+        StringBuilder source = header()
+                .append("@Schema(description = \"第 ").append(level).append(" 层内容 ").append(variant).append("\")\n")
+                .append("public class ").append(name).append(" {\n\n")
+                .append(field(new StringBuilder("@Schema(description = \"内容类型\", example = \"").append(variant)
+                        .append("\", requiredMode = Schema.RequiredMode.REQUIRED)"), "String", "type"))
+                .append(field(new StringBuilder("@Schema(description = \"标题\", example = \"synthetic\")"), "String", "title"))
+                .append(field(new StringBuilder("@Schema(description = \"数值\", example = \"1\")"), "Long", "amount"))
+                .append(field(new StringBuilder("@Schema(description = \"状态\", allowableValues = {\"ON\", \"OFF\"})"), "String", "status"));
+        if (nested) {
+            source.append(field(new StringBuilder("@Schema(description = \"下一层内容\", discriminatorProperty = \"type\", oneOf = {")
+                    .append(prefix).append("ContentL").append(level + 1).append("A.class, ")
+                    .append(prefix).append("ContentL").append(level + 1).append("B.class})"), "Object", "detail"));
+        }
+        return source.append("}\n").toString();
+    }
+
+    private static String saveReq(String prefix, int depth) {
+        StringBuilder content = depth > 0
+                ? new StringBuilder("@Schema(description = \"内容，多态结构，按 type 区分\", requiredMode = Schema.RequiredMode.REQUIRED, discriminatorProperty = \"type\", oneOf = {")
+                .append(prefix).append("ContentL1A.class, ").append(prefix).append("ContentL1B.class})")
+                : new StringBuilder("@Schema(description = \"内容\")");
+        return header()
+                .append("@Schema(description = \"").append(prefix).append(" 保存请求\")\n")
+                .append("public class ").append(prefix).append("SaveReq {\n\n")
+                .append(field(new StringBuilder("@Schema(description = \"名称\", example = \"synthetic\", requiredMode = Schema.RequiredMode.REQUIRED)"), "String", "name"))
+                .append(field(new StringBuilder("@Schema(description = \"备注\")"), "String", "remark"))
+                .append(field(content, depth > 0 ? "Object" : "String", "content"))
+                .append("}\n")
+                .toString();
+    }
+
+    private static String rankResp(String name, String description) {
+        return header()
+                .append("@Schema(description = \"").append(description).append("\")\n")
+                .append("public class ").append(name).append(" {\n\n")
+                .append(field(new StringBuilder("@Schema(description = \"操作人\", example = \"zhangsan\")"), "String", "operator"))
+                .append(field(new StringBuilder("@Schema(description = \"次数\", example = \"12\")"), "Long", "count"))
+                .append("}\n")
+                .toString();
+    }
+
+    private static String analysisResp(String prefix) {
+        return header()
+                .append("@Schema(description = \"").append(prefix).append(" 统计分析响应\")\n")
+                .append("public class ").append(prefix).append("AnalysisResp {\n\n")
+                .append(field(new StringBuilder("@Schema(description = \"总数\", example = \"12000\")"), "Long", "totalCount"))
+                .append(field(new StringBuilder("@Schema(description = \"平均耗时(ms)\", example = \"89.5\")"), "Double", "avgDurationMs"))
+                .append(field(new StringBuilder("@ArraySchema(schema = @Schema(implementation = ").append(prefix)
+                        .append("RankResp.class), arraySchema = @Schema(description = \"榜单\"))"), "java.util.List<" + prefix + "RankResp>", "ranks"))
+                .append(field(new StringBuilder("@Schema(description = \"操作人榜首，完整或脱敏\", anyOf = {").append(prefix)
+                        .append("RankResp.class, ").append(prefix).append("MaskedRankResp.class})"), "Object", "topOperator"))
+                .append("}\n")
+                .toString();
+    }
+
+    private static String controller(int c, SyntheticApiSpec spec, Random random) {
+        String prefix = "C" + c;
+        StringBuilder source = new StringBuilder("package ").append(PACKAGE).append(";\n\n")
+                .append("import io.swagger.v3.oas.annotations.Operation;\n")
+                .append("import io.swagger.v3.oas.annotations.tags.Tag;\n")
+                .append("import org.springframework.web.bind.annotation.*;\n")
+                .append("import top.nextdoc4j.demo.core.annotation.ApiError;\n")
+                .append("import top.nextdoc4j.demo.core.model.base.R;\n\n")
+                .append("@Tag(name = \"合成接口 ").append(c).append("\")\n")
+                .append("@RestController\n")
+                .append("@RequestMapping(\"").append(PATH_PREFIX).append("/c").append(c).append("\")\n")
+                .append("public class SyntheticController").append(c).append(" {\n");
+        for (int m = 0; m < spec.operationsPerController(); m++) {
+            source.append('\n');
+            if (random.nextDouble() < spec.apiErrorDensity()) {
+                List<String[]> errors = new ArrayList<>(List.of(ERRORS));
+                Collections.shuffle(errors, random);
+                errors.subList(0, 1 + random.nextInt(errors.size() - 1)).forEach(error -> source
+                        .append("    @ApiError(code = \"").append(error[0].formatted(prefix.toLowerCase()))
+                        .append("\", status = ").append(error[1])
+                        .append(", reason = \"").append(error[2]).append('"')
+                        .append(Boolean.parseBoolean(error[3]) ? ", bareContent = true" : "")
+                        .append(Boolean.parseBoolean(error[4]) ? ", refExample = true" : "")
+                        .append(")\n"));
+            }
+            source.append("    @Operation(summary = \"合成接口 ").append(c).append('-').append(m).append("\")\n");
+            if (m % 2 == 0) {
+                source.append("    @PostMapping(\"/op").append(m).append("\")\n")
+                        .append("    public R<").append(prefix).append("AnalysisResp> op").append(m)
+                        .append("(@RequestBody ").append(prefix).append("SaveReq req) {\n");
+            } else {
+                source.append("    @GetMapping(\"/op").append(m).append("/{id}\")\n")
+                        .append("    public R<").append(prefix).append("AnalysisResp> op").append(m)
+                        .append("(@PathVariable(\"id\") Long id, @RequestParam(value = \"keyword\", required = false) String keyword) {\n");
+            }
+            source.append("        return R.ok(null);\n")
+                    .append("    }\n");
+        }
+        return source.append("}\n").toString();
+    }
+
+    private static StringBuilder header() {
+        return new StringBuilder("package ").append(PACKAGE).append(";\n\n")
+                .append("import io.swagger.v3.oas.annotations.media.ArraySchema;\n")
+                .append("import io.swagger.v3.oas.annotations.media.Schema;\n\n");
+    }
+
+    private static StringBuilder field(StringBuilder annotation, String type, String name) {
+        return new StringBuilder("    ").append(annotation).append('\n')
+                .append("    public ").append(type).append(' ').append(name).append(";\n\n");
+    }
+}
@@ -0,0 +1,122 @@
+package top.nextdoc4j.demo.benchmarks.synthetic;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 合成接口规模报告
+ * <p>
+ * 依次在不同接口数量下启动合成应用，输出每个规模的：
+ * 1. 编译、启动耗时，首次构建（冷）与多次构建平均（热）耗时
+ * 2. 单次构建的线程内存分配，以及构建结果常驻堆内存（持有与释放构建结果后分别 GC 的堆占用差，近似值）
+ * 3. 文档体积（JSON 与 gzip）及路径、接口、模型、示例数量
+ * <p>
+ * 参数（均可省略）：--sizes=100,1000,10000 --depth=2 --density=0.3 --iterations=5
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public final class SyntheticApiScaleReport {
+
+    private SyntheticApiScaleReport() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parse(args);
+        List<Integer> sizes = Arrays.stream(options.getOrDefault("sizes", "100,1000,10000").split(","))
+                .map(String::trim)
+                .map(Integer::parseInt)
+                .toList();
+        int depth = Integer.parseInt(options.getOrDefault("depth", "2"));
+        double density = Double.parseDouble(options.getOrDefault("density", "0.3"));
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "5"));
+
+        System.out.printf("%-40s | %8s | %8s | %9s | %9s | %11s | %11s | %11s | %10s | %s%n",
+                "spec", "compile", "start", "cold(ms)", "warm(ms)", "alloc(MB)", "retained(MB)",
+                "json(KB)", "gzip(KB)", "counts");
+        for (int size : sizes) {
+            SyntheticApiSpec spec = SyntheticApiSpec.of(size, depth, density);
+            try (SyntheticApi api = SyntheticApi.start(spec)) {
+                report(api, iterations);
+            }
+        }
+    }
+
+    private static void report(SyntheticApi api, int iterations) {
+        long start = System.nanoTime();
+        Object openApi = api.build();
+        long cold = System.nanoTime() - start;
+
+        long warm = 0;
+        long allocated = 0;
+        for (int i = 0; i < iterations; i++) {
+            long allocatedStart = allocatedBytes();
+            start = System.nanoTime();
+            api.build();
+            warm += System.nanoTime() - start;
+            allocated += allocatedBytes() - allocatedStart;
+        }
+
+        byte[] json = api.writeJson(openApi);
+        Map<String, Integer> stats = api.stats(openApi);
+
+        long held = usedHeap();
+        Reference.reachabilityFence(openApi);
+        openApi = null;
+        long retained = held - usedHeap();
+
+        System.out.printf("%-40s | %6dms | %6dms | %9.1f | %9.1f | %11.1f | %11.1f | %11.1f | %10.1f | %s%n",
+                api.getSpec(),
+                api.getCompileTime().toMillis(),
+                api.getStartTime().toMillis(),
+                cold / 1e6,
+                warm / 1e6 / iterations,
+                allocated / 1048576.0 / iterations,
+                retained / 1048576.0,
+                json.length / 1024.0,
+                gzip(json).length / 1024.0,
+                stats);
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean
+                && threadMXBean.isThreadAllocatedMemorySupported()) {
+            return threadMXBean.getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,57 @@
+package top.nextdoc4j.demo.benchmarks.synthetic;
+
+/**
+ * 合成接口规模
+ *
+ * @param controllers             控制器数量
+ * @param operationsPerController 每个控制器的接口数量
+ * @param polymorphismDepth       请求体 oneOf 嵌套层数（参照 OperateLogSaveReq#content），0 表示不使用多态
+ * @param apiErrorDensity         声明 @ApiError 的接口比例（0 ~ 1）
+ * @param seed                    随机种子，相同参数生成的代码完全一致
+ * @author echo
+ * @since 2026/10/18
+ */
+public record SyntheticApiSpec(int controllers,
+                               int operationsPerController,
+                               int polymorphismDepth,
+                               double apiErrorDensity,
+                               long seed) {
+
+    /**
+     * 每个控制器的默认接口数量
+     */
+    public static final int DEFAULT_OPERATIONS_PER_CONTROLLER = 20;
+
+    public static final long DEFAULT_SEED = 20261018L;
+
+    public SyntheticApiSpec {
+        if (controllers < 1 || operationsPerController < 1) {
+            throw new IllegalArgumentException("控制器与接口数量必须大于 0");
+        }
+        if (polymorphismDepth < 0) {
+            throw new IllegalArgumentException("多态层数不能小于 0");
+        }
+        if (apiErrorDensity < 0 || apiErrorDensity > 1) {
+            throw new IllegalArgumentException("@ApiError 比例必须在 0 ~ 1 之间");
+        }
+    }
+
+    /**
+     * 按接口总数生成规模，每个控制器 {@value #DEFAULT_OPERATIONS_PER_CONTROLLER} 个接口（不足时向上取整）
+     */
+    public static SyntheticApiSpec of(int operations, int polymorphismDepth, double apiErrorDensity) {
+        int perController = Math.min(operations, DEFAULT_OPERATIONS_PER_CONTROLLER);
+        int controllers = (operations + perController - 1) / perController;
+        return new SyntheticApiSpec(controllers, perController, polymorphismDepth, apiErrorDensity, DEFAULT_SEED);
+    }
+
+    public int operations() {
+        return controllers * operationsPerController;
+    }
+
+    @Override
+    public String toString() {
+        return controllers + "x" + operationsPerController + " (depth=" + polymorphismDepth
+                + ", apiErrorDensity=" + apiErrorDensity + ")";
+    }
+}
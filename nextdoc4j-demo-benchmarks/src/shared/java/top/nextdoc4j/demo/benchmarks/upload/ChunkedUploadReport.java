@@ -0,0 +1,244 @@
+package top.nextdoc4j.demo.benchmarks.upload;
+
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+import top.nextdoc4j.demo.controller.file.storage.ContentAddressedFileStorage;
+import top.nextdoc4j.demo.controller.file.upload.ChunkedUploadException;
+import top.nextdoc4j.demo.controller.file.upload.ChunkedUploadService;
+import top.nextdoc4j.demo.controller.file.upload.UploadedFile;
+import top.nextdoc4j.demo.core.model.req.ChunkedUploadInitReq;
+import top.nextdoc4j.demo.core.model.resp.ChunkedUploadResp;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 分片上传一致性报告
+ * <p>
+ * 每轮生成一个随机文件，以多个线程并发调用 {@link ChunkedUploadService}：
+ * 1. 分片乱序到达，同一分片重复上传 1～3 次
+ * 2. 夹杂中途断开的分片（读到一半抛出 IOException）与不完整的分片（提前结束）
+ * 3. 另一个线程从一开始就反复合并，与分片写入竞争，直到合并成功
+ * <p>
+ * 校验合并得到的 SHA-256、存储中对象文件的 SHA-256 与一次读完整个文件的结果一致，任一轮不一致时以异常结束。
+ * 参数（均可省略）：--rounds=100 --threads=8 --chunks=16 --chunk-size=256KB --dir=/tmp --seed=1
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public final class ChunkedUploadReport {
+
+    private ChunkedUploadReport() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int rounds = Integer.parseInt(options.getOrDefault("rounds", "100"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", "8"));
+        int chunks = Integer.parseInt(options.getOrDefault("chunks", "16"));
+        long chunkSize = DataSize.parse(options.getOrDefault("chunk-size", "256KB")).toBytes();
+        Path dir = Files.createTempDirectory(Path.of(options.getOrDefault("dir",
+                System.getProperty("java.io.tmpdir"))), "chunked-upload-report");
+        Random random = new Random(Long.parseLong(options.getOrDefault("seed", "1")));
+
+        ContentAddressedFileStorage storage = new ContentAddressedFileStorage(dir, "/");
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        Stats stats = new Stats();
+        long start = System.nanoTime();
+        try (ChunkedUploadService service = new ChunkedUploadService(storage, dir.resolve(".chunked"),
+                chunks * chunkSize, chunkSize, Duration.ofHours(1), threads)) {
+            for (int round = 0; round < rounds; round++) {
+                byte[] content = new byte[(int) ((chunks - 1) * chunkSize + 1
+                        + random.nextInt((int) chunkSize))];
+                random.nextBytes(content);
+                String expected = sha256(content);
+                UploadedFile file = upload(service, executor, content, chunkSize, random, stats);
+                String actual = file.stored().sha256();
+                String stored = sha256(Files.readAllBytes(dir.resolve("objects").resolve(actual.substring(0, 2))
+                        .resolve(actual.substring(2, 4)).resolve(actual)));
+                if (!expected.equals(actual) || !expected.equals(stored)) {
+                    stats.mismatches.incrementAndGet();
+                    System.out.printf("round %d: expected=%s merged=%s stored=%s%n", round, expected, actual,
+                            stored);
+                }
+                storage.delete(file.stored().key());
+            }
+        } finally {
+            executor.shutdownNow();
+            FileSystemUtils.deleteRecursively(dir);
+        }
+        System.out.printf("rounds=%d threads=%d chunks=%d chunk-size=%d elapsed=%dms%n", rounds, threads, chunks,
+                chunkSize, (System.nanoTime() - start) / 1_000_000);
+        System.out.printf("writes=%d duplicates=%d aborted=%d rejected=%d complete-attempts=%d mismatches=%d%n",
+                stats.writes.get(), stats.duplicates.get(), stats.aborted.get(), stats.rejected.get(),
+                stats.completeAttempts.get(), stats.mismatches.get());
+        if (stats.mismatches.get() > 0) {
+            throw new IllegalStateException(stats.mismatches.get() + " 轮合并结果与文件的 SHA-256 不一致");
+        }
+    }
+
+    /**
+     * 并发上传一个文件，返回合并得到的文件
+     */
+    private static UploadedFile upload(ChunkedUploadService service, ExecutorService executor, byte[] content,
+                                 long chunkSize, Random random, Stats stats) throws Exception {
+        ChunkedUploadInitReq req = new ChunkedUploadInitReq();
+        req.setFileName("report.bin");
+        req.setFileSize((long) content.length);
+        req.setChunkSize(chunkSize);
+        ChunkedUploadResp init = service.init(req);
+        String uploadId = init.getUploadId();
+
+        // 每个分片至少一次完整上传，另有重复、中途断开与不完整的上传，整体乱序
+        List<Runnable> writes = new ArrayList<>();
+        for (int index = 0; index < init.getChunkCount(); index++) {
+            int offset = (int) (index * chunkSize);
+            int length = (int) Math.min(chunkSize, content.length - offset);
+            int copies = 1 + random.nextInt(3);
+            for (int i = 0; i < copies; i++) {
+                writes.add(write(service, uploadId, index, content, offset, length, -1, stats,
+                        i > 0 ? stats.duplicates : stats.writes));
+            }
+            if (random.nextInt(3) == 0) {
+                writes.add(write(service, uploadId, index, content, offset, length, random.nextInt(length),
+                        stats, stats.aborted));
+            }
+        }
+        Collections.shuffle(writes, random);
+
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Runnable write : writes) {
+            futures.add(executor.submit(() -> {
+                ready.await();
+                write.run();
+                return null;
+            }));
+        }
+        Future<UploadedFile> completed = executor.submit(() -> {
+            ready.await();
+            while (true) {
+                stats.completeAttempts.incrementAndGet();
+                try {
+                    return service.complete(uploadId);
+                } catch (ChunkedUploadException e) {
+                    // 分片未传完（409），稍后重试
+                    Thread.onSpinWait();
+                }
+            }
+        });
+        ready.countDown();
+        UploadedFile file = completed.get();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return file;
+    }
+
+    /**
+     * 上传一个分片
+     *
+     * @param abortAt 大于等于 0 时，读到该位置抛出 IOException（模拟连接中断）
+     * @param counter 计入的统计项
+     */
+    private static Runnable write(ChunkedUploadService service, String uploadId, int index, byte[] content,
+                                  int offset, int length, int abortAt, Stats stats, AtomicInteger counter) {
+        return () -> {
+            counter.incrementAndGet();
+            InputStream body = new ByteArrayInputStream(content, offset, length);
+            if (abortAt >= 0) {
+                body = new AbortingInputStream(body, abortAt);
+            }
+            try {
+                service.writeChunk(uploadId, index, abortAt >= 0 ? -1 : length, body);
+            } catch (ChunkedUploadException | IOException e) {
+                // 合并后到达的重复分片（409 / 404）、中途断开的分片
+                stats.rejected.incrementAndGet();
+            }
+        };
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+
+    private static final class Stats {
+
+        private final AtomicInteger writes = new AtomicInteger();
+
+        private final AtomicInteger duplicates = new AtomicInteger();
+
+        private final AtomicInteger aborted = new AtomicInteger();
+
+        private final AtomicInteger rejected = new AtomicInteger();
+
+        private final AtomicInteger completeAttempts = new AtomicInteger();
+
+        private final AtomicInteger mismatches = new AtomicInteger();
+    }
+
+    /**
+     * 读到指定位置时抛出 IOException
+     */
+    private static final class AbortingInputStream extends InputStream {
+
+        private final InputStream in;
+
+        private int remaining;
+
+        AbortingInputStream(InputStream in, int abortAt) {
+            this.in = in;
+            this.remaining = abortAt;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining-- <= 0) {
+                throw new IOException("连接中断");
+            }
+            return in.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                throw new IOException("连接中断");
+            }
+            int read = in.read(b, off, Math.min(len, remaining));
+            remaining -= Math.max(read, 0);
+            return read;
+        }
+    }
+}
@@ -1,31 +1,45 @@
 package top.nextdoc4j.demo.controller.file;
 
-import cn.hutool.core.util.IdUtil;
+import cn.hutool.core.util.StrUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.Parameters;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import top.nextdoc4j.demo.controller.file.storage.FileStorage;
+import top.nextdoc4j.demo.controller.file.storage.StoredFile;
+import top.nextdoc4j.demo.controller.file.upload.ChunkedUploadService;
+import top.nextdoc4j.demo.controller.file.upload.StreamingUploader;
+import top.nextdoc4j.demo.controller.file.upload.UploadedFile;
+import top.nextdoc4j.demo.core.enums.ResultCode;
 import top.nextdoc4j.demo.core.model.base.R;
+import top.nextdoc4j.demo.core.model.req.ChunkedUploadInitReq;
 import top.nextdoc4j.demo.core.model.req.Robot;
+import top.nextdoc4j.demo.core.model.resp.ChunkedUploadResp;
 import top.nextdoc4j.demo.core.model.resp.FileUploadResp;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -42,6 +56,10 @@ import java.util.List;
  * 7. 文件下载（附件模式）
  * 8. 文件下载（预览模式）
  * 9. 文件流下载（大文件分片）
+ * 10. 流式上传（大文件，不经 MultipartResolver）
+ * 11. 分片上传（并行、断点续传）
+ * 12. 下载已上传的文件（按内容寻址，相同内容只保存一份）
+ * 13. 删除已上传的文件
  *
  * @author Your Name
  */
@@ -52,6 +70,12 @@ import java.util.List;
 @RequestMapping("/api/file")
 public class FileController {
 
+    private final FileStorage fileStorage;
+
+    private final StreamingUploader streamingUploader;
+
+    private final ChunkedUploadService chunkedUploadService;
+
 
     // ==================== 单文件上传 ====================
 
@@ -128,9 +152,7 @@ public class FileController {
         validateFiles(files);
         log.info("批量上传文件数量：{}", files.size());
 
-        List<FileUploadResp> responses = files.stream()
-                .map(this::buildFileUploadResp)
-                .toList();
+        List<FileUploadResp> responses = buildFileUploadResps(files);
 
         return R.ok(responses);
     }
@@ -154,9 +176,7 @@ public class FileController {
 
         validateFiles(files);
 
-        List<FileUploadResp> responses = files.stream()
-                .map(this::buildFileUploadResp)
-                .toList();
+        List<FileUploadResp> responses = buildFileUploadResps(files);
 
         return R.ok(responses);
     }
@@ -179,9 +199,7 @@ public class FileController {
             return R.fail("文件列表不能为空");
         }
 
-        List<FileUploadResp> responses = Arrays.stream(files)
-                .map(this::buildFileUploadResp)
-                .toList();
+        List<FileUploadResp> responses = buildFileUploadResps(Arrays.asList(files));
 
         return R.ok(responses);
     }
@@ -261,6 +279,137 @@ public class FileController {
         return R.ok(buildFileUploadResp(file));
     }
 
+    // ==================== 流式上传 ====================
+
+    /**
+     * 流式上传（大文件）
+     * <p>
+     * 请求体不经 MultipartResolver 解析，边读边写入存储并计算大小与 SHA-256，内存占用与文件大小无关，
+     * 单个文件最大 project.file.upload.stream.max-file-size（默认 10GB），见 {@link StreamingUploader}
+     * 前端示例与多文件上传相同：
+     * const formData = new FormData();
+     * files.forEach(file => formData.append('files', file));
+     */
+    @Operation(
+            summary = "流式上传（大文件）",
+            description = "边读请求体边写入存储，不受 spring.servlet.multipart 大小限制（单文件默认最大 10GB），返回 SHA-256",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    content = @Content(
+                            mediaType = MediaType.MULTIPART_FORM_DATA_VALUE,
+                            schema = @Schema(implementation = MultiFileRequest.class)
+                    )
+            )
+    )
+    @ApiResponse(responseCode = "200", description = "上传成功")
+    @PostMapping(value = "/upload/stream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public R<List<FileUploadResp>> uploadStream(HttpServletRequest request) throws IOException {
+        StreamingUploader.Result result = streamingUploader.upload(request);
+        if (result.files().isEmpty()) {
+            return R.fail("文件列表不能为空");
+        }
+        log.info("流式上传文件数量：{}，字段：{}", result.files().size(), result.fields());
+
+        List<FileUploadResp> responses = result.files().stream()
+                .map(this::buildFileUploadResp)
+                .toList();
+
+        return R.ok(responses);
+    }
+
+    // ==================== 分片上传 ====================
+
+    /**
+     * 分片上传 - 初始化
+     * <p>
+     * 预分配文件，返回上传 ID 与分片大小；客户端按分片大小切分文件（最后一个分片可以更小），
+     * 以 4～8 个并发请求上传分片，全部完成后调用合并接口，见 {@link ChunkedUploadService}
+     * 前端示例：
+     * const {data} = await post('/api/file/upload/chunked', {fileName: file.name, fileSize: file.size});
+     * const chunk = file.slice(i * data.chunkSize, (i + 1) * data.chunkSize);
+     * await put(`/api/file/upload/chunked/${data.uploadId}/chunks/${i}`, chunk);
+     */
+    @Operation(
+            summary = "分片上传 - 初始化",
+            description = "预分配文件并返回上传 ID、分片大小与分片数量（单文件默认最大 10GB）"
+    )
+    @PostMapping("/upload/chunked")
+    public R<ChunkedUploadResp> initChunkedUpload(@Valid @RequestBody ChunkedUploadInitReq req) throws IOException {
+        return R.ok(chunkedUploadService.init(req));
+    }
+
+    /**
+     * 分片上传 - 上传分片
+     * <p>
+     * 请求体为分片的原始内容，写入文件中对应的位置；可乱序、并行，重复上传同一分片结果相同
+     * Content-Type 为 application/octet-stream 或不指定（fetch 上传 Blob.slice() 时不带 Content-Type）
+     */
+    @Operation(
+            summary = "分片上传 - 上传分片",
+            description = "请求体为分片 N（从 0 开始）的原始内容，可乱序、并行上传，重复上传同一分片结果相同",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_OCTET_STREAM_VALUE,
+                            schema = @Schema(type = "string", format = "binary")
+                    )
+            )
+    )
+    @ApiResponse(responseCode = "200", description = "分片已写入，返回上传状态")
+    @ApiResponse(responseCode = "404", description = "上传不存在或已过期")
+    @PutMapping(value = "/upload/chunked/{uploadId}/chunks/{index}",
+            consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public R<ChunkedUploadResp> uploadChunk(
+            @PathVariable("uploadId")
+            @Parameter(description = "上传 ID")
+            String uploadId,
+
+            @PathVariable("index")
+            @Parameter(description = "分片序号（从 0 开始）")
+            int index,
+
+            HttpServletRequest request) throws IOException {
+
+        return R.ok(chunkedUploadService.writeChunk(uploadId, index, request.getContentLengthLong(),
+                request.getInputStream()));
+    }
+
+    /**
+     * 分片上传 - 查询状态
+     * <p>
+     * 断线后据此续传：只需重新上传 missingChunks 中的分片
+     */
+    @Operation(
+            summary = "分片上传 - 查询状态",
+            description = "返回已上传的分片数量与未上传的分片序号，用于断点续传"
+    )
+    @GetMapping("/upload/chunked/{uploadId}")
+    public R<ChunkedUploadResp> getChunkedUpload(
+            @PathVariable("uploadId")
+            @Parameter(description = "上传 ID")
+            String uploadId) {
+
+        return R.ok(chunkedUploadService.status(uploadId));
+    }
+
+    /**
+     * 分片上传 - 合并
+     * <p>
+     * 所有分片已上传时把文件移入存储（重命名，不复制内容），返回文件信息与 SHA-256
+     */
+    @Operation(
+            summary = "分片上传 - 合并",
+            description = "所有分片已上传时完成上传，返回文件信息与 SHA-256；仍有分片未上传时返回 409"
+    )
+    @ApiResponse(responseCode = "200", description = "上传完成")
+    @ApiResponse(responseCode = "409", description = "仍有分片未上传")
+    @PostMapping("/upload/chunked/{uploadId}/complete")
+    public R<FileUploadResp> completeChunkedUpload(
+            @PathVariable("uploadId")
+            @Parameter(description = "上传 ID")
+            String uploadId) throws IOException {
+
+        return R.ok(buildFileUploadResp(chunkedUploadService.complete(uploadId)));
+    }
+
     // ==================== 文件下载 ====================
 
     /**
@@ -268,36 +417,123 @@ public class FileController {
      * <p>
      * 固定文件：markdown/CHANGELOG.md
      * Content-Disposition: attachment（强制下载）
+     * 支持 Range / If-Range：断点续传时携带 Range 与上次的 ETag
      */
     @Operation(
             summary = "下载更新日志",
-            description = "下载 CHANGELOG.md 文件（附件模式）"
+            description = "下载 CHANGELOG.md 文件（附件模式），支持 Range 断点续传（单区间或多区间 multipart/byteranges）"
     )
+    @Parameters({
+            @Parameter(in = ParameterIn.HEADER, name = HttpHeaders.RANGE,
+                    description = "下载的字节区间，如 bytes=0-1023、bytes=-500、bytes=0-99,200-299",
+                    schema = @Schema(type = "string")),
+            @Parameter(in = ParameterIn.HEADER, name = HttpHeaders.IF_RANGE,
+                    description = "上次响应的 ETag 或 Last-Modified，文件已变化时忽略 Range 返回完整内容",
+                    schema = @Schema(type = "string"))
+    })
+    @ApiResponse(responseCode = "200", description = "完整内容")
+    @ApiResponse(responseCode = "206", description = "部分内容（Content-Range）")
+    @ApiResponse(responseCode = "416", description = "请求范围无效")
     @GetMapping("/download/changelog")
-    public void downloadChangelog(HttpServletResponse response) throws IOException {
+    public void downloadChangelog(HttpServletRequest request, HttpServletResponse response) throws IOException {
         String filepath = "markdown/changelog/CHANGELOG.md";
         String filename = "CHANGELOG.md";
-        downloadFile(filepath, filename, true, response);
+        downloadFile(filepath, filename, true, request, response);
+    }
+
+    /**
+     * 下载已上传的文件
+     * <p>
+     * 上传接口返回的 url：按上传时生成的文件句柄下载，只知道内容的 SHA-256 无法下载；
+     * 同一句柄的内容不会变化，响应可在客户端长期缓存
+     */
+    @Operation(
+            summary = "下载已上传的文件",
+            description = "按上传接口返回的 fileName（文件句柄）下载，支持 Range 断点续传"
+    )
+    @ApiResponse(responseCode = "200", description = "完整内容")
+    @ApiResponse(responseCode = "206", description = "部分内容（Content-Range）")
+    @ApiResponse(responseCode = "404", description = "文件不存在")
+    @GetMapping("/objects/{key}")
+    public void downloadObject(
+            @PathVariable("key")
+            @Parameter(description = "文件句柄（上传接口返回的 fileName）")
+            String key,
+
+            @RequestParam(value = "name", required = false)
+            @Parameter(description = "下载时的文件名，不指定时为文件句柄", example = "report.pdf")
+            String name,
+
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        Resource resource = fileStorage.load(key);
+        if (resource != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable");
+        }
+        writeFile(resource, key, StrUtil.blankToDefault(name, key), true, request, response);
+    }
+
+    /**
+     * 删除已上传的文件
+     * <p>
+     * 按句柄删除，撤销该次上传；相同内容的其他上传不受影响，最后一个句柄删除后才删除内容
+     */
+    @Operation(
+            summary = "删除已上传的文件",
+            description = "按上传接口返回的 fileName（文件句柄）删除，删除后该句柄无法再下载"
+    )
+    @ApiResponse(responseCode = "200", description = "删除成功")
+    @ApiResponse(responseCode = "404", description = "文件不存在")
+    @DeleteMapping("/objects/{key}")
+    public R<Void> deleteObject(
+            @PathVariable("key")
+            @Parameter(description = "文件句柄（上传接口返回的 fileName）")
+            String key,
+
+            HttpServletResponse response) throws IOException {
+
+        if (fileStorage.load(key) == null) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return R.fail(ResultCode.NOT_FOUND);
+        }
+        fileStorage.delete(key);
+        log.info("删除文件：{}", key);
+        return R.ok(null);
     }
 
     /**
      * 通用文件下载方法
+     * <p>
+     * 文件在文件系统上时由容器 sendfile 直接写入 socket，jar 内的文件经缓冲区复制，见 {@link FileTransfer}；
+     * Range / If-Range 的处理见 {@link RangeTransfer}
      *
      * @param filepath     文件在 classpath 中的路径
      * @param filename     下载时的文件名
      * @param asAttachment 是否作为附件下载（true: 强制下载, false: 浏览器预览）
+     * @param request      HTTP 请求对象
      * @param response     HTTP 响应对象
      */
     private void downloadFile(String filepath, String filename, boolean asAttachment,
-                              HttpServletResponse response) throws IOException {
+                              HttpServletRequest request, HttpServletResponse response) throws IOException {
 
         ClassPathResource resource = new ClassPathResource(filepath);
+        writeFile(resource.exists() ? resource : null, filepath, filename, asAttachment, request, response);
+    }
 
-        if (!resource.exists()) {
+    /**
+     * 写入文件内容，文件不存在（resource 为 null）时返回 404
+     *
+     * @param source 文件的来源，用于日志
+     */
+    private void writeFile(Resource resource, String source, String filename, boolean asAttachment,
+                           HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        if (resource == null) {
             response.setStatus(HttpServletResponse.SC_NOT_FOUND);
             response.setContentType(MediaType.APPLICATION_JSON_VALUE);
             response.getWriter().write("{\"code\":404,\"message\":\"文件未找到: " + filename + "\"}");
-            log.warn("文件不存在：{}", filepath);
+            log.warn("文件不存在：{}", source);
             return;
         }
 
@@ -312,17 +548,10 @@ public class FileController {
         response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
                 disposition + "; filename=\"" + encodedFilename + "\"; filename*=UTF-8''" + encodedFilename);
 
-        // 设置文件大小
-        response.setContentLengthLong(resource.contentLength());
-
-        // 写入响应流
-        try (InputStream in = resource.getInputStream();
-             OutputStream out = response.getOutputStream()) {
-            in.transferTo(out);
-            out.flush();
-        }
+        // 按 Range 写入完整或部分内容
+        RangeTransfer.Outcome outcome = RangeTransfer.write(resource, contentType, request, response);
 
-        log.info("文件{}成功：{} ({})", asAttachment ? "下载" : "预览", filename, filepath);
+        log.info("文件{}：{} ({}，{})", asAttachment ? "下载" : "预览", filename, source, outcome);
     }
 
     // ==================== 辅助方法 ====================
@@ -360,15 +589,56 @@ public class FileController {
     }
 
     /**
-     * 构建文件上传响应
+     * 保存文件并构建上传响应：写入存储的同时计算 SHA-256，相同内容只保存一份
      */
     private FileUploadResp buildFileUploadResp(MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            StoredFile stored = fileStorage.store(file.getOriginalFilename(), in);
+            return buildFileUploadResp(new UploadedFile(file.getName(), file.getOriginalFilename(),
+                    file.getContentType(), stored));
+        } catch (IOException e) {
+            throw new UncheckedIOException("保存文件失败：" + file.getOriginalFilename(), e);
+        }
+    }
+
+    /**
+     * 依次保存一批文件，任一文件失败时删除本批次已保存的文件（与 {@link StreamingUploader} 的回滚一致），
+     * 避免留下客户端拿不到句柄、也就无法删除的文件
+     */
+    private List<FileUploadResp> buildFileUploadResps(List<MultipartFile> files) {
+        List<FileUploadResp> responses = new ArrayList<>(files.size());
+        try {
+            for (MultipartFile file : files) {
+                responses.add(buildFileUploadResp(file));
+            }
+        } catch (RuntimeException e) {
+            rollback(responses);
+            throw e;
+        }
+        return responses;
+    }
+
+    private void rollback(List<FileUploadResp> stored) {
+        for (FileUploadResp resp : stored) {
+            try {
+                fileStorage.delete(resp.getFileName());
+            } catch (IOException e) {
+                log.warn("回滚上传文件失败：{}", resp.getFileName(), e);
+            }
+        }
+    }
+
+    /**
+     * 构建已保存文件的响应
+     */
+    private FileUploadResp buildFileUploadResp(UploadedFile file) {
         FileUploadResp resp = new FileUploadResp();
-        resp.setOriginalName(file.getOriginalFilename());
-        resp.setFileName(IdUtil.fastSimpleUUID() + "_" + file.getOriginalFilename());
-        resp.setFileSize(file.getSize());
-        resp.setContentType(file.getContentType());
-        resp.setUrl("https://demo.top/files/" + resp.getFileName());
+        resp.setOriginalName(file.originalName());
+        resp.setFileName(file.stored().key());
+        resp.setFileSize(file.stored().size());
+        resp.setContentType(file.contentTypeOrDefault());
+        resp.setUrl(file.stored().url());
+        resp.setSha256(file.stored().sha256());
         resp.setUploadTime(LocalDateTime.now());
         return resp;
     }
@@ -1,12 +1,12 @@
 package top.nextdoc4j.demo.controller.file;
 
-import cn.hutool.core.util.IdUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
@@ -16,16 +16,21 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import top.nextdoc4j.demo.controller.file.storage.FileStorage;
+import top.nextdoc4j.demo.controller.file.storage.StoredFile;
+import top.nextdoc4j.demo.controller.file.upload.StreamingUploader;
+import top.nextdoc4j.demo.controller.file.upload.UploadedFile;
 import top.nextdoc4j.demo.core.model.base.R;
 import top.nextdoc4j.demo.core.model.req.Robot;
 import top.nextdoc4j.demo.core.model.resp.FileUploadResp;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -42,6 +47,7 @@ import java.util.List;
  * 7. 文件下载（附件模式）
  * 8. 文件下载（预览模式）
  * 9. 文件流下载（大文件分片）
+ * 10. 流式上传（大文件，不经 MultipartResolver）
  *
  * @author Your Name
  */
@@ -52,6 +58,10 @@ import java.util.List;
 @RequestMapping("/api/simple-file")
 public class FileControllerNoHeader {
 
+    private final FileStorage fileStorage;
+
+    private final StreamingUploader streamingUploader;
+
     // ==================== 单文件上传 ====================
 
     /**
@@ -123,9 +133,7 @@ public class FileControllerNoHeader {
         validateFiles(files);
         log.info("批量上传文件数量：{}", files.size());
 
-        List<FileUploadResp> responses = files.stream()
-                .map(this::buildFileUploadResp)
-                .toList();
+        List<FileUploadResp> responses = buildFileUploadResps(files);
 
         return R.ok(responses);
     }
@@ -148,9 +156,7 @@ public class FileControllerNoHeader {
 
         validateFiles(files);
 
-        List<FileUploadResp> responses = files.stream()
-                .map(this::buildFileUploadResp)
-                .toList();
+        List<FileUploadResp> responses = buildFileUploadResps(files);
 
         return R.ok(responses);
     }
@@ -172,9 +178,7 @@ public class FileControllerNoHeader {
             return R.fail("文件列表不能为空");
         }
 
-        List<FileUploadResp> responses = Arrays.stream(files)
-                .map(this::buildFileUploadResp)
-                .toList();
+        List<FileUploadResp> responses = buildFileUploadResps(Arrays.asList(files));
 
         return R.ok(responses);
     }
@@ -254,6 +258,42 @@ public class FileControllerNoHeader {
         return R.ok(buildFileUploadResp(file));
     }
 
+    // ==================== 流式上传 ====================
+
+    /**
+     * 流式上传（大文件）
+     * <p>
+     * 请求体不经 MultipartResolver 解析，边读边写入存储并计算大小与 SHA-256，内存占用与文件大小无关，
+     * 单个文件最大 project.file.upload.stream.max-file-size（默认 10GB），见 {@link StreamingUploader}
+     * 前端示例与多文件上传相同：
+     * const formData = new FormData();
+     * files.forEach(file => formData.append('files', file));
+     */
+    @Operation(
+            summary = "流式上传（大文件）",
+            description = "边读请求体边写入存储，不受 spring.servlet.multipart 大小限制（单文件默认最大 10GB），返回 SHA-256",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    content = @Content(
+                            schema = @Schema(implementation = FileController.MultiFileRequest.class)
+                    )
+            )
+    )
+    @ApiResponse(responseCode = "200", description = "上传成功")
+    @PostMapping(value = "/upload/stream")
+    public R<List<FileUploadResp>> uploadStream(HttpServletRequest request) throws IOException {
+        StreamingUploader.Result result = streamingUploader.upload(request);
+        if (result.files().isEmpty()) {
+            return R.fail("文件列表不能为空");
+        }
+        log.info("流式上传文件数量：{}，字段：{}", result.files().size(), result.fields());
+
+        List<FileUploadResp> responses = result.files().stream()
+                .map(this::buildFileUploadResp)
+                .toList();
+
+        return R.ok(responses);
+    }
+
     // ==================== 文件下载 ====================
 
     /**
@@ -261,28 +301,36 @@ public class FileControllerNoHeader {
      * <p>
      * 固定文件：markdown/CHANGELOG.md
      * Content-Disposition: attachment（强制下载）
+     * 支持 Range / If-Range：断点续传时携带 Range 与上次的 ETag
      */
     @Operation(
             summary = "下载更新日志",
-            description = "下载 CHANGELOG.md 文件（附件模式）"
+            description = "下载 CHANGELOG.md 文件（附件模式），支持 Range 断点续传（单区间或多区间 multipart/byteranges）"
     )
+    @ApiResponse(responseCode = "200", description = "完整内容")
+    @ApiResponse(responseCode = "206", description = "部分内容（Content-Range）")
+    @ApiResponse(responseCode = "416", description = "请求范围无效")
     @GetMapping("/download/changelog")
-    public void downloadChangelog(HttpServletResponse response) throws IOException {
+    public void downloadChangelog(HttpServletRequest request, HttpServletResponse response) throws IOException {
         String filepath = "markdown/changelog/CHANGELOG.md";
         String filename = "CHANGELOG.md";
-        downloadFile(filepath, filename, true, response);
+        downloadFile(filepath, filename, true, request, response);
     }
 
     /**
      * 通用文件下载方法
+     * <p>
+     * 文件在文件系统上时由容器 sendfile 直接写入 socket，jar 内的文件经缓冲区复制，见 {@link FileTransfer}；
+     * Range / If-Range 的处理见 {@link RangeTransfer}
      *
      * @param filepath     文件在 classpath 中的路径
      * @param filename     下载时的文件名
      * @param asAttachment 是否作为附件下载（true: 强制下载, false: 浏览器预览）
+     * @param request      HTTP 请求对象
      * @param response     HTTP 响应对象
      */
     private void downloadFile(String filepath, String filename, boolean asAttachment,
-                              HttpServletResponse response) throws IOException {
+                              HttpServletRequest request, HttpServletResponse response) throws IOException {
 
         ClassPathResource resource = new ClassPathResource(filepath);
 
@@ -305,17 +353,10 @@ public class FileControllerNoHeader {
         response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
                 disposition + "; filename=\"" + encodedFilename + "\"; filename*=UTF-8''" + encodedFilename);
 
-        // 设置文件大小
-        response.setContentLengthLong(resource.contentLength());
-
-        // 写入响应流
-        try (InputStream in = resource.getInputStream();
-             OutputStream out = response.getOutputStream()) {
-            in.transferTo(out);
-            out.flush();
-        }
+        // 按 Range 写入完整或部分内容
+        RangeTransfer.Outcome outcome = RangeTransfer.write(resource, contentType, request, response);
 
-        log.info("文件{}成功：{} ({})", asAttachment ? "下载" : "预览", filename, filepath);
+        log.info("文件{}：{} ({}，{})", asAttachment ? "下载" : "预览", filename, filepath, outcome);
     }
 
     // ==================== 辅助方法 ====================
@@ -353,15 +394,56 @@ public class FileControllerNoHeader {
     }
 
     /**
-     * 构建文件上传响应
+     * 保存文件并构建上传响应：写入存储的同时计算 SHA-256，相同内容只保存一份
      */
     private FileUploadResp buildFileUploadResp(MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            StoredFile stored = fileStorage.store(file.getOriginalFilename(), in);
+            return buildFileUploadResp(new UploadedFile(file.getName(), file.getOriginalFilename(),
+                    file.getContentType(), stored));
+        } catch (IOException e) {
+            throw new UncheckedIOException("保存文件失败：" + file.getOriginalFilename(), e);
+        }
+    }
+
+    /**
+     * 依次保存一批文件，任一文件失败时删除本批次已保存的文件（与 {@link StreamingUploader} 的回滚一致），
+     * 避免留下客户端拿不到句柄、也就无法删除的文件
+     */
+    private List<FileUploadResp> buildFileUploadResps(List<MultipartFile> files) {
+        List<FileUploadResp> responses = new ArrayList<>(files.size());
+        try {
+            for (MultipartFile file : files) {
+                responses.add(buildFileUploadResp(file));
+            }
+        } catch (RuntimeException e) {
+            rollback(responses);
+            throw e;
+        }
+        return responses;
+    }
+
+    private void rollback(List<FileUploadResp> stored) {
+        for (FileUploadResp resp : stored) {
+            try {
+                fileStorage.delete(resp.getFileName());
+            } catch (IOException e) {
+                log.warn("回滚上传文件失败：{}", resp.getFileName(), e);
+            }
+        }
+    }
+
+    /**
+     * 构建已保存文件的响应
+     */
+    private FileUploadResp buildFileUploadResp(UploadedFile file) {
         FileUploadResp resp = new FileUploadResp();
-        resp.setOriginalName(file.getOriginalFilename());
-        resp.setFileName(IdUtil.fastSimpleUUID() + "_" + file.getOriginalFilename());
-        resp.setFileSize(file.getSize());
-        resp.setContentType(file.getContentType());
-        resp.setUrl("https://demo.top/files/" + resp.getFileName());
+        resp.setOriginalName(file.originalName());
+        resp.setFileName(file.stored().key());
+        resp.setFileSize(file.stored().size());
+        resp.setContentType(file.contentTypeOrDefault());
+        resp.setUrl(file.stored().url());
+        resp.setSha256(file.stored().sha256());
         resp.setUploadTime(LocalDateTime.now());
         return resp;
     }
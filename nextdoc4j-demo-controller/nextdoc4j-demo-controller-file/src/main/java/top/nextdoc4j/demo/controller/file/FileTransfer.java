@@ -0,0 +1,94 @@
+package top.nextdoc4j.demo.controller.file;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StreamUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 文件下载传输
+ * <p>
+ * 按资源所在位置选择传输方式：
+ * 1. SENDFILE：资源在文件系统上且容器支持 sendfile（Tomcat NIO / NIO2 默认开启）时，只向容器登记文件与区间，
+ * Servlet 返回后由容器以 FileChannel.transferTo 写入 socket，文件内容不经过 JVM 堆
+ * 2. STREAM：classpath（jar 内）等不在文件系统上的资源，或容器不支持 sendfile 时，经缓冲区复制
+ * <p>
+ * 以 FileChannel.transferTo 写入 Servlet 输出流（Channels.newChannel）仍要经过堆缓冲区，实测与 STREAM 相当，不单独提供。
+ * <p>
+ * 调用方先设置响应头（含 Content-Length），响应已提交后不能再使用 SENDFILE。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public final class FileTransfer {
+
+    /**
+     * 容器是否支持 sendfile（Tomcat 在请求上设置）
+     */
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * 传输方式
+     */
+    public enum Strategy {
+        SENDFILE, STREAM
+    }
+
+    private FileTransfer() {
+    }
+
+    /**
+     * 按资源与容器能力选择传输方式
+     */
+    public static Strategy select(Resource resource, HttpServletRequest request, HttpServletResponse response) {
+        return resource.isFile() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))
+                && !response.isCommitted() ? Strategy.SENDFILE : Strategy.STREAM;
+    }
+
+    /**
+     * 按选择的传输方式输出资源
+     *
+     * @return 实际使用的传输方式
+     */
+    public static Strategy transfer(Resource resource, long start, long count, HttpServletRequest request,
+                                    HttpServletResponse response) throws IOException {
+        Strategy strategy = select(resource, request, response);
+        transfer(strategy, resource, start, count, request, response);
+        return strategy;
+    }
+
+    /**
+     * 以指定的传输方式输出资源的 [start, start + count) 区间
+     */
+    public static void transfer(Strategy strategy, Resource resource, long start, long count,
+                                HttpServletRequest request, HttpServletResponse response) throws IOException {
+        switch (strategy) {
+            case SENDFILE -> {
+                File file = resource.getFile();
+                request.setAttribute(SENDFILE_FILENAME, file.getAbsolutePath());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, start + count);
+            }
+            case STREAM -> {
+                try (InputStream in = resource.getInputStream()) {
+                    OutputStream out = response.getOutputStream();
+                    if (count > 0) {
+                        StreamUtils.copyRange(in, out, start, start + count - 1);
+                    }
+                    out.flush();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package top.nextdoc4j.demo.controller.file;
+
+import cn.hutool.core.util.IdUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import top.nextdoc4j.demo.core.enums.ResultCode;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按 Range 请求头输出资源（RFC 7233）
+ * <p>
+ * 响应始终带 Accept-Ranges: bytes、ETag（由文件大小与修改时间生成的强校验值）与 Last-Modified：
+ * 1. 没有 Range，或 If-Range 与当前的 ETag / Last-Modified 不一致（文件已变化）时，返回 200 与完整内容
+ * 2. 单个区间返回 206 与 Content-Range，仍经 {@link FileTransfer} 输出（文件系统上的文件由容器 sendfile）
+ * 3. 多个区间返回 206 multipart/byteranges，各区间依次复制
+ * 4. 所有区间都超出文件大小，或各区间总长超过文件大小时返回 416 与 Content-Range: bytes *&#47;{length}
+ * <p>
+ * Range 语法错误（或区间超过 100 个）时按 RFC 忽略该请求头，返回完整内容。
+ * 客户端可据此断点续传（If-Range 携带上次的 ETag），PDF 等预览按需加载部分内容。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public final class RangeTransfer {
+
+    private static final String BYTES = "bytes";
+
+    private RangeTransfer() {
+    }
+
+    /**
+     * 输出资源，调用方已设置 Content-Type 与 Content-Disposition
+     *
+     * @param contentType 资源的 Content-Type，多区间时写入每个分段
+     * @return 响应状态与传输方式
+     */
+    public static Outcome write(Resource resource, String contentType, HttpServletRequest request,
+                                HttpServletResponse response) throws IOException {
+        long length = resource.contentLength();
+        long lastModified = lastModified(resource);
+        String etag = etag(length, lastModified);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, BYTES);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (lastModified > 0) {
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        }
+
+        List<HttpRange> ranges = requestedRanges(request, etag, lastModified);
+        if (ranges.isEmpty()) {
+            response.setContentLengthLong(length);
+            return new Outcome(HttpServletResponse.SC_OK, FileTransfer.transfer(resource, 0, length, request,
+                    response), List.of());
+        }
+
+        List<long[]> regions = satisfiable(ranges, length);
+        long total = regions.stream().mapToLong(region -> region[1] - region[0] + 1).sum();
+        if (regions.isEmpty() || total > length) {
+            response.reset();
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, BYTES);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, BYTES + " */" + length);
+            response.setContentType("application/json");
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().write("{\"code\":" + ResultCode.RANGE_NOT_SATISFIABLE.code() + ",\"message\":\""
+                    + ResultCode.RANGE_NOT_SATISFIABLE.msg() + "\"}");
+            return new Outcome(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE, null, List.of());
+        }
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        if (regions.size() == 1) {
+            long[] region = regions.get(0);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, contentRange(region, length));
+            response.setContentLengthLong(total);
+            return new Outcome(HttpServletResponse.SC_PARTIAL_CONTENT, FileTransfer.transfer(resource, region[0],
+                    total, request, response), regions);
+        }
+
+        String boundary = IdUtil.fastSimpleUUID();
+        List<byte[]> headers = new ArrayList<>(regions.size());
+        long contentLength = 0;
+        for (long[] region : regions) {
+            byte[] header = ("\r\n--" + boundary + "\r\n" + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": " + contentRange(region, length) + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            headers.add(header);
+            contentLength += header.length + region[1] - region[0] + 1;
+        }
+        byte[] end = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        // 字符集只属于各分段，外层类型不带 charset
+        response.setCharacterEncoding((String) null);
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength + end.length);
+        OutputStream out = response.getOutputStream();
+        for (int i = 0; i < regions.size(); i++) {
+            long[] region = regions.get(i);
+            out.write(headers.get(i));
+            FileTransfer.transfer(FileTransfer.Strategy.STREAM, resource, region[0], region[1] - region[0] + 1,
+                    request, response);
+        }
+        out.write(end);
+        out.flush();
+        return new Outcome(HttpServletResponse.SC_PARTIAL_CONTENT, FileTransfer.Strategy.STREAM, regions);
+    }
+
+    /**
+     * 请求的区间：非 GET、没有 Range、Range 无效或 If-Range 不匹配时为空（返回完整内容）
+     */
+    private static List<HttpRange> requestedRanges(HttpServletRequest request, String etag, long lastModified) {
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range == null || !HttpMethod.GET.matches(request.getMethod()) || !range.startsWith(BYTES + "=")) {
+            return List.of();
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRangeMatches(request, ifRange.trim(), etag, lastModified)) {
+            return List.of();
+        }
+        try {
+            return HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+
+    /**
+     * If-Range 为 ETag 时强比较（弱 ETag 不匹配），为日期时须与 Last-Modified 相同
+     */
+    private static boolean ifRangeMatches(HttpServletRequest request, String ifRange, String etag, long lastModified) {
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            long date = request.getDateHeader(HttpHeaders.IF_RANGE);
+            return lastModified > 0 && date == lastModified / 1000 * 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 可满足的区间 [first, last]，起点超出文件大小的区间丢弃
+     */
+    private static List<long[]> satisfiable(List<HttpRange> ranges, long length) {
+        List<long[]> regions = new ArrayList<>(ranges.size());
+        for (HttpRange range : ranges) {
+            try {
+                long first = range.getRangeStart(length);
+                long last = range.getRangeEnd(length);
+                if (first < length && first <= last) {
+                    regions.add(new long[]{first, last});
+                }
+            } catch (IllegalArgumentException e) {
+                // 区间超出文件大小
+            }
+        }
+        return regions;
+    }
+
+    private static String contentRange(long[] region, long length) {
+        return BYTES + " " + region[0] + "-" + region[1] + "/" + length;
+    }
+
+    private static String etag(long length, long lastModified) {
+        return "\"" + Long.toHexString(length) + "-" + Long.toHexString(Math.max(lastModified, 0)) + "\"";
+    }
+
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 输出结果
+     *
+     * @param status   响应状态：200 / 206 / 416
+     * @param strategy 传输方式，416 时为 null
+     * @param regions  输出的区间 [first, last]，完整内容时为空
+     */
+    public record Outcome(int status, FileTransfer.Strategy strategy, List<long[]> regions) {
+
+        @Override
+        public String toString() {
+            return status + (strategy == null ? "" : " " + strategy) + (regions.isEmpty() ? "" : " bytes="
+                    + String.join(",", regions.stream().map(region -> region[0] + "-" + region[1]).toList()));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package top.nextdoc4j.demo.controller.file.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.DispatcherServlet;
+import top.nextdoc4j.demo.controller.file.storage.ContentAddressedFileStorage;
+import top.nextdoc4j.demo.controller.file.storage.FileStorage;
+import top.nextdoc4j.demo.controller.file.upload.ChunkedUploadService;
+import top.nextdoc4j.demo.controller.file.upload.StreamingMultipartResolver;
+import top.nextdoc4j.demo.controller.file.upload.StreamingUploader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 文件存储与流式上传
+ * <p>
+ * 以 multipartResolver 为名注册 {@link StreamingMultipartResolver}，Spring Boot 默认的 MultipartResolver 随之不再创建：
+ * 流式上传路径（默认 /api/*&#47;upload/stream）的请求体由 {@link StreamingUploader} 直接写入 {@link FileStorage}，
+ * 不受 spring.servlet.multipart 的大小限制，改由 project.file.upload.stream.max-file-size 限制。
+ * 分片上传（{@link ChunkedUploadService}）由 project.file.upload.chunked 配置。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@Configuration(proxyBeanMethods = false)
+public class FileUploadConfiguration {
+
+    private static final String STORAGE_DIR = "${project.file.storage.dir:data/files}";
+
+    /**
+     * 按内容寻址，相同内容只保存一份；访问地址默认指向 FileController 的下载接口。
+     * 默认目录为工作目录下的 data/files（与日志目录 logs 同级），不使用会被系统清理的临时目录
+     */
+    @Bean
+    public FileStorage fileStorage(
+            @Value(STORAGE_DIR) String dir,
+            @Value("${project.file.storage.url-prefix:/api/file/objects/}") String urlPrefix) throws IOException {
+        return new ContentAddressedFileStorage(Path.of(dir), urlPrefix);
+    }
+
+    @Bean
+    public StreamingUploader streamingUploader(
+            FileStorage fileStorage,
+            @Value("${project.file.upload.stream.max-file-size:10GB}") DataSize maxFileSize,
+            @Value("${project.file.upload.stream.max-files:10}") int maxFiles) {
+        return new StreamingUploader(fileStorage, maxFileSize.toBytes(), maxFiles);
+    }
+
+    /**
+     * 分片写入存储目录下的 .chunked，合并时在同一文件系统上重命名
+     */
+    @Bean
+    public ChunkedUploadService chunkedUploadService(
+            FileStorage fileStorage,
+            @Value(STORAGE_DIR) String dir,
+            @Value("${project.file.upload.chunked.max-file-size:10GB}") DataSize maxFileSize,
+            @Value("${project.file.upload.chunked.chunk-size:8MB}") DataSize chunkSize,
+            @Value("${project.file.upload.chunked.expire:24h}") Duration expire,
+            @Value("${project.file.upload.chunked.max-uploads:1000}") int maxUploads) throws IOException {
+        return new ChunkedUploadService(fileStorage, Path.of(dir, ".chunked"), maxFileSize.toBytes(),
+                chunkSize.toBytes(), expire, maxUploads);
+    }
+
+    @Bean(DispatcherServlet.MULTIPART_RESOLVER_BEAN_NAME)
+    public StreamingMultipartResolver multipartResolver(
+            @Value("${project.file.upload.stream.paths:/api/*/upload/stream}") List<String> streamingPaths,
+            @Value("${spring.servlet.multipart.resolve-lazily:false}") boolean resolveLazily) {
+        StreamingMultipartResolver resolver = new StreamingMultipartResolver(streamingPaths);
+        resolver.setResolveLazily(resolveLazily);
+        return resolver;
+    }
+}
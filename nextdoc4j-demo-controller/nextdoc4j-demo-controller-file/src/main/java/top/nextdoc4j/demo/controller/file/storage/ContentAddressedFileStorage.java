@@ -0,0 +1,240 @@
+package top.nextdoc4j.demo.controller.file.storage;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 按内容寻址的本地磁盘存储
+ * <p>
+ * 文件以内容的 SHA-256 为标识，保存为 {dir}/objects/{前 2 位}/{第 3～4 位}/{SHA-256}，
+ * 两级目录分片使单个目录下的文件数保持在数千以内；相同内容只保存一份：
+ * 1. 保存：内容写入 {dir}/tmp 下的临时文件，写的同时计算 SHA-256（{@link ChecksumInputStream}），不再单独读一遍；
+ * 写完后按 SHA-256 重命名为对象文件，对象已存在时删除临时文件，只增加引用计数
+ * 2. 引用计数：每次保存计一次引用，记录在对象旁的 {SHA-256}.ref 中（写临时文件后原子替换），重启后保留；
+ * {@link #delete} 减少一次引用，减到 0 时删除对象
+ * 3. 文件句柄：每次保存生成一个随机句柄（{@link StoredFile#key()}），记录在 {dir}/handles/{前 2 位}/{句柄} 中，
+ * 内容为对象的 SHA-256；读取与删除只接受句柄，只知道内容的 SHA-256 无法读取他人上传的文件，
+ * 保存的结果也不透露内容是否已存在
+ * <p>
+ * 同一内容的保存与删除按分段锁串行，不同内容互不等待；引用计数文件缺失的对象视为不存在，下次保存时覆盖。
+ * 磁盘上不使用原始文件名，原始文件名与文件类型由调用方保存。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public class ContentAddressedFileStorage implements FileStorage {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int LOCK_STRIPES = 64;
+
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+
+    private static final Pattern HANDLE = Pattern.compile("[0-9a-f]{32}");
+
+    private static final String REF_SUFFIX = ".ref";
+
+    private final Path objects;
+
+    private final Path handles;
+
+    private final Path tmp;
+
+    private final String urlPrefix;
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    /**
+     * @param root      存储目录，临时文件与对象在同一文件系统上，保存时只重命名
+     * @param urlPrefix 访问地址前缀，拼接 {@link StoredFile#key()}（文件句柄）
+     */
+    public ContentAddressedFileStorage(Path root, String urlPrefix) throws IOException {
+        Path dir = root.toAbsolutePath().normalize();
+        this.objects = dir.resolve("objects");
+        this.handles = dir.resolve("handles");
+        this.tmp = dir.resolve("tmp");
+        this.urlPrefix = urlPrefix;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        Files.createDirectories(objects);
+        Files.createDirectories(handles);
+        Files.createDirectories(tmp);
+        // 上次运行中断时留下的临时文件
+        try (Stream<Path> files = Files.list(tmp)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Override
+    public StoredFile store(String filename, InputStream content) throws IOException {
+        Path temp = Files.createTempFile(tmp, null, null);
+        try {
+            ChecksumInputStream in = new ChecksumInputStream(content);
+            try (OutputStream out = Files.newOutputStream(temp, StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) >= 0) {
+                    out.write(buffer, 0, read);
+                }
+            }
+            return commit(temp, in.sha256(), in.size());
+        } finally {
+            // 提交后临时文件已不存在
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public StoredFile move(String filename, Path file, String sha256) throws IOException {
+        if (!SHA256.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("SHA-256 应为 64 位小写十六进制：" + sha256);
+        }
+        return commit(file, sha256, Files.size(file));
+    }
+
+    /**
+     * 删除句柄并减少一次引用，减到 0 时删除对象
+     */
+    @Override
+    public void delete(String key) throws IOException {
+        String sha256 = resolve(key);
+        if (sha256 == null) {
+            return;
+        }
+        Path object = object(sha256);
+        synchronized (lock(sha256)) {
+            // 同一句柄并发删除时只撤销一次
+            if (!Files.deleteIfExists(handle(key))) {
+                return;
+            }
+            long refs = refs(sha256);
+            if (refs > 1) {
+                writeRefs(sha256, refs - 1);
+            } else {
+                // 先删引用计数：中途失败时留下的对象视为不存在
+                Files.deleteIfExists(ref(sha256));
+                Files.deleteIfExists(object);
+            }
+        }
+    }
+
+    @Override
+    public Resource load(String key) {
+        try {
+            String sha256 = resolve(key);
+            if (sha256 == null) {
+                return null;
+            }
+            Path object = object(sha256);
+            return Files.isRegularFile(object) && Files.exists(ref(sha256)) ? new FileSystemResource(object) : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 把写好的文件按 SHA-256 移为对象（内容已存在时删除文件），增加引用并生成句柄
+     */
+    private StoredFile commit(Path file, String sha256, long size) throws IOException {
+        Path object = object(sha256);
+        Files.createDirectories(object.getParent());
+        String handle = UUID.randomUUID().toString().replace("-", "");
+        Path handleFile = handle(handle);
+        Files.createDirectories(handleFile.getParent());
+        synchronized (lock(sha256)) {
+            long refs = refs(sha256);
+            if (refs > 0) {
+                Files.delete(file);
+            } else {
+                Files.move(file, object, StandardCopyOption.REPLACE_EXISTING);
+            }
+            writeRefs(sha256, refs + 1);
+            try {
+                write(handleFile, sha256);
+            } catch (IOException e) {
+                // 撤销本次引用，没有句柄的引用无法再被删除
+                if (refs > 0) {
+                    writeRefs(sha256, refs);
+                } else {
+                    Files.deleteIfExists(ref(sha256));
+                    Files.deleteIfExists(object);
+                }
+                throw e;
+            }
+        }
+        return new StoredFile(handle, size, sha256, urlPrefix + handle);
+    }
+
+    /**
+     * 句柄对应的对象 SHA-256，句柄格式错误或不存在时为 null
+     */
+    private String resolve(String key) throws IOException {
+        if (key == null || !HANDLE.matcher(key).matches()) {
+            return null;
+        }
+        try {
+            String sha256 = Files.readString(handle(key)).trim();
+            return SHA256.matcher(sha256).matches() ? sha256 : null;
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private Path handle(String key) {
+        return handles.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private Path object(String sha256) {
+        return objects.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    private Path ref(String sha256) {
+        return object(sha256).resolveSibling(sha256 + REF_SUFFIX);
+    }
+
+    private Object lock(String sha256) {
+        return locks[HexFormat.fromHexDigits(sha256, 0, 2) % locks.length];
+    }
+
+    /**
+     * 当前引用数，没有引用计数文件时为 0
+     */
+    private long refs(String sha256) throws IOException {
+        Path ref = ref(sha256);
+        return Files.exists(ref) ? Long.parseLong(Files.readString(ref).trim()) : 0;
+    }
+
+    private void writeRefs(String sha256, long refs) throws IOException {
+        write(ref(sha256), Long.toString(refs));
+    }
+
+    /**
+     * 写临时文件后原子替换
+     */
+    private void write(Path target, String content) throws IOException {
+        Path temp = Files.createTempFile(tmp, null, null);
+        try {
+            Files.writeString(temp, content);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
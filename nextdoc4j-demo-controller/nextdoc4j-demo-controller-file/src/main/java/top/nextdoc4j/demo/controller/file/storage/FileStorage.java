@@ -0,0 +1,54 @@
+package top.nextdoc4j.demo.controller.file.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * 文件存储
+ * <p>
+ * 上传的内容以流的形式交给存储，实现边读边写（本地磁盘、对象存储的分片上传等），
+ * 不先把整个文件放入内存或临时文件；大小与 SHA-256 在读取过程中计算（见 {@link ChecksumInputStream}）。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public interface FileStorage {
+
+    /**
+     * 读取 content 直到结束并保存，失败时不留下写了一部分的文件
+     *
+     * @param filename 原始文件名
+     * @param content  文件内容，由调用方关闭
+     * @return 保存的文件
+     */
+    StoredFile store(String filename, InputStream content) throws IOException;
+
+    /**
+     * 把已写好的文件移入存储（分片上传合并完成的文件），同一文件系统上只是重命名，不复制内容；成功后 file 不再存在
+     *
+     * @param filename 原始文件名
+     * @param file     已写好的文件
+     * @param sha256   文件内容的 SHA-256（小写十六进制）
+     * @return 保存的文件
+     */
+    StoredFile move(String filename, Path file, String sha256) throws IOException;
+
+    /**
+     * 删除保存的文件（同一请求中后续文件失败时回滚），文件不存在时忽略；
+     * 相同内容保存多次时（见 {@link ContentAddressedFileStorage}）每次删除只撤销一次保存
+     *
+     * @param key {@link StoredFile#key()}
+     */
+    void delete(String key) throws IOException;
+
+    /**
+     * 读取保存的文件
+     *
+     * @param key {@link StoredFile#key()}
+     * @return 文件内容，不存在时返回 null
+     */
+    Resource load(String key);
+}
@@ -0,0 +1,14 @@
+package top.nextdoc4j.demo.controller.file.storage;
+
+/**
+ * 保存的文件
+ *
+ * @param key    存储中的标识：每次保存生成的文件句柄，读取与删除只接受句柄
+ * @param size   文件大小（字节）
+ * @param sha256 内容的 SHA-256（小写十六进制）
+ * @param url    访问地址
+ * @author echo
+ * @since 2026/10/18
+ */
+public record StoredFile(String key, long size, String sha256, String url) {
+}
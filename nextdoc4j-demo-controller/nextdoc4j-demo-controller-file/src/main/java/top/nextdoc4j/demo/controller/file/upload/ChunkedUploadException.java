@@ -0,0 +1,66 @@
+package top.nextdoc4j.demo.controller.file.upload;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import top.nextdoc4j.demo.core.enums.ResultCode;
+
+/**
+ * 分片上传请求无效，携带 HTTP 状态码：客户端据此区分重试（409 / 429）、重新初始化（404）与放弃（400 / 413）
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public class ChunkedUploadException extends RuntimeException {
+
+    private final int status;
+
+    private final ResultCode resultCode;
+
+    public ChunkedUploadException(int status, ResultCode resultCode, String message) {
+        super(message);
+        this.status = status;
+        this.resultCode = resultCode;
+    }
+
+    /**
+     * 上传不存在或已过期
+     */
+    public static ChunkedUploadException notFound(String uploadId) {
+        return new ChunkedUploadException(HttpServletResponse.SC_NOT_FOUND, ResultCode.NOT_FOUND,
+                "上传不存在或已过期：" + uploadId);
+    }
+
+    public static ChunkedUploadException badRequest(String message) {
+        return new ChunkedUploadException(HttpServletResponse.SC_BAD_REQUEST, ResultCode.BAD_REQUEST, message);
+    }
+
+    /**
+     * 与上传当前的状态冲突（分片未传完时合并、合并后继续上传分片）
+     */
+    public static ChunkedUploadException conflict(String message) {
+        return new ChunkedUploadException(HttpServletResponse.SC_CONFLICT, ResultCode.CONFLICT, message);
+    }
+
+    /**
+     * 同时进行的上传已达上限
+     */
+    public static ChunkedUploadException tooManyUploads(String message) {
+        return new ChunkedUploadException(HttpStatus.TOO_MANY_REQUESTS.value(), ResultCode.TOO_MANY_REQUESTS, message);
+    }
+
+    public static ChunkedUploadException tooLarge(String message) {
+        return new ChunkedUploadException(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, ResultCode.FILE_TOO_LARGE,
+                message);
+    }
+
+    /**
+     * HTTP 状态码
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    public ResultCode getResultCode() {
+        return resultCode;
+    }
+}
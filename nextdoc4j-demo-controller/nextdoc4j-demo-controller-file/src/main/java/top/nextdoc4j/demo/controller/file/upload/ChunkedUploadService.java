@@ -0,0 +1,536 @@
+package top.nextdoc4j.demo.controller.file.upload;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.IdUtil;
+import lombok.extern.slf4j.Slf4j;
+import top.nextdoc4j.demo.controller.file.storage.FileStorage;
+import top.nextdoc4j.demo.controller.file.storage.StoredFile;
+import top.nextdoc4j.demo.core.model.req.ChunkedUploadInitReq;
+import top.nextdoc4j.demo.core.model.resp.ChunkedUploadResp;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * 分片上传（可断点续传）
+ * <p>
+ * 1. 初始化：按文件大小预分配一个稀疏文件（只设置长度，不写入数据），返回上传 ID 与分片大小
+ * 2. 上传分片：分片 N 以 FileChannel 按位置写入 [N × chunkSize, N × chunkSize + 分片大小)，
+ * 各分片互不重叠，可乱序、并行上传（浏览器 4～8 个并发请求即可占满带宽）；同一分片重复上传只是覆盖相同内容（幂等），
+ * 写完整个分片后才记为已上传，中途断开的分片重新上传即可
+ * 3. 查询状态：返回未上传的分片，断线后客户端据此续传
+ * 4. 合并：所有分片已上传时把文件移入 {@link FileStorage}（同一文件系统上只是重命名，不复制内容）
+ * <p>
+ * SHA-256 在上传过程中按分片顺序累积：正好是下一个待计算的分片边写边计算，
+ * 先于它到达的分片在前面的分片计算完后从文件读回（刚写入，命中页缓存），合并时不再读一遍整个文件。
+ * <p>
+ * 上传状态保存在内存中：同一上传的请求需落在同一实例（单实例或按上传 ID 粘滞路由），重启后需重新上传。
+ * 同时进行的上传不超过 maxUploads 个，已满时初始化返回 429；最后一次访问后超过过期时间的上传由后台线程定期清理
+ * （初始化新上传时也会先清理一次），启动时清理暂存目录中过期的文件。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@Slf4j
+public class ChunkedUploadService implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 客户端可指定的分片大小范围
+     */
+    private static final long MIN_CHUNK_SIZE = 256 * 1024;
+
+    private static final long MAX_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * 单个上传的最大分片数，未指定分片大小时按此放大默认分片
+     */
+    private static final int MAX_CHUNKS = 10_000;
+
+    private static final String PART_SUFFIX = ".part";
+
+    /**
+     * 过期上传的最长清理间隔
+     */
+    private static final Duration PURGE_INTERVAL = Duration.ofMinutes(1);
+
+    private final FileStorage storage;
+
+    private final Path stagingDir;
+
+    private final long maxFileSize;
+
+    private final long defaultChunkSize;
+
+    private final Duration expire;
+
+    /**
+     * 上传 ID -> 进行中的上传
+     */
+    private final Map<String, ChunkedUpload> uploads = new ConcurrentHashMap<>();
+
+    /**
+     * 剩余可同时进行的上传数：初始化时获取，上传从 {@link #uploads} 移除时归还
+     */
+    private final Semaphore slots;
+
+    private final ScheduledExecutorService purger;
+
+    /**
+     * @param storage          合并后的文件移入的存储
+     * @param stagingDir       分片写入的暂存目录，与存储在同一文件系统时合并不复制内容
+     * @param maxFileSize      文件的最大大小（字节）
+     * @param defaultChunkSize 客户端未指定时的分片大小（字节）
+     * @param expire           上传在最后一次访问后的保留时间
+     * @param maxUploads       同时进行的最大上传数
+     */
+    public ChunkedUploadService(FileStorage storage, Path stagingDir, long maxFileSize, long defaultChunkSize,
+                                Duration expire, int maxUploads) throws IOException {
+        this.storage = storage;
+        this.stagingDir = stagingDir;
+        this.maxFileSize = maxFileSize;
+        this.defaultChunkSize = defaultChunkSize;
+        this.expire = expire;
+        this.slots = new Semaphore(maxUploads);
+        Files.createDirectories(stagingDir);
+        purgeStaleFiles();
+        long interval = Math.max(Math.min(expire.toMillis(), PURGE_INTERVAL.toMillis()), 1);
+        this.purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chunked-upload-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        purger.scheduleWithFixedDelay(this::purgeExpired, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 初始化上传，预分配文件
+     */
+    public ChunkedUploadResp init(ChunkedUploadInitReq req) throws IOException {
+        purgeExpired();
+        long fileSize = req.getFileSize();
+        if (fileSize > maxFileSize) {
+            throw ChunkedUploadException.tooLarge("文件大小超出限制，最大允许: " + FileUtil.readableFileSize(maxFileSize));
+        }
+        long chunkSize = req.getChunkSize() != null ? req.getChunkSize()
+                : Math.max(defaultChunkSize, ceilDiv(fileSize, MAX_CHUNKS));
+        if (chunkSize < MIN_CHUNK_SIZE || chunkSize > MAX_CHUNK_SIZE) {
+            throw ChunkedUploadException.badRequest("分片大小应在 " + MIN_CHUNK_SIZE + " 到 " + MAX_CHUNK_SIZE
+                    + " bytes 之间");
+        }
+        long chunkCount = Math.max(ceilDiv(fileSize, chunkSize), 1);
+        if (chunkCount > MAX_CHUNKS) {
+            throw ChunkedUploadException.badRequest("分片数量 " + chunkCount + " 超过 " + MAX_CHUNKS + "，请增大分片大小");
+        }
+        if (!slots.tryAcquire()) {
+            throw ChunkedUploadException.tooManyUploads("进行中的上传过多，请稍后重试");
+        }
+
+        String uploadId = IdUtil.fastSimpleUUID();
+        Path file = stagingDir.resolve(uploadId + PART_SUFFIX);
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.SPARSE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException | RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+        try {
+            if (fileSize > 0) {
+                // 只写最后一个字节，文件系统不为之前的空洞分配磁盘块
+                channel.write(ByteBuffer.allocate(1), fileSize - 1);
+            }
+        } catch (IOException e) {
+            channel.close();
+            Files.deleteIfExists(file);
+            slots.release();
+            throw e;
+        }
+        ChunkedUpload upload = new ChunkedUpload(uploadId, req.getFileName(), req.getContentType(), fileSize,
+                chunkSize, (int) chunkCount, file, channel);
+        uploads.put(uploadId, upload);
+        log.info("分片上传初始化：{}，{}，{} bytes，{} 个分片", uploadId, req.getFileName(), fileSize, chunkCount);
+        return upload.status();
+    }
+
+    /**
+     * 写入一个分片，读取整个请求体
+     *
+     * @param contentLength 请求的 Content-Length，未知时为 -1
+     */
+    public ChunkedUploadResp writeChunk(String uploadId, int index, long contentLength, InputStream body)
+            throws IOException {
+        ChunkedUpload upload = get(uploadId);
+        upload.write(index, contentLength, body);
+        return upload.status();
+    }
+
+    /**
+     * 上传状态
+     */
+    public ChunkedUploadResp status(String uploadId) {
+        return get(uploadId).status();
+    }
+
+    /**
+     * 合并：所有分片已上传时把文件移入存储
+     */
+    public UploadedFile complete(String uploadId) throws IOException {
+        ChunkedUpload upload = get(uploadId);
+        String sha256 = upload.finish();
+        try {
+            StoredFile stored = storage.move(upload.fileName, upload.file, sha256);
+            log.info("分片上传完成：{}，{}，{} bytes", uploadId, stored.sha256(), stored.size());
+            return new UploadedFile(null, upload.fileName, upload.contentType, stored);
+        } finally {
+            remove(upload);
+            Files.deleteIfExists(upload.file);
+        }
+    }
+
+    @Override
+    public void close() {
+        purger.shutdownNow();
+    }
+
+    private ChunkedUpload get(String uploadId) {
+        ChunkedUpload upload = uploads.get(uploadId);
+        if (upload == null) {
+            throw ChunkedUploadException.notFound(uploadId);
+        }
+        upload.touch();
+        return upload;
+    }
+
+    /**
+     * 从进行中的上传移除并归还名额，已被移除时无影响
+     */
+    private void remove(ChunkedUpload upload) {
+        if (uploads.remove(upload.id, upload)) {
+            slots.release();
+        }
+    }
+
+    /**
+     * 清理过期的上传（正在写入的跳过）
+     */
+    private void purgeExpired() {
+        long now = System.currentTimeMillis();
+        for (ChunkedUpload upload : uploads.values()) {
+            if (upload.lastAccess + expire.toMillis() < now && upload.abort()) {
+                remove(upload);
+            }
+        }
+    }
+
+    /**
+     * 清理暂存目录中过期的文件（重启前未完成的上传）
+     */
+    private void purgeStaleFiles() throws IOException {
+        long deadline = System.currentTimeMillis() - expire.toMillis();
+        try (Stream<Path> files = Files.list(stagingDir)) {
+            for (Path file : files.filter(path -> path.toString().endsWith(PART_SUFFIX)).toList()) {
+                if (Files.getLastModifiedTime(file).toMillis() < deadline) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return -Math.floorDiv(-x, y);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MessageDigest copy(MessageDigest digest) {
+        try {
+            return (MessageDigest) digest.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 一个进行中的上传
+     * <p>
+     * 分片写入持有读锁（可并行），合并与清理持有写锁，等待进行中的分片写完；
+     * SHA-256 的累积持有 hashLock，同一时刻只有一个线程推进，其他线程不等待
+     */
+    private final class ChunkedUpload {
+
+        private final String id;
+
+        private final String fileName;
+
+        private final String contentType;
+
+        private final long fileSize;
+
+        private final long chunkSize;
+
+        private final int chunkCount;
+
+        private final Path file;
+
+        private final FileChannel channel;
+
+        /**
+         * 已写完的分片
+         */
+        private final BitSet received;
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private final ReentrantLock hashLock = new ReentrantLock();
+
+        /**
+         * 分片 [0, hashedChunks) 的 SHA-256，持有 hashLock 时读写
+         */
+        private MessageDigest digest = newDigest();
+
+        private volatile int hashedChunks;
+
+        /**
+         * 已合并或已清理
+         */
+        private boolean closed;
+
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        ChunkedUpload(String id, String fileName, String contentType, long fileSize, long chunkSize, int chunkCount,
+                      Path file, FileChannel channel) {
+            this.id = id;
+            this.fileName = fileName;
+            this.contentType = contentType;
+            this.fileSize = fileSize;
+            this.chunkSize = chunkSize;
+            this.chunkCount = chunkCount;
+            this.file = file;
+            this.channel = channel;
+            this.received = new BitSet(chunkCount);
+        }
+
+        void touch() {
+            lastAccess = System.currentTimeMillis();
+        }
+
+        void write(int index, long contentLength, InputStream body) throws IOException {
+            if (index < 0 || index >= chunkCount) {
+                throw ChunkedUploadException.badRequest("分片序号应在 0 到 " + (chunkCount - 1) + " 之间：" + index);
+            }
+            long offset = index * chunkSize;
+            long length = Math.min(chunkSize, fileSize - offset);
+            if (contentLength >= 0 && contentLength != length) {
+                throw ChunkedUploadException.badRequest("分片 " + index + " 的大小应为 " + length + " bytes，实际为 "
+                        + contentLength + " bytes");
+            }
+            lock.readLock().lock();
+            try {
+                if (closed) {
+                    throw ChunkedUploadException.conflict("上传已合并或已过期：" + id);
+                }
+                // 正好是下一个待计算的分片时边写边计算，失败时恢复写之前的状态
+                boolean hashing = index == hashedChunks && hashLock.tryLock();
+                if (hashing && index != hashedChunks) {
+                    hashLock.unlock();
+                    hashing = false;
+                }
+                MessageDigest snapshot = hashing ? copy(digest) : null;
+                try {
+                    writeBody(index, offset, length, body, hashing ? digest : null);
+                    synchronized (received) {
+                        received.set(index);
+                    }
+                    if (hashing) {
+                        hashedChunks = index + 1;
+                    }
+                } catch (IOException | RuntimeException e) {
+                    if (hashing) {
+                        digest = snapshot;
+                    }
+                    throw e;
+                } finally {
+                    if (hashing) {
+                        hashLock.unlock();
+                    }
+                }
+                advanceDigest();
+            } finally {
+                lock.readLock().unlock();
+            }
+            touch();
+        }
+
+        ChunkedUploadResp status() {
+            List<Integer> missing = new ArrayList<>();
+            int uploaded;
+            synchronized (received) {
+                uploaded = received.cardinality();
+                for (int i = received.nextClearBit(0); i < chunkCount; i = received.nextClearBit(i + 1)) {
+                    missing.add(i);
+                }
+            }
+            ChunkedUploadResp resp = new ChunkedUploadResp();
+            resp.setUploadId(id);
+            resp.setFileName(fileName);
+            resp.setFileSize(fileSize);
+            resp.setChunkSize(chunkSize);
+            resp.setChunkCount(chunkCount);
+            resp.setUploadedChunks(uploaded);
+            resp.setMissingChunks(missing);
+            resp.setExpireTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(lastAccess).plus(expire),
+                    ZoneId.systemDefault()));
+            return resp;
+        }
+
+        /**
+         * 等待进行中的分片写完，校验所有分片已上传，计算 SHA-256 并关闭文件
+         */
+        String finish() throws IOException {
+            lock.writeLock().lock();
+            try {
+                if (closed) {
+                    throw ChunkedUploadException.conflict("上传已合并或已过期：" + id);
+                }
+                int uploaded = received.cardinality();
+                if (uploaded < chunkCount) {
+                    throw ChunkedUploadException.conflict("还有 " + (chunkCount - uploaded) + " 个分片未上传，首个为 "
+                            + received.nextClearBit(0));
+                }
+                closed = true;
+                try (channel) {
+                    // 通常已全部计算完，只剩并发时未来得及推进的分片
+                    advanceDigest();
+                    return HexFormat.of().formatHex(digest.digest());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * 放弃上传并删除文件，有分片正在写入时返回 false
+         */
+        boolean abort() {
+            if (!lock.writeLock().tryLock()) {
+                return false;
+            }
+            try {
+                closed = true;
+                channel.close();
+                Files.deleteIfExists(file);
+                log.info("分片上传已过期：{}，{}", id, fileName);
+            } catch (IOException e) {
+                log.warn("清理分片上传失败：{}", file, e);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return true;
+        }
+
+        private void writeBody(int index, long offset, long length, InputStream body, MessageDigest digest)
+                throws IOException {
+            byte[] bytes = new byte[BUFFER_SIZE];
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            long written = 0;
+            while (written < length) {
+                int read = body.read(bytes, 0, (int) Math.min(bytes.length, length - written));
+                if (read < 0) {
+                    throw ChunkedUploadException.badRequest("分片 " + index + " 不完整：收到 " + written + " / "
+                            + length + " bytes");
+                }
+                buffer.clear().limit(read);
+                while (buffer.hasRemaining()) {
+                    written += channel.write(buffer, offset + written);
+                }
+                if (digest != null) {
+                    digest.update(bytes, 0, read);
+                }
+            }
+            if (body.read() >= 0) {
+                throw ChunkedUploadException.badRequest("分片 " + index + " 超过 " + length + " bytes");
+            }
+        }
+
+        /**
+         * 把已写完、紧接在已计算部分之后的分片从文件读回计入 SHA-256；其他线程正在推进时直接返回，由它继续。
+         * 持有读锁或写锁时调用，文件不会被关闭
+         */
+        private void advanceDigest() throws IOException {
+            // 释放 hashLock 后再检查一次：推进期间写完的分片的线程可能因 tryLock 失败而没有推进
+            while (nextChunkReceived() && hashLock.tryLock()) {
+                try {
+                    ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                    while (nextChunkReceived()) {
+                        int index = hashedChunks;
+                        MessageDigest snapshot = copy(digest);
+                        try {
+                            long position = index * chunkSize;
+                            long end = Math.min(position + chunkSize, fileSize);
+                            while (position < end) {
+                                buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+                                int read = channel.read(buffer, position);
+                                if (read < 0) {
+                                    throw new EOFException("分片 " + index + " 读取不完整：" + file);
+                                }
+                                digest.update(buffer.flip());
+                                position += read;
+                            }
+                        } catch (IOException | RuntimeException e) {
+                            digest = snapshot;
+                            throw e;
+                        }
+                        hashedChunks = index + 1;
+                    }
+                } finally {
+                    hashLock.unlock();
+                }
+            }
+        }
+
+        private boolean nextChunkReceived() {
+            int index = hashedChunks;
+            if (index >= chunkCount) {
+                return false;
+            }
+            synchronized (received) {
+                return received.get(index);
+            }
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package top.nextdoc4j.demo.controller.file.upload;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * multipart/form-data 请求体的增量解析（RFC 7578）
+ * <p>
+ * 只持有一块固定大小的缓冲区：{@link #next()} 读到下一个分段的头部后即返回，分段内容由 {@link Part#body()}
+ * 边读边在缓冲区中查找分隔符，读取方处理多少读多少，整个请求体不会落盘或进入内存。
+ * 未读完的分段在调用 {@link #next()} 时跳过。
+ * <p>
+ * 请求体格式错误（缺少分隔符、头部过大、提前结束）时抛出 {@link StreamingUploadException}。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public class MultipartStreamReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 单个分段头部的最大大小
+     */
+    private static final int MAX_HEADER_SIZE = 8 * 1024;
+
+    private final InputStream in;
+
+    /**
+     * CRLF--{boundary}
+     */
+    private final byte[] delimiter;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    private int pos;
+
+    private int limit;
+
+    private boolean eof;
+
+    /**
+     * [pos, scanned) 中已确认没有分隔符的开头，避免重复查找
+     */
+    private int scanned;
+
+    private boolean finished;
+
+    private PartBody current;
+
+    /**
+     * @param in       请求体
+     * @param boundary Content-Type 中的 boundary
+     */
+    public MultipartStreamReader(InputStream in, String boundary) {
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        // 第一个分隔符前没有 CRLF，在缓冲区开头补上，之前的内容（preamble）按一个分段跳过
+        buffer[limit++] = '\r';
+        buffer[limit++] = '\n';
+        this.current = new PartBody();
+    }
+
+    /**
+     * 取出 multipart Content-Type 中的 boundary
+     *
+     * @return 不是 multipart 或没有 boundary 时为 null
+     */
+    public static String boundary(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            if (!"multipart".equalsIgnoreCase(mediaType.getType())) {
+                return null;
+            }
+            String boundary = mediaType.getParameter("boundary");
+            if (boundary != null && boundary.length() > 1 && boundary.startsWith("\"") && boundary.endsWith("\"")) {
+                boundary = boundary.substring(1, boundary.length() - 1);
+            }
+            return boundary == null || boundary.isEmpty() || boundary.length() > 70 ? null : boundary;
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 跳过当前分段的剩余内容，读取下一个分段的头部
+     *
+     * @return 下一个分段，没有更多分段时为 null
+     */
+    public Part next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        current.skipRemaining();
+        if (!ensure(2)) {
+            throw new StreamingUploadException("multipart 请求体不完整：缺少结束分隔符");
+        }
+        if (buffer[pos] == '-' && buffer[pos + 1] == '-') {
+            finished = true;
+            return null;
+        }
+        // 分隔符后可以有空白（transport padding），然后是 CRLF
+        while (ensure(1) && (buffer[pos] == ' ' || buffer[pos] == '\t')) {
+            pos++;
+        }
+        if (!ensure(2) || buffer[pos] != '\r' || buffer[pos + 1] != '\n') {
+            throw new StreamingUploadException("multipart 请求体格式错误：分隔符后应为换行");
+        }
+        pos += 2;
+        HttpHeaders headers = readHeaders();
+        String disposition = headers.getFirst(HttpHeaders.CONTENT_DISPOSITION);
+        if (disposition == null) {
+            throw new StreamingUploadException("multipart 分段缺少 Content-Disposition");
+        }
+        ContentDisposition contentDisposition;
+        try {
+            contentDisposition = ContentDisposition.parse(disposition);
+        } catch (IllegalArgumentException e) {
+            throw new StreamingUploadException("multipart 分段的 Content-Disposition 无效：" + disposition, e);
+        }
+        current = new PartBody();
+        return new Part(contentDisposition.getName(), contentDisposition.getFilename(),
+                headers.getFirst(HttpHeaders.CONTENT_TYPE), current);
+    }
+
+    /**
+     * 读取分段头部直到空行，头部按 UTF-8 解码（浏览器直接以 UTF-8 发送中文文件名）
+     */
+    private HttpHeaders readHeaders() throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        int size = 0;
+        while (true) {
+            int end = lineEnd();
+            String line = new String(buffer, pos, end - pos, StandardCharsets.UTF_8);
+            size += end - pos + 2;
+            pos = end + 2;
+            if (line.isEmpty()) {
+                return headers;
+            }
+            if (size > MAX_HEADER_SIZE) {
+                throw new StreamingUploadException("multipart 分段头部超过 " + MAX_HEADER_SIZE + " bytes");
+            }
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.add(line.substring(0, colon).trim(), line.substring(colon + 1).trim());
+            }
+        }
+    }
+
+    /**
+     * 当前行 CRLF 的位置，必要时继续读取
+     */
+    private int lineEnd() throws IOException {
+        int from = pos;
+        while (true) {
+            for (int i = from; i + 1 < limit; i++) {
+                if (buffer[i] == '\r' && buffer[i + 1] == '\n') {
+                    return i;
+                }
+            }
+            if (limit - pos > MAX_HEADER_SIZE) {
+                throw new StreamingUploadException("multipart 分段头部超过 " + MAX_HEADER_SIZE + " bytes");
+            }
+            int length = limit - pos;
+            if (!ensure(length + 1)) {
+                throw new StreamingUploadException("multipart 请求体不完整：分段头部未结束");
+            }
+            from = pos + Math.max(length - 1, 0);
+        }
+    }
+
+    /**
+     * 确保缓冲区中至少有 n 个未读字节，请求体已结束时返回 false
+     */
+    private boolean ensure(int n) throws IOException {
+        while (limit - pos < n && !eof) {
+            if (limit == buffer.length || buffer.length - pos < n) {
+                System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+                limit -= pos;
+                scanned = Math.max(scanned - pos, 0);
+                pos = 0;
+            }
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                eof = true;
+            } else {
+                limit += read;
+            }
+        }
+        return limit - pos >= n;
+    }
+
+    /**
+     * 分隔符在 [pos, limit) 中的位置，没有时为 -1
+     */
+    private int indexOfDelimiter() {
+        int last = limit - delimiter.length;
+        outer:
+        for (int i = Math.max(pos, scanned); i <= last; i++) {
+            if (buffer[i] != '\r') {
+                continue;
+            }
+            for (int j = 1; j < delimiter.length; j++) {
+                if (buffer[i + j] != delimiter[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        scanned = Math.max(last + 1, pos);
+        return -1;
+    }
+
+    /**
+     * 分段
+     *
+     * @param name        表单字段名
+     * @param filename    文件名，普通字段为 null
+     * @param contentType 分段的 Content-Type，未指定时为 null
+     * @param body        分段内容，读到分隔符时结束；关闭不会关闭请求体
+     */
+    public record Part(String name, String filename, String contentType, InputStream body) {
+
+        /**
+         * 是否为文件（带 filename）
+         */
+        public boolean isFile() {
+            return filename != null;
+        }
+    }
+
+    /**
+     * 当前分段的内容：读到分隔符为止，分隔符本身被消费
+     */
+    private class PartBody extends InputStream {
+
+        private boolean done;
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return consume(b, off, len);
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            int skipped = consume(null, 0, (int) Math.min(n, Integer.MAX_VALUE));
+            return Math.max(skipped, 0);
+        }
+
+        @Override
+        public int available() {
+            if (done) {
+                return 0;
+            }
+            int index = indexOfDelimiter();
+            return index >= 0 ? index - pos : Math.max(limit - pos - delimiter.length + 1, 0);
+        }
+
+        void skipRemaining() throws IOException {
+            while (consume(null, 0, Integer.MAX_VALUE) >= 0) {
+                // 跳过
+            }
+        }
+
+        /**
+         * 读取（b 为 null 时跳过）不超过 len 个分隔符之前的字节
+         */
+        private int consume(byte[] b, int off, int len) throws IOException {
+            if (done || current != this) {
+                return -1;
+            }
+            if (len == 0) {
+                return 0;
+            }
+            ensure(delimiter.length);
+            int index = indexOfDelimiter();
+            if (index == pos) {
+                pos += delimiter.length;
+                done = true;
+                return -1;
+            }
+            int available;
+            if (index >= 0) {
+                available = index - pos;
+            } else if (eof) {
+                throw new StreamingUploadException("multipart 请求体不完整：分段未结束");
+            } else {
+                // 末尾不足一个分隔符长度的内容可能是分隔符的开头，留到下次读取
+                available = limit - pos - delimiter.length + 1;
+            }
+            int n = Math.min(len, available);
+            if (b != null) {
+                System.arraycopy(buffer, pos, b, off, n);
+            }
+            pos += n;
+            return n;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package top.nextdoc4j.demo.controller.file.upload;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.multipart.support.StandardServletMultipartResolver;
+
+import java.util.List;
+
+/**
+ * 跳过流式上传路径的 MultipartResolver
+ * <p>
+ * 默认的 {@link StandardServletMultipartResolver} 在进入 Controller 前由容器解析全部分段（大文件先写入临时文件），
+ * 并受 spring.servlet.multipart.max-file-size 限制。流式上传路径不按 multipart 处理，
+ * 请求体原样留给 {@link StreamingUploader} 读取；其他路径与默认行为一致。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public class StreamingMultipartResolver extends StandardServletMultipartResolver {
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    private final List<String> streamingPaths;
+
+    /**
+     * @param streamingPaths 流式上传路径（Ant 风格，不含 context-path）
+     */
+    public StreamingMultipartResolver(List<String> streamingPaths) {
+        this.streamingPaths = streamingPaths;
+    }
+
+    @Override
+    public boolean isMultipart(HttpServletRequest request) {
+        return !isStreaming(request) && super.isMultipart(request);
+    }
+
+    /**
+     * 是否为流式上传路径
+     */
+    public boolean isStreaming(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return streamingPaths.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+}
@@ -0,0 +1,22 @@
+package top.nextdoc4j.demo.controller.file.upload;
+
+import org.springframework.web.multipart.MultipartException;
+
+/**
+ * 流式上传的请求无效：不是 multipart 请求、请求体格式错误、文件数量或字段大小超过限制
+ * <p>
+ * 文件大小超过限制时抛出的是 {@link org.springframework.web.multipart.MaxUploadSizeExceededException}。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public class StreamingUploadException extends MultipartException {
+
+    public StreamingUploadException(String msg) {
+        super(msg);
+    }
+
+    public StreamingUploadException(String msg, Throwable cause) {
+        super(msg, cause);
+    }
+}
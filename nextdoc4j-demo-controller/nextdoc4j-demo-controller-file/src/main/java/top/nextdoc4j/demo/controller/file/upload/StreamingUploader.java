@@ -0,0 +1,195 @@
+package top.nextdoc4j.demo.controller.file.upload;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import top.nextdoc4j.demo.controller.file.storage.FileStorage;
+import top.nextdoc4j.demo.controller.file.storage.StoredFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 流式上传
+ * <p>
+ * 用 {@link MultipartStreamReader} 边读请求体边把每个文件分段交给 {@link FileStorage}，
+ * 每个请求只占用解析与复制用的两块固定缓冲区，可上传的文件大小只受 max-file-size 与磁盘限制。
+ * 请求需绕过 MultipartResolver（见 {@link StreamingMultipartResolver}），否则请求体已被容器读完。
+ * <p>
+ * 1. 普通字段读入内存，单个字段不超过 {@link #MAX_FIELD_SIZE}，字段数不超过 {@link #MAX_FIELDS}，
+ * 全部字段合计不超过 {@link #MAX_FIELDS_SIZE}
+ * 2. 文件超过 max-file-size 时中止读取并抛出 {@link MaxUploadSizeExceededException}
+ * 3. 任一文件失败时删除本次请求已保存的文件
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@Slf4j
+public class StreamingUploader {
+
+    /**
+     * 普通字段的最大大小
+     */
+    private static final int MAX_FIELD_SIZE = 64 * 1024;
+
+    /**
+     * 单次请求的最大普通字段数（同名字段重复提交也计数）
+     */
+    private static final int MAX_FIELDS = 64;
+
+    /**
+     * 单次请求全部普通字段的最大合计大小
+     */
+    private static final int MAX_FIELDS_SIZE = 256 * 1024;
+
+    private final FileStorage storage;
+
+    private final long maxFileSize;
+
+    private final int maxFiles;
+
+    /**
+     * @param storage     文件存储
+     * @param maxFileSize 单个文件的最大大小（字节）
+     * @param maxFiles    单次请求的最大文件数
+     */
+    public StreamingUploader(FileStorage storage, long maxFileSize, int maxFiles) {
+        this.storage = storage;
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = maxFiles;
+    }
+
+    /**
+     * 读取整个 multipart 请求体，文件依次写入存储
+     *
+     * @throws StreamingUploadException       请求无效（格式错误、文件数量等）
+     * @throws MaxUploadSizeExceededException 文件超过 max-file-size
+     */
+    public Result upload(HttpServletRequest request) throws IOException {
+        String boundary = MultipartStreamReader.boundary(request.getContentType());
+        if (boundary == null) {
+            throw new StreamingUploadException("请求不是 multipart/form-data 或缺少 boundary");
+        }
+        MultipartStreamReader reader = new MultipartStreamReader(request.getInputStream(), boundary);
+        List<UploadedFile> files = new ArrayList<>();
+        Map<String, String> fields = new LinkedHashMap<>();
+        int fieldCount = 0;
+        int fieldsSize = 0;
+        try {
+            MultipartStreamReader.Part part;
+            while ((part = reader.next()) != null) {
+                if (!part.isFile()) {
+                    if (++fieldCount > MAX_FIELDS) {
+                        throw new StreamingUploadException("字段数量不能超过" + MAX_FIELDS + "个");
+                    }
+                    byte[] value = readField(part, Math.min(MAX_FIELD_SIZE, MAX_FIELDS_SIZE - fieldsSize));
+                    fieldsSize += value.length;
+                    fields.put(part.name(), new String(value, StandardCharsets.UTF_8));
+                    continue;
+                }
+                // 浏览器未选择文件时也会提交 filename="" 的空分段
+                if (part.filename().isEmpty()) {
+                    continue;
+                }
+                if (files.size() >= maxFiles) {
+                    throw new StreamingUploadException("文件数量不能超过" + maxFiles + "个");
+                }
+                StoredFile stored = storage.store(part.filename(), new LimitedInputStream(part.body(), maxFileSize));
+                files.add(new UploadedFile(part.name(), part.filename(), part.contentType(), stored));
+            }
+        } catch (IOException | RuntimeException e) {
+            rollback(files);
+            throw e;
+        }
+        return new Result(files, fields);
+    }
+
+    /**
+     * 读取普通字段
+     *
+     * @param limit 本字段可用的大小：单个字段上限与剩余合计额度中的较小值
+     */
+    private static byte[] readField(MultipartStreamReader.Part part, int limit) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = part.body().read(buffer)) >= 0) {
+            if (out.size() + read > limit) {
+                throw new StreamingUploadException(limit < MAX_FIELD_SIZE
+                        ? "字段合计超过 " + MAX_FIELDS_SIZE + " bytes"
+                        : "字段 " + part.name() + " 超过 " + MAX_FIELD_SIZE + " bytes");
+            }
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private void rollback(List<UploadedFile> files) {
+        for (UploadedFile file : files) {
+            try {
+                storage.delete(file.stored().key());
+            } catch (IOException e) {
+                log.warn("回滚上传文件失败：{}", file.stored().key(), e);
+            }
+        }
+    }
+
+    /**
+     * 上传结果
+     *
+     * @param files  文件，顺序与请求一致
+     * @param fields 普通字段，同名字段保留最后一个
+     */
+    public record Result(List<UploadedFile> files, Map<String, String> fields) {
+    }
+
+    /**
+     * 读取超过上限时抛出 {@link MaxUploadSizeExceededException}，存储随之中止并删除写了一部分的文件
+     */
+    private static class LimitedInputStream extends FilterInputStream {
+
+        private final long max;
+
+        private long remaining;
+
+        LimitedInputStream(InputStream in, long max) {
+            super(in);
+            this.max = max;
+            this.remaining = max;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0 && --remaining < 0) {
+                throw new MaxUploadSizeExceededException(max);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n > 0 && (remaining -= n) < 0) {
+                throw new MaxUploadSizeExceededException(max);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(n);
+            if ((remaining -= skipped) < 0) {
+                throw new MaxUploadSizeExceededException(max);
+            }
+            return skipped;
+        }
+    }
+}
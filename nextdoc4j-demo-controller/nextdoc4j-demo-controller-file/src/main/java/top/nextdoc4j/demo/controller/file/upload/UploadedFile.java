@@ -0,0 +1,24 @@
+package top.nextdoc4j.demo.controller.file.upload;
+
+import cn.hutool.core.text.CharSequenceUtil;
+import top.nextdoc4j.demo.controller.file.storage.StoredFile;
+
+/**
+ * 上传的文件（流式上传、分片上传）
+ *
+ * @param fieldName    表单字段名，分片上传为 null
+ * @param originalName 原始文件名
+ * @param contentType  客户端声明的 Content-Type，未指定时为 null
+ * @param stored       保存的文件
+ * @author echo
+ * @since 2026/10/18
+ */
+public record UploadedFile(String fieldName, String originalName, String contentType, StoredFile stored) {
+
+    /**
+     * 未指定 Content-Type 时按 application/octet-stream 处理
+     */
+    public String contentTypeOrDefault() {
+        return CharSequenceUtil.blankToDefault(contentType, "application/octet-stream");
+    }
+}
@@ -110,7 +110,9 @@ public class RoleController {
         return R.ok(pageResult);
     }
 
-    @Operation(summary = "获取所有角色", description = "获取所有启用状态的角色列表，用于下拉选择")
+    @Operation(summary = "获取所有角色", description = "获取所有启用状态的角色列表，用于下拉选择",
+            extensions = @Extension(name = "x-nextdoc4j-cache",
+                    properties = @ExtensionProperty(name = "ttl", value = "30s")))
     @GetMapping("/list")
     public R<List<RoleResp>> getAllRoles() {
         List<RoleResp> roles = CollUtil.newArrayList();
@@ -10,9 +10,10 @@ import java.lang.annotation.*;
  * <p>同一状态码有多个 @ApiError 时，生成 mediaType 级 {@code examples}（命名多值，Swagger UI 下拉切换）。
  * <p>status = -1 时生成 {@code default} 响应码。
  * <p>无 schema 时（bareContent = true）只生成 description，不附加 content。
+ * <p>可作为元注解标注在组合注解上，多个接口共用同一组错误声明（取组合注解上声明的属性值）。
  */
 @Retention(RetentionPolicy.RUNTIME)
-@Target({ElementType.METHOD})
+@Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
 @Repeatable(ApiErrors.class)
 public @interface ApiError {
 
@@ -0,0 +1,23 @@
+package top.nextdoc4j.demo.core.annotation.index;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code @ApiError} 元数据索引
+ * <p>
+ * 由 {@link ApiErrorIndexProcessor} 在编译期为每个声明了 {@code @ApiError} 的类生成实现，
+ * 并通过 META-INF/services 注册，运行时由 {@link ApiErrorIndexes} 统一加载。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public interface ApiErrorIndex {
+
+    /**
+     * 注册当前类的错误元数据
+     *
+     * @param registry key 为方法签名（见 {@link ApiErrorIndexes#signature}），value 为按声明顺序排列的错误列表
+     */
+    void register(Map<String, List<ApiErrorMeta>> registry);
+}
@@ -0,0 +1,283 @@
+package top.nextdoc4j.demo.core.annotation.index;
+
+import top.nextdoc4j.demo.core.annotation.ApiError;
+import top.nextdoc4j.demo.core.annotation.ApiErrors;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * {@code @ApiError} 索引注解处理器
+ * <p>
+ * 编译期为每个声明了 {@code @ApiError} 的类生成 {@code <类名>_ApiErrorIndex}，
+ * 内容为 方法签名 -> 错误列表（按声明顺序，分组与排序由 {@link ApiErrorIndexes} 加载时完成），
+ * 并在 META-INF/services 中注册。依赖 nextdoc4j-demo-core 的模块会自动发现并执行该处理器。
+ * <p>
+ * 与运行时 AnnotatedElementUtils#getMergedRepeatableAnnotations 一致，除直接标注与 {@code @ApiErrors} 外，
+ * 也识别组合注解上的 {@code @ApiError}（元注解，取组合注解声明处的属性值，不支持 @AliasFor 覆盖），
+ * 先取直接标注，再逐层取元注解。
+ * <p>
+ * 增量编译只处理变更的类，注册文件会与已有的 META-INF/services 合并：保留未重新编译的类的索引，
+ * 剔除本次重新编译后不再声明 {@code @ApiError} 的类。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@SupportedAnnotationTypes("*")
+public class ApiErrorIndexProcessor extends AbstractProcessor {
+
+    private static final String SERVICE_FILE = "META-INF/services/" + ApiErrorIndex.class.getName();
+
+    private final Set<String> generated = new TreeSet<>();
+
+    /**
+     * 本次编译的所有类对应的索引类名（无论是否生成），合并注册文件时据此剔除旧条目
+     */
+    private final Set<String> compiled = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeServiceFile();
+            return false;
+        }
+
+        ElementFilter.typesIn(roundEnv.getRootElements()).forEach(this::scan);
+        return false;
+    }
+
+    private void scan(TypeElement type) {
+        compiled.add(qualifiedName(type));
+        Map<ExecutableElement, List<ApiErrorMeta>> methods = new LinkedHashMap<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            List<ApiErrorMeta> errors = collect(method);
+            if (!errors.isEmpty()) {
+                methods.put(method, errors);
+            }
+        }
+        if (!methods.isEmpty()) {
+            generate(type, methods);
+        }
+        ElementFilter.typesIn(type.getEnclosedElements()).forEach(this::scan);
+    }
+
+    /**
+     * 收集方法上的 {@code @ApiError}：先直接标注（含 {@code @ApiErrors}），再逐层查找元注解，去重
+     */
+    private List<ApiErrorMeta> collect(ExecutableElement method) {
+        Set<ApiErrorMeta> errors = new LinkedHashSet<>();
+        Set<String> visited = new HashSet<>();
+        List<? extends AnnotationMirror> level = method.getAnnotationMirrors();
+        while (!level.isEmpty()) {
+            List<AnnotationMirror> next = new ArrayList<>();
+            for (AnnotationMirror mirror : level) {
+                TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+                String name = annotationType.getQualifiedName().toString();
+                if (name.equals(ApiError.class.getName())) {
+                    errors.add(toMeta(mirror));
+                } else if (name.equals(ApiErrors.class.getName())) {
+                    for (Object value : (List<?>) values(mirror).get("value")) {
+                        errors.add(toMeta((AnnotationMirror) ((AnnotationValue) value).getValue()));
+                    }
+                } else if (!name.startsWith("java.lang.annotation.") && visited.add(name)) {
+                    next.addAll(annotationType.getAnnotationMirrors());
+                }
+            }
+            level = next;
+        }
+        return new ArrayList<>(errors);
+    }
+
+    private ApiErrorMeta toMeta(AnnotationMirror mirror) {
+        Map<String, Object> values = values(mirror);
+        return new ApiErrorMeta((String) values.get("code"),
+                (Integer) values.get("status"),
+                (String) values.get("reason"),
+                (String) values.get("message"),
+                (Boolean) values.get("bareContent"),
+                (String) values.get("mediaType"),
+                (Boolean) values.get("refExample"));
+    }
+
+    private Map<String, Object> values(AnnotationMirror mirror) {
+        Map<String, Object> values = new HashMap<>();
+        processingEnv.getElementUtils().getElementValuesWithDefaults(mirror)
+                .forEach((element, value) -> values.put(element.getSimpleName().toString(), value.getValue()));
+        return values;
+    }
+
+    private String qualifiedName(TypeElement type) {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+                .replace('$', '_') + "_ApiErrorIndex";
+        return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+    }
+
+    private void generate(TypeElement type, Map<ExecutableElement, List<ApiErrorMeta>> methods) {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String qualifiedName = qualifiedName(type);
+        String simpleName = qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1);
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("/**\n")
+                .append(" * ").append(type.getSimpleName()).append(" 的 @ApiError 元数据索引（编译期生成，请勿修改）\n")
+                .append(" */\n")
+                .append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+                .append("public final class ").append(simpleName)
+                .append(" implements ").append(ApiErrorIndex.class.getName()).append(" {\n\n")
+                .append("    @Override\n")
+                .append("    public void register(java.util.Map<String, java.util.List<")
+                .append(ApiErrorMeta.class.getName()).append(">> registry) {");
+
+        methods.forEach((method, errors) -> {
+            source.append("\n        registry.put(").append(literal(signature(binaryName, method)))
+                    .append(", java.util.List.of(");
+            for (int i = 0; i < errors.size(); i++) {
+                source.append(i == 0 ? "\n" : ",\n").append("                ").append(newMeta(errors.get(i)));
+            }
+            source.append("));\n");
+        });
+        source.append("    }\n}\n");
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+            writer.write(source.toString());
+            generated.add(qualifiedName);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "生成 @ApiError 索引失败：" + e.getMessage(), type);
+        }
+    }
+
+    private void writeServiceFile() {
+        Filer filer = processingEnv.getFiler();
+        Set<String> indexes = new TreeSet<>(generated);
+        boolean existed = false;
+        try {
+            FileObject existing = filer.getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (BufferedReader reader = new BufferedReader(existing.openReader(true))) {
+                existed = true;
+                reader.lines()
+                        .map(String::trim)
+                        .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                        .filter(className -> !compiled.contains(className))
+                        .filter(className -> processingEnv.getElementUtils().getTypeElement(className) != null)
+                        .forEach(indexes::add);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // 首次编译，尚无注册文件
+        }
+        if (indexes.isEmpty() && !existed) {
+            return;
+        }
+        try (Writer writer = filer.createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE).openWriter()) {
+            for (String className : indexes) {
+                writer.write(className);
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "写入 " + SERVICE_FILE + " 失败：" + e.getMessage());
+        }
+    }
+
+    private String newMeta(ApiErrorMeta error) {
+        return "new " + ApiErrorMeta.class.getName() + "("
+                + literal(error.code()) + ", "
+                + error.status() + ", "
+                + literal(error.reason()) + ", "
+                + literal(error.message()) + ", "
+                + error.bareContent() + ", "
+                + literal(error.mediaType()) + ", "
+                + error.refExample() + ")";
+    }
+
+    /**
+     * 与 {@link ApiErrorIndexes#signature} 保持一致：声明类二进制名#方法名(参数类型擦除后的二进制名, ...)
+     */
+    private String signature(String binaryName, ExecutableElement method) {
+        StringBuilder signature = new StringBuilder(binaryName)
+                .append('#').append(method.getSimpleName()).append('(');
+        List<? extends VariableElement> parameters = method.getParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) {
+                signature.append(',');
+            }
+            signature.append(typeName(parameters.get(i).asType()));
+        }
+        return signature.append(')').toString();
+    }
+
+    private String typeName(TypeMirror type) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        if (erased.getKind().isPrimitive()) {
+            return erased.getKind().name().toLowerCase();
+        }
+        return switch (erased.getKind()) {
+            case ARRAY -> typeName(((ArrayType) erased).getComponentType()) + "[]";
+            case DECLARED -> {
+                Element element = ((DeclaredType) erased).asElement();
+                yield processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString();
+            }
+            default -> erased.toString();
+        };
+    }
+
+    private static String literal(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> literal.append("\\\"");
+                case '\\' -> literal.append("\\\\");
+                case '\n' -> literal.append("\\n");
+                case '\r' -> literal.append("\\r");
+                case '\t' -> literal.append("\\t");
+                default -> {
+                    if (c < 0x20 || c > 0x7e) {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+                }
+            }
+        }
+        return literal.append('"').toString();
+    }
+}
@@ -0,0 +1,99 @@
+package top.nextdoc4j.demo.core.annotation.index;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.stream.Collectors;
+
+/**
+ * {@code @ApiError} 元数据索引入口
+ * <p>
+ * 首次访问时通过 {@link ServiceLoader} 合并所有模块编译期生成的 {@link ApiErrorIndex}，
+ * 同时按状态码分组、排序（状态码升序、组内错误码升序），之后按方法签名做一次 map 查找即可，不再反射扫描注解。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public final class ApiErrorIndexes {
+
+    private static final Map<String, List<ApiErrorMeta>> DECLARED = load();
+
+    private static final Map<String, Map<Integer, List<ApiErrorMeta>>> GROUPED = group(DECLARED);
+
+    private ApiErrorIndexes() {
+    }
+
+    /**
+     * 获取方法声明的错误，按状态码分组
+     *
+     * @param method 处理器方法
+     * @return 状态码 -> 错误列表（状态码升序、组内错误码升序），未声明时返回空 map
+     */
+    public static Map<Integer, List<ApiErrorMeta>> get(Method method) {
+        return GROUPED.getOrDefault(signature(method), Collections.emptyMap());
+    }
+
+    /**
+     * 获取方法声明的错误，保持声明顺序（与 AnnotatedElementUtils#getMergedRepeatableAnnotations 一致）
+     *
+     * @param method 处理器方法
+     * @return 错误列表，未声明时返回空列表
+     */
+    public static List<ApiErrorMeta> declared(Method method) {
+        return DECLARED.getOrDefault(signature(method), Collections.emptyList());
+    }
+
+    /**
+     * 已索引的方法数量
+     */
+    public static int size() {
+        return DECLARED.size();
+    }
+
+    /**
+     * 方法签名：声明类二进制名#方法名(参数类型擦除后的名称, ...)
+     * <p>
+     * 例：top.nextdoc4j.demo.controller.user.user.UserController#page(top.nextdoc4j.demo.core.model.query.UserQuery)
+     */
+    public static String signature(Method method) {
+        StringBuilder signature = new StringBuilder(method.getDeclaringClass().getName())
+                .append('#').append(method.getName()).append('(');
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (i > 0) {
+                signature.append(',');
+            }
+            signature.append(parameterTypes[i].getTypeName());
+        }
+        return signature.append(')').toString();
+    }
+
+    private static Map<String, List<ApiErrorMeta>> load() {
+        Map<String, List<ApiErrorMeta>> registry = new HashMap<>();
+        Iterator<ApiErrorIndex> indexes = ServiceLoader.load(ApiErrorIndex.class, ApiErrorIndexes.class.getClassLoader())
+                .iterator();
+        while (indexes.hasNext()) {
+            try {
+                indexes.next().register(registry);
+            } catch (ServiceConfigurationError e) {
+                // 注册文件中残留的已删除类（增量编译），跳过后继续加载其余索引
+            }
+        }
+        return Collections.unmodifiableMap(registry);
+    }
+
+    private static Map<String, Map<Integer, List<ApiErrorMeta>>> group(Map<String, List<ApiErrorMeta>> declared) {
+        Map<String, Map<Integer, List<ApiErrorMeta>>> grouped = new HashMap<>();
+        declared.forEach((signature, errors) -> grouped.put(signature, Collections.unmodifiableMap(errors.stream()
+                .sorted(Comparator.comparingInt(ApiErrorMeta::status).thenComparing(ApiErrorMeta::code))
+                .collect(Collectors.groupingBy(ApiErrorMeta::status, LinkedHashMap::new, Collectors.toList())))));
+        return Collections.unmodifiableMap(grouped);
+    }
+}
@@ -0,0 +1,23 @@
+package top.nextdoc4j.demo.core.annotation.index;
+
+/**
+ * {@link top.nextdoc4j.demo.core.annotation.ApiError} 的编译期快照，属性与注解一一对应。
+ *
+ * @param code        业务错误码
+ * @param status      HTTP 状态码，-1 表示 default 响应
+ * @param reason      错误描述
+ * @param message     message 字段值
+ * @param bareContent 是否为裸响应
+ * @param mediaType   media type
+ * @param refExample  是否提升到 components/examples
+ * @author echo
+ * @since 2026/10/18
+ */
+public record ApiErrorMeta(String code,
+                           int status,
+                           String reason,
+                           String message,
+                           boolean bareContent,
+                           String mediaType,
+                           boolean refExample) {
+}
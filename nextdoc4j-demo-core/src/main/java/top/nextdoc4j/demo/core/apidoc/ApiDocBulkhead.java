@@ -0,0 +1,50 @@
+package top.nextdoc4j.demo.core.apidoc;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 下游文档舱壁
+ * <p>
+ * 按键（路由 ID）限制同时等待下游的文档请求数。文档尚未缓存时请求需要等待拉取完成，
+ * 下游挂起时这些请求会一直占用线程（WebMVC 为 Servlet 线程）直到超时；超过上限的请求立即失败，不再排队，
+ * 单个服务的文档请求不会耗尽业务请求的线程。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public class ApiDocBulkhead {
+
+    private final int maxConcurrent;
+
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxConcurrent 每个键同时等待下游的请求数上限，不大于 0 时不限制
+     */
+    public ApiDocBulkhead(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    /**
+     * 获取许可，成功时必须调用 {@link #release}
+     */
+    public boolean tryAcquire(String key) {
+        return maxConcurrent <= 0 || permits.computeIfAbsent(key, k -> new Semaphore(maxConcurrent)).tryAcquire();
+    }
+
+    public void release(String key) {
+        if (maxConcurrent > 0) {
+            permits.get(key).release();
+        }
+    }
+
+    /**
+     * 当前等待下游的请求数
+     */
+    public int inUse(String key) {
+        Semaphore semaphore = permits.get(key);
+        return semaphore == null ? 0 : maxConcurrent - semaphore.availablePermits();
+    }
+}
@@ -0,0 +1,207 @@
+package top.nextdoc4j.demo.core.apidoc;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 下游文档拉取熔断
+ * <p>
+ * 按键（路由 ID）独立计数：
+ * 1. 关闭：正常拉取，连续失败（超时、连接失败、非 200）达到阈值后打开
+ * 2. 打开：不再请求下游，直接使用缓存的文档，不占用连接与拉取线程；持续 openDuration 后进入半开
+ * 3. 半开：只放行一次试探拉取，成功则关闭，失败则重新打开
+ * <p>
+ * 失败阈值不大于 0 时不熔断。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public class ApiDocCircuitBreaker {
+
+    private final int failureThreshold;
+
+    private final long openNanos;
+
+    private final StateListener listener;
+
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    /**
+     * @param failureThreshold 打开熔断的连续失败次数，不大于 0 时不熔断
+     * @param openDuration     打开状态的持续时间
+     * @param listener         状态变化监听（日志、指标）
+     */
+    public ApiDocCircuitBreaker(int failureThreshold, Duration openDuration, StateListener listener) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.listener = listener;
+    }
+
+    /**
+     * 是否允许本次拉取；允许时必须以 {@link #onSuccess}、{@link #onFailure} 或 {@link #release} 之一结束
+     */
+    public boolean tryAcquire(String key) {
+        return failureThreshold <= 0 || circuit(key).tryAcquire();
+    }
+
+    public void onSuccess(String key) {
+        if (failureThreshold > 0) {
+            circuit(key).onSuccess();
+        }
+    }
+
+    public void onFailure(String key) {
+        if (failureThreshold > 0) {
+            circuit(key).onFailure();
+        }
+    }
+
+    /**
+     * 放弃本次拉取（被取消，没有结果），不计入成功或失败；半开状态下允许下一次试探
+     */
+    public void release(String key) {
+        if (failureThreshold > 0) {
+            circuit(key).release();
+        }
+    }
+
+    public State state(String key) {
+        Circuit circuit = circuits.get(key);
+        return circuit == null ? State.CLOSED : circuit.state();
+    }
+
+    /**
+     * 距离进入半开的剩余时间，未打开时为 0
+     */
+    public Duration remaining(String key) {
+        Circuit circuit = circuits.get(key);
+        return circuit == null ? Duration.ZERO : circuit.remaining();
+    }
+
+    /**
+     * 只保留指定键的状态，其余（已不存在的路由）清理掉
+     */
+    public void retain(Collection<String> keys) {
+        circuits.keySet().retainAll(keys);
+    }
+
+    private Circuit circuit(String key) {
+        return circuits.computeIfAbsent(key, Circuit::new);
+    }
+
+    /**
+     * 熔断状态
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN;
+
+        /**
+         * 状态接口与指标标签值
+         */
+        public String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * 熔断状态变化监听
+     */
+    @FunctionalInterface
+    public interface StateListener {
+
+        /**
+         * @param key      路由 ID
+         * @param from     原状态
+         * @param to       新状态
+         * @param failures 连续失败次数
+         */
+        void onStateChange(String key, State from, State to, int failures);
+    }
+
+    private final class Circuit {
+
+        private final String key;
+
+        private State state = State.CLOSED;
+
+        private int failures;
+
+        private long openedAt;
+
+        private boolean trialInFlight;
+
+        Circuit(String key) {
+            this.key = key;
+        }
+
+        boolean tryAcquire() {
+            State from;
+            synchronized (this) {
+                if (state == State.CLOSED) {
+                    return true;
+                }
+                if (state == State.HALF_OPEN) {
+                    if (trialInFlight) {
+                        return false;
+                    }
+                    trialInFlight = true;
+                    return true;
+                }
+                if (System.nanoTime() - openedAt < openNanos) {
+                    return false;
+                }
+                from = state;
+                state = State.HALF_OPEN;
+                trialInFlight = true;
+            }
+            listener.onStateChange(key, from, State.HALF_OPEN, failures);
+            return true;
+        }
+
+        void onSuccess() {
+            State from;
+            synchronized (this) {
+                failures = 0;
+                trialInFlight = false;
+                if (state == State.CLOSED) {
+                    return;
+                }
+                from = state;
+                state = State.CLOSED;
+            }
+            listener.onStateChange(key, from, State.CLOSED, 0);
+        }
+
+        void onFailure() {
+            State from;
+            int count;
+            synchronized (this) {
+                count = ++failures;
+                trialInFlight = false;
+                if (state == State.OPEN || state == State.CLOSED && count < failureThreshold) {
+                    return;
+                }
+                from = state;
+                state = State.OPEN;
+                openedAt = System.nanoTime();
+            }
+            listener.onStateChange(key, from, State.OPEN, count);
+        }
+
+        synchronized void release() {
+            trialInFlight = false;
+        }
+
+        synchronized State state() {
+            return state;
+        }
+
+        synchronized Duration remaining() {
+            return state == State.OPEN ? Duration.ofNanos(Math.max(0, openNanos - (System.nanoTime() - openedAt)))
+                    : Duration.ZERO;
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package top.nextdoc4j.demo.core.apidoc;
+
+import top.nextdoc4j.demo.core.compression.PrecompressedContent;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * 下游文档并行拉取
+ * <p>
+ * N 个服务的文档同时拉取，耗时由各服务耗时之和降为最慢的单个服务。HTTP 请求由 {@link ApiDocTransport} 发出：
+ * 阻塞式（{@link ApiDocTransport#blocking}）每个文档在 {@link Executor} 的一个线程上完成一次请求，线程模型由调用方决定：
+ * 虚拟线程（拉取期间几乎不占用平台线程）或有界线程池（同时拉取的数量不超过池大小）；响应式网关传入非阻塞的实现。
+ * <p>
+ * 1. 每个文档独立超时（{@link ApiDocTarget#timeout()}），慢服务不拖累其他服务
+ * 2. 同一文档同时只有一次拉取（single-flight），并发请求共享结果，共享的次数计入 {@link #coalesced}：
+ * 同时打开文档页的人数再多，下游收到的请求数（{@link #fetches}）也不随之增加
+ * 3. 保留每个文档最近一次成功的结果，拉取失败时返回该结果（标记失败原因），从未成功过才抛出 {@link ApiDocUnavailableException}
+ * 4. 内容未变化时沿用已有的 {@link PrecompressedContent}，不重复压缩
+ * 5. 下游返回过 ETag 时发送 If-None-Match，文档未变化时下游只返回 304（几百字节的响应头），沿用缓存的文档
+ * 6. 按文档熔断（{@link ApiDocCircuitBreaker}）：连续失败后不再请求下游，直接使用缓存的文档，挂起的服务不再占用连接与拉取线程
+ * <p>
+ * 下游文档不再存在时（如服务下线后路由被移除）由调用方通过 {@link #retain} 清理其缓存与计数。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public class ApiDocFetcher {
+
+    private final ApiDocTransport transport;
+
+    private final int compressMinSize;
+
+    private final long maxSize;
+
+    private final ApiDocCircuitBreaker circuitBreaker;
+
+    private final FetchListener listener;
+
+    /**
+     * 文档标识 -> 最近一次成功拉取的文档
+     */
+    private final Map<String, ApiDocSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * 文档标识 -> 进行中的拉取
+     */
+    private final Map<String, CompletableFuture<ApiDocSnapshot>> inflight = new ConcurrentHashMap<>();
+
+    /**
+     * 文档标识 -> 请求下游的次数
+     */
+    private final Map<String, LongAdder> fetches = new ConcurrentHashMap<>();
+
+    /**
+     * 文档标识 -> 共享进行中拉取的次数
+     */
+    private final Map<String, LongAdder> coalesced = new ConcurrentHashMap<>();
+
+    /**
+     * 阻塞式拉取（{@link ApiDocTransport#blocking}）
+     *
+     * @param httpClient      HTTP 客户端
+     * @param executor        执行拉取的线程
+     * @param uriResolver     文档地址解析（如将 lb://服务名 解析为实例地址），每次拉取前调用
+     * @param compressMinSize 最小压缩大小
+     * @param maxSize         单个文档的最大大小
+     * @param circuitBreaker  熔断
+     * @param listener        拉取结果监听（指标、日志）
+     */
+    public ApiDocFetcher(HttpClient httpClient,
+                         Executor executor,
+                         UnaryOperator<URI> uriResolver,
+                         int compressMinSize,
+                         long maxSize,
+                         ApiDocCircuitBreaker circuitBreaker,
+                         FetchListener listener) {
+        this(ApiDocTransport.blocking(httpClient, executor, uriResolver), compressMinSize, maxSize, circuitBreaker,
+                listener);
+    }
+
+    /**
+     * @param transport       下游请求
+     * @param compressMinSize 最小压缩大小
+     * @param maxSize         单个文档的最大大小
+     * @param circuitBreaker  熔断
+     * @param listener        拉取结果监听（指标、日志）
+     */
+    public ApiDocFetcher(ApiDocTransport transport,
+                         int compressMinSize,
+                         long maxSize,
+                         ApiDocCircuitBreaker circuitBreaker,
+                         FetchListener listener) {
+        this.transport = transport;
+        this.compressMinSize = compressMinSize;
+        this.maxSize = maxSize;
+        this.circuitBreaker = circuitBreaker;
+        this.listener = listener;
+    }
+
+    /**
+     * 最近一次成功拉取的文档，从未成功过时返回 null
+     */
+    public ApiDocSnapshot lastGood(String id) {
+        return snapshots.get(id);
+    }
+
+    /**
+     * 请求下游的次数（不含熔断中未请求的）
+     */
+    public long fetches(String id) {
+        LongAdder count = fetches.get(id);
+        return count == null ? 0 : count.sum();
+    }
+
+    /**
+     * 共享进行中拉取、未请求下游的次数
+     */
+    public long coalesced(String id) {
+        LongAdder count = coalesced.get(id);
+        return count == null ? 0 : count.sum();
+    }
+
+    /**
+     * 并行拉取，等待全部完成（各自受超时约束）
+     *
+     * @return 文档标识 -> 文档（不含不可用的文档），顺序与参数一致
+     */
+    public Map<String, ApiDocSnapshot> fetchAll(Collection<ApiDocTarget> targets) {
+        Map<String, CompletableFuture<ApiDocSnapshot>> futures = new LinkedHashMap<>();
+        targets.forEach(target -> futures.put(target.id(), fetchAsync(target)));
+        Map<String, ApiDocSnapshot> result = new LinkedHashMap<>();
+        futures.forEach((id, future) -> {
+            try {
+                result.put(id, future.join());
+            } catch (CompletionException e) {
+                // 从未成功过的文档不计入结果，失败已由监听器记录
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 只保留指定文档的缓存与计数，其余（已不存在的下游文档）清理掉
+     *
+     * @param ids 仍然存在的文档标识
+     */
+    public void retain(Collection<String> ids) {
+        snapshots.keySet().retainAll(ids);
+        fetches.keySet().retainAll(ids);
+        coalesced.keySet().retainAll(ids);
+        circuitBreaker.retain(ids);
+    }
+
+    /**
+     * 异步拉取，同一文档的并发调用共享同一次拉取
+     *
+     * @return 本次拉取的文档；失败时为最近一次成功的文档（{@link ApiDocSnapshot#error()} 为失败原因），
+     * 从未成功过时以 {@link ApiDocUnavailableException} 结束
+     */
+    public CompletableFuture<ApiDocSnapshot> fetchAsync(ApiDocTarget target) {
+        CompletableFuture<ApiDocSnapshot> started = new CompletableFuture<>();
+        CompletableFuture<ApiDocSnapshot> future = inflight.computeIfAbsent(target.id(), id -> started);
+        if (future != started) {
+            coalesced.computeIfAbsent(target.id(), id -> new LongAdder()).increment();
+            listener.onCoalesced(target);
+            return future;
+        }
+        send(target).whenComplete((snapshot, e) -> {
+            // 只移除本次拉取，期间 refetch 排入的拉取保留
+            inflight.remove(target.id(), started);
+            if (e == null) {
+                started.complete(snapshot);
+            } else {
+                started.completeExceptionally(e);
+            }
+        });
+        return started;
+    }
+
+    /**
+     * 文档已知发生变化时重新拉取：进行中的拉取可能读到变化前的内容，排在其后重新拉取一次，
+     * 此后的 {@link #fetchAsync} 调用共享本次拉取
+     */
+    public CompletableFuture<ApiDocSnapshot> refetch(ApiDocTarget target) {
+        CompletableFuture<ApiDocSnapshot> future = inflight.compute(target.id(), (id, running) -> running == null
+                ? send(target)
+                : running.handle((snapshot, e) -> target).thenCompose(this::send));
+        future.whenComplete((snapshot, e) -> inflight.remove(target.id(), future));
+        return future;
+    }
+
+    /**
+     * 拉取并等待结果
+     *
+     * @return 本次拉取的文档；失败时为最近一次成功的文档（{@link ApiDocSnapshot#error()} 为失败原因）
+     * @throws ApiDocUnavailableException 拉取失败且从未成功过
+     */
+    public ApiDocSnapshot fetch(ApiDocTarget target) {
+        try {
+            return send(target).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private CompletableFuture<ApiDocSnapshot> send(ApiDocTarget target) {
+        long start = System.nanoTime();
+        if (!circuitBreaker.tryAcquire(target.id())) {
+            try {
+                return CompletableFuture.completedFuture(fallback(target, Outcome.REJECTED, "熔断中（"
+                        + circuitBreaker.remaining(target.id()).toSeconds() + " s 后重试）", null, start));
+            } catch (ApiDocUnavailableException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        ApiDocSnapshot previous = snapshots.get(target.id());
+        fetches.computeIfAbsent(target.id(), id -> new LongAdder()).increment();
+        CompletableFuture<ApiDocTransport.Response> response;
+        try {
+            response = transport.send(target, previous == null ? null : previous.upstreamEtag());
+        } catch (RuntimeException e) {
+            // 线程池拒绝等
+            response = CompletableFuture.failedFuture(e);
+        }
+        return response.handle((result, e) -> e == null
+                ? onResponse(target, previous, result, start)
+                : onError(target, unwrap(e), start));
+    }
+
+    private ApiDocSnapshot onResponse(ApiDocTarget target, ApiDocSnapshot previous, ApiDocTransport.Response response,
+                                      long start) {
+        Duration latency = Duration.ofNanos(System.nanoTime() - start);
+        if (response.status() == 304 && previous != null) {
+            ApiDocSnapshot snapshot = new ApiDocSnapshot(target, previous.content(), previous.upstreamEtag(),
+                    Instant.now(), latency.toMillis(), null);
+            snapshots.put(target.id(), snapshot);
+            circuitBreaker.onSuccess(target.id());
+            listener.onFetch(target, Outcome.NOT_MODIFIED, latency, null);
+            return snapshot;
+        }
+        byte[] body = response.body();
+        if (response.status() != 200) {
+            return onError(target, new IOException("HTTP " + response.status()), start);
+        }
+        if (body.length > maxSize) {
+            return onError(target, new IOException("文档大小 " + body.length + " bytes 超过上限 " + maxSize + " bytes"),
+                    start);
+        }
+        boolean unchanged = previous != null
+                && previous.content().getEtag().equals(PrecompressedContent.etag(body));
+        PrecompressedContent content = unchanged ? previous.content() : PrecompressedContent.of(body, compressMinSize);
+        ApiDocSnapshot snapshot = new ApiDocSnapshot(target, content, response.etag(), Instant.now(),
+                latency.toMillis(), null);
+        snapshots.put(target.id(), snapshot);
+        circuitBreaker.onSuccess(target.id());
+        listener.onFetch(target, Outcome.SUCCESS, latency, null);
+        return snapshot;
+    }
+
+    private ApiDocSnapshot onError(ApiDocTarget target, Throwable e, long start) {
+        if (e instanceof InterruptedException) {
+            circuitBreaker.release(target.id());
+            return fallback(target, Outcome.ERROR, "拉取被中断", e, start);
+        }
+        circuitBreaker.onFailure(target.id());
+        if (e instanceof HttpTimeoutException || e instanceof TimeoutException) {
+            return fallback(target, Outcome.TIMEOUT, "超时（" + target.timeout().toMillis() + " ms）", e, start);
+        }
+        return fallback(target, Outcome.ERROR, e.getClass().getSimpleName() + ": " + e.getMessage(), e, start);
+    }
+
+    private ApiDocSnapshot fallback(ApiDocTarget target, Outcome outcome, String error, Throwable e, long start) {
+        listener.onFetch(target, outcome, Duration.ofNanos(System.nanoTime() - start), error);
+        ApiDocSnapshot last = snapshots.computeIfPresent(target.id(), (id, snapshot) -> snapshot.withError(error));
+        if (last == null) {
+            throw new ApiDocUnavailableException(target, error, e);
+        }
+        return last;
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        Throwable cause = e;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /**
+     * 拉取结果
+     */
+    public enum Outcome {
+        SUCCESS, NOT_MODIFIED, TIMEOUT, ERROR,
+
+        /**
+         * 熔断中，未请求下游
+         */
+        REJECTED;
+
+        /**
+         * 指标标签值
+         */
+        public String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * 拉取结果监听
+     */
+    @FunctionalInterface
+    public interface FetchListener {
+
+        /**
+         * @param target  下游文档
+         * @param outcome 拉取结果
+         * @param latency 拉取耗时
+         * @param error   失败原因，成功时为 null
+         */
+        void onFetch(ApiDocTarget target, Outcome outcome, Duration latency, String error);
+
+        /**
+         * 请求共享了进行中的拉取，未请求下游
+         *
+         * @param target 下游文档
+         */
+        default void onCoalesced(ApiDocTarget target) {
+        }
+    }
+}
@@ -0,0 +1,546 @@
+package top.nextdoc4j.demo.core.apidoc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 下游文档合并
+ * <p>
+ * 将各路由的 OpenAPI 文档（已解析为 Map / List / 标量组成的 JSON 树）合并为一份网关文档：
+ * 1. 路径：下游路径前加上挂载前缀（被 StripPrefix 等过滤器去掉的部分），还原为网关侧地址
+ * 2. 组件（schemas、parameters、responses 等）：按结构哈希去重，同名且结构相同的组件（如各服务共用的 R、PageResult）只保留一份；
+ * 同名但结构不同时各自改名为 {命名空间}.{原名}，并改写引用它的 $ref（安全方案按名称引用，不改名，保留排在前面的定义）
+ * 3. 操作：同一路径同一方法由多个路由提供时，结构相同只保留一份，不同时保留排在前面的路由并记录冲突；
+ * operationId 重复时，除第一个外改名为 {命名空间}_{原 operationId}
+ * <p>
+ * 结构哈希是传递的：$ref 按被引用组件的哈希参与计算，引用了不同 UserResp 的 PageResultUserResp 不会被判为相同。
+ * <p>
+ * 增量合并：每个路由的解析结果、路径改写与哈希计算单独缓存，只在该路由的文档变化时重新计算；
+ * 合并时只有改名规则发生变化的路由才重新改写 $ref，其余路由直接复用上次的改写结果。合并结果在下一次变化前复用。
+ * <p>
+ * 线程安全。合并结果与内部缓存共享节点，调用方只读不写。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public class ApiDocMerger {
+
+    private static final String COMPONENT_REF_PREFIX = "#/components/";
+
+    private static final String SECURITY_SCHEMES = "securitySchemes/";
+
+    private static final Set<String> METHODS = Set.of("get", "put", "post", "delete", "options", "head", "patch",
+            "trace");
+
+    private final String title;
+
+    /**
+     * 路由 ID -> 文档贡献
+     */
+    private final Map<String, Contribution> contributions = new HashMap<>();
+
+    /**
+     * 路由顺序，冲突时排在前面的路由优先
+     */
+    private List<String> order = List.of();
+
+    private Merged merged;
+
+    private long revision;
+
+    /**
+     * @param title 合并文档的标题
+     */
+    public ApiDocMerger(String title) {
+        this.title = title;
+    }
+
+    /**
+     * 设置参与合并的路由及其顺序，不在列表中的路由从合并文档中移除
+     */
+    public synchronized void routes(List<String> routeIds) {
+        if (order.equals(routeIds)) {
+            return;
+        }
+        order = List.copyOf(routeIds);
+        contributions.keySet().retainAll(new HashSet<>(routeIds));
+        merged = null;
+    }
+
+    /**
+     * 路由的文档是否已按该版本合并，是时无需解析文档再调用 {@link #update}
+     *
+     * @param routeId   路由 ID
+     * @param mountPath 挂载前缀
+     * @param revision  文档版本（如内容 ETag）
+     */
+    public synchronized boolean isCurrent(String routeId, String mountPath, String revision) {
+        Contribution contribution = contributions.get(routeId);
+        return contribution != null && contribution.mountPath.equals(mountPath)
+                && contribution.revision.equals(revision);
+    }
+
+    /**
+     * 更新单个路由的文档，只重新计算该路由
+     *
+     * @param routeId   路由 ID
+     * @param namespace 命名空间，组件或 operationId 冲突时用作前缀（如服务名）
+     * @param mountPath 挂载前缀，下游路径加上该前缀即网关侧路径（如 /user），无前缀时为空串
+     * @param revision  文档版本（如内容 ETag）
+     * @param spec      解析后的 OpenAPI 文档
+     */
+    public synchronized void update(String routeId, String namespace, String mountPath, String revision,
+                                    Map<String, Object> spec) {
+        contributions.put(routeId, new Contribution(namespace, mountPath, revision, spec));
+        merged = null;
+    }
+
+    /**
+     * 合并文档，自上次合并后没有变化时直接返回上次的结果
+     */
+    public synchronized Merged merge() {
+        if (merged != null) {
+            return merged;
+        }
+        List<Contribution> routes = new ArrayList<>();
+        List<String> routeIds = new ArrayList<>();
+        for (String routeId : order) {
+            Contribution contribution = contributions.get(routeId);
+            if (contribution != null) {
+                routes.add(contribution);
+                routeIds.add(routeId);
+            }
+        }
+        List<Conflict> conflicts = new ArrayList<>();
+        Map<Contribution, Map<String, String>> refRenames = renameComponents(routes, routeIds, conflicts);
+        Map<Contribution, Set<String>> skipped = new HashMap<>();
+        Map<Contribution, Map<String, String>> operationIdRenames = resolveOperations(routes, routeIds, skipped,
+                conflicts);
+
+        Map<String, Map<String, Object>> components = new LinkedHashMap<>();
+        Map<String, Object> paths = new LinkedHashMap<>();
+        Map<String, Map<String, Object>> tags = new LinkedHashMap<>();
+        List<Object> security = new ArrayList<>();
+        Set<Object> infoVersions = new LinkedHashSet<>();
+        for (Contribution route : routes) {
+            Rendered rendered = route.render(new RenderKey(refRenames.get(route),
+                    operationIdRenames.getOrDefault(route, Map.of()), skipped.getOrDefault(route, Set.of())));
+            rendered.components.forEach((ref, value) -> {
+                int slash = ref.indexOf('/');
+                components.computeIfAbsent(ref.substring(0, slash), section -> new LinkedHashMap<>())
+                        .putIfAbsent(ref.substring(slash + 1), value);
+            });
+            rendered.paths.forEach((path, item) -> {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> target = (Map<String, Object>) paths.computeIfAbsent(path,
+                        key -> new LinkedHashMap<>());
+                item.forEach(target::putIfAbsent);
+            });
+            route.tags.forEach(tag -> tags.putIfAbsent(String.valueOf(tag.get("name")), tag));
+            route.security.stream().filter(requirement -> !security.contains(requirement)).forEach(security::add);
+            if (route.infoVersion != null) {
+                infoVersions.add(route.infoVersion);
+            }
+        }
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("openapi", routes.isEmpty() ? "3.0.1" : routes.get(0).openapi);
+        document.put("info", Map.of("title", title, "version",
+                infoVersions.size() == 1 ? infoVersions.iterator().next() : "merged"));
+        if (!security.isEmpty()) {
+            document.put("security", security);
+        }
+        if (!tags.isEmpty()) {
+            document.put("tags", new ArrayList<>(tags.values()));
+        }
+        document.put("paths", paths);
+        if (!components.isEmpty()) {
+            document.put("components", components);
+        }
+        merged = new Merged(++revision, List.copyOf(routeIds), document, List.copyOf(conflicts));
+        return merged;
+    }
+
+    /**
+     * 同名组件按结构哈希分组：只有一种结构时保留原名，多种结构时按首个提供该结构的路由的命名空间改名
+     *
+     * @return 路由 -> 需要改写的引用（#/components/schemas/UserResp -> #/components/schemas/user-service.UserResp）
+     */
+    private static Map<Contribution, Map<String, String>> renameComponents(List<Contribution> routes,
+                                                                            List<String> routeIds,
+                                                                            List<Conflict> conflicts) {
+        // 组件（section/name）-> 结构哈希 -> 首个提供该结构的路由下标
+        Map<String, Map<String, Integer>> variants = new LinkedHashMap<>();
+        for (int i = 0; i < routes.size(); i++) {
+            int index = i;
+            routes.get(i).componentHashes.forEach((key, hash) -> variants
+                    .computeIfAbsent(key, k -> new LinkedHashMap<>())
+                    .putIfAbsent(hash, index));
+        }
+        Set<String> taken = new HashSet<>();
+        variants.forEach((key, hashes) -> {
+            if (hashes.size() == 1) {
+                taken.add(key);
+            }
+        });
+        // 组件 + 结构哈希 -> 合并后的组件
+        Map<String, String> finalKeys = new HashMap<>();
+        variants.forEach((key, hashes) -> {
+            if (hashes.size() == 1) {
+                return;
+            }
+            List<String> providers = new ArrayList<>();
+            for (int i = 0; i < routes.size(); i++) {
+                if (routes.get(i).componentHashes.containsKey(key)) {
+                    providers.add(routeIds.get(i));
+                }
+            }
+            // 安全方案按名称引用（security 中不使用 $ref），改名会使引用失效，只保留排在前面的定义
+            if (key.startsWith(SECURITY_SCHEMES)) {
+                conflicts.add(new Conflict("component", key, providers,
+                        "同名安全方案定义不同，保留 " + providers.get(0)));
+                return;
+            }
+            int slash = key.indexOf('/');
+            hashes.forEach((hash, index) -> {
+                String candidate = key.substring(0, slash + 1) + routes.get(index).namespace + "."
+                        + key.substring(slash + 1);
+                String unique = candidate;
+                for (int n = 2; !taken.add(unique); n++) {
+                    unique = candidate + "_" + n;
+                }
+                finalKeys.put(key + "#" + hash, unique);
+            });
+            conflicts.add(new Conflict("component", key, providers,
+                    "同名组件结构不同（" + hashes.size() + " 种），按命名空间改名"));
+        });
+
+        Map<Contribution, Map<String, String>> renames = new HashMap<>();
+        for (Contribution route : routes) {
+            Map<String, String> refs = new TreeMap<>();
+            route.componentHashes.forEach((key, hash) -> {
+                String finalKey = finalKeys.get(key + "#" + hash);
+                if (finalKey != null) {
+                    refs.put(COMPONENT_REF_PREFIX + key, COMPONENT_REF_PREFIX + finalKey);
+                }
+            });
+            renames.put(route, refs);
+        }
+        return renames;
+    }
+
+    /**
+     * 同一路径同一方法只保留排在前面的路由，结构相同的视为重复；operationId 重复时除第一个外加命名空间前缀
+     *
+     * @param skipped 路由 -> 被跳过的操作（"路径 方法"）
+     * @return 路由 -> 操作（"路径 方法"）-> 改名后的 operationId
+     */
+    private static Map<Contribution, Map<String, String>> resolveOperations(List<Contribution> routes,
+                                                                             List<String> routeIds,
+                                                                             Map<Contribution, Set<String>> skipped,
+                                                                             List<Conflict> conflicts) {
+        Map<String, Integer> owners = new HashMap<>();
+        Map<String, List<String>> operationIds = new LinkedHashMap<>();
+        for (int i = 0; i < routes.size(); i++) {
+            Contribution route = routes.get(i);
+            for (Map.Entry<String, String> entry : route.operationHashes.entrySet()) {
+                String operation = entry.getKey();
+                Integer owner = owners.putIfAbsent(operation, i);
+                if (owner != null) {
+                    skipped.computeIfAbsent(route, r -> new HashSet<>()).add(operation);
+                    if (!routes.get(owner).operationHashes.get(operation).equals(entry.getValue())) {
+                        conflicts.add(new Conflict("operation", operation, List.of(routeIds.get(owner),
+                                routeIds.get(i)), "多个路由提供了不同的操作，保留 " + routeIds.get(owner)));
+                    }
+                    continue;
+                }
+                String operationId = route.operationIds.get(operation);
+                if (operationId != null) {
+                    operationIds.computeIfAbsent(operationId, id -> new ArrayList<>()).add(i + " " + operation);
+                }
+            }
+        }
+
+        Map<Contribution, Map<String, String>> renames = new HashMap<>();
+        operationIds.forEach((operationId, operations) -> {
+            if (operations.size() == 1) {
+                return;
+            }
+            Set<String> providers = new LinkedHashSet<>();
+            for (String value : operations) {
+                providers.add(routeIds.get(Integer.parseInt(value.substring(0, value.indexOf(' ')))));
+            }
+            for (String value : operations.subList(1, operations.size())) {
+                int space = value.indexOf(' ');
+                Contribution route = routes.get(Integer.parseInt(value.substring(0, space)));
+                renames.computeIfAbsent(route, r -> new TreeMap<>())
+                        .put(value.substring(space + 1), route.namespace + "_" + operationId);
+            }
+            conflicts.add(new Conflict("operationId", operationId, List.copyOf(providers),
+                    "operationId 重复，除第一个外加命名空间前缀"));
+        });
+        return renames;
+    }
+
+    /**
+     * 合并结果
+     *
+     * @param revision  合并版本，每次重新合并后递增
+     * @param routeIds  参与合并的路由（不含尚无文档的路由）
+     * @param document  合并后的 OpenAPI 文档
+     * @param conflicts 合并时发现的冲突
+     */
+    public record Merged(long revision, List<String> routeIds, Map<String, Object> document,
+                         List<Conflict> conflicts) {
+    }
+
+    /**
+     * 合并冲突
+     *
+     * @param type       component：同名组件结构不同；operation：同一路径同一方法的操作不同；operationId：operationId 重复
+     * @param name       组件（section/name）、操作（路径 方法）或 operationId
+     * @param routeIds   涉及的路由
+     * @param resolution 处理方式
+     */
+    public record Conflict(String type, String name, List<String> routeIds, String resolution) {
+    }
+
+    /**
+     * 改写规则
+     *
+     * @param refs         需要改写的引用
+     * @param operationIds 操作 -> 改名后的 operationId
+     * @param skipped      被跳过的操作
+     */
+    private record RenderKey(Map<String, String> refs, Map<String, String> operationIds, Set<String> skipped) {
+    }
+
+    /**
+     * 按改写规则改写后的路径与组件
+     */
+    private record Rendered(RenderKey key, Map<String, Map<String, Object>> paths, Map<String, Object> components) {
+    }
+
+    /**
+     * 单个路由的文档贡献：路径已加上挂载前缀，组件与操作已计算结构哈希
+     */
+    private static final class Contribution {
+
+        private final String namespace;
+
+        private final String mountPath;
+
+        private final String revision;
+
+        private final Object openapi;
+
+        private final Object infoVersion;
+
+        private final List<Map<String, Object>> tags = new ArrayList<>();
+
+        private final List<Object> security = new ArrayList<>();
+
+        /**
+         * 网关侧路径 -> 路径项
+         */
+        private final Map<String, Map<String, Object>> paths = new LinkedHashMap<>();
+
+        /**
+         * section/name -> 组件
+         */
+        private final Map<String, Object> components = new LinkedHashMap<>();
+
+        /**
+         * section/name -> 结构哈希
+         */
+        private final Map<String, String> componentHashes = new LinkedHashMap<>();
+
+        /**
+         * "路径 方法" -> 结构哈希
+         */
+        private final Map<String, String> operationHashes = new LinkedHashMap<>();
+
+        /**
+         * "路径 方法" -> operationId
+         */
+        private final Map<String, String> operationIds = new HashMap<>();
+
+        private Rendered rendered;
+
+        @SuppressWarnings("unchecked")
+        Contribution(String namespace, String mountPath, String revision, Map<String, Object> spec) {
+            this.namespace = namespace;
+            this.mountPath = mountPath;
+            this.revision = revision;
+            this.openapi = spec.getOrDefault("openapi", "3.0.1");
+            this.infoVersion = spec.get("info") instanceof Map<?, ?> info ? info.get("version") : null;
+            if (spec.get("tags") instanceof List<?> list) {
+                list.stream().filter(Map.class::isInstance).forEach(tag -> tags.add((Map<String, Object>) tag));
+            }
+            if (spec.get("security") instanceof List<?> list) {
+                security.addAll(list);
+            }
+            if (spec.get("components") instanceof Map<?, ?> sections) {
+                sections.forEach((section, values) -> {
+                    if (values instanceof Map<?, ?> map) {
+                        map.forEach((name, value) -> components.put(section + "/" + name, value));
+                    }
+                });
+            }
+            Map<String, String> memo = new HashMap<>();
+            components.keySet().forEach(key -> componentHashes.put(key, componentHash(key, memo, new HashSet<>())));
+            if (spec.get("paths") instanceof Map<?, ?> map) {
+                map.forEach((path, item) -> {
+                    if (!(item instanceof Map<?, ?> pathItem)) {
+                        return;
+                    }
+                    String mounted = mountPath + path;
+                    paths.put(mounted, (Map<String, Object>) pathItem);
+                    pathItem.forEach((method, operation) -> {
+                        if (!METHODS.contains(String.valueOf(method)) || !(operation instanceof Map<?, ?> op)) {
+                            return;
+                        }
+                        String key = mounted + " " + method;
+                        StringBuilder canonical = new StringBuilder(key).append(' ');
+                        canonical(op, canonical, memo);
+                        operationHashes.put(key, hash(canonical));
+                        if (op.get("operationId") instanceof String operationId) {
+                            operationIds.put(key, operationId);
+                        }
+                    });
+                });
+            }
+        }
+
+        /**
+         * 按改写规则改写，规则与上次相同时直接复用上次的结果
+         */
+        Rendered render(RenderKey key) {
+            if (rendered != null && rendered.key.equals(key)) {
+                return rendered;
+            }
+            Map<String, Map<String, Object>> renderedPaths = new LinkedHashMap<>();
+            paths.forEach((path, item) -> {
+                Map<String, Object> copy = new LinkedHashMap<>();
+                item.forEach((method, value) -> {
+                    String operation = path + " " + method;
+                    if (key.skipped.contains(operation)) {
+                        return;
+                    }
+                    Object rewritten = rewrite(value, key.refs);
+                    String operationId = key.operationIds.get(operation);
+                    if (operationId != null && rewritten instanceof Map<?, ?>) {
+                        @SuppressWarnings("unchecked")
+                        Map<String, Object> map = (Map<String, Object>) rewritten;
+                        map.put("operationId", operationId);
+                    }
+                    copy.put(method, rewritten);
+                });
+                if (copy.keySet().stream().anyMatch(METHODS::contains)) {
+                    renderedPaths.put(path, copy);
+                }
+            });
+            Map<String, Object> renderedComponents = new LinkedHashMap<>();
+            components.forEach((ref, value) -> {
+                String renamed = key.refs.get(COMPONENT_REF_PREFIX + ref);
+                renderedComponents.put(renamed == null ? ref : renamed.substring(COMPONENT_REF_PREFIX.length()),
+                        rewrite(value, key.refs));
+            });
+            rendered = new Rendered(key, renderedPaths, renderedComponents);
+            return rendered;
+        }
+
+        /**
+         * 组件的结构哈希，引用按被引用组件的哈希计算；循环引用处按名称计算
+         */
+        private String componentHash(String key, Map<String, String> memo, Set<String> visiting) {
+            String cached = memo.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            if (!components.containsKey(key)) {
+                return "missing:" + key;
+            }
+            if (!visiting.add(key)) {
+                return "cycle:" + key;
+            }
+            StringBuilder canonical = new StringBuilder();
+            canonical(components.get(key), canonical, memo, visiting);
+            visiting.remove(key);
+            String hash = hash(canonical);
+            memo.put(key, hash);
+            return hash;
+        }
+
+        private void canonical(Object node, StringBuilder out, Map<String, String> memo) {
+            canonical(node, out, memo, new HashSet<>());
+        }
+
+        /**
+         * 规范化表示：对象按键排序，组件引用替换为被引用组件的结构哈希
+         */
+        private void canonical(Object node, StringBuilder out, Map<String, String> memo, Set<String> visiting) {
+            if (node instanceof Map<?, ?> map) {
+                out.append('{');
+                new TreeMap<>(map).forEach((name, value) -> {
+                    out.append(quote(String.valueOf(name))).append(':');
+                    if ("$ref".equals(name) && value instanceof String ref && ref.startsWith(COMPONENT_REF_PREFIX)) {
+                        out.append('@').append(componentHash(ref.substring(COMPONENT_REF_PREFIX.length()), memo,
+                                visiting));
+                    } else {
+                        canonical(value, out, memo, visiting);
+                    }
+                    out.append(',');
+                });
+                out.append('}');
+            } else if (node instanceof List<?> list) {
+                out.append('[');
+                list.forEach(value -> {
+                    canonical(value, out, memo, visiting);
+                    out.append(',');
+                });
+                out.append(']');
+            } else if (node instanceof String value) {
+                out.append(quote(value));
+            } else {
+                out.append(node);
+            }
+        }
+
+        private static String quote(String value) {
+            return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+        }
+
+        private static String hash(CharSequence canonical) {
+            return ApiDocVersion.hash(canonical.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * 复制节点并改写其中的组件引用
+         */
+        private static Object rewrite(Object node, Map<String, String> refs) {
+            if (node instanceof Map<?, ?> map) {
+                Map<String, Object> copy = new LinkedHashMap<>(map.size());
+                map.forEach((name, value) -> copy.put(String.valueOf(name), "$ref".equals(name)
+                        && value instanceof String ref ? Objects.requireNonNullElse(refs.get(ref), ref)
+                        : rewrite(value, refs)));
+                return copy;
+            }
+            if (node instanceof List<?> list) {
+                List<Object> copy = new ArrayList<>(list.size());
+                list.forEach(value -> copy.add(rewrite(value, refs)));
+                return copy;
+            }
+            return node;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package top.nextdoc4j.demo.core.apidoc;
+
+import top.nextdoc4j.demo.core.compression.PrecompressedContent;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * 最近一次成功拉取的下游文档
+ *
+ * @param target        下游文档
+ * @param content       文档内容及其预压缩版本
+ * @param upstreamEtag  下游响应的 ETag，下次拉取时作为 If-None-Match 发送；下游未返回时为 null
+ * @param fetchedAt     拉取成功的时间
+ * @param latencyMillis 拉取耗时
+ * @param error         最近一次拉取失败的原因，最近一次成功时为 null
+ * @author echo
+ * @since 2026/10/18
+ */
+public record ApiDocSnapshot(ApiDocTarget target, PrecompressedContent content, String upstreamEtag,
+                             Instant fetchedAt, long latencyMillis, String error) {
+
+    public Duration age() {
+        return Duration.between(fetchedAt, Instant.now());
+    }
+
+    public boolean isExpired(Duration ttl) {
+        return age().compareTo(ttl) > 0;
+    }
+
+    /**
+     * 新鲜期内且最近一次拉取成功
+     */
+    public boolean isFresh(Duration ttl) {
+        return error == null && !isExpired(ttl);
+    }
+
+    ApiDocSnapshot withError(String error) {
+        return new ApiDocSnapshot(target, content, upstreamEtag, fetchedAt, latencyMillis, error);
+    }
+}
@@ -0,0 +1,16 @@
+package top.nextdoc4j.demo.core.apidoc;
+
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * 待拉取的下游文档
+ *
+ * @param id      标识（如网关路由 ID）
+ * @param uri     文档地址（可以是 lb://服务名/v3/api-docs，由 {@link ApiDocFetcher} 的地址解析器解析为实例地址）
+ * @param timeout 拉取超时时间
+ * @author echo
+ * @since 2026/10/18
+ */
+public record ApiDocTarget(String id, URI uri, Duration timeout) {
+}
@@ -0,0 +1,74 @@
+package top.nextdoc4j.demo.core.apidoc;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.UnaryOperator;
+
+/**
+ * 下游文档请求
+ * <p>
+ * {@link ApiDocFetcher} 只负责拉取策略（single-flight、304、熔断、失败回退），一次 HTTP 请求如何发出由调用方决定：
+ * Servlet 网关使用 {@link #blocking} 在拉取线程上阻塞请求，WebFlux 网关使用非阻塞的 WebClient。
+ * 超时以 {@link java.net.http.HttpTimeoutException} 或 {@link java.util.concurrent.TimeoutException} 结束。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@FunctionalInterface
+public interface ApiDocTransport {
+
+    /**
+     * 请求下游文档
+     *
+     * @param target      下游文档
+     * @param ifNoneMatch 上次响应的 ETag，没有时为 null
+     * @return 响应（任意状态码）；请求失败时以异常结束
+     */
+    CompletableFuture<Response> send(ApiDocTarget target, String ifNoneMatch);
+
+    /**
+     * 在 executor 的线程上通过 {@link HttpClient} 阻塞请求
+     *
+     * @param httpClient  HTTP 客户端
+     * @param executor    执行请求的线程
+     * @param uriResolver 文档地址解析（如将 lb://服务名 解析为实例地址），每次请求前调用
+     */
+    static ApiDocTransport blocking(HttpClient httpClient, Executor executor, UnaryOperator<URI> uriResolver) {
+        return (target, ifNoneMatch) -> CompletableFuture.supplyAsync(() -> {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(uriResolver.apply(target.uri()))
+                    .timeout(target.timeout())
+                    .header("Accept", "application/json")
+                    .GET();
+            if (ifNoneMatch != null) {
+                builder.header("If-None-Match", ifNoneMatch);
+            }
+            try {
+                HttpResponse<byte[]> response = httpClient.send(builder.build(),
+                        HttpResponse.BodyHandlers.ofByteArray());
+                return new Response(response.statusCode(), response.body(),
+                        response.headers().firstValue("ETag").orElse(null));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * 下游响应
+     *
+     * @param status 状态码
+     * @param body   响应体，没有时为空数组
+     * @param etag   ETag 响应头，没有时为 null
+     */
+    record Response(int status, byte[] body, String etag) {
+    }
+}
@@ -0,0 +1,20 @@
+package top.nextdoc4j.demo.core.apidoc;
+
+import lombok.Getter;
+
+/**
+ * 下游文档不可用（拉取失败且没有可用的缓存）
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@Getter
+public class ApiDocUnavailableException extends RuntimeException {
+
+    private final transient ApiDocTarget target;
+
+    public ApiDocUnavailableException(ApiDocTarget target, String reason, Throwable cause) {
+        super("下游文档 [" + target.id() + "] 暂不可用：" + reason, cause);
+        this.target = target;
+    }
+}
@@ -0,0 +1,61 @@
+package top.nextdoc4j.demo.core.apidoc;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * 服务文档版本
+ * <p>
+ * 服务在启动及配置刷新后计算自身文档的哈希，经 {@link ApiDocVersionPublisher} 推送给网关；
+ * 网关只在哈希变化时重新拉取该服务的文档，不再按新鲜期轮询。
+ *
+ * @param service     服务名（spring.application.name，与网关路由 lb://服务名 一致）
+ * @param hash        文档内容的 SHA-256（十六进制）
+ * @param publishedAt 推送时间
+ * @author echo
+ * @since 2026/10/18
+ */
+public record ApiDocVersion(String service, String hash, Instant publishedAt) {
+
+    /**
+     * 按文档内容创建版本
+     */
+    public static ApiDocVersion of(String service, byte[] spec) {
+        return new ApiDocVersion(service, hash(spec), Instant.now());
+    }
+
+    /**
+     * 文档内容的 SHA-256
+     */
+    public static String hash(byte[] spec) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(spec));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    /**
+     * 推送报文：{"service":"...","hash":"...","publishedAt":"..."}
+     */
+    public String toJson() {
+        return "{\"service\":\"" + escape(service) + "\",\"hash\":\"" + escape(hash)
+                + "\",\"publishedAt\":\"" + publishedAt + "\"}";
+    }
+
+    private static String escape(String value) {
+        StringBuilder builder = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            } else if (c < 0x20) {
+                builder.append(String.format("\\u%04x", (int) c));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+}
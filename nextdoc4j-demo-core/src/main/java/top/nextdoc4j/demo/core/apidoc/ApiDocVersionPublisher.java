@@ -0,0 +1,19 @@
+package top.nextdoc4j.demo.core.apidoc;
+
+/**
+ * 文档版本推送（传输方式可替换）
+ * <p>
+ * 1. {@link WebhookApiDocVersionPublisher}：HTTP 回调，推送给每个网关实例
+ * 2. {@link InMemoryApiDocVersionChannel}：进程内投递，用于测试或服务与网关同进程的场景
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@FunctionalInterface
+public interface ApiDocVersionPublisher {
+
+    /**
+     * 推送文档版本，投递失败不抛出异常（由实现自行记录）
+     */
+    void publish(ApiDocVersion version);
+}
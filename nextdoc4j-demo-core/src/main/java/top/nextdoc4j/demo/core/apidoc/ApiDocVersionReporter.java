@@ -0,0 +1,83 @@
+package top.nextdoc4j.demo.core.apidoc;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 服务端文档版本上报
+ * <p>
+ * 从本机地址读取服务自身输出的文档（与网关拉取到的内容一致，包含所有定制器的结果），计算哈希，
+ * 与上次上报的哈希不同时经 {@link ApiDocVersionPublisher} 推送。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public class ApiDocVersionReporter {
+
+    private final HttpClient httpClient;
+
+    private final String service;
+
+    private final ApiDocVersionPublisher publisher;
+
+    private final Duration timeout;
+
+    /**
+     * 最近一次推送的版本
+     */
+    private final AtomicReference<ApiDocVersion> last = new AtomicReference<>();
+
+    /**
+     * @param httpClient HTTP 客户端
+     * @param service    服务名
+     * @param publisher  推送方式
+     * @param timeout    读取本机文档的超时时间
+     */
+    public ApiDocVersionReporter(HttpClient httpClient,
+                                 String service,
+                                 ApiDocVersionPublisher publisher,
+                                 Duration timeout) {
+        this.httpClient = httpClient;
+        this.service = service;
+        this.publisher = publisher;
+        this.timeout = timeout;
+    }
+
+    /**
+     * 最近一次推送的版本，尚未推送时返回 null
+     */
+    public ApiDocVersion last() {
+        return last.get();
+    }
+
+    /**
+     * 读取文档并在哈希变化时推送
+     *
+     * @param docUri 本机文档地址
+     * @return 本次推送的版本；哈希未变化时返回 null
+     * @throws IOException 读取文档失败
+     */
+    public ApiDocVersion report(URI docUri) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(docUri)
+                .timeout(timeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException("HTTP " + response.statusCode());
+        }
+        ApiDocVersion version = ApiDocVersion.of(service, response.body());
+        ApiDocVersion previous = last.getAndSet(version);
+        if (previous != null && previous.hash().equals(version.hash())) {
+            return null;
+        }
+        publisher.publish(version);
+        return version;
+    }
+}
@@ -0,0 +1,31 @@
+package top.nextdoc4j.demo.core.apidoc;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 进程内文档版本通道
+ * <p>
+ * 推送时在当前线程上依次通知所有订阅者，不经过网络。服务端与网关共用同一个实例即可替代 HTTP 回调，
+ * 用于测试或单进程部署。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public class InMemoryApiDocVersionChannel implements ApiDocVersionPublisher {
+
+    private final List<Consumer<ApiDocVersion>> subscribers = new CopyOnWriteArrayList<>();
+
+    /**
+     * 订阅文档版本
+     */
+    public void subscribe(Consumer<ApiDocVersion> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    @Override
+    public void publish(ApiDocVersion version) {
+        subscribers.forEach(subscriber -> subscriber.accept(version));
+    }
+}
@@ -0,0 +1,116 @@
+package top.nextdoc4j.demo.core.apidoc;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * 通过 HTTP 回调推送文档版本
+ * <p>
+ * 每次推送时重新获取回调地址（如由服务发现列出所有网关实例），以 JSON POST 到每个地址。
+ * 各地址并行投递、互不影响，结果交给 {@link DeliveryListener}。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public class WebhookApiDocVersionPublisher implements ApiDocVersionPublisher {
+
+    /**
+     * 回调鉴权请求头
+     */
+    public static final String TOKEN_HEADER = "X-Api-Doc-Token";
+
+    private final HttpClient httpClient;
+
+    private final Supplier<Collection<URI>> endpoints;
+
+    private final Duration timeout;
+
+    private final String token;
+
+    private final DeliveryListener listener;
+
+    /**
+     * @param httpClient HTTP 客户端
+     * @param endpoints  回调地址，每次推送前调用
+     * @param timeout    单次投递超时时间
+     * @param token      回调鉴权令牌，为空时不发送
+     * @param listener   投递结果监听
+     */
+    public WebhookApiDocVersionPublisher(HttpClient httpClient,
+                                         Supplier<Collection<URI>> endpoints,
+                                         Duration timeout,
+                                         String token,
+                                         DeliveryListener listener) {
+        this.httpClient = httpClient;
+        this.endpoints = endpoints;
+        this.timeout = timeout;
+        this.token = token;
+        this.listener = listener;
+    }
+
+    @Override
+    public void publish(ApiDocVersion version) {
+        String body = version.toJson();
+        CompletableFuture.allOf(endpoints.get().stream()
+                .map(endpoint -> deliver(endpoint, version, body))
+                .toArray(CompletableFuture[]::new))
+                .join();
+    }
+
+    /**
+     * 校验回调携带的令牌：接收方未配置令牌时一律拒绝，比较耗时与令牌内容无关
+     *
+     * @param expected 接收方配置的令牌
+     * @param actual   请求头 {@link #TOKEN_HEADER} 的值
+     */
+    public static boolean isAuthorized(String expected, String actual) {
+        if (expected == null || expected.isEmpty() || actual == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8),
+                actual.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private CompletableFuture<Void> deliver(URI endpoint, ApiDocVersion version, String body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(endpoint)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null && !token.isEmpty()) {
+            request.header(TOKEN_HEADER, token);
+        }
+        return httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.discarding())
+                .handle((response, e) -> {
+                    if (e != null) {
+                        listener.onDelivery(endpoint, version, e.getClass().getSimpleName() + ": " + e.getMessage());
+                    } else if (response.statusCode() / 100 != 2) {
+                        listener.onDelivery(endpoint, version, "HTTP " + response.statusCode());
+                    } else {
+                        listener.onDelivery(endpoint, version, null);
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * 投递结果监听
+     */
+    @FunctionalInterface
+    public interface DeliveryListener {
+
+        /**
+         * @param endpoint 回调地址
+         * @param version  文档版本
+         * @param error    失败原因，成功时为 null
+         */
+        void onDelivery(URI endpoint, ApiDocVersion version, String error);
+    }
+}
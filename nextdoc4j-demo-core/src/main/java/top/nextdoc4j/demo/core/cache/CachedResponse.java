@@ -0,0 +1,45 @@
+package top.nextdoc4j.demo.core.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 缓存的网关响应
+ *
+ * @param status    状态码
+ * @param headers   响应头（不含逐跳响应头与 Content-Length）
+ * @param body      响应体
+ * @param storedAt  缓存时间（System.nanoTime）
+ * @param expiresAt 过期时间（System.nanoTime）
+ * @author echo
+ * @since 2026/10/18
+ */
+public record CachedResponse(int status, Map<String, List<String>> headers, byte[] body, long storedAt,
+                             long expiresAt) {
+
+    public boolean isFresh() {
+        return System.nanoTime() - expiresAt < 0;
+    }
+
+    /**
+     * 已缓存时长，用于 Age 响应头
+     */
+    public Duration age() {
+        return Duration.ofNanos(System.nanoTime() - storedAt);
+    }
+
+    /**
+     * 占用的内存（近似值）
+     */
+    long weight() {
+        long weight = body.length;
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            weight += header.getKey().length();
+            for (String value : header.getValue()) {
+                weight += value.length();
+            }
+        }
+        return weight;
+    }
+}
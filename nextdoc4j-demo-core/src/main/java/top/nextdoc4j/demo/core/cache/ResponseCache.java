@@ -0,0 +1,293 @@
+package top.nextdoc4j.demo.core.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * 网关响应缓存
+ * <p>
+ * 1. 有界 LRU：条目数与总大小（响应体 + 响应头，近似值）任一超限时淘汰最久未访问的条目，过期条目在访问时移除
+ * 2. 请求合并：同一缓存键未命中时只有第一个请求（{@link Lookup.Kind#LOAD}）转发给下游，
+ * 其余请求（{@link Lookup.Kind#WAIT}）等待其结果；结果不可缓存或转发失败时，等待的请求各自转发
+ * 3. 只缓存 200、未压缩、不带 Set-Cookie 且 Cache-Control 不含 no-store / no-cache / private 的响应
+ * 4. 缓存键总是包含请求凭据（Authorization、Cookie），不同用户的请求不会共用缓存；凭据只以摘要形式保存在键中
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public class ResponseCache {
+
+    /**
+     * 逐跳响应头，不随缓存保存
+     */
+    private static final Set<String> HOP_BY_HOP = Set.of("connection", "keep-alive", "proxy-connection", "te",
+            "trailer", "transfer-encoding", "upgrade", "content-length");
+
+    /**
+     * 请求凭据，总是计入缓存键
+     */
+    private static final List<String> CREDENTIALS = List.of("authorization", "cookie");
+
+    private final int maxEntries;
+
+    private final long maxSize;
+
+    private final long maxEntrySize;
+
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long size;
+
+    /**
+     * 缓存键 -> 正在转发的请求的结果
+     */
+    private final Map<String, CompletableFuture<CachedResponse>> inflight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder coalesced = new LongAdder();
+
+    private final LongAdder uncacheable = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxEntries   最大条目数
+     * @param maxSize      最大总大小
+     * @param maxEntrySize 单个响应的最大大小，超过时不缓存
+     */
+    public ResponseCache(int maxEntries, long maxSize, long maxEntrySize) {
+        this.maxEntries = maxEntries;
+        this.maxSize = maxSize;
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    /**
+     * 查找缓存：命中时返回 HIT；相同请求正在转发时返回 WAIT；否则本次请求负责转发，返回 LOAD，
+     * 转发结束后必须调用 {@link #complete} 或 {@link #abandon}
+     */
+    public Lookup lookup(String key) {
+        CachedResponse cached = get(key);
+        if (cached != null) {
+            hits.increment();
+            return new Lookup(Lookup.Kind.HIT, key, cached, null);
+        }
+        CompletableFuture<CachedResponse> pending = new CompletableFuture<>();
+        CompletableFuture<CachedResponse> running = inflight.putIfAbsent(key, pending);
+        if (running != null) {
+            coalesced.increment();
+            return new Lookup(Lookup.Kind.WAIT, key, null, running);
+        }
+        // 查找与登记之间，上一次转发可能刚好完成
+        cached = get(key);
+        if (cached != null) {
+            inflight.remove(key, pending);
+            pending.complete(cached);
+            hits.increment();
+            return new Lookup(Lookup.Kind.HIT, key, cached, null);
+        }
+        misses.increment();
+        return new Lookup(Lookup.Kind.LOAD, key, null, pending);
+    }
+
+    /**
+     * 转发完成：可缓存时保存，并把结果交给等待的请求
+     *
+     * @return 缓存的响应，不可缓存时为 null
+     */
+    public CachedResponse complete(Lookup load, Duration ttl, int status, Map<String, List<String>> headers,
+                                   byte[] body) {
+        CachedResponse response = null;
+        if (isCacheable(status, headers) && body.length <= maxEntrySize) {
+            long now = System.nanoTime();
+            response = new CachedResponse(status, withoutHopByHop(headers), body, now, now + ttl.toNanos());
+            put(load.key(), response);
+        } else {
+            uncacheable.increment();
+        }
+        inflight.remove(load.key(), load.future());
+        load.future().complete(response);
+        return response;
+    }
+
+    /**
+     * 转发结果不可缓存（状态码、响应头或大小不满足条件），未读取响应体时调用：等待的请求各自转发
+     */
+    public void reject(Lookup load) {
+        uncacheable.increment();
+        abandon(load);
+    }
+
+    /**
+     * 转发失败或被取消：等待的请求各自转发；已完成时无影响
+     */
+    public void abandon(Lookup load) {
+        inflight.remove(load.key(), load.future());
+        load.future().complete(null);
+    }
+
+    public Stats stats() {
+        synchronized (this) {
+            return new Stats(hits.sum(), misses.sum(), coalesced.sum(), uncacheable.sum(), evictions.sum(),
+                    entries.size(), size);
+        }
+    }
+
+    /**
+     * 缓存键：路径、按参数排序的查询字符串、请求凭据的摘要、规则声明的请求头
+     *
+     * @param header 按名称读取请求头，不存在时返回 null
+     */
+    public static String key(String path, String query, List<String> vary, UnaryOperator<String> header) {
+        StringBuilder key = new StringBuilder(path);
+        if (query != null && !query.isEmpty()) {
+            String[] params = query.split("&");
+            Arrays.sort(params);
+            key.append('?').append(String.join("&", params));
+        }
+        for (String name : CREDENTIALS) {
+            String value = header.apply(name);
+            if (value != null) {
+                key.append('\n').append(name).append(':').append(digest(value));
+            }
+        }
+        for (String name : vary) {
+            String lower = name.toLowerCase(Locale.ROOT);
+            if (!CREDENTIALS.contains(lower)) {
+                key.append('\n').append(lower).append(':').append(Objects.toString(header.apply(name), ""));
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * 请求是否可以使用缓存：只有 GET，且不是范围请求、未要求跳过缓存
+     */
+    public static boolean isCacheableRequest(String method, String range, String cacheControl) {
+        return "GET".equals(method) && range == null
+                && (cacheControl == null || !containsAny(cacheControl, "no-cache", "no-store"));
+    }
+
+    /**
+     * 响应是否可以缓存
+     */
+    public static boolean isCacheable(int status, Map<String, List<String>> headers) {
+        if (status != 200) {
+            return false;
+        }
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            String name = header.getKey().toLowerCase(Locale.ROOT);
+            if (name.equals("set-cookie") || name.equals("content-encoding")) {
+                return false;
+            }
+            if ((name.equals("cache-control") || name.equals("vary")) && header.getValue().stream()
+                    .anyMatch(value -> containsAny(value, "no-store", "no-cache", "private", "*"))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private synchronized CachedResponse get(String key) {
+        CachedResponse cached = entries.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (!cached.isFresh()) {
+            entries.remove(key);
+            size -= cached.weight();
+            return null;
+        }
+        return cached;
+    }
+
+    private synchronized void put(String key, CachedResponse response) {
+        CachedResponse previous = entries.put(key, response);
+        if (previous != null) {
+            size -= previous.weight();
+        }
+        size += response.weight();
+        Iterator<CachedResponse> eldest = entries.values().iterator();
+        while ((entries.size() > maxEntries || size > maxSize) && eldest.hasNext()) {
+            size -= eldest.next().weight();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private static Map<String, List<String>> withoutHopByHop(Map<String, List<String>> headers) {
+        Map<String, List<String>> copy = new LinkedHashMap<>();
+        headers.forEach((name, values) -> {
+            if (!HOP_BY_HOP.contains(name.toLowerCase(Locale.ROOT))) {
+                copy.put(name, List.copyOf(values));
+            }
+        });
+        return copy;
+    }
+
+    private static String digest(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    private static boolean containsAny(String value, String... tokens) {
+        String lower = value.toLowerCase(Locale.ROOT);
+        for (String token : tokens) {
+            if (lower.contains(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 查找结果
+     *
+     * @param kind     HIT：命中；WAIT：等待相同请求的结果；LOAD：由本次请求转发
+     * @param key      缓存键
+     * @param response 命中的响应，仅 HIT
+     * @param future   相同请求的结果（WAIT），或本次转发的结果（LOAD）；结果为 null 表示不可缓存或转发失败
+     */
+    public record Lookup(Kind kind, String key, CachedResponse response, CompletableFuture<CachedResponse> future) {
+
+        public enum Kind {
+            HIT, WAIT, LOAD
+        }
+    }
+
+    /**
+     * 缓存统计
+     *
+     * @param hits        命中次数
+     * @param misses      未命中次数（转发给下游）
+     * @param coalesced   合并到相同请求的次数（未转发给下游）
+     * @param uncacheable 转发结果不可缓存的次数
+     * @param evictions   淘汰次数
+     * @param entries     当前条目数
+     * @param size        当前总大小
+     */
+    public record Stats(long hits, long misses, long coalesced, long uncacheable, long evictions, int entries,
+                        long size) {
+    }
+}
@@ -0,0 +1,39 @@
+package top.nextdoc4j.demo.core.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 网关响应缓存规则
+ *
+ * @param routeId 声明规则的路由 ID
+ * @param source  规则来源
+ * @param pattern 网关侧路径模式：* 匹配一段，** 匹配任意多段，{变量} 匹配一段
+ * @param ttl     缓存时长
+ * @param vary    缓存键额外包含的请求头（如 Accept-Language；Authorization、Cookie 总是计入缓存键）
+ * @author echo
+ * @since 2026/10/18
+ */
+public record ResponseCacheRule(String routeId, Source source, String pattern, Duration ttl, List<String> vary) {
+
+    /**
+     * 规则来源，路由元数据优先于 OpenAPI 扩展
+     */
+    public enum Source {
+
+        /**
+         * 路由元数据 nextdoc4j.cache
+         */
+        METADATA,
+
+        /**
+         * 下游文档中接口的 OpenAPI 扩展（x-nextdoc4j-cache）
+         */
+        OPENAPI;
+
+        public String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package top.nextdoc4j.demo.core.cache;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 网关响应缓存规则集
+ * <p>
+ * 规则有两个来源：
+ * 1. 路由元数据 nextdoc4j.cache：按网关侧路径声明，如 {@code - path: /system/api/system/info, ttl: 30s}
+ * 2. 下游文档中 GET 接口的 OpenAPI 扩展（默认 x-nextdoc4j-cache），如 {@code {"ttl": "30s", "vary": "Accept-Language"}}，
+ * 接口路径按路由的挂载前缀（StripPrefix 去掉的部分）还原为网关侧路径
+ * <p>
+ * 每个来源按路由独立更新（以文档 ETag 等作为版本，版本不变时不重新解析）；匹配时路由元数据优先，
+ * 同一来源内固定路径优先于含通配的路径。匹配在请求线程上执行，规则集更新后整体替换。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public class ResponseCacheRules {
+
+    private static final Pattern TTL = Pattern.compile("(\\d+)\\s*(ms|s|m|h|d)?");
+
+    /**
+     * 来源:路由 ID -> 该路由的规则
+     */
+    private final Map<String, RouteRules> routes = new ConcurrentHashMap<>();
+
+    private volatile List<CompiledRule> compiled = List.of();
+
+    /**
+     * 该路由该来源的规则是否已是此版本
+     */
+    public boolean isCurrent(String routeId, ResponseCacheRule.Source source, String revision) {
+        RouteRules current = routes.get(key(routeId, source));
+        return current != null && Objects.equals(current.revision(), revision);
+    }
+
+    /**
+     * 替换该路由该来源的规则
+     */
+    public synchronized void update(String routeId, ResponseCacheRule.Source source, String revision,
+                                    List<ResponseCacheRule> rules) {
+        routes.put(key(routeId, source), new RouteRules(routeId, revision, List.copyOf(rules)));
+        compile();
+    }
+
+    /**
+     * 只保留仍存在的路由的规则
+     */
+    public synchronized void retain(Collection<String> routeIds) {
+        if (routes.values().removeIf(route -> !routeIds.contains(route.routeId()))) {
+            compile();
+        }
+    }
+
+    /**
+     * 匹配网关侧路径，没有规则时返回 null
+     */
+    public ResponseCacheRule match(String path) {
+        for (CompiledRule rule : compiled) {
+            if (rule.regex().matcher(path).matches()) {
+                return rule.rule();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 当前生效的规则，按匹配顺序
+     */
+    public List<ResponseCacheRule> rules() {
+        return compiled.stream().map(CompiledRule::rule).toList();
+    }
+
+    /**
+     * 解析路由元数据中的 nextdoc4j.cache：规则列表（或按下标绑定的 Map），每条含 path、ttl，可选 vary
+     */
+    public static List<ResponseCacheRule> fromMetadata(String routeId, Map<String, Object> metadata) {
+        if (!(metadata.get("nextdoc4j") instanceof Map<?, ?> nextdoc4j)) {
+            return List.of();
+        }
+        Object cache = nextdoc4j.get("cache");
+        Collection<?> entries = cache instanceof Map<?, ?> indexed ? indexed.values()
+                : cache instanceof Collection<?> list ? list : List.of();
+        List<ResponseCacheRule> rules = new ArrayList<>();
+        for (Object entry : entries) {
+            if (entry instanceof Map<?, ?> map && map.get("path") instanceof String path && !path.isBlank()) {
+                Duration ttl = parseTtl(map.get("ttl"));
+                if (ttl != null) {
+                    rules.add(new ResponseCacheRule(routeId, ResponseCacheRule.Source.METADATA, path.trim(), ttl,
+                            parseVary(map.get("vary"))));
+                }
+            }
+        }
+        return rules;
+    }
+
+    /**
+     * 解析下游文档中 GET 接口的 OpenAPI 扩展
+     *
+     * @param routeId   路由 ID
+     * @param mountPath 网关侧挂载前缀（如 /system），下游路径与网关侧路径相同时为空字符串
+     * @param spec      下游文档
+     * @param extension 扩展名，如 x-nextdoc4j-cache
+     */
+    public static List<ResponseCacheRule> fromOpenApi(String routeId, String mountPath, Map<String, Object> spec,
+                                                      String extension) {
+        if (!(spec.get("paths") instanceof Map<?, ?> paths)) {
+            return List.of();
+        }
+        List<ResponseCacheRule> rules = new ArrayList<>();
+        paths.forEach((path, item) -> {
+            if (item instanceof Map<?, ?> pathItem && pathItem.get("get") instanceof Map<?, ?> operation
+                    && operation.get(extension) instanceof Map<?, ?> declared) {
+                Duration ttl = parseTtl(declared.get("ttl"));
+                if (ttl != null) {
+                    rules.add(new ResponseCacheRule(routeId, ResponseCacheRule.Source.OPENAPI, mountPath + path, ttl,
+                            parseVary(declared.get("vary"))));
+                }
+            }
+        });
+        return rules;
+    }
+
+    /**
+     * 解析缓存时长：30s、500ms、5m、1h、1d、纯数字（秒）或 ISO-8601（PT30S），无法解析或不大于 0 时返回 null
+     */
+    static Duration parseTtl(Object value) {
+        if (value instanceof Number number) {
+            return number.longValue() > 0 ? Duration.ofSeconds(number.longValue()) : null;
+        }
+        if (!(value instanceof String text) || text.isBlank()) {
+            return null;
+        }
+        String trimmed = text.trim().toLowerCase(Locale.ROOT);
+        Duration ttl;
+        Matcher matcher = TTL.matcher(trimmed);
+        if (matcher.matches()) {
+            long amount = Long.parseLong(matcher.group(1));
+            String unit = matcher.group(2) == null ? "s" : matcher.group(2);
+            ttl = switch (unit) {
+                case "ms" -> Duration.ofMillis(amount);
+                case "m" -> Duration.ofMinutes(amount);
+                case "h" -> Duration.ofHours(amount);
+                case "d" -> Duration.ofDays(amount);
+                default -> Duration.ofSeconds(amount);
+            };
+        } else {
+            try {
+                ttl = Duration.parse(trimmed.toUpperCase(Locale.ROOT));
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+        return ttl.isZero() || ttl.isNegative() ? null : ttl;
+    }
+
+    /**
+     * 解析 vary：逗号分隔的字符串或列表（或按下标绑定的 Map）
+     */
+    static List<String> parseVary(Object value) {
+        Collection<?> values = value instanceof Map<?, ?> indexed ? indexed.values()
+                : value instanceof Collection<?> list ? list
+                : value instanceof String text ? Arrays.asList(text.split(",")) : List.of();
+        return values.stream()
+                .map(String::valueOf)
+                .map(String::trim)
+                .filter(header -> !header.isEmpty())
+                .toList();
+    }
+
+    private void compile() {
+        compiled = routes.values().stream()
+                .flatMap(route -> route.rules().stream())
+                .sorted(Comparator.comparing(ResponseCacheRule::source)
+                        .thenComparing(rule -> isWildcard(rule.pattern()))
+                        .thenComparing(ResponseCacheRule::pattern, Comparator.comparingInt(String::length).reversed()))
+                .map(rule -> new CompiledRule(rule, toRegex(rule.pattern())))
+                .toList();
+    }
+
+    private static boolean isWildcard(String pattern) {
+        return pattern.contains("*") || pattern.contains("{");
+    }
+
+    /**
+     * 路径模式转为正则：** 匹配任意多段，* 与 {变量} 匹配一段
+     */
+    private static Pattern toRegex(String pattern) {
+        StringBuilder regex = new StringBuilder();
+        String[] segments = pattern.split("/", -1);
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (i > 0) {
+                regex.append(segment.equals("**") ? "" : "/");
+            }
+            if (segment.equals("**")) {
+                regex.append("(/.*)?");
+                continue;
+            }
+            Matcher variable = Pattern.compile("\\{[^/}]+}|\\*").matcher(segment);
+            int last = 0;
+            while (variable.find()) {
+                regex.append(Pattern.quote(segment.substring(last, variable.start())));
+                regex.append(variable.group().equals("*") ? "[^/]*" : "[^/]+");
+                last = variable.end();
+            }
+            regex.append(Pattern.quote(segment.substring(last)));
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private static String key(String routeId, ResponseCacheRule.Source source) {
+        return source.tag() + ":" + routeId;
+    }
+
+    private record RouteRules(String routeId, String revision, List<ResponseCacheRule> rules) {
+    }
+
+    private record CompiledRule(ResponseCacheRule rule, Pattern regex) {
+    }
+}
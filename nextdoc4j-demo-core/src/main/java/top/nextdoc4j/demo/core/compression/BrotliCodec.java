@@ -0,0 +1,31 @@
+package top.nextdoc4j.demo.core.compression;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+
+import java.io.IOException;
+
+/**
+ * Brotli 编码（brotli4j），仅在 {@link ContentCoding#BROTLI} 可用时加载
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+final class BrotliCodec {
+
+    /**
+     * 压缩级别：结果按版本缓存、只压缩一次，取较高级别
+     */
+    private static final int QUALITY = 9;
+
+    private BrotliCodec() {
+    }
+
+    static boolean isAvailable() {
+        return Brotli4jLoader.isAvailable();
+    }
+
+    static byte[] encode(byte[] body) throws IOException {
+        return Encoder.compress(body, new Encoder.Parameters().setQuality(QUALITY));
+    }
+}
@@ -0,0 +1,155 @@
+package top.nextdoc4j.demo.core.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 内容编码（Content-Encoding）
+ * <p>
+ * 声明顺序即服务端偏好：br > zstd > gzip。gzip 由 JDK 提供始终可用；
+ * br、zstd 分别依赖 brotli4j、zstd-jni 的本地库，加载失败时视为不可用，协商时自动跳过。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public enum ContentCoding {
+
+    /**
+     * Brotli
+     */
+    BROTLI("br"),
+
+    /**
+     * Zstandard
+     */
+    ZSTD("zstd"),
+
+    /**
+     * gzip
+     */
+    GZIP("gzip");
+
+    private final String value;
+
+    ContentCoding(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * 当前运行环境是否可用
+     */
+    public boolean isAvailable() {
+        return switch (this) {
+            case BROTLI -> Codecs.BROTLI_AVAILABLE;
+            case ZSTD -> Codecs.ZSTD_AVAILABLE;
+            case GZIP -> true;
+        };
+    }
+
+    /**
+     * 压缩
+     */
+    public byte[] encode(byte[] body) throws IOException {
+        return switch (this) {
+            case BROTLI -> BrotliCodec.encode(body);
+            case ZSTD -> ZstdCodec.encode(body);
+            case GZIP -> gzip(body);
+        };
+    }
+
+    /**
+     * 按 Accept-Encoding 协商内容编码
+     * <p>
+     * 取客户端 q 值最高的编码，q 值相同时按服务端偏好；q=0 表示拒绝，* 匹配其余编码。
+     *
+     * @param acceptEncoding Accept-Encoding 请求头
+     * @param candidates     服务端可提供的编码
+     * @return 协商结果，不压缩时返回 null
+     */
+    public static ContentCoding negotiate(String acceptEncoding, Collection<ContentCoding> candidates) {
+        if (acceptEncoding == null || acceptEncoding.isBlank() || candidates.isEmpty()) {
+            return null;
+        }
+        Map<String, Double> qualities = parse(acceptEncoding);
+        ContentCoding selected = null;
+        double selectedQuality = 0;
+        for (ContentCoding coding : values()) {
+            if (!candidates.contains(coding)) {
+                continue;
+            }
+            double quality = qualities.getOrDefault(coding.value, qualities.getOrDefault("*", 0D));
+            if (quality > selectedQuality) {
+                selected = coding;
+                selectedQuality = quality;
+            }
+        }
+        return selected;
+    }
+
+    private static Map<String, Double> parse(String acceptEncoding) {
+        Map<String, Double> qualities = new HashMap<>();
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            if (coding.isEmpty()) {
+                continue;
+            }
+            double quality = 1;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=") || param.startsWith("Q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            qualities.put(coding, quality);
+        }
+        return qualities;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 可用性探测，可选依赖缺失或本地库加载失败时为 false
+     */
+    private static final class Codecs {
+
+        static final boolean BROTLI_AVAILABLE = probe("com.aayushatharva.brotli4j.Brotli4jLoader",
+                BrotliCodec::isAvailable);
+
+        static final boolean ZSTD_AVAILABLE = probe("com.github.luben.zstd.Zstd", ZstdCodec::isAvailable);
+
+        private static boolean probe(String className, BooleanSupplier loader) {
+            try {
+                Class.forName(className, false, ContentCoding.class.getClassLoader());
+                return loader.getAsBoolean();
+            } catch (ClassNotFoundException | LinkageError e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package top.nextdoc4j.demo.core.compression;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 预压缩内容
+ * <p>
+ * 保存一份原始内容及其 br / zstd / gzip 压缩版本。某个编码首次被协商到时压缩一次并缓存，
+ * 之后同一版本内容的所有请求直接复用；压缩后不小于原文或压缩失败的编码会被放弃，协商时自动回退到下一个编码。
+ * 每个表示（原文及各压缩版本）拥有独立的强 ETag。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public final class PrecompressedContent {
+
+    /**
+     * 尚未压缩过的编码
+     */
+    private static final Optional<byte[]> UNKNOWN = Optional.of(new byte[0]);
+
+    private final byte[] body;
+
+    private final String etag;
+
+    private final int minSize;
+
+    private final Map<ContentCoding, Optional<byte[]>> variants = new ConcurrentHashMap<>();
+
+    private PrecompressedContent(byte[] body, int minSize) {
+        this.body = body;
+        this.etag = etag(body);
+        this.minSize = minSize;
+    }
+
+    /**
+     * @param body    原始内容
+     * @param minSize 小于该字节数时不压缩
+     */
+    public static PrecompressedContent of(byte[] body, int minSize) {
+        return new PrecompressedContent(body, minSize);
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * 按 Accept-Encoding 选择表示
+     */
+    public Representation select(String acceptEncoding) {
+        if (body.length >= minSize) {
+            Set<ContentCoding> candidates = EnumSet.noneOf(ContentCoding.class);
+            for (ContentCoding coding : ContentCoding.values()) {
+                if (coding.isAvailable() && variants.getOrDefault(coding, UNKNOWN).isPresent()) {
+                    candidates.add(coding);
+                }
+            }
+            ContentCoding coding;
+            while ((coding = ContentCoding.negotiate(acceptEncoding, candidates)) != null) {
+                Optional<byte[]> variant = variants.computeIfAbsent(coding, this::encode);
+                if (variant.isPresent()) {
+                    return new Representation(variant.get(), coding.getValue(), variantEtag(coding));
+                }
+                candidates.remove(coding);
+            }
+        }
+        return new Representation(body, null, etag);
+    }
+
+    private Optional<byte[]> encode(ContentCoding coding) {
+        try {
+            byte[] encoded = coding.encode(body);
+            return encoded.length < body.length ? Optional.of(encoded) : Optional.empty();
+        } catch (IOException | RuntimeException | LinkageError e) {
+            return Optional.empty();
+        }
+    }
+
+    private String variantEtag(ContentCoding coding) {
+        return etag.substring(0, etag.length() - 1) + "-" + coding.getValue() + "\"";
+    }
+
+    /**
+     * 基于内容的强 ETag
+     */
+    public static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 选中的表示
+     *
+     * @param body            响应体
+     * @param contentEncoding 内容编码，未压缩时为 null
+     * @param etag            强 ETag
+     */
+    public record Representation(byte[] body, String contentEncoding, String etag) {
+    }
+}
@@ -0,0 +1,30 @@
+package top.nextdoc4j.demo.core.compression;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.util.Native;
+
+/**
+ * Zstandard 编码（zstd-jni），仅在 {@link ContentCoding#ZSTD} 可用时加载
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+final class ZstdCodec {
+
+    /**
+     * 压缩级别：结果按版本缓存、只压缩一次，取较高级别
+     */
+    private static final int LEVEL = 15;
+
+    private ZstdCodec() {
+    }
+
+    static boolean isAvailable() {
+        Native.load();
+        return Native.isLoaded();
+    }
+
+    static byte[] encode(byte[] body) {
+        return Zstd.compress(body, LEVEL);
+    }
+}
@@ -0,0 +1,29 @@
+package top.nextdoc4j.demo.core.model.req;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+@Schema(description = "分片上传初始化请求参数")
+public class ChunkedUploadInitReq {
+
+    @NotBlank
+    @Size(max = 255)
+    @Schema(description = "原始文件名", example = "backup.iso")
+    private String fileName;
+
+    @NotNull
+    @Min(0)
+    @Schema(description = "文件大小（字节）", example = "4294967296")
+    private Long fileSize;
+
+    @Schema(description = "分片大小（字节），不指定时由服务端决定", example = "8388608")
+    private Long chunkSize;
+
+    @Schema(description = "文件类型", example = "application/octet-stream")
+    private String contentType;
+}
@@ -0,0 +1,36 @@
+package top.nextdoc4j.demo.core.model.resp;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Schema(description = "分片上传状态响应参数")
+public class ChunkedUploadResp {
+
+    @Schema(description = "上传 ID", example = "3f2a9c1e8b7d4e6f9a0b1c2d3e4f5a6b")
+    private String uploadId;
+
+    @Schema(description = "原始文件名", example = "backup.iso")
+    private String fileName;
+
+    @Schema(description = "文件大小（字节）", example = "4294967296")
+    private Long fileSize;
+
+    @Schema(description = "分片大小（字节），最后一个分片可以更小", example = "8388608")
+    private Long chunkSize;
+
+    @Schema(description = "分片数量", example = "512")
+    private Integer chunkCount;
+
+    @Schema(description = "已上传的分片数量", example = "128")
+    private Integer uploadedChunks;
+
+    @Schema(description = "未上传的分片序号（从 0 开始），断点续传时只需上传这些分片", example = "[128, 129, 130]")
+    private List<Integer> missingChunks;
+
+    @Schema(description = "过期时间，之后未完成的上传被清理", example = "2024-01-02T12:00:00")
+    private LocalDateTime expireTime;
+}
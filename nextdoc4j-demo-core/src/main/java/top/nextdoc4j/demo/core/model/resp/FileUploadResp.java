@@ -12,7 +12,7 @@ public class FileUploadResp {
     @Schema(description = "原始文件名", example = "avatar.jpg")
     private String originalName;
 
-    @Schema(description = "存储文件名", example = "abc123_avatar.jpg")
+    @Schema(description = "存储文件名（文件句柄，下载时使用）", example = "3f2b8c1e9a7d4e6f8b0c2d4e6f8a0b1c")
     private String fileName;
 
     @Schema(description = "文件大小（字节）", example = "1024000")
@@ -21,9 +21,12 @@ public class FileUploadResp {
     @Schema(description = "文件类型", example = "image/jpeg")
     private String contentType;
 
-    @Schema(description = "文件访问URL", example = "https://cdn.nextdoc4j.top/files/abc123_avatar.jpg")
+    @Schema(description = "文件访问URL", example = "/api/file/objects/3f2b8c1e9a7d4e6f8b0c2d4e6f8a0b1c")
     private String url;
 
+    @Schema(description = "文件内容的 SHA-256", example = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08")
+    private String sha256;
+
     @Schema(description = "上传时间", example = "2024-01-01T12:00:00")
     private LocalDateTime uploadTime;
 }
\ No newline at end of file
@@ -13,7 +13,9 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.config.ResourceHandlerRegistry;
 import org.springframework.web.reactive.config.WebFluxConfigurer;
+import top.nextdoc4j.demo.gateway.configuration.properties.ApiDocProperties;
 import top.nextdoc4j.demo.gateway.configuration.properties.ProjectProperties;
+import top.nextdoc4j.demo.gateway.configuration.properties.ResponseCacheProperties;
 
 /**
  * API 文档自动配置
@@ -23,7 +25,7 @@ import top.nextdoc4j.demo.gateway.configuration.properties.ProjectProperties;
  */
 @Component
 @RequiredArgsConstructor
-@EnableConfigurationProperties({ProjectProperties.class})
+@EnableConfigurationProperties({ProjectProperties.class, ApiDocProperties.class, ResponseCacheProperties.class})
 public class SpringDocAutoConfiguration implements WebFluxConfigurer {
 
     @Override
@@ -0,0 +1,211 @@
+package top.nextdoc4j.demo.gateway.configuration.apidoc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.properties.SwaggerUiConfigProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+import top.nextdoc4j.demo.core.apidoc.ApiDocBulkhead;
+import top.nextdoc4j.demo.core.apidoc.ApiDocCircuitBreaker;
+import top.nextdoc4j.demo.core.apidoc.ApiDocFetcher;
+import top.nextdoc4j.demo.core.apidoc.ApiDocMerger;
+import top.nextdoc4j.demo.core.apidoc.ApiDocTarget;
+import top.nextdoc4j.demo.core.apidoc.ApiDocTransport;
+import top.nextdoc4j.demo.core.apidoc.InMemoryApiDocVersionChannel;
+import top.nextdoc4j.demo.gateway.configuration.properties.ApiDocProperties;
+
+import java.time.Duration;
+
+/**
+ * 下游文档聚合配置
+ * <p>
+ * 函数式端点的 RouterFunctionMapping 优先于网关的 RoutePredicateHandlerMapping，
+ * 聚合的文档路径由这里直接响应，其余请求照常转发。
+ * <p>
+ * 文档拉取策略与 Servlet 网关相同（{@link ApiDocFetcher}），请求经非阻塞的 WebClient 发出，
+ * 使用独立的连接池与事件循环（project.api-doc.aggregation.concurrency），不与网关转发业务请求的 HttpClient 共享连接和线程；连续失败的路由熔断（project.api-doc.aggregation.circuit-breaker），
+ * 每个路由同时等待下游的请求数受舱壁限制（project.api-doc.aggregation.bulkhead）。
+ * <p>
+ * 文档页的分组列表由文档索引生成（{@link ApiDocSwaggerUiGroups}），打开分组时才拉取该服务的文档。
+ * <p>
+ * 服务通过 HTTP 回调（project.api-doc.aggregation.push.path）推送文档版本；存在 {@link InMemoryApiDocVersionChannel}
+ * 时同时订阅进程内推送。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "project.api-doc.aggregation", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ApiDocAggregationConfiguration {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider apiDocConnectionProvider(ApiDocProperties apiDocProperties) {
+        ApiDocProperties.Aggregation aggregation = apiDocProperties.getAggregation();
+        return ConnectionProvider.builder("api-doc")
+                .maxConnections(aggregation.getConcurrency())
+                .pendingAcquireTimeout(aggregation.getTimeout())
+                .build();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public LoopResources apiDocLoopResources() {
+        return LoopResources.create("api-doc", 1, true);
+    }
+
+    @Bean
+    public ApiDocCircuitBreaker apiDocCircuitBreaker(ApiDocProperties apiDocProperties) {
+        ApiDocProperties.CircuitBreaker circuitBreaker = apiDocProperties.getAggregation().getCircuitBreaker();
+        return new ApiDocCircuitBreaker(circuitBreaker.isEnabled() ? circuitBreaker.getFailureThreshold() : 0,
+                circuitBreaker.getOpenDuration(), (routeId, from, to, failures) -> {
+                    if (to == ApiDocCircuitBreaker.State.OPEN) {
+                        log.warn("下游文档 [{}] 熔断打开（{} -> {}），连续失败 {} 次，{} 内直接使用缓存的文档", routeId,
+                                from.tag(), to.tag(), failures, circuitBreaker.getOpenDuration());
+                    } else {
+                        log.info("下游文档 [{}] 熔断状态 {} -> {}", routeId, from.tag(), to.tag());
+                    }
+                });
+    }
+
+    @Bean
+    public ApiDocFetcher apiDocFetcher(ReactorLoadBalancerExchangeFilterFunction loadBalancerExchangeFilterFunction,
+                                       ConnectionProvider apiDocConnectionProvider,
+                                       LoopResources apiDocLoopResources,
+                                       ApiDocCircuitBreaker apiDocCircuitBreaker,
+                                       ApiDocProperties apiDocProperties,
+                                       MeterRegistry meterRegistry) {
+        ApiDocProperties.Aggregation aggregation = apiDocProperties.getAggregation();
+        HttpClient httpClient = HttpClient.create(apiDocConnectionProvider).runOn(apiDocLoopResources);
+        WebClient webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(loadBalancerExchangeFilterFunction)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) aggregation.getMaxSize().toBytes()))
+                .build();
+        return new ApiDocFetcher(transport(webClient), (int) aggregation.getCompressMinSize().toBytes(),
+                aggregation.getMaxSize().toBytes(), apiDocCircuitBreaker, fetchListener(meterRegistry));
+    }
+
+    @Bean
+    public ApiDocAggregator apiDocAggregator(RouteDefinitionLocator routeDefinitionLocator,
+                                             GatewayProperties gatewayProperties,
+                                             ApiDocFetcher apiDocFetcher,
+                                             ApiDocCircuitBreaker apiDocCircuitBreaker,
+                                             ApiDocProperties apiDocProperties,
+                                             ObjectProvider<InMemoryApiDocVersionChannel> apiDocVersionChannel) {
+        ApiDocProperties.Aggregation aggregation = apiDocProperties.getAggregation();
+        ApiDocProperties.Bulkhead bulkhead = aggregation.getBulkhead();
+        ApiDocAggregator aggregator = new ApiDocAggregator(routeDefinitionLocator, gatewayProperties, apiDocFetcher,
+                aggregation, apiDocCircuitBreaker,
+                new ApiDocBulkhead(bulkhead.isEnabled() ? bulkhead.getMaxConcurrent() : 0));
+        if (aggregation.getPush().isEnabled()) {
+            apiDocVersionChannel.ifAvailable(channel -> channel.subscribe(version -> aggregator.onVersion(version)
+                    .subscribe()));
+        }
+        return aggregator;
+    }
+
+    @Bean
+    public ApiDocSwaggerUiGroups apiDocSwaggerUiGroups(ApiDocAggregator apiDocAggregator,
+                                                       ObjectProvider<SwaggerUiConfigProperties> swaggerUi) {
+        return new ApiDocSwaggerUiGroups(apiDocAggregator, swaggerUi);
+    }
+
+    @Bean
+    public ApiDocAggregationHandler apiDocAggregationHandler(ApiDocAggregator apiDocAggregator,
+                                                             ApiDocProperties apiDocProperties,
+                                                             ObjectMapper objectMapper) {
+        ApiDocProperties.Aggregation aggregation = apiDocProperties.getAggregation();
+        ApiDocProperties.Merge merge = aggregation.getMerge();
+        MergedApiDoc mergedApiDoc = merge.isEnabled()
+                ? new MergedApiDoc(new ApiDocMerger(merge.getTitle()), objectMapper,
+                        (int) aggregation.getCompressMinSize().toBytes())
+                : null;
+        return new ApiDocAggregationHandler(apiDocAggregator, aggregation.getPush().getToken(), mergedApiDoc);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> apiDocAggregationRouter(ApiDocAggregationHandler handler,
+                                                                  ApiDocProperties apiDocProperties) {
+        ApiDocProperties.Aggregation aggregation = apiDocProperties.getAggregation();
+        RouterFunctions.Builder route = RouterFunctions.route()
+                .GET(aggregation.getStatusPath(), handler::status)
+                .GET(aggregation.getIndexPath(), handler::index)
+                .GET("/**", handler::isApiDoc, handler::apiDoc);
+        if (aggregation.getMerge().isEnabled()) {
+            route.GET(aggregation.getMerge().getPath(), handler::merged);
+        }
+        if (aggregation.getPush().isEnabled()) {
+            route.POST(aggregation.getPush().getPath(), handler::invalidate);
+        }
+        return route.build();
+    }
+
+    /**
+     * 经 WebClient 请求下游文档（lb://服务名 由负载均衡过滤器选择实例），任意状态码都作为响应返回
+     */
+    private static ApiDocTransport transport(WebClient webClient) {
+        return (target, ifNoneMatch) -> webClient.get()
+                .uri(target.uri())
+                .accept(MediaType.APPLICATION_JSON)
+                .headers(headers -> {
+                    if (ifNoneMatch != null) {
+                        headers.setIfNoneMatch(ifNoneMatch);
+                    }
+                })
+                .exchangeToMono(response -> response.bodyToMono(byte[].class)
+                        .defaultIfEmpty(new byte[0])
+                        .map(body -> new ApiDocTransport.Response(response.statusCode().value(), body,
+                                response.headers().asHttpHeaders().getETag())))
+                .timeout(target.timeout())
+                .toFuture();
+    }
+
+    private static ApiDocFetcher.FetchListener fetchListener(MeterRegistry meterRegistry) {
+        return new ApiDocFetcher.FetchListener() {
+            @Override
+            public void onFetch(ApiDocTarget target, ApiDocFetcher.Outcome outcome, Duration latency, String error) {
+                Timer.builder("api.doc.aggregation.fetch")
+                        .description("下游文档拉取耗时")
+                        .tag("route", target.id())
+                        .tag("outcome", outcome.tag())
+                        .register(meterRegistry)
+                        .record(latency);
+                if (outcome == ApiDocFetcher.Outcome.REJECTED) {
+                    log.debug("下游文档 [{}] 熔断中，使用缓存的文档", target.id());
+                } else if (outcome == ApiDocFetcher.Outcome.NOT_MODIFIED) {
+                    log.debug("下游文档 [{}] 未变化（304），耗时 {} ms", target.id(), latency.toMillis());
+                } else if (error == null) {
+                    log.debug("下游文档 [{}] 拉取完成，耗时 {} ms", target.id(), latency.toMillis());
+                } else {
+                    log.warn("下游文档 [{}] 拉取失败：{}", target.id(), error);
+                }
+            }
+
+            @Override
+            public void onCoalesced(ApiDocTarget target) {
+                Counter.builder("api.doc.aggregation.coalesced")
+                        .description("共享进行中拉取的文档请求数")
+                        .tag("route", target.id())
+                        .register(meterRegistry)
+                        .increment();
+            }
+        };
+    }
+}
@@ -0,0 +1,147 @@
+package top.nextdoc4j.demo.gateway.configuration.apidoc;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import top.nextdoc4j.demo.core.apidoc.ApiDocSnapshot;
+import top.nextdoc4j.demo.core.apidoc.ApiDocUnavailableException;
+import top.nextdoc4j.demo.core.apidoc.ApiDocVersion;
+import top.nextdoc4j.demo.core.apidoc.WebhookApiDocVersionPublisher;
+import top.nextdoc4j.demo.core.compression.PrecompressedContent;
+import top.nextdoc4j.demo.core.model.base.R;
+
+import java.util.function.Consumer;
+
+/**
+ * 聚合文档接口
+ * <p>
+ * 1. /{前缀}/v3/api-docs：由 {@link ApiDocAggregator} 的缓存输出，不再经网关转发到下游服务
+ * 2. 按 Accept-Encoding 输出预压缩版本，If-None-Match 与所选表示的 ETag 一致时返回 304
+ * 3. 响应头 X-Api-Doc-State 标明文档状态（fresh / stale），Age 为缓存时长（秒）
+ * 4. 从未拉取成功的服务返回 503
+ * 5. GET /api-doc/index：文档索引，只含路由元数据；文档页的分组列表由索引生成（{@link ApiDocSwaggerUiGroups}），各服务的文档在打开时再请求
+ * 6. POST /api-doc/invalidations：接收服务推送的文档版本，返回重新拉取的路由 ID；需携带推送令牌，只接受有路由的服务
+ * 7. GET /api-doc/merged：所有下游文档合并为一份（{@link MergedApiDoc}），需要拉取全部文档，包括尚未打开的服务
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@RequiredArgsConstructor
+public class ApiDocAggregationHandler {
+
+    public static final String STATE_HEADER = "X-Api-Doc-State";
+
+    private final ApiDocAggregator aggregator;
+
+    /**
+     * 推送鉴权令牌，未配置时拒绝所有推送
+     */
+    private final String token;
+
+    /**
+     * 合并文档，未启用时为 null
+     */
+    private final MergedApiDoc mergedApiDoc;
+
+    /**
+     * 是否为聚合的文档路径
+     */
+    public boolean isApiDoc(ServerRequest request) {
+        return aggregator.find(request.path()) != null;
+    }
+
+    public Mono<ServerResponse> apiDoc(ServerRequest request) {
+        DownstreamApiDoc apiDoc = aggregator.find(request.path());
+        return aggregator.get(apiDoc)
+                .flatMap(snapshot -> write(request, apiDoc, snapshot))
+                .onErrorResume(ApiDocUnavailableException.class, e -> ServerResponse
+                        .status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(R.fail(String.valueOf(HttpStatus.SERVICE_UNAVAILABLE.value()), e.getMessage())));
+    }
+
+    public Mono<ServerResponse> status(ServerRequest request) {
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(aggregator.status(), ApiDocAggregator.ApiDocStatus.class);
+    }
+
+    public Mono<ServerResponse> index(ServerRequest request) {
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(aggregator.index(), ApiDocAggregator.ApiDocIndexEntry.class);
+    }
+
+    public Mono<ServerResponse> merged(ServerRequest request) {
+        return aggregator.apiDocs()
+                .zipWith(aggregator.aggregate(apiDoc -> true))
+                .publishOn(Schedulers.boundedElastic())
+                .map(tuple -> mergedApiDoc.get(tuple.getT1(), tuple.getT2()))
+                .flatMap(content -> write(request, content, headers -> {
+                }));
+    }
+
+    public Mono<ServerResponse> invalidate(ServerRequest request) {
+        if (token == null || token.isEmpty()) {
+            return fail(HttpStatus.FORBIDDEN, "网关未配置推送令牌，拒绝推送");
+        }
+        if (!WebhookApiDocVersionPublisher.isAuthorized(token,
+                request.headers().firstHeader(WebhookApiDocVersionPublisher.TOKEN_HEADER))) {
+            return fail(HttpStatus.UNAUTHORIZED, "推送令牌无效");
+        }
+        return request.bodyToMono(ApiDocVersion.class)
+                .filter(version -> version.service() != null && version.hash() != null
+                        && version.publishedAt() != null)
+                .flatMap(version -> aggregator.onVersion(version)
+                        .flatMap(routeIds -> ServerResponse.accepted()
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .bodyValue(R.ok(routeIds)))
+                        .switchIfEmpty(Mono.defer(() -> fail(HttpStatus.NOT_FOUND,
+                                "没有路由指向服务：" + version.service()))))
+                .switchIfEmpty(Mono.defer(() -> fail(HttpStatus.BAD_REQUEST, "service、hash、publishedAt 不能为空")));
+    }
+
+    private static Mono<ServerResponse> fail(HttpStatus status, String message) {
+        return ServerResponse.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(R.fail(String.valueOf(status.value()), message));
+    }
+
+    private Mono<ServerResponse> write(ServerRequest request, DownstreamApiDoc apiDoc, ApiDocSnapshot snapshot) {
+        String state = snapshot.isFresh(aggregator.ttlOf(apiDoc)) ? "fresh" : "stale";
+        return write(request, snapshot.content(), headers -> {
+            headers.set(HttpHeaders.AGE, String.valueOf(snapshot.age().toSeconds()));
+            headers.set(STATE_HEADER, state);
+        });
+    }
+
+    private Mono<ServerResponse> write(ServerRequest request,
+                                       PrecompressedContent content,
+                                       Consumer<HttpHeaders> extraHeaders) {
+        PrecompressedContent.Representation representation = content
+                .select(request.headers().firstHeader(HttpHeaders.ACCEPT_ENCODING));
+        Consumer<HttpHeaders> commonHeaders = headers -> {
+            headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            headers.setCacheControl("no-cache");
+            extraHeaders.accept(headers);
+        };
+        return request.checkNotModified(representation.etag())
+                .flatMap(notModified -> ServerResponse.from(notModified).headers(commonHeaders).build())
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.ok()
+                        .headers(commonHeaders)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .eTag(representation.etag())
+                        .headers(headers -> {
+                            if (representation.contentEncoding() != null) {
+                                headers.set(HttpHeaders.CONTENT_ENCODING, representation.contentEncoding());
+                            }
+                        })
+                        .contentLength(representation.body().length)
+                        .bodyValue(representation.body())));
+    }
+}
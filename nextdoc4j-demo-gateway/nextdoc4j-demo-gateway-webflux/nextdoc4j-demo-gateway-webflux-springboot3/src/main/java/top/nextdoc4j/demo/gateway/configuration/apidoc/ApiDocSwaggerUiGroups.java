@@ -0,0 +1,49 @@
+package top.nextdoc4j.demo.gateway.configuration.apidoc;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.properties.AbstractSwaggerUiConfigProperties.SwaggerUrl;
+import org.springdoc.core.properties.SwaggerUiConfigProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.context.event.EventListener;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 文档页分组列表
+ * <p>
+ * 文档页的分组列表（/v3/api-docs/swagger-config 的 urls）由文档索引（{@link ApiDocAggregator#index()}）生成：
+ * 只含路由元数据（名称、网关侧文档路径），生成时不访问下游服务，首屏不等待任何服务的文档；
+ * 打开某个分组时才请求其文档路径，由 {@link ApiDocAggregationHandler#apiDoc} 按需拉取并缓存。
+ * 启动完成及每次路由刷新后重新生成，服务发现新增或下线的服务随之出现或消失。
+ * <p>
+ * 分组列表由这里维护，需关闭 nextdoc4j.gateway.auto-discovery，否则会再按服务发现列出全部服务。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ApiDocSwaggerUiGroups {
+
+    private final ApiDocAggregator aggregator;
+
+    private final ObjectProvider<SwaggerUiConfigProperties> swaggerUiConfigProperties;
+
+    @EventListener({ApplicationReadyEvent.class, RefreshRoutesEvent.class})
+    public void sync() {
+        swaggerUiConfigProperties.ifAvailable(properties -> aggregator.index()
+                .map(entry -> new SwaggerUrl(entry.routeId(), entry.path(), entry.name()))
+                .collect(Collectors.toCollection(LinkedHashSet::new))
+                .subscribe(urls -> update(properties, urls), e -> log.warn("文档页分组列表更新失败", e)));
+    }
+
+    private static void update(SwaggerUiConfigProperties properties, Set<SwaggerUrl> urls) {
+        properties.setUrls(urls);
+        log.debug("文档页分组列表已更新：{}", urls.stream().map(SwaggerUrl::getName).toList());
+    }
+}
@@ -0,0 +1,157 @@
+package top.nextdoc4j.demo.gateway.configuration.apidoc;
+
+import org.springframework.cloud.gateway.filter.FilterDefinition;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.web.util.UriComponentsBuilder;
+import top.nextdoc4j.demo.core.apidoc.ApiDocTarget;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * 下游服务文档
+ * <p>
+ * 由网关路由推导：取 lb:// 路由 Path 断言的第一个路径前缀拼接文档路径作为网关侧地址（如 /user/v3/api-docs），
+ * 再按路由的 StripPrefix、RewritePath、PrefixPath 过滤器（按声明顺序）改写得到下游地址
+ * （如 http://user-service-sb3/v3/api-docs，由负载均衡过滤器按服务名选择实例）。
+ * 服务发现自动生成的路由（/服务名/** + RewritePath）同样可以推导；配置了 SetPath 的路由无法可靠推导，不参与聚合。
+ *
+ * @param routeId     路由 ID
+ * @param name        显示名称（路由元数据 nextdoc4j.name，未配置时：配置的路由为路由 ID，服务发现的路由为服务名）
+ * @param gatewayPath 网关侧文档路径
+ * @param uri         下游文档地址（主机为服务名）
+ * @param timeout     拉取超时时间
+ * @param patterns    路由的 Path 断言
+ * @param discovered  是否为服务发现自动生成的路由
+ * @author echo
+ * @since 2026/10/18
+ */
+public record DownstreamApiDoc(String routeId, String name, String gatewayPath, URI uri, Duration timeout,
+                               List<String> patterns, boolean discovered) {
+
+    /**
+     * 从路由定义推导下游文档，无法推导时返回空
+     *
+     * @param route      路由定义
+     * @param docPath    下游服务的文档路径
+     * @param timeout    拉取超时时间
+     * @param discovered 是否为服务发现自动生成的路由
+     */
+    public static Optional<DownstreamApiDoc> of(RouteDefinition route, String docPath, Duration timeout,
+                                                boolean discovered) {
+        URI uri = route.getUri();
+        if (uri == null || !"lb".equalsIgnoreCase(uri.getScheme())) {
+            return Optional.empty();
+        }
+        List<String> patterns = route.getPredicates().stream()
+                .filter(predicate -> "Path".equals(predicate.getName()))
+                .map(PredicateDefinition::getArgs)
+                .flatMap(args -> args.values().stream())
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(String::trim)
+                .toList();
+        Optional<String> prefix = patterns.stream()
+                .map(DownstreamApiDoc::pathPrefix)
+                .filter(value -> !value.isEmpty())
+                .findFirst();
+        if (prefix.isEmpty()) {
+            return Optional.empty();
+        }
+
+        String gatewayPath = prefix.get() + docPath;
+        return rewrite(gatewayPath, route.getFilters()).map(downstreamPath -> new DownstreamApiDoc(route.getId(),
+                displayName(route, discovered), gatewayPath,
+                UriComponentsBuilder.fromUri(uri).scheme("http").replacePath(downstreamPath).build(true).toUri(),
+                timeout, patterns, discovered));
+    }
+
+    /**
+     * 服务名
+     */
+    public String service() {
+        return uri.getHost();
+    }
+
+    /**
+     * 拉取目标
+     */
+    public ApiDocTarget target() {
+        return new ApiDocTarget(routeId, uri, timeout);
+    }
+
+    /**
+     * 挂载前缀：网关侧路径去掉下游路径后的部分（如 /user），下游路径加上该前缀即网关侧路径；
+     * 下游路径不是网关侧路径的后缀（如配置了 PrefixPath）时返回 null
+     */
+    public String mountPath() {
+        String downstreamPath = uri.getPath();
+        return gatewayPath.endsWith(downstreamPath)
+                ? gatewayPath.substring(0, gatewayPath.length() - downstreamPath.length())
+                : null;
+    }
+
+    /**
+     * 路径模式的固定前缀：/user/** -> /user，非 / 开头（如 SpEL 表达式）时返回空串
+     */
+    private static String pathPrefix(String pattern) {
+        if (!pattern.startsWith("/")) {
+            return "";
+        }
+        StringBuilder prefix = new StringBuilder();
+        for (String segment : pattern.substring(1).split("/")) {
+            if (segment.isEmpty() || segment.contains("*") || segment.contains("{") || segment.contains("?")) {
+                break;
+            }
+            prefix.append('/').append(segment);
+        }
+        return prefix.toString();
+    }
+
+    /**
+     * 按声明顺序应用改写路径的过滤器，遇到无法推导的过滤器或参数无效时返回空
+     */
+    private static Optional<String> rewrite(String path, List<FilterDefinition> filters) {
+        String result = path;
+        try {
+            for (FilterDefinition filter : filters) {
+                List<String> args = new ArrayList<>(filter.getArgs().values());
+                switch (filter.getName()) {
+                    case "StripPrefix" -> result = stripPrefix(result,
+                            args.isEmpty() ? 1 : Integer.parseInt(args.get(0).trim()));
+                    // 与 RewritePathGatewayFilterFactory 相同：$\ 还原为 $ 后整体替换
+                    case "RewritePath" -> result = result.replaceAll(args.get(0), args.get(1).replace("$\\", "$"));
+                    case "PrefixPath" -> result = args.get(0) + result;
+                    case "SetPath" -> {
+                        return Optional.empty();
+                    }
+                    default -> {
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+        return Optional.of(result.startsWith("/") ? result : "/" + result);
+    }
+
+    private static String stripPrefix(String path, int parts) {
+        String[] segments = path.substring(1).split("/");
+        return "/" + Arrays.stream(segments).skip(Math.min(parts, segments.length - 1))
+                .collect(Collectors.joining("/"));
+    }
+
+    private static String displayName(RouteDefinition route, boolean discovered) {
+        if (route.getMetadata().get("nextdoc4j") instanceof Map<?, ?> metadata
+                && metadata.get("name") instanceof String name && !name.isBlank()) {
+            return name;
+        }
+        return discovered ? route.getUri().getHost() : route.getId();
+    }
+}
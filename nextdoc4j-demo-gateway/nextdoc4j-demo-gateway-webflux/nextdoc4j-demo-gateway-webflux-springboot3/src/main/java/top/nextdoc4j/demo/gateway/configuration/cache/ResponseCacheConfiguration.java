@@ -0,0 +1,86 @@
+package top.nextdoc4j.demo.gateway.configuration.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import top.nextdoc4j.demo.core.cache.ResponseCache;
+import top.nextdoc4j.demo.gateway.configuration.apidoc.ApiDocAggregator;
+import top.nextdoc4j.demo.gateway.configuration.properties.ResponseCacheProperties;
+
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * 网关响应缓存配置
+ * <p>
+ * 缓存规则在路由元数据中声明：
+ * <pre>
+ * metadata:
+ *   nextdoc4j:
+ *     cache:
+ *       - path: /system/api/system/info
+ *         ttl: 30s
+ *         vary: Authorization
+ * </pre>
+ * 或由下游服务在接口上声明 OpenAPI 扩展
+ * {@code @Extension(name = "x-nextdoc4j-cache", properties = @ExtensionProperty(name = "ttl", value = "30s"))}，
+ * 网关从聚合的文档中读取。指标：gateway.response.cache.requests（result=hit/miss/coalesced/uncacheable）、
+ * gateway.response.cache.evictions、gateway.response.cache.entries、gateway.response.cache.size。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "project.response-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseCacheConfiguration {
+
+    @Bean
+    public ResponseCache responseCache(ResponseCacheProperties responseCacheProperties, MeterRegistry meterRegistry) {
+        ResponseCache cache = new ResponseCache(responseCacheProperties.getMaxEntries(),
+                responseCacheProperties.getMaxSize().toBytes(), responseCacheProperties.getMaxEntrySize().toBytes());
+        Map<String, ToLongFunction<ResponseCache>> requests = Map.of(
+                "hit", c -> c.stats().hits(),
+                "miss", c -> c.stats().misses(),
+                "coalesced", c -> c.stats().coalesced(),
+                "uncacheable", c -> c.stats().uncacheable());
+        requests.forEach((result, count) -> FunctionCounter.builder("gateway.response.cache.requests", cache,
+                        c -> count.applyAsLong(c))
+                .description("网关响应缓存请求数")
+                .tag("result", result)
+                .register(meterRegistry));
+        FunctionCounter.builder("gateway.response.cache.evictions", cache, c -> c.stats().evictions())
+                .description("网关响应缓存淘汰数")
+                .register(meterRegistry);
+        Gauge.builder("gateway.response.cache.entries", cache, c -> c.stats().entries())
+                .description("网关响应缓存条目数")
+                .register(meterRegistry);
+        Gauge.builder("gateway.response.cache.size", cache, c -> c.stats().size())
+                .description("网关响应缓存大小")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        return cache;
+    }
+
+    @Bean
+    public ResponseCacheRuleSource responseCacheRuleSource(GatewayProperties gatewayProperties,
+                                                           ObjectProvider<ApiDocAggregator> apiDocAggregator,
+                                                           ObjectMapper objectMapper,
+                                                           ResponseCacheProperties responseCacheProperties) {
+        return new ResponseCacheRuleSource(gatewayProperties, apiDocAggregator.getIfAvailable(), objectMapper,
+                responseCacheProperties.getExtension(), responseCacheProperties.getRefreshInterval());
+    }
+
+    @Bean
+    public ResponseCacheWebFilter responseCacheWebFilter(ResponseCache responseCache,
+                                                         ResponseCacheRuleSource responseCacheRuleSource,
+                                                         ResponseCacheProperties responseCacheProperties) {
+        return new ResponseCacheWebFilter(responseCache, responseCacheRuleSource,
+                responseCacheProperties.getMaxEntrySize().toBytes(), responseCacheProperties.getCoalesceTimeout());
+    }
+}
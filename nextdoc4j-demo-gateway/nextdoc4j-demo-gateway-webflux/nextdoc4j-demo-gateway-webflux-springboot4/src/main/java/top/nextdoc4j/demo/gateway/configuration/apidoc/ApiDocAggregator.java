@@ -0,0 +1,341 @@
+package top.nextdoc4j.demo.gateway.configuration.apidoc;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import top.nextdoc4j.demo.core.apidoc.ApiDocBulkhead;
+import top.nextdoc4j.demo.core.apidoc.ApiDocCircuitBreaker;
+import top.nextdoc4j.demo.core.apidoc.ApiDocFetcher;
+import top.nextdoc4j.demo.core.apidoc.ApiDocSnapshot;
+import top.nextdoc4j.demo.core.apidoc.ApiDocUnavailableException;
+import top.nextdoc4j.demo.core.apidoc.ApiDocVersion;
+import top.nextdoc4j.demo.core.compression.PrecompressedContent;
+import top.nextdoc4j.demo.gateway.configuration.properties.ApiDocProperties;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * 下游文档聚合
+ * <p>
+ * 网关文档页依次请求各服务的 /v3/api-docs，任一服务响应慢时整个文档页都要等待。这里改为由网关通过
+ * {@link ApiDocFetcher}（与 Servlet 网关相同的拉取策略，请求经非阻塞的 WebClient 发出）统一拉取：
+ * 1. 所有服务并行拉取，每个服务独立超时，冷启动聚合耗时由各服务耗时之和降为最慢的单个服务
+ * 2. stale-while-revalidate：文档超过新鲜期后先返回缓存，同时在后台重新拉取，同一路由同时只有一次拉取，
+ * 并发请求共享进行中的拉取（计入 api.doc.aggregation.coalesced），下游请求数不随文档页访问人数增加
+ * 3. 拉取失败（超时、服务下线）时继续使用上次成功的文档，从未成功过的服务才返回不可用
+ * 4. 文档与 {@link PrecompressedContent} 一同缓存，按 Accept-Encoding 输出预压缩版本
+ * 5. 下游返回过 ETag 时发送 If-None-Match，文档未变化时下游只返回 304，沿用缓存的文档
+ * 6. 按路由熔断（{@link ApiDocCircuitBreaker}）：连续失败后不再请求下游，直接使用缓存的文档；
+ * 文档尚未缓存时每个路由同时等待拉取的请求数受 {@link ApiDocBulkhead} 限制
+ * <p>
+ * 路由推导只读取路由定义，不访问下游服务：文档索引（{@link #index()}）只含路由元数据，
+ * 单个服务的文档在首次打开时才拉取。启动完成后按 project.api-doc.aggregation.prefetch 在后台预先拉取
+ * （默认只拉取配置的路由，服务发现的路由数量不受控制，首次打开时再拉取）；路由刷新时重新推导下游文档，
+ * 仍存在的路由保留已缓存的文档，已移除的路由（如服务下线后服务发现不再生成）清理其文档、计数、熔断状态与推送的版本。
+ * 服务发现的路由与配置的路由指向同一服务时只保留配置的路由。
+ * <p>
+ * 服务推送文档版本（{@link #onVersion}）后，该服务的文档改由推送驱动：哈希变化时只重新拉取该服务的路由，
+ * 新鲜期放宽为 project.api-doc.aggregation.push.ttl，其余服务仍按新鲜期重新拉取。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@Slf4j
+public class ApiDocAggregator {
+
+    private final RouteDefinitionLocator routeDefinitionLocator;
+
+    private final GatewayProperties gatewayProperties;
+
+    private final ApiDocFetcher fetcher;
+
+    private final ApiDocProperties.Aggregation aggregation;
+
+    private final ApiDocCircuitBreaker circuitBreaker;
+
+    private final ApiDocBulkhead bulkhead;
+
+    /**
+     * 服务名 -> 最近一次推送的文档版本
+     */
+    private final Map<String, ApiDocVersion> versions = new ConcurrentHashMap<>();
+
+    /**
+     * 网关侧文档路径 -> 下游文档
+     */
+    private volatile Map<String, DownstreamApiDoc> apiDocs = Map.of();
+
+    private volatile Mono<List<DownstreamApiDoc>> routes;
+
+    public ApiDocAggregator(RouteDefinitionLocator routeDefinitionLocator,
+                            GatewayProperties gatewayProperties,
+                            ApiDocFetcher fetcher,
+                            ApiDocProperties.Aggregation aggregation,
+                            ApiDocCircuitBreaker circuitBreaker,
+                            ApiDocBulkhead bulkhead) {
+        this.routeDefinitionLocator = routeDefinitionLocator;
+        this.gatewayProperties = gatewayProperties;
+        this.fetcher = fetcher;
+        this.aggregation = aggregation;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.routes = resolveRoutes();
+    }
+
+    /**
+     * 按网关侧路径查找下游文档（路由尚未推导完成时返回 null）
+     */
+    public DownstreamApiDoc find(String gatewayPath) {
+        return apiDocs.get(gatewayPath);
+    }
+
+    /**
+     * 所有下游文档
+     */
+    public Mono<List<DownstreamApiDoc>> apiDocs() {
+        return routes;
+    }
+
+    /**
+     * 已缓存的下游文档（当前路由），不触发拉取
+     */
+    public Map<DownstreamApiDoc, ApiDocSnapshot> snapshots() {
+        Map<DownstreamApiDoc, ApiDocSnapshot> result = new LinkedHashMap<>();
+        apiDocs.values().forEach(apiDoc -> {
+            ApiDocSnapshot snapshot = fetcher.lastGood(apiDoc.routeId());
+            if (snapshot != null) {
+                result.put(apiDoc, snapshot);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 获取文档：新鲜期内直接返回；过期时返回缓存并在后台重新拉取；从未拉取过时等待本次拉取（受舱壁限制）
+     */
+    public Mono<ApiDocSnapshot> get(DownstreamApiDoc apiDoc) {
+        ApiDocSnapshot snapshot = fetcher.lastGood(apiDoc.routeId());
+        if (snapshot == null) {
+            return Mono.defer(() -> {
+                if (!bulkhead.tryAcquire(apiDoc.routeId())) {
+                    return Mono.error(new ApiDocUnavailableException(apiDoc.target(),
+                            "等待拉取的请求过多（" + bulkhead.inUse(apiDoc.routeId()) + "）", null));
+                }
+                // 不随订阅取消：进行中的拉取由并发请求共享
+                return Mono.fromFuture(() -> fetcher.fetchAsync(apiDoc.target()), true)
+                        .doFinally(signal -> bulkhead.release(apiDoc.routeId()));
+            });
+        }
+        if (snapshot.isExpired(ttlOf(apiDoc))) {
+            // 失败由拉取监听记录
+            fetcher.fetchAsync(apiDoc.target());
+        }
+        return Mono.just(snapshot);
+    }
+
+    /**
+     * 文档新鲜期：推送过版本的服务为 push.ttl，其余为 ttl
+     */
+    public Duration ttlOf(DownstreamApiDoc apiDoc) {
+        ApiDocProperties.Push push = aggregation.getPush();
+        return push.isEnabled() && versions.containsKey(apiDoc.service()) ? push.getTtl() : aggregation.getTtl();
+    }
+
+    /**
+     * 收到服务推送的文档版本：哈希与上次不同（或首次推送）时，在后台重新拉取该服务的所有路由，其他服务不受影响。
+     * 只记录有路由指向的服务，版本表的大小不超过路由数
+     *
+     * @return 重新拉取的路由 ID；没有路由指向该服务时为空
+     */
+    public Mono<List<String>> onVersion(ApiDocVersion version) {
+        return routes.flatMap(list -> {
+            List<DownstreamApiDoc> changed = list.stream()
+                    .filter(apiDoc -> apiDoc.service().equalsIgnoreCase(version.service()))
+                    .toList();
+            if (changed.isEmpty()) {
+                log.debug("忽略服务 [{}] 的文档版本：没有路由指向该服务", version.service());
+                return Mono.empty();
+            }
+            String service = changed.get(0).service();
+            ApiDocVersion previous = versions.get(service);
+            ApiDocVersion current = versions.merge(service, version, (existing, incoming) ->
+                    incoming.publishedAt().isBefore(existing.publishedAt()) ? existing : incoming);
+            if (current != version || previous != null && previous.hash().equals(version.hash())) {
+                return Mono.just(List.of());
+            }
+            changed.forEach(apiDoc -> fetcher.refetch(apiDoc.target()));
+            List<String> routeIds = changed.stream().map(DownstreamApiDoc::routeId).toList();
+            log.info("服务 [{}] 文档版本变化（{} -> {}），重新拉取路由 {}", service,
+                    previous == null ? "未知" : previous.hash(), version.hash(), routeIds);
+            return Mono.just(routeIds);
+        });
+    }
+
+    /**
+     * 并行获取下游文档，单个服务失败不影响其他服务
+     *
+     * @param filter 要获取的下游文档
+     * @return 路由 ID -> 文档（不含不可用的服务）
+     */
+    public Mono<Map<String, ApiDocSnapshot>> aggregate(Predicate<DownstreamApiDoc> filter) {
+        return routes.flatMapMany(Flux::fromIterable)
+                .filter(filter)
+                .flatMap(apiDoc -> get(apiDoc).onErrorResume(e -> Mono.empty()))
+                .collectMap(snapshot -> snapshot.target().id(), Function.identity());
+    }
+
+    /**
+     * 文档索引：只含路由元数据与缓存状态，不访问下游服务
+     */
+    public Flux<ApiDocIndexEntry> index() {
+        return routes.flatMapMany(Flux::fromIterable)
+                .map(apiDoc -> new ApiDocIndexEntry(apiDoc.routeId(), apiDoc.name(), apiDoc.gatewayPath(),
+                        apiDoc.patterns(), apiDoc.discovered(), fetcher.lastGood(apiDoc.routeId()) != null));
+    }
+
+    /**
+     * 各下游文档的聚合状态
+     */
+    public Flux<ApiDocStatus> status() {
+        return routes.flatMapMany(Flux::fromIterable)
+                .map(apiDoc -> ApiDocStatus.of(apiDoc, fetcher.lastGood(apiDoc.routeId()), ttlOf(apiDoc),
+                        versions.get(apiDoc.service()), circuitBreaker.state(apiDoc.routeId()),
+                        fetcher.fetches(apiDoc.routeId()), fetcher.coalesced(apiDoc.routeId())));
+    }
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        ApiDocProperties.Prefetch prefetch = aggregation.getPrefetch();
+        if (prefetch == ApiDocProperties.Prefetch.NONE) {
+            return;
+        }
+        long start = System.nanoTime();
+        Predicate<DownstreamApiDoc> filter = apiDoc -> prefetch == ApiDocProperties.Prefetch.ALL
+                || !apiDoc.discovered();
+        aggregate(filter).subscribe(result -> log.info("下游文档聚合完成：{} 个服务，总耗时 {} ms，各服务耗时 {}",
+                result.size(), (System.nanoTime() - start) / 1_000_000,
+                result.values().stream().collect(Collectors.toMap(snapshot -> snapshot.target().id(),
+                        ApiDocSnapshot::latencyMillis))));
+    }
+
+    /**
+     * 先于其他路由刷新监听执行，监听方（如文档页分组列表）读取到的是刷新后的路由
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onRefreshRoutes(RefreshRoutesEvent event) {
+        routes = resolveRoutes();
+        routes.subscribe(null, e -> log.warn("下游文档路由推导失败", e));
+    }
+
+    private Mono<List<DownstreamApiDoc>> resolveRoutes() {
+        Set<String> configured = gatewayProperties.getRoutes().stream()
+                .map(RouteDefinition::getId)
+                .collect(Collectors.toSet());
+        return routeDefinitionLocator.getRouteDefinitions()
+                .flatMap(route -> Mono.justOrEmpty(DownstreamApiDoc.of(route, aggregation.getDocPath(),
+                        aggregation.timeoutOf(route.getId()), !configured.contains(route.getId()))))
+                .collectList()
+                .map(ApiDocAggregator::withoutShadowedDiscoveries)
+                .doOnNext(list -> {
+                    apiDocs = list.stream()
+                            .collect(Collectors.toMap(DownstreamApiDoc::gatewayPath, Function.identity(),
+                                    (existing, replacement) -> existing));
+                    purge(list);
+                })
+                .cache();
+    }
+
+    /**
+     * 清理已移除路由的文档、计数与熔断状态，以及已没有路由的服务推送的版本
+     */
+    private void purge(List<DownstreamApiDoc> list) {
+        fetcher.retain(list.stream().map(DownstreamApiDoc::routeId).collect(Collectors.toSet()));
+        Set<String> services = list.stream()
+                .map(apiDoc -> apiDoc.service().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        versions.keySet().removeIf(service -> !services.contains(service.toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * 去掉与配置的路由指向同一服务的服务发现路由，配置的路由在前，各自按路由 ID 排序
+     */
+    private static List<DownstreamApiDoc> withoutShadowedDiscoveries(List<DownstreamApiDoc> list) {
+        Set<String> configuredServices = list.stream()
+                .filter(apiDoc -> !apiDoc.discovered())
+                .map(apiDoc -> apiDoc.service().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        return list.stream()
+                .filter(apiDoc -> !apiDoc.discovered()
+                        || !configuredServices.contains(apiDoc.service().toLowerCase(Locale.ROOT)))
+                .sorted(Comparator.comparing(DownstreamApiDoc::discovered).thenComparing(DownstreamApiDoc::routeId))
+                .toList();
+    }
+
+    /**
+     * 文档索引条目
+     *
+     * @param routeId    路由 ID
+     * @param name       显示名称
+     * @param path       网关侧文档路径，打开该服务时请求
+     * @param patterns   路由的 Path 断言
+     * @param discovered 是否为服务发现自动生成的路由
+     * @param loaded     网关是否已缓存该服务的文档
+     */
+    public record ApiDocIndexEntry(String routeId, String name, String path, List<String> patterns,
+                                   boolean discovered, boolean loaded) {
+    }
+
+    /**
+     * 下游文档聚合状态
+     *
+     * @param routeId       路由 ID
+     * @param name          显示名称
+     * @param path          网关侧文档路径
+     * @param state         fresh：新鲜期内；stale：已过期或最近一次拉取失败，使用缓存；unavailable：暂无可用文档
+     * @param ageMillis     缓存时长
+     * @param latencyMillis 最近一次成功拉取的耗时
+     * @param size          文档大小
+     * @param etag          文档 ETag
+     * @param error         最近一次拉取失败的原因
+     * @param version       服务最近一次推送的文档哈希，未推送过时为 null
+     * @param circuit       熔断状态：closed / open / half_open
+     * @param fetches       请求下游的次数
+     * @param coalesced     共享进行中拉取、未请求下游的次数
+     */
+    public record ApiDocStatus(String routeId, String name, String path, String state, Long ageMillis,
+                               Long latencyMillis, Integer size, String etag, String error, String version,
+                               String circuit, long fetches, long coalesced) {
+
+        static ApiDocStatus of(DownstreamApiDoc apiDoc, ApiDocSnapshot snapshot, Duration ttl, ApiDocVersion version,
+                               ApiDocCircuitBreaker.State circuit, long fetches, long coalesced) {
+            String hash = version == null ? null : version.hash();
+            if (snapshot == null) {
+                return new ApiDocStatus(apiDoc.routeId(), apiDoc.name(), apiDoc.gatewayPath(), "unavailable",
+                        null, null, null, null, null, hash, circuit.tag(), fetches, coalesced);
+            }
+            String state = snapshot.isFresh(ttl) ? "fresh" : "stale";
+            return new ApiDocStatus(apiDoc.routeId(), apiDoc.name(), apiDoc.gatewayPath(), state,
+                    snapshot.age().toMillis(), snapshot.latencyMillis(), snapshot.content().getBody().length,
+                    snapshot.content().getEtag(), snapshot.error(), hash, circuit.tag(), fetches, coalesced);
+        }
+    }
+}
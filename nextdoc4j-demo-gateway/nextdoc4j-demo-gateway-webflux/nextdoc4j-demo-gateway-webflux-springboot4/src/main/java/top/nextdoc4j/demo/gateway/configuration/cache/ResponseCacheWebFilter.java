@@ -0,0 +1,186 @@
+package top.nextdoc4j.demo.gateway.configuration.cache;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import top.nextdoc4j.demo.core.cache.CachedResponse;
+import top.nextdoc4j.demo.core.cache.ResponseCache;
+import top.nextdoc4j.demo.core.cache.ResponseCacheRule;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * 网关响应缓存过滤器
+ * <p>
+ * 匹配缓存规则的 GET 请求先查 {@link ResponseCache}：
+ * 1. 命中时直接输出缓存的响应（X-Cache: HIT，Age 为已缓存秒数），不经过网关路由
+ * 2. 未命中时由首个请求转发，响应体边写出边复制，可缓存时保存（X-Cache: MISS）；
+ * 复制的大小超过单个响应上限时放弃复制，响应照常写出，内存占用不超过该上限
+ * 3. 相同请求正在转发时等待其结果（X-Cache: COALESCED），结果不可缓存或等待超时时各自转发
+ * <p>
+ * 请求带 Range 或 Cache-Control: no-cache / no-store 时不使用缓存；流式响应（writeAndFlushWith）不缓存。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public class ResponseCacheWebFilter implements WebFilter, Ordered {
+
+    private static final String X_CACHE = "X-Cache";
+
+    private final ResponseCache cache;
+
+    private final ResponseCacheRuleSource ruleSource;
+
+    private final long maxEntrySize;
+
+    private final Duration coalesceTimeout;
+
+    public ResponseCacheWebFilter(ResponseCache cache,
+                                  ResponseCacheRuleSource ruleSource,
+                                  long maxEntrySize,
+                                  Duration coalesceTimeout) {
+        this.cache = cache;
+        this.ruleSource = ruleSource;
+        this.maxEntrySize = maxEntrySize;
+        this.coalesceTimeout = coalesceTimeout;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        HttpHeaders headers = request.getHeaders();
+        if (!ResponseCache.isCacheableRequest(request.getMethod().name(), headers.getFirst(HttpHeaders.RANGE),
+                headers.getFirst(HttpHeaders.CACHE_CONTROL))) {
+            return chain.filter(exchange);
+        }
+        String path = request.getPath().pathWithinApplication().value();
+        ResponseCacheRule rule = ruleSource.rules().match(path);
+        if (rule == null) {
+            return chain.filter(exchange);
+        }
+        ResponseCache.Lookup lookup = cache.lookup(ResponseCache.key(path, request.getURI().getRawQuery(),
+                rule.vary(), headers::getFirst));
+        return switch (lookup.kind()) {
+            case HIT -> write(exchange.getResponse(), lookup.response(), "HIT");
+            // 不随本请求取消共享的结果
+            case WAIT -> Mono.fromFuture(lookup.future(), true)
+                    .timeout(coalesceTimeout)
+                    .onErrorResume(TimeoutException.class, e -> Mono.empty())
+                    .map(response -> write(exchange.getResponse(), response, "COALESCED"))
+                    .defaultIfEmpty(Mono.defer(() -> chain.filter(exchange)))
+                    .flatMap(Function.identity());
+            case LOAD -> chain.filter(exchange.mutate()
+                            .response(new CachingResponse(exchange.getResponse(), lookup, rule.ttl()))
+                            .build())
+                    .doFinally(signal -> cache.abandon(lookup));
+        };
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, CachedResponse cached, String outcome) {
+        response.setStatusCode(HttpStatusCode.valueOf(cached.status()));
+        HttpHeaders headers = response.getHeaders();
+        cached.headers().forEach(headers::put);
+        headers.set(X_CACHE, outcome);
+        headers.set(HttpHeaders.AGE, String.valueOf(cached.age().toSeconds()));
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static Map<String, List<String>> headersOf(HttpHeaders headers) {
+        Map<String, List<String>> map = new LinkedHashMap<>();
+        headers.forEach(map::put);
+        return map;
+    }
+
+    /**
+     * 首个请求的响应：写出的同时复制响应体，写出完成后交给 {@link ResponseCache#complete}
+     */
+    private final class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ResponseCache.Lookup lookup;
+
+        private final Duration ttl;
+
+        CachingResponse(ServerHttpResponse delegate, ResponseCache.Lookup lookup, Duration ttl) {
+            super(delegate);
+            this.lookup = lookup;
+            this.ttl = ttl;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            long contentLength = getHeaders().getContentLength();
+            Map<String, List<String>> headers = headersOf(getHeaders());
+            if (status == null || contentLength > maxEntrySize || !ResponseCache.isCacheable(status.value(), headers)) {
+                cache.reject(lookup);
+                return super.writeWith(body);
+            }
+            getHeaders().set(X_CACHE, "MISS");
+            BodyCopy copy = new BodyCopy();
+            return super.writeWith(Flux.from(body)
+                    .doOnNext(copy::append)
+                    .doOnComplete(() -> copy.complete(status.value(), headers)));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            cache.reject(lookup);
+            return super.writeAndFlushWith(body);
+        }
+
+        /**
+         * 响应体副本：长度未知（分块响应）时同样逐块计数，超过单个响应上限即放弃
+         */
+        private final class BodyCopy {
+
+            private ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            void append(DataBuffer buffer) {
+                if (out == null) {
+                    return;
+                }
+                int length = buffer.readableByteCount();
+                if (out.size() + (long) length > maxEntrySize) {
+                    out = null;
+                    cache.reject(lookup);
+                    return;
+                }
+                // 只复制，不移动读取位置，原缓冲区照常写出
+                byte[] bytes = new byte[length];
+                int position = buffer.readPosition();
+                buffer.read(bytes);
+                buffer.readPosition(position);
+                out.writeBytes(bytes);
+            }
+
+            void complete(int status, Map<String, List<String>> headers) {
+                if (out != null) {
+                    cache.complete(lookup, ttl, status, headers, out.toByteArray());
+                    out = null;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package top.nextdoc4j.demo.gateway.configuration.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * 网关响应缓存属性
+ * <p>
+ * 只缓存声明了规则的 GET 接口：路由元数据 nextdoc4j.cache，或下游文档中接口的 OpenAPI 扩展（{@link #extension}）
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@Data
+@ConfigurationProperties("project.response-cache")
+public class ResponseCacheProperties {
+
+    /**
+     * 是否启用
+     */
+    private boolean enabled = true;
+
+    /**
+     * 最大条目数
+     */
+    private int maxEntries = 10_000;
+
+    /**
+     * 最大总大小
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    /**
+     * 单个响应的最大大小，超过时不缓存
+     */
+    private DataSize maxEntrySize = DataSize.ofMegabytes(1);
+
+    /**
+     * 相同请求等待首个请求结果的最长时间，超过后各自转发
+     */
+    private Duration coalesceTimeout = Duration.ofSeconds(5);
+
+    /**
+     * 规则刷新间隔：重新读取路由元数据，下游文档变化时重新解析 OpenAPI 扩展
+     */
+    private Duration refreshInterval = Duration.ofSeconds(5);
+
+    /**
+     * 下游文档中声明缓存规则的 OpenAPI 扩展名，如 {"ttl": "30s", "vary": "Accept-Language"}
+     */
+    private String extension = "x-nextdoc4j-cache";
+}
@@ -0,0 +1,181 @@
+package top.nextdoc4j.demo.gateway.webmvc.configuration.apidoc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.gateway.server.mvc.config.GatewayMvcProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+import top.nextdoc4j.demo.core.apidoc.ApiDocBulkhead;
+import top.nextdoc4j.demo.core.apidoc.ApiDocCircuitBreaker;
+import top.nextdoc4j.demo.core.apidoc.ApiDocFetcher;
+import top.nextdoc4j.demo.core.apidoc.ApiDocMerger;
+import top.nextdoc4j.demo.core.apidoc.ApiDocTarget;
+import top.nextdoc4j.demo.core.apidoc.InMemoryApiDocVersionChannel;
+import top.nextdoc4j.demo.gateway.webmvc.configuration.properties.ApiDocProperties;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * 下游文档聚合配置
+ * <p>
+ * 拉取在有界线程池上执行（project.api-doc.aggregation.concurrency），同时拉取的文档数不超过池大小，
+ * 不占用 Servlet 线程。文档流量使用独立的 HttpClient（独立的连接池），不与网关转发业务请求的客户端共享连接；
+ * 连续失败的路由熔断（project.api-doc.aggregation.circuit-breaker），每个路由同时等待下游的请求数受舱壁限制
+ * （project.api-doc.aggregation.bulkhead）。聚合的文档路由排在网关路由之前，文档路径由这里直接响应，其余请求照常转发。
+ * <p>
+ * 服务通过 HTTP 回调（project.api-doc.aggregation.push.path）推送文档版本；存在 {@link InMemoryApiDocVersionChannel}
+ * 时同时订阅进程内推送。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "project.api-doc.aggregation", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ApiDocAggregationConfiguration {
+
+    @Bean
+    public ThreadPoolTaskExecutor apiDocFetchExecutor(ApiDocProperties apiDocProperties) {
+        int concurrency = apiDocProperties.getAggregation().getConcurrency();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("api-doc-fetch-");
+        return executor;
+    }
+
+    @Bean
+    public ApiDocCircuitBreaker apiDocCircuitBreaker(ApiDocProperties apiDocProperties) {
+        ApiDocProperties.CircuitBreaker circuitBreaker = apiDocProperties.getAggregation().getCircuitBreaker();
+        return new ApiDocCircuitBreaker(circuitBreaker.isEnabled() ? circuitBreaker.getFailureThreshold() : 0,
+            circuitBreaker.getOpenDuration(), (routeId, from, to, failures) -> {
+                if (to == ApiDocCircuitBreaker.State.OPEN) {
+                    log.warn("下游文档 [{}] 熔断打开（{} -> {}），连续失败 {} 次，{} 内直接使用缓存的文档", routeId,
+                        from.tag(), to.tag(), failures, circuitBreaker.getOpenDuration());
+                } else {
+                    log.info("下游文档 [{}] 熔断状态 {} -> {}", routeId, from.tag(), to.tag());
+                }
+            });
+    }
+
+    @Bean
+    public ApiDocFetcher apiDocFetcher(ThreadPoolTaskExecutor apiDocFetchExecutor,
+                                       LoadBalancerClient loadBalancerClient,
+                                       ApiDocCircuitBreaker apiDocCircuitBreaker,
+                                       ApiDocProperties apiDocProperties,
+                                       MeterRegistry meterRegistry) {
+        ApiDocProperties.Aggregation aggregation = apiDocProperties.getAggregation();
+        HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(aggregation.getTimeout())
+            .build();
+        return new ApiDocFetcher(httpClient, apiDocFetchExecutor, uri -> resolve(loadBalancerClient, uri),
+            (int) aggregation.getCompressMinSize().toBytes(), aggregation.getMaxSize().toBytes(),
+            apiDocCircuitBreaker, fetchListener(meterRegistry));
+    }
+
+    @Bean
+    public ApiDocAggregator apiDocAggregator(GatewayMvcProperties gatewayMvcProperties,
+                                             ApiDocFetcher apiDocFetcher,
+                                             ApiDocCircuitBreaker apiDocCircuitBreaker,
+                                             ApiDocProperties apiDocProperties,
+                                             ObjectProvider<InMemoryApiDocVersionChannel> apiDocVersionChannel) {
+        ApiDocProperties.Aggregation aggregation = apiDocProperties.getAggregation();
+        ApiDocProperties.Bulkhead bulkhead = aggregation.getBulkhead();
+        ApiDocAggregator aggregator = new ApiDocAggregator(gatewayMvcProperties, apiDocFetcher, aggregation,
+            apiDocCircuitBreaker, new ApiDocBulkhead(bulkhead.isEnabled() ? bulkhead.getMaxConcurrent() : 0));
+        if (aggregation.getPush().isEnabled()) {
+            apiDocVersionChannel.ifAvailable(channel -> channel.subscribe(aggregator::onVersion));
+        }
+        return aggregator;
+    }
+
+    @Bean
+    public ApiDocAggregationHandler apiDocAggregationHandler(ApiDocAggregator apiDocAggregator,
+                                                             ApiDocProperties apiDocProperties,
+                                                             ObjectMapper objectMapper) {
+        ApiDocProperties.Aggregation aggregation = apiDocProperties.getAggregation();
+        ApiDocProperties.Merge merge = aggregation.getMerge();
+        MergedApiDoc mergedApiDoc = merge.isEnabled()
+            ? new MergedApiDoc(new ApiDocMerger(merge.getTitle()), objectMapper,
+                (int) aggregation.getCompressMinSize().toBytes())
+            : null;
+        return new ApiDocAggregationHandler(apiDocAggregator, aggregation.getPush().getToken(), mergedApiDoc);
+    }
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public RouterFunction<ServerResponse> apiDocAggregationRouter(ApiDocAggregationHandler handler,
+                                                                  ApiDocProperties apiDocProperties) {
+        ApiDocProperties.Aggregation aggregation = apiDocProperties.getAggregation();
+        RouterFunctions.Builder route = RouterFunctions.route()
+            .GET(aggregation.getStatusPath(), handler::status)
+            .GET("/**", handler::isApiDoc, handler::apiDoc);
+        if (aggregation.getMerge().isEnabled()) {
+            route.GET(aggregation.getMerge().getPath(), handler::merged);
+        }
+        if (aggregation.getPush().isEnabled()) {
+            route.POST(aggregation.getPush().getPath(), handler::invalidate);
+        }
+        return route.build();
+    }
+
+    /**
+     * 按服务名选择实例
+     */
+    private static URI resolve(LoadBalancerClient loadBalancerClient, URI uri) {
+        ServiceInstance instance = loadBalancerClient.choose(uri.getHost());
+        if (instance == null) {
+            throw new IllegalStateException("服务 " + uri.getHost() + " 没有可用实例");
+        }
+        return loadBalancerClient.reconstructURI(instance, uri);
+    }
+
+    private static ApiDocFetcher.FetchListener fetchListener(MeterRegistry meterRegistry) {
+        return new ApiDocFetcher.FetchListener() {
+            @Override
+            public void onFetch(ApiDocTarget target, ApiDocFetcher.Outcome outcome, Duration latency, String error) {
+                Timer.builder("api.doc.aggregation.fetch")
+                    .description("下游文档拉取耗时")
+                    .tag("route", target.id())
+                    .tag("outcome", outcome.tag())
+                    .register(meterRegistry)
+                    .record(latency);
+                if (outcome == ApiDocFetcher.Outcome.REJECTED) {
+                    log.debug("下游文档 [{}] 熔断中，使用缓存的文档", target.id());
+                } else if (outcome == ApiDocFetcher.Outcome.NOT_MODIFIED) {
+                    log.debug("下游文档 [{}] 未变化（304），耗时 {} ms", target.id(), latency.toMillis());
+                } else if (error == null) {
+                    log.debug("下游文档 [{}] 拉取完成，耗时 {} ms", target.id(), latency.toMillis());
+                } else {
+                    log.warn("下游文档 [{}] 拉取失败：{}", target.id(), error);
+                }
+            }
+
+            @Override
+            public void onCoalesced(ApiDocTarget target) {
+                Counter.builder("api.doc.aggregation.coalesced")
+                    .description("共享进行中拉取的文档请求数")
+                    .tag("route", target.id())
+                    .register(meterRegistry)
+                    .increment();
+            }
+        };
+    }
+}
@@ -0,0 +1,132 @@
+package top.nextdoc4j.demo.gateway.webmvc.configuration.apidoc;
+
+import jakarta.servlet.ServletException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+import top.nextdoc4j.demo.core.apidoc.ApiDocSnapshot;
+import top.nextdoc4j.demo.core.apidoc.ApiDocUnavailableException;
+import top.nextdoc4j.demo.core.apidoc.ApiDocVersion;
+import top.nextdoc4j.demo.core.apidoc.WebhookApiDocVersionPublisher;
+import top.nextdoc4j.demo.core.compression.PrecompressedContent;
+import top.nextdoc4j.demo.core.model.base.R;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * 聚合文档接口
+ * <p>
+ * 1. /{前缀}/v3/api-docs：由 {@link ApiDocAggregator} 的缓存输出，不再经网关转发到下游服务
+ * 2. 按 Accept-Encoding 输出预压缩版本，If-None-Match 与所选表示的 ETag 一致时返回 304
+ * 3. 响应头 X-Api-Doc-State 标明文档状态（fresh / stale），Age 为缓存时长（秒）
+ * 4. 从未拉取成功的服务返回 503
+ * 5. POST /api-doc/invalidations：接收服务推送的文档版本，返回重新拉取的路由 ID；需携带推送令牌，只接受有路由的服务
+ * 6. GET /api-doc/merged：所有下游文档合并为一份（{@link MergedApiDoc}）
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@RequiredArgsConstructor
+public class ApiDocAggregationHandler {
+
+    public static final String STATE_HEADER = "X-Api-Doc-State";
+
+    private final ApiDocAggregator aggregator;
+
+    /**
+     * 推送鉴权令牌，未配置时拒绝所有推送
+     */
+    private final String token;
+
+    /**
+     * 合并文档，未启用时为 null
+     */
+    private final MergedApiDoc mergedApiDoc;
+
+    /**
+     * 是否为聚合的文档路径
+     */
+    public boolean isApiDoc(ServerRequest request) {
+        return aggregator.find(request.path()) != null;
+    }
+
+    public ServerResponse apiDoc(ServerRequest request) {
+        ApiDocSnapshot snapshot;
+        try {
+            snapshot = aggregator.get(aggregator.find(request.path()));
+        } catch (ApiDocUnavailableException e) {
+            return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(R.fail(String.valueOf(HttpStatus.SERVICE_UNAVAILABLE.value()), e.getMessage()));
+        }
+        return write(request, snapshot);
+    }
+
+    public ServerResponse status(ServerRequest request) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).body(aggregator.status());
+    }
+
+    public ServerResponse merged(ServerRequest request) {
+        return write(request, mergedApiDoc.get(aggregator.apiDocs(), aggregator.aggregate()), headers -> {
+        });
+    }
+
+    public ServerResponse invalidate(ServerRequest request) throws ServletException, IOException {
+        if (token == null || token.isEmpty()) {
+            return fail(HttpStatus.FORBIDDEN, "网关未配置推送令牌，拒绝推送");
+        }
+        if (!WebhookApiDocVersionPublisher.isAuthorized(token,
+            request.headers().firstHeader(WebhookApiDocVersionPublisher.TOKEN_HEADER))) {
+            return fail(HttpStatus.UNAUTHORIZED, "推送令牌无效");
+        }
+        ApiDocVersion version = request.body(ApiDocVersion.class);
+        if (version.service() == null || version.hash() == null || version.publishedAt() == null) {
+            return fail(HttpStatus.BAD_REQUEST, "service、hash、publishedAt 不能为空");
+        }
+        return aggregator.onVersion(version)
+            .map(routeIds -> ServerResponse.accepted().contentType(MediaType.APPLICATION_JSON).body(R.ok(routeIds)))
+            .orElseGet(() -> fail(HttpStatus.NOT_FOUND, "没有路由指向服务：" + version.service()));
+    }
+
+    private static ServerResponse fail(HttpStatus status, String message) {
+        return ServerResponse.status(status)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(R.fail(String.valueOf(status.value()), message));
+    }
+
+    private ServerResponse write(ServerRequest request, ApiDocSnapshot snapshot) {
+        return write(request, snapshot.content(), headers -> {
+            headers.set(HttpHeaders.AGE, String.valueOf(snapshot.age().toSeconds()));
+            headers.set(STATE_HEADER, snapshot.isFresh(aggregator.ttlOf(snapshot.target())) ? "fresh" : "stale");
+        });
+    }
+
+    private ServerResponse write(ServerRequest request,
+                                 PrecompressedContent content,
+                                 Consumer<HttpHeaders> extraHeaders) {
+        PrecompressedContent.Representation representation = content
+            .select(request.headers().firstHeader(HttpHeaders.ACCEPT_ENCODING));
+        Consumer<HttpHeaders> commonHeaders = headers -> {
+            headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            headers.setCacheControl("no-cache");
+            extraHeaders.accept(headers);
+        };
+        return request.checkNotModified(representation.etag())
+            .map(notModified -> ServerResponse.from(notModified).headers(commonHeaders).build())
+            .orElseGet(() -> ServerResponse.ok()
+                .headers(commonHeaders)
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(representation.etag())
+                .headers(headers -> {
+                    if (representation.contentEncoding() != null) {
+                        headers.set(HttpHeaders.CONTENT_ENCODING, representation.contentEncoding());
+                    }
+                })
+                .contentLength(representation.body().length)
+                .body(representation.body()));
+    }
+}
@@ -0,0 +1,281 @@
+package top.nextdoc4j.demo.gateway.webmvc.configuration.apidoc;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.gateway.server.mvc.config.GatewayMvcProperties;
+import org.springframework.context.event.EventListener;
+import top.nextdoc4j.demo.core.apidoc.ApiDocBulkhead;
+import top.nextdoc4j.demo.core.apidoc.ApiDocCircuitBreaker;
+import top.nextdoc4j.demo.core.apidoc.ApiDocFetcher;
+import top.nextdoc4j.demo.core.apidoc.ApiDocSnapshot;
+import top.nextdoc4j.demo.core.apidoc.ApiDocTarget;
+import top.nextdoc4j.demo.core.apidoc.ApiDocUnavailableException;
+import top.nextdoc4j.demo.core.apidoc.ApiDocVersion;
+import top.nextdoc4j.demo.gateway.webmvc.configuration.properties.ApiDocProperties;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 下游文档聚合
+ * <p>
+ * 网关文档页依次请求各服务的 /v3/api-docs，每个请求在转发期间占用一个 Servlet 线程，任一服务响应慢时整个文档页都要等待。
+ * 这里改为由网关通过 {@link ApiDocFetcher} 统一拉取：
+ * 1. 所有服务在拉取线程池上并行拉取，每个服务独立超时，冷启动聚合耗时由各服务耗时之和降为最慢的单个服务
+ * 2. 文档超过新鲜期后先返回缓存，同时在后台重新拉取，同一路由同时只有一次拉取
+ * 3. 拉取失败（超时、服务下线）时继续使用上次成功的文档，从未成功过的服务才返回不可用
+ * <p>
+ * 下游文档每次由 spring.cloud.gateway.server.webmvc.routes 推导，配置中心刷新路由后立即生效；
+ * 路由集合变化时清理已移除路由的文档、计数、熔断状态与推送的版本（{@link #purge}）。
+ * <p>
+ * 文档尚未缓存时请求需要等待拉取，每个路由同时等待的请求数受 {@link ApiDocBulkhead} 限制，
+ * 下游挂起时不会耗尽 Servlet 线程；连续失败的路由由 {@link ApiDocCircuitBreaker} 熔断，熔断期间直接使用缓存的文档。
+ * <p>
+ * 服务推送文档版本（{@link #onVersion}）后，该服务的文档改由推送驱动：哈希变化时只重新拉取该服务的路由，
+ * 新鲜期放宽为 project.api-doc.aggregation.push.ttl，其余服务仍按新鲜期重新拉取。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@Slf4j
+public class ApiDocAggregator {
+
+    private final GatewayMvcProperties gatewayMvcProperties;
+
+    private final ApiDocFetcher fetcher;
+
+    private final ApiDocProperties.Aggregation aggregation;
+
+    private final ApiDocCircuitBreaker circuitBreaker;
+
+    private final ApiDocBulkhead bulkhead;
+
+    /**
+     * 服务名 -> 最近一次推送的文档版本
+     */
+    private final Map<String, ApiDocVersion> versions = new ConcurrentHashMap<>();
+
+    /**
+     * 上次清理时的路由 ID
+     */
+    private volatile Set<String> routeIds = Set.of();
+
+    public ApiDocAggregator(GatewayMvcProperties gatewayMvcProperties,
+                            ApiDocFetcher fetcher,
+                            ApiDocProperties.Aggregation aggregation,
+                            ApiDocCircuitBreaker circuitBreaker,
+                            ApiDocBulkhead bulkhead) {
+        this.gatewayMvcProperties = gatewayMvcProperties;
+        this.fetcher = fetcher;
+        this.aggregation = aggregation;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+    }
+
+    /**
+     * 所有下游文档
+     */
+    public List<DownstreamApiDoc> apiDocs() {
+        List<DownstreamApiDoc> apiDocs = gatewayMvcProperties.getRoutes()
+            .stream()
+            .map(route -> DownstreamApiDoc.of(route, aggregation.getDocPath(), aggregation.timeoutOf(route.getId())))
+            .flatMap(Optional::stream)
+            .sorted(Comparator.comparing(DownstreamApiDoc::routeId))
+            .toList();
+        purge(apiDocs);
+        return apiDocs;
+    }
+
+    /**
+     * 路由集合变化时（配置中心刷新后路由属性重新绑定，WebMvc 网关没有路由刷新事件）清理已移除路由的文档、计数与熔断状态，
+     * 以及已没有路由的服务推送的版本
+     */
+    private void purge(List<DownstreamApiDoc> apiDocs) {
+        Set<String> current = apiDocs.stream().map(DownstreamApiDoc::routeId).collect(Collectors.toSet());
+        if (current.equals(routeIds)) {
+            return;
+        }
+        routeIds = current;
+        fetcher.retain(current);
+        Set<String> services = apiDocs.stream()
+            .map(apiDoc -> apiDoc.service().toLowerCase(Locale.ROOT))
+            .collect(Collectors.toSet());
+        versions.keySet().removeIf(service -> !services.contains(service.toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * 按网关侧路径查找下游文档，不是聚合的文档路径时返回 null
+     */
+    public DownstreamApiDoc find(String gatewayPath) {
+        if (!gatewayPath.endsWith(aggregation.getDocPath())) {
+            return null;
+        }
+        return apiDocs().stream().filter(apiDoc -> apiDoc.gatewayPath().equals(gatewayPath)).findFirst().orElse(null);
+    }
+
+    /**
+     * 获取文档：新鲜期内直接返回；过期时返回缓存并在后台重新拉取；从未拉取过时等待本次拉取
+     *
+     * @throws ApiDocUnavailableException 拉取失败且没有可用的缓存
+     */
+    public ApiDocSnapshot get(DownstreamApiDoc apiDoc) {
+        try {
+            return getAsync(apiDoc).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 并行获取所有下游文档（规则同 {@link #get}），单个服务失败不影响其他服务
+     *
+     * @return 路由 ID -> 文档（不含不可用的服务）
+     */
+    public Map<String, ApiDocSnapshot> aggregate() {
+        Map<String, CompletableFuture<ApiDocSnapshot>> futures = new LinkedHashMap<>();
+        apiDocs().forEach(apiDoc -> futures.put(apiDoc.routeId(), getAsync(apiDoc)));
+        Map<String, ApiDocSnapshot> result = new LinkedHashMap<>();
+        futures.forEach((routeId, future) -> {
+            try {
+                result.put(routeId, future.join());
+            } catch (CompletionException e) {
+                // 从未成功过的文档不计入结果，失败已由拉取监听记录
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 文档新鲜期：推送过版本的服务为 push.ttl，其余为 ttl
+     */
+    public Duration ttlOf(ApiDocTarget target) {
+        ApiDocProperties.Push push = aggregation.getPush();
+        return push.isEnabled() && versions.containsKey(target.uri().getHost()) ? push.getTtl() : aggregation.getTtl();
+    }
+
+    /**
+     * 收到服务推送的文档版本：哈希与上次不同（或首次推送）时，在后台重新拉取该服务的所有路由，其他服务不受影响。
+     * 只记录有路由指向的服务，版本表的大小不超过路由数
+     *
+     * @return 重新拉取的路由 ID；没有路由指向该服务时为空
+     */
+    public Optional<List<String>> onVersion(ApiDocVersion version) {
+        List<DownstreamApiDoc> apiDocs = apiDocs();
+        List<DownstreamApiDoc> changed = apiDocs.stream()
+            .filter(apiDoc -> apiDoc.service().equalsIgnoreCase(version.service()))
+            .toList();
+        if (changed.isEmpty()) {
+            log.debug("忽略服务 [{}] 的文档版本：没有路由指向该服务", version.service());
+            return Optional.empty();
+        }
+        String service = changed.get(0).service();
+        Set<String> services = apiDocs.stream().map(DownstreamApiDoc::service).collect(Collectors.toSet());
+        versions.keySet().retainAll(services);
+        ApiDocVersion previous = versions.get(service);
+        ApiDocVersion current = versions.merge(service, version, (existing, incoming) ->
+            incoming.publishedAt().isBefore(existing.publishedAt()) ? existing : incoming);
+        if (current != version || previous != null && previous.hash().equals(version.hash())) {
+            return Optional.of(List.of());
+        }
+        changed.forEach(apiDoc -> fetcher.refetch(apiDoc.target()));
+        List<String> routeIds = changed.stream().map(DownstreamApiDoc::routeId).toList();
+        log.info("服务 [{}] 文档版本变化（{} -> {}），重新拉取路由 {}", service,
+            previous == null ? "未知" : previous.hash(), version.hash(), routeIds);
+        return Optional.of(routeIds);
+    }
+
+    /**
+     * 各下游文档的聚合状态
+     */
+    public List<ApiDocStatus> status() {
+        return apiDocs().stream()
+            .map(apiDoc -> ApiDocStatus.of(apiDoc, fetcher.lastGood(apiDoc.routeId()), ttlOf(apiDoc.target()),
+                versions.get(apiDoc.service()), circuitBreaker.state(apiDoc.routeId()),
+                fetcher.fetches(apiDoc.routeId()), fetcher.coalesced(apiDoc.routeId())))
+            .toList();
+    }
+
+    /**
+     * 启动完成后在拉取线程上预先聚合一次，不阻塞启动
+     */
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        long start = System.nanoTime();
+        CompletableFuture.allOf(apiDocs().stream()
+            .map(apiDoc -> fetcher.fetchAsync(apiDoc.target()).exceptionally(e -> null))
+            .toArray(CompletableFuture[]::new))
+            .thenRun(() -> {
+                Map<String, Long> latencies = apiDocs().stream()
+                    .map(apiDoc -> fetcher.lastGood(apiDoc.routeId()))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toMap(snapshot -> snapshot.target().id(), ApiDocSnapshot::latencyMillis));
+                log.info("下游文档聚合完成：{} 个服务，总耗时 {} ms，各服务耗时 {}", latencies.size(),
+                    (System.nanoTime() - start) / 1_000_000, latencies);
+            });
+    }
+
+    private CompletableFuture<ApiDocSnapshot> getAsync(DownstreamApiDoc apiDoc) {
+        ApiDocSnapshot snapshot = fetcher.lastGood(apiDoc.routeId());
+        if (snapshot == null) {
+            if (!bulkhead.tryAcquire(apiDoc.routeId())) {
+                return CompletableFuture.failedFuture(new ApiDocUnavailableException(apiDoc.target(),
+                    "等待拉取的请求过多（" + bulkhead.inUse(apiDoc.routeId()) + "）", null));
+            }
+            return fetcher.fetchAsync(apiDoc.target())
+                .whenComplete((result, e) -> bulkhead.release(apiDoc.routeId()));
+        }
+        if (snapshot.isExpired(ttlOf(apiDoc.target()))) {
+            fetcher.fetchAsync(apiDoc.target());
+        }
+        return CompletableFuture.completedFuture(snapshot);
+    }
+
+    /**
+     * 下游文档聚合状态
+     *
+     * @param routeId       路由 ID
+     * @param name          显示名称
+     * @param path          网关侧文档路径
+     * @param state         fresh：新鲜期内；stale：已过期或最近一次拉取失败，使用缓存；unavailable：暂无可用文档
+     * @param ageMillis     缓存时长
+     * @param latencyMillis 最近一次成功拉取的耗时
+     * @param size          文档大小
+     * @param etag          文档 ETag
+     * @param error         最近一次拉取失败的原因
+     * @param version       服务最近一次推送的文档哈希，未推送过时为 null
+     * @param circuit       熔断状态：closed / open / half_open
+     * @param fetches       请求下游的次数
+     * @param coalesced     共享进行中拉取、未请求下游的次数
+     */
+    public record ApiDocStatus(String routeId, String name, String path, String state, Long ageMillis,
+                               Long latencyMillis, Integer size, String etag, String error, String version,
+                               String circuit, long fetches, long coalesced) {
+
+        static ApiDocStatus of(DownstreamApiDoc apiDoc, ApiDocSnapshot snapshot, Duration ttl, ApiDocVersion version,
+                               ApiDocCircuitBreaker.State circuit, long fetches, long coalesced) {
+            String hash = version == null ? null : version.hash();
+            if (snapshot == null) {
+                return new ApiDocStatus(apiDoc.routeId(), apiDoc.name(), apiDoc.gatewayPath(), "unavailable",
+                    null, null, null, null, null, hash, circuit.tag(), fetches, coalesced);
+            }
+            return new ApiDocStatus(apiDoc.routeId(), apiDoc.name(), apiDoc.gatewayPath(),
+                snapshot.isFresh(ttl) ? "fresh" : "stale", snapshot.age().toMillis(), snapshot.latencyMillis(),
+                snapshot.content().getBody().length, snapshot.content().getEtag(), snapshot.error(), hash,
+                circuit.tag(), fetches, coalesced);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package top.nextdoc4j.demo.gateway.webmvc.configuration.apidoc;
+
+import org.springframework.cloud.gateway.server.mvc.config.FilterProperties;
+import org.springframework.cloud.gateway.server.mvc.config.PredicateProperties;
+import org.springframework.cloud.gateway.server.mvc.config.RouteProperties;
+import org.springframework.web.util.UriComponentsBuilder;
+import top.nextdoc4j.demo.core.apidoc.ApiDocTarget;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 下游服务文档
+ * <p>
+ * 由 spring.cloud.gateway.server.webmvc.routes 推导：取 lb:// 路由 Path 断言的第一个路径前缀拼接文档路径作为网关侧地址
+ * （如 /user/v3/api-docs），再按 StripPrefix 去掉前缀得到下游地址（如 http://user-service-sb3/v3/api-docs，
+ * 拉取时由负载均衡按服务名选择实例）。配置了 RewritePath 等改写路径过滤器的路由无法可靠推导，不参与聚合。
+ *
+ * @param routeId     路由 ID
+ * @param name        显示名称（路由元数据 nextdoc4j.name，未配置时为路由 ID）
+ * @param gatewayPath 网关侧文档路径
+ * @param uri         下游文档地址（主机为服务名）
+ * @param timeout     拉取超时时间
+ * @author echo
+ * @since 2026/10/18
+ */
+public record DownstreamApiDoc(String routeId, String name, String gatewayPath, URI uri, Duration timeout) {
+
+    private static final Set<String> PATH_REWRITING_FILTERS = Set.of("RewritePath", "SetPath", "PrefixPath");
+
+    /**
+     * 从路由推导下游文档，无法推导时返回空
+     *
+     * @param route   路由
+     * @param docPath 下游服务的文档路径
+     * @param timeout 拉取超时时间
+     */
+    public static Optional<DownstreamApiDoc> of(RouteProperties route, String docPath, Duration timeout) {
+        URI uri = route.getUri();
+        if (uri == null || !"lb".equalsIgnoreCase(uri.getScheme())) {
+            return Optional.empty();
+        }
+        if (route.getFilters().stream().map(FilterProperties::getName).anyMatch(PATH_REWRITING_FILTERS::contains)) {
+            return Optional.empty();
+        }
+        Optional<String> prefix = route.getPredicates().stream()
+            .filter(predicate -> "Path".equals(predicate.getName()))
+            .map(PredicateProperties::getArgs)
+            .flatMap(args -> args.values().stream())
+            .flatMap(value -> Arrays.stream(value.split(",")))
+            .map(DownstreamApiDoc::pathPrefix)
+            .filter(value -> !value.isEmpty())
+            .findFirst();
+        if (prefix.isEmpty()) {
+            return Optional.empty();
+        }
+
+        String gatewayPath = prefix.get() + docPath;
+        String downstreamPath = stripPrefix(gatewayPath, stripParts(route));
+        return Optional.of(new DownstreamApiDoc(route.getId(), displayName(route), gatewayPath,
+            UriComponentsBuilder.fromUri(uri).scheme("http").replacePath(downstreamPath).build(true).toUri(),
+            timeout));
+    }
+
+    /**
+     * 服务名
+     */
+    public String service() {
+        return uri.getHost();
+    }
+
+    /**
+     * 挂载前缀：网关侧路径去掉下游路径后的部分（如 /user），下游路径加上该前缀即网关侧路径
+     */
+    public String mountPath() {
+        return gatewayPath.substring(0, gatewayPath.length() - uri.getPath().length());
+    }
+
+    /**
+     * 拉取目标
+     */
+    public ApiDocTarget target() {
+        return new ApiDocTarget(routeId, uri, timeout);
+    }
+
+    /**
+     * 路径模式的固定前缀：/user/** -> /user，非 / 开头时返回空串
+     */
+    private static String pathPrefix(String pattern) {
+        String value = pattern.trim();
+        if (!value.startsWith("/")) {
+            return "";
+        }
+        StringBuilder prefix = new StringBuilder();
+        for (String segment : value.substring(1).split("/")) {
+            if (segment.isEmpty() || segment.contains("*") || segment.contains("{") || segment.contains("?")) {
+                break;
+            }
+            prefix.append('/').append(segment);
+        }
+        return prefix.toString();
+    }
+
+    private static int stripParts(RouteProperties route) {
+        return route.getFilters().stream()
+            .filter(filter -> "StripPrefix".equals(filter.getName()))
+            .flatMap(filter -> filter.getArgs().values().stream())
+            .findFirst()
+            .map(value -> Integer.parseInt(value.trim()))
+            .orElse(0);
+    }
+
+    private static String stripPrefix(String path, int parts) {
+        String[] segments = path.substring(1).split("/");
+        return "/" + Arrays.stream(segments).skip(Math.min(parts, segments.length - 1))
+            .collect(Collectors.joining("/"));
+    }
+
+    private static String displayName(RouteProperties route) {
+        if (route.getMetadata().get("nextdoc4j") instanceof Map<?, ?> metadata
+            && metadata.get("name") instanceof String name && !name.isBlank()) {
+            return name;
+        }
+        return route.getId();
+    }
+}
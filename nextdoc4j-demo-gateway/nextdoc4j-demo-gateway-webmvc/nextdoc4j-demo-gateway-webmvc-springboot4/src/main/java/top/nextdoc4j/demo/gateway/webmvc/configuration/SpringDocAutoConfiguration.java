@@ -11,7 +11,9 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import top.nextdoc4j.demo.gateway.webmvc.configuration.properties.ApiDocProperties;
 import top.nextdoc4j.demo.gateway.webmvc.configuration.properties.ProjectProperties;
+import top.nextdoc4j.demo.gateway.webmvc.configuration.properties.ResponseCacheProperties;
 
 /**
  * API 文档自动配置
@@ -21,7 +23,7 @@ import top.nextdoc4j.demo.gateway.webmvc.configuration.properties.ProjectPropert
  */
 @Component
 @RequiredArgsConstructor
-@EnableConfigurationProperties({ProjectProperties.class})
+@EnableConfigurationProperties({ProjectProperties.class, ApiDocProperties.class, ResponseCacheProperties.class})
 public class SpringDocAutoConfiguration implements WebMvcConfigurer {
 
     @Override
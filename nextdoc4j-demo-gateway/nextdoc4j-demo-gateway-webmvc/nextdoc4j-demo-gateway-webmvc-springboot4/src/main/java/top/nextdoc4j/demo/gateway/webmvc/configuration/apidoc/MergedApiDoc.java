@@ -0,0 +1,79 @@
+package top.nextdoc4j.demo.gateway.webmvc.configuration.apidoc;
+
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+import top.nextdoc4j.demo.core.apidoc.ApiDocMerger;
+import top.nextdoc4j.demo.core.apidoc.ApiDocSnapshot;
+import top.nextdoc4j.demo.core.compression.PrecompressedContent;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 网关合并文档
+ * <p>
+ * 由 {@link ApiDocMerger} 将所有下游文档合并为一份：路径按 StripPrefix 还原为网关侧地址，同名组件按结构去重，
+ * 冲突的组件按服务名加命名空间。只重新解析内容（ETag）发生变化的文档，合并结果序列化、预压缩后缓存到下一次变化。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@Slf4j
+public class MergedApiDoc {
+
+    private static final TypeReference<Map<String, Object>> SPEC_TYPE = new TypeReference<>() {
+    };
+
+    private final ApiDocMerger merger;
+
+    private final JsonMapper jsonMapper;
+
+    private final int compressMinSize;
+
+    private long revision;
+
+    private PrecompressedContent content;
+
+    public MergedApiDoc(ApiDocMerger merger, JsonMapper jsonMapper, int compressMinSize) {
+        this.merger = merger;
+        this.jsonMapper = jsonMapper;
+        this.compressMinSize = compressMinSize;
+    }
+
+    /**
+     * 合并文档
+     *
+     * @param apiDocs   所有下游文档，顺序即冲突时的优先级
+     * @param snapshots 路由 ID -> 缓存的文档
+     */
+    public synchronized PrecompressedContent get(List<DownstreamApiDoc> apiDocs,
+                                                 Map<String, ApiDocSnapshot> snapshots) {
+        merger.routes(apiDocs.stream().map(DownstreamApiDoc::routeId).toList());
+        for (DownstreamApiDoc apiDoc : apiDocs) {
+            ApiDocSnapshot snapshot = snapshots.get(apiDoc.routeId());
+            if (snapshot == null
+                || merger.isCurrent(apiDoc.routeId(), apiDoc.mountPath(), snapshot.content().getEtag())) {
+                continue;
+            }
+            try {
+                merger.update(apiDoc.routeId(), apiDoc.service(), apiDoc.mountPath(), snapshot.content().getEtag(),
+                    jsonMapper.readValue(snapshot.content().getBody(), SPEC_TYPE));
+            } catch (JacksonException e) {
+                log.warn("下游文档 [{}] 解析失败，不参与合并：{}", apiDoc.routeId(), e.getMessage());
+            }
+        }
+
+        ApiDocMerger.Merged merged = merger.merge();
+        if (content == null || revision != merged.revision()) {
+            content = PrecompressedContent.of(jsonMapper.writeValueAsBytes(merged.document()), compressMinSize);
+            revision = merged.revision();
+            log.info("合并文档已更新：路由 {}，{} bytes，冲突 {} 个", merged.routeIds(), content.getBody().length,
+                merged.conflicts().size());
+            merged.conflicts().forEach(conflict -> log.debug("合并冲突 [{}] {}：{}，涉及路由 {}", conflict.type(),
+                conflict.name(), conflict.resolution(), conflict.routeIds()));
+        }
+        return content;
+    }
+}
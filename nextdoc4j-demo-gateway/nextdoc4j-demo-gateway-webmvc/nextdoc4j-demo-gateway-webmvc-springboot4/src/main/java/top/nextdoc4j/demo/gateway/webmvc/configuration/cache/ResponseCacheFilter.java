@@ -0,0 +1,275 @@
+package top.nextdoc4j.demo.gateway.webmvc.configuration.cache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import top.nextdoc4j.demo.core.cache.CachedResponse;
+import top.nextdoc4j.demo.core.cache.ResponseCache;
+import top.nextdoc4j.demo.core.cache.ResponseCacheRule;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 网关响应缓存过滤器
+ * <p>
+ * 匹配缓存规则的 GET 请求先查 {@link ResponseCache}：
+ * 1. 命中时直接输出缓存的响应（X-Cache: HIT，Age 为已缓存秒数），不经过网关路由
+ * 2. 未命中时由首个请求转发，响应体边写出边复制，可缓存时保存（X-Cache: MISS）；
+ * 复制的大小超过单个响应上限时放弃复制，响应照常写出，内存占用不超过该上限
+ * 3. 相同请求正在转发时在当前线程上等待其结果（X-Cache: COALESCED），结果不可缓存或等待超时时各自转发
+ * <p>
+ * 请求带 Range 或 Cache-Control: no-cache / no-store 时不使用缓存。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public class ResponseCacheFilter extends OncePerRequestFilter implements Ordered {
+
+    private static final String X_CACHE = "X-Cache";
+
+    private final ResponseCache cache;
+
+    private final ResponseCacheRuleSource ruleSource;
+
+    private final long maxEntrySize;
+
+    private final Duration coalesceTimeout;
+
+    public ResponseCacheFilter(ResponseCache cache,
+                               ResponseCacheRuleSource ruleSource,
+                               long maxEntrySize,
+                               Duration coalesceTimeout) {
+        this.cache = cache;
+        this.ruleSource = ruleSource;
+        this.maxEntrySize = maxEntrySize;
+        this.coalesceTimeout = coalesceTimeout;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !ResponseCache.isCacheableRequest(request.getMethod(), request.getHeader(HttpHeaders.RANGE),
+            request.getHeader(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        ResponseCacheRule rule = ruleSource.rules().match(path);
+        if (rule == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ResponseCache.Lookup lookup = cache.lookup(ResponseCache.key(path, request.getQueryString(), rule.vary(),
+            request::getHeader));
+        switch (lookup.kind()) {
+            case HIT -> write(response, lookup.response(), "HIT");
+            case WAIT -> {
+                CachedResponse coalesced = await(lookup.future());
+                if (coalesced != null) {
+                    write(response, coalesced, "COALESCED");
+                } else {
+                    filterChain.doFilter(request, response);
+                }
+            }
+            case LOAD -> {
+                try {
+                    CachingResponse caching = new CachingResponse(response, lookup);
+                    filterChain.doFilter(request, caching);
+                    caching.complete(rule.ttl());
+                } finally {
+                    cache.abandon(lookup);
+                }
+            }
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+
+    private CachedResponse await(CompletableFuture<CachedResponse> future) {
+        try {
+            return future.get(coalesceTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        }
+    }
+
+    private static void write(HttpServletResponse response, CachedResponse cached, String outcome) throws IOException {
+        response.setStatus(cached.status());
+        cached.headers().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        response.setHeader(X_CACHE, outcome);
+        response.setHeader(HttpHeaders.AGE, String.valueOf(cached.age().toSeconds()));
+        response.setContentLength(cached.body().length);
+        response.getOutputStream().write(cached.body());
+    }
+
+    private static Map<String, List<String>> headersOf(HttpServletResponse response) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : response.getHeaderNames()) {
+            headers.putIfAbsent(name, new ArrayList<>(response.getHeaders(name)));
+        }
+        if (response.getContentType() != null) {
+            headers.putIfAbsent(HttpHeaders.CONTENT_TYPE, List.of(response.getContentType()));
+        }
+        return headers;
+    }
+
+    /**
+     * 首个请求的响应：写出的同时复制响应体，写出完成后交给 {@link ResponseCache#complete}。
+     * 响应头在写出第一个字节（提交响应）前检查，不可缓存时不复制
+     */
+    private final class CachingResponse extends HttpServletResponseWrapper {
+
+        private final ResponseCache.Lookup lookup;
+
+        private ByteArrayOutputStream copy;
+
+        private Map<String, List<String>> headers;
+
+        private ServletOutputStream outputStream;
+
+        private PrintWriter writer;
+
+        CachingResponse(HttpServletResponse response, ResponseCache.Lookup lookup) {
+            super(response);
+            this.lookup = lookup;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CopyingOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            start();
+            super.flushBuffer();
+        }
+
+        /**
+         * 开始写出：检查状态码与响应头，可缓存时开始复制并标记 X-Cache: MISS；只执行一次
+         */
+        private void start() {
+            if (headers != null) {
+                return;
+            }
+            headers = headersOf(this);
+            String contentLength = getHeader(HttpHeaders.CONTENT_LENGTH);
+            if ((contentLength != null && Long.parseLong(contentLength) > maxEntrySize)
+                || !ResponseCache.isCacheable(getStatus(), headers)) {
+                cache.reject(lookup);
+                return;
+            }
+            copy = new ByteArrayOutputStream();
+            setHeader(X_CACHE, "MISS");
+        }
+
+        private void append(byte[] bytes, int offset, int length) {
+            if (copy == null) {
+                return;
+            }
+            if (copy.size() + (long) length > maxEntrySize) {
+                copy = null;
+                cache.reject(lookup);
+                return;
+            }
+            copy.write(bytes, offset, length);
+        }
+
+        /**
+         * 下游响应写出完成
+         */
+        void complete(Duration ttl) {
+            if (writer != null) {
+                writer.flush();
+            }
+            start();
+            if (copy != null) {
+                cache.complete(lookup, ttl, getStatus(), headers, copy.toByteArray());
+                copy = null;
+            }
+        }
+
+        private final class CopyingOutputStream extends ServletOutputStream {
+
+            private final ServletOutputStream delegate;
+
+            CopyingOutputStream(ServletOutputStream delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                start();
+                append(b, off, len);
+                delegate.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                start();
+                delegate.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                start();
+                delegate.close();
+            }
+
+            @Override
+            public boolean isReady() {
+                return delegate.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                delegate.setWriteListener(writeListener);
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package top.nextdoc4j.demo.gateway.webmvc.configuration.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.server.mvc.config.GatewayMvcProperties;
+import org.springframework.cloud.gateway.server.mvc.config.RouteProperties;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+import top.nextdoc4j.demo.core.apidoc.ApiDocFetcher;
+import top.nextdoc4j.demo.core.apidoc.ApiDocSnapshot;
+import top.nextdoc4j.demo.core.cache.ResponseCacheRule;
+import top.nextdoc4j.demo.core.cache.ResponseCacheRules;
+import top.nextdoc4j.demo.gateway.webmvc.configuration.apidoc.ApiDocAggregator;
+import top.nextdoc4j.demo.gateway.webmvc.configuration.apidoc.DownstreamApiDoc;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 网关响应缓存规则来源
+ * <p>
+ * 每隔 project.response-cache.refresh-interval，由请求触发一次后台刷新：
+ * 1. 重新读取 spring.cloud.gateway.server.webmvc.routes 的元数据 nextdoc4j.cache（配置中心刷新路由后生效）
+ * 2. 读取 {@link ApiDocFetcher} 已缓存的下游文档，文档 ETag 变化时重新解析 OpenAPI 扩展；不会为此拉取文档
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@Slf4j
+public class ResponseCacheRuleSource {
+
+    private final ResponseCacheRules rules = new ResponseCacheRules();
+
+    private final GatewayMvcProperties gatewayMvcProperties;
+
+    private final ApiDocAggregator aggregator;
+
+    private final ApiDocFetcher fetcher;
+
+    private final JsonMapper jsonMapper;
+
+    private final String extension;
+
+    private final Duration refreshInterval;
+
+    private final AtomicLong nextRefresh = new AtomicLong(System.nanoTime());
+
+    /**
+     * @param aggregator 下游文档聚合，未启用时为 null（只使用路由元数据）
+     * @param fetcher    下游文档拉取，未启用聚合时为 null
+     */
+    public ResponseCacheRuleSource(GatewayMvcProperties gatewayMvcProperties,
+                                   ApiDocAggregator aggregator,
+                                   ApiDocFetcher fetcher,
+                                   JsonMapper jsonMapper,
+                                   String extension,
+                                   Duration refreshInterval) {
+        this.gatewayMvcProperties = gatewayMvcProperties;
+        this.aggregator = aggregator;
+        this.fetcher = fetcher;
+        this.jsonMapper = jsonMapper;
+        this.extension = extension;
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * 当前的规则集，到达刷新间隔时在后台刷新
+     */
+    public ResponseCacheRules rules() {
+        long next = nextRefresh.get();
+        long now = System.nanoTime();
+        if (now - next >= 0 && nextRefresh.compareAndSet(next, now + refreshInterval.toNanos())) {
+            CompletableFuture.runAsync(this::refresh).exceptionally(e -> {
+                log.warn("网关响应缓存规则刷新失败", e);
+                return null;
+            });
+        }
+        return rules;
+    }
+
+    private void refresh() {
+        Set<String> routeIds = new HashSet<>();
+        for (RouteProperties route : gatewayMvcProperties.getRoutes()) {
+            routeIds.add(route.getId());
+            String revision = String.valueOf(route.getMetadata().hashCode());
+            if (!rules.isCurrent(route.getId(), ResponseCacheRule.Source.METADATA, revision)) {
+                update(route.getId(), ResponseCacheRule.Source.METADATA, revision,
+                    ResponseCacheRules.fromMetadata(route.getId(), route.getMetadata()));
+            }
+        }
+        if (aggregator != null && fetcher != null) {
+            for (DownstreamApiDoc apiDoc : aggregator.apiDocs()) {
+                ApiDocSnapshot snapshot = fetcher.lastGood(apiDoc.routeId());
+                if (snapshot == null) {
+                    continue;
+                }
+                String revision = snapshot.content().getEtag();
+                if (!rules.isCurrent(apiDoc.routeId(), ResponseCacheRule.Source.OPENAPI, revision)) {
+                    update(apiDoc.routeId(), ResponseCacheRule.Source.OPENAPI, revision, ResponseCacheRules
+                        .fromOpenApi(apiDoc.routeId(), apiDoc.mountPath(), parse(snapshot), extension));
+                }
+            }
+        }
+        rules.retain(routeIds);
+    }
+
+    private void update(String routeId, ResponseCacheRule.Source source, String revision,
+                        List<ResponseCacheRule> parsed) {
+        rules.update(routeId, source, revision, parsed);
+        if (!parsed.isEmpty()) {
+            log.info("路由 [{}] 的响应缓存规则（{}）：{}", routeId, source.tag(), parsed.stream()
+                .map(rule -> rule.pattern() + " " + rule.ttl())
+                .toList());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> parse(ApiDocSnapshot snapshot) {
+        try {
+            return jsonMapper.readValue(snapshot.content().getBody(), Map.class);
+        } catch (JacksonException e) {
+            log.warn("下游文档 [{}] 解析失败，忽略其中的响应缓存规则", snapshot.target().id(), e);
+            return Map.of();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package top.nextdoc4j.demo.gateway.webmvc.configuration.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 接口文档属性
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@Data
+@ConfigurationProperties("project.api-doc")
+public class ApiDocProperties {
+
+    /**
+     * 下游文档聚合
+     */
+    private Aggregation aggregation = new Aggregation();
+
+    /**
+     * 下游文档聚合配置属性
+     */
+    @Data
+    public static class Aggregation {
+        /**
+         * 是否启用（启用后由网关并行拉取、缓存各服务文档，/{前缀}/v3/api-docs 直接由缓存输出）
+         */
+        private boolean enabled = true;
+
+        /**
+         * 下游服务的文档路径
+         */
+        private String docPath = "/v3/api-docs";
+
+        /**
+         * 单个服务的拉取超时时间
+         */
+        private Duration timeout = Duration.ofSeconds(3);
+
+        /**
+         * 按路由 ID 单独指定拉取超时时间
+         */
+        private Map<String, Duration> timeouts = new LinkedHashMap<>();
+
+        /**
+         * 文档新鲜期，超过后先返回缓存的文档，同时在后台重新拉取
+         */
+        private Duration ttl = Duration.ofSeconds(30);
+
+        /**
+         * 未开启 spring.threads.virtual.enabled 时，拉取线程池大小（同时拉取的文档数上限）
+         */
+        private int concurrency = 8;
+
+        /**
+         * 单个文档的最大大小
+         */
+        private DataSize maxSize = DataSize.ofMegabytes(10);
+
+        /**
+         * 最小压缩大小，小于该值的文档直接输出原文
+         */
+        private DataSize compressMinSize = DataSize.ofKilobytes(1);
+
+        /**
+         * 聚合状态接口路径
+         */
+        private String statusPath = "/api-doc/aggregation";
+
+        /**
+         * 文档版本推送
+         */
+        private Push push = new Push();
+
+        /**
+         * 合并文档
+         */
+        private Merge merge = new Merge();
+
+        /**
+         * 拉取熔断
+         */
+        private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+        /**
+         * 舱壁
+         */
+        private Bulkhead bulkhead = new Bulkhead();
+
+        /**
+         * 获取路由的拉取超时时间
+         */
+        public Duration timeoutOf(String routeId) {
+            return timeouts.getOrDefault(routeId, timeout);
+        }
+    }
+
+    /**
+     * 拉取熔断配置属性
+     */
+    @Data
+    public static class CircuitBreaker {
+        /**
+         * 是否启用（启用后连续失败的路由不再请求下游，直接使用缓存的文档）
+         */
+        private boolean enabled = true;
+
+        /**
+         * 打开熔断的连续失败次数
+         */
+        private int failureThreshold = 3;
+
+        /**
+         * 打开状态的持续时间，之后放行一次试探拉取
+         */
+        private Duration openDuration = Duration.ofSeconds(30);
+    }
+
+    /**
+     * 舱壁配置属性
+     */
+    @Data
+    public static class Bulkhead {
+        /**
+         * 是否启用
+         */
+        private boolean enabled = true;
+
+        /**
+         * 每个路由同时等待下游的文档请求数上限（文档尚未缓存、需要等待拉取时），超过时立即返回 503
+         */
+        private int maxConcurrent = 4;
+    }
+
+    /**
+     * 合并文档配置属性
+     */
+    @Data
+    public static class Merge {
+        /**
+         * 是否启用（启用后所有下游文档合并为一份，路径还原为网关侧地址，同名且结构相同的组件只保留一份）
+         */
+        private boolean enabled = false;
+
+        /**
+         * 合并文档路径
+         */
+        private String path = "/api-doc/merged";
+
+        /**
+         * 合并文档标题
+         */
+        private String title = "网关合并文档";
+    }
+
+    /**
+     * 文档版本推送配置属性
+     */
+    @Data
+    public static class Push {
+        /**
+         * 是否启用（启用后接收服务推送的文档哈希，哈希变化时只重新拉取该服务的文档）
+         */
+        private boolean enabled = true;
+
+        /**
+         * 接收推送的接口路径
+         */
+        private String path = "/api-doc/invalidations";
+
+        /**
+         * 推送鉴权令牌（请求头 X-Api-Doc-Token），未配置时网关拒绝所有推送，服务按新鲜期轮询
+         */
+        private String token;
+
+        /**
+         * 推送过版本的服务的文档新鲜期：文档变化由推送触发重新拉取，新鲜期只作为推送丢失时的兜底
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+}
@@ -0,0 +1,45 @@
+package top.nextdoc4j.demo.modules.configuration;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import top.nextdoc4j.demo.core.compression.PrecompressedContent;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 接口文档 ETag
+ * <p>
+ * /v3/api-docs/** 的响应携带内容哈希 ETag（SHA-256，与单体应用的接口文档缓存相同，内容不变时重启后也不变）。
+ * 网关重新拉取时发送 If-None-Match，文档未变化则只返回 304，不再传输完整文档。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ApiDocEtagAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(name = "apiDocEtagFilter")
+    public ShallowEtagHeaderFilter apiDocEtagFilter(@Value("${springdoc.api-docs.path:/v3/api-docs}") String apiDocsPath) {
+        return new ShallowEtagHeaderFilter() {
+            @Override
+            protected boolean shouldNotFilter(HttpServletRequest request) {
+                String path = request.getRequestURI().substring(request.getContextPath().length());
+                return !HttpMethod.GET.matches(request.getMethod()) || !path.startsWith(apiDocsPath);
+            }
+
+            @Override
+            protected String generateETagHeaderValue(InputStream inputStream, boolean isWeak) throws IOException {
+                return PrecompressedContent.etag(inputStream.readAllBytes());
+            }
+        };
+    }
+}
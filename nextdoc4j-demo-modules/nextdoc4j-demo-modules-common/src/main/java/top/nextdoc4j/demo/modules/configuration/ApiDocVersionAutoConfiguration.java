@@ -0,0 +1,109 @@
+package top.nextdoc4j.demo.modules.configuration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.web.util.UriComponentsBuilder;
+import top.nextdoc4j.demo.core.apidoc.ApiDocVersion;
+import top.nextdoc4j.demo.core.apidoc.ApiDocVersionPublisher;
+import top.nextdoc4j.demo.core.apidoc.ApiDocVersionReporter;
+import top.nextdoc4j.demo.core.apidoc.WebhookApiDocVersionPublisher;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 文档版本推送
+ * <p>
+ * 启动完成及配置中心刷新后读取本服务的文档并计算哈希，与上次不同时推送给网关，网关只重新拉取本服务的文档，
+ * 不再按新鲜期轮询。默认通过 HTTP 回调推送给服务发现中的所有网关实例（project.api-doc.version.gateways），
+ * 定义其他 {@link ApiDocVersionPublisher} Bean（如 InMemoryApiDocVersionChannel）即可替换传输方式。
+ * <p>
+ * 网关只接受携带推送令牌（project.api-doc.version.token）的推送，未配置令牌时不推送，网关按新鲜期轮询本服务的文档。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@Slf4j
+@AutoConfiguration
+@ConditionalOnClass({DiscoveryClient.class, RefreshScopeRefreshedEvent.class})
+@ConditionalOnProperty(prefix = "project.api-doc.version", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ApiDocVersionAutoConfiguration {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(3);
+
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(TIMEOUT)
+        .build();
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ApiDocVersionPublisher apiDocVersionPublisher(DiscoveryClient discoveryClient,
+                                                         @Value("${project.api-doc.version.gateways:}") List<String> gateways,
+                                                         @Value("${project.api-doc.version.path:/api-doc/invalidations}") String path,
+                                                         @Value("${project.api-doc.version.token:}") String token) {
+        if (token.isEmpty()) {
+            log.warn("未配置文档推送令牌（project.api-doc.version.token），不推送文档版本，网关按新鲜期轮询本服务的文档");
+            return version -> {
+            };
+        }
+        return new WebhookApiDocVersionPublisher(HTTP_CLIENT, () -> gateways.stream()
+            .flatMap(gateway -> discoveryClient.getInstances(gateway).stream())
+            .map(instance -> UriComponentsBuilder.fromUri(instance.getUri()).path(path).build().toUri())
+            .toList(), TIMEOUT, token, (endpoint, version, error) -> {
+                if (error == null) {
+                    log.debug("文档版本 {} 已推送至 {}", version.hash(), endpoint);
+                } else {
+                    log.warn("文档版本 {} 推送至 {} 失败：{}", version.hash(), endpoint, error);
+                }
+            });
+    }
+
+    @Bean
+    public ApiDocVersionReporter apiDocVersionReporter(ApiDocVersionPublisher apiDocVersionPublisher,
+                                                       @Value("${spring.application.name}") String service) {
+        return new ApiDocVersionReporter(HTTP_CLIENT, service, apiDocVersionPublisher, TIMEOUT);
+    }
+
+    /**
+     * 启动完成、配置刷新后在后台上报，不阻塞启动和刷新
+     */
+    @Bean
+    public ApplicationListener<ApplicationEvent> apiDocVersionReportListener(ApiDocVersionReporter apiDocVersionReporter,
+                                                                             Environment environment) {
+        return event -> {
+            if (event instanceof ApplicationReadyEvent || event instanceof RefreshScopeRefreshedEvent) {
+                CompletableFuture.runAsync(() -> report(apiDocVersionReporter, environment));
+            }
+        };
+    }
+
+    private static void report(ApiDocVersionReporter reporter, Environment environment) {
+        URI docUri = URI.create(environment.resolvePlaceholders("http://127.0.0.1:${local.server.port}"
+            + "${server.servlet.context-path:}${springdoc.api-docs.path:/v3/api-docs}"));
+        try {
+            ApiDocVersion version = reporter.report(docUri);
+            if (version != null) {
+                log.info("文档版本已更新：{}", version.hash());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("读取本服务文档失败，跳过本次推送：{}", e.getMessage());
+        }
+    }
+}
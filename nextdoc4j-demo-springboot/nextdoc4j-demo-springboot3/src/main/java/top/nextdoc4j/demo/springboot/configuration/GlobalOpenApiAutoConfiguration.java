@@ -10,19 +10,21 @@ import io.swagger.v3.oas.models.media.MediaType;
 import io.swagger.v3.oas.models.media.Schema;
 import io.swagger.v3.oas.models.responses.ApiResponse;
 import io.swagger.v3.oas.models.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
 import org.springdoc.core.customizers.GlobalOpenApiCustomizer;
 import org.springdoc.core.customizers.GlobalOperationCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.annotation.AnnotatedElementUtils;
-import top.nextdoc4j.demo.core.annotation.ApiError;
+import top.nextdoc4j.demo.core.annotation.index.ApiErrorIndexes;
+import top.nextdoc4j.demo.core.annotation.index.ApiErrorMeta;
 import top.nextdoc4j.demo.core.model.base.R;
+import top.nextdoc4j.demo.springboot.configuration.apidoc.ApiErrorExampleRegistry;
 
-import java.lang.reflect.Method;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Configuration(proxyBeanMethods = false)
+@RequiredArgsConstructor
 public class GlobalOpenApiAutoConfiguration {
 
     public static final String API_ERROR_RESPONSE_NAME = "RVoid";
@@ -38,6 +40,8 @@ public class GlobalOpenApiAutoConfiguration {
         API_ERROR_RESPONSE.setName(API_ERROR_RESPONSE_NAME);
     }
 
+    private final ApiErrorExampleRegistry exampleRegistry;
+
     @Bean
     public GlobalOpenApiCustomizer globalOpenApiCustomizer() {
         return openApi -> {
@@ -86,11 +90,10 @@ public class GlobalOpenApiAutoConfiguration {
     @Bean
     public GlobalOperationCustomizer apiErrorOperationCustomizer() {
         return (operation, handlerMethod) -> {
-            Method method = handlerMethod.getMethod();
-            Set<ApiError> apiErrors = AnnotatedElementUtils
-                    .getMergedRepeatableAnnotations(method, ApiError.class);
+            // 编译期索引（ApiErrorIndexProcessor）已按状态码分组、排序，这里只做一次查找
+            Map<Integer, List<ApiErrorMeta>> groups = ApiErrorIndexes.get(handlerMethod.getMethod());
 
-            if (apiErrors.isEmpty()) {
+            if (groups.isEmpty()) {
                 return operation;
             }
 
@@ -103,14 +106,6 @@ public class GlobalOpenApiAutoConfiguration {
 
             Map<String, Example> pendingExamples = new LinkedHashMap<>();
 
-            Map<Integer, List<ApiError>> groups = apiErrors.stream()
-                    .sorted(Comparator.comparingInt(ApiError::status)
-                            .thenComparing(ApiError::code))
-                    .collect(Collectors.groupingBy(
-                            ApiError::status,
-                            LinkedHashMap::new,
-                            Collectors.toList()));
-
             groups.forEach((status, errors) -> {
                 String statusKey = status == -1 ? "default" : String.valueOf(status);
                 if (finalResponses.containsKey(statusKey)) {
@@ -132,7 +127,7 @@ public class GlobalOpenApiAutoConfiguration {
         };
     }
 
-    private ApiResponse buildSingleResponse(ApiError err, Map<String, Example> pendingExamples) {
+    private ApiResponse buildSingleResponse(ApiErrorMeta err, Map<String, Example> pendingExamples) {
         ApiResponse response = new ApiResponse().description(resolveDescription(err));
 
         if (err.bareContent()) {
@@ -145,7 +140,7 @@ public class GlobalOpenApiAutoConfiguration {
 
         if (err.refExample()) {
             pendingExamples.put(key, example);
-            mediaType.addExamples(key, new Example().$ref(componentsExampleRef(key)));
+            mediaType.addExamples(key, exampleRegistry.ref(componentsExampleRef(key)));
         } else {
             mediaType.addExamples(key, example);
         }
@@ -153,20 +148,20 @@ public class GlobalOpenApiAutoConfiguration {
         return response.content(new Content().addMediaType(err.mediaType(), mediaType));
     }
 
-    private ApiResponse buildMultiResponse(List<ApiError> errors, Map<String, Example> pendingExamples) {
+    private ApiResponse buildMultiResponse(List<ApiErrorMeta> errors, Map<String, Example> pendingExamples) {
         String description = errors.stream()
                 .map(this::resolveDescription)
                 .collect(Collectors.joining(" / "));
 
         Map<String, Example> examplesMap = new LinkedHashMap<>();
 
-        for (ApiError err : errors) {
+        for (ApiErrorMeta err : errors) {
             String key = buildExampleKey(err);
             Example example = buildExample(err);
 
             if (err.refExample()) {
                 pendingExamples.put(key, example);
-                examplesMap.put(key, new Example().$ref(componentsExampleRef(key)));
+                examplesMap.put(key, exampleRegistry.ref(componentsExampleRef(key)));
             } else {
                 examplesMap.put(key, example);
             }
@@ -181,20 +176,19 @@ public class GlobalOpenApiAutoConfiguration {
                 .content(new Content().addMediaType(errors.get(0).mediaType(), mediaType));
     }
 
-    private String resolveDescription(ApiError err) {
+    private String resolveDescription(ApiErrorMeta err) {
         return err.reason().isBlank()
                 ? "HTTP " + (err.status() == -1 ? "default" : err.status()) + " 错误响应"
                 : err.reason();
     }
 
-    private Example buildExample(ApiError err) {
+    private Example buildExample(ApiErrorMeta err) {
         String msg = err.message().isBlank() ? err.reason() : err.message();
-        return new Example()
-                .summary(err.reason().isBlank() ? err.code() : err.reason())
-                .value(R.fail(err.code(), msg));
+        // 内容相同的示例在所有分组、所有接口间共享同一实例（不可修改）
+        return exampleRegistry.example(err.reason().isBlank() ? err.code() : err.reason(), err.code(), msg);
     }
 
-    private String buildExampleKey(ApiError err) {
+    private String buildExampleKey(ApiErrorMeta err) {
         String prefix = err.status() == -1 ? "default" : String.valueOf(err.status());
         return prefix + "_" + err.code();
     }
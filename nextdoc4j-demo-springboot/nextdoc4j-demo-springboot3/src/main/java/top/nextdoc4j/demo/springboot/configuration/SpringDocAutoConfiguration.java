@@ -11,11 +11,12 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import top.nextdoc4j.demo.springboot.configuration.properties.ApiDocProperties;
 import top.nextdoc4j.demo.springboot.configuration.properties.ProjectProperties;
 import top.nextdoc4j.demo.springboot.configuration.exception.GlobalExceptionHandler;
 
 @Component
-@EnableConfigurationProperties(ProjectProperties.class)
+@EnableConfigurationProperties({ProjectProperties.class, ApiDocProperties.class})
 public class SpringDocAutoConfiguration implements WebMvcConfigurer {
 
     @Override
@@ -0,0 +1,230 @@
+package top.nextdoc4j.demo.springboot.configuration.apidoc;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import top.nextdoc4j.demo.core.compression.PrecompressedContent;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 接口文档缓存
+ * <p>
+ * 以分组与格式（JSON/YAML，见 {@link #key}）为 key，保存 springdoc 序列化后的文档及其预压缩版本（br / zstd / gzip），
+ * 命中后不再重新扫描、定制、序列化与压缩。条目数有上限，超出时淘汰最久未访问的文档。
+ * 容器刷新或收到全量 {@link ApiDocRefreshEvent} 时整体失效；
+ * 事件指定了变更类时，借助 {@link ApiDocDependencyTracker} 找出依赖这些类的分组与接口，
+ * 由 {@link ApiDocPatcher} 只重新生成这些接口并替换到该分组已缓存的 JSON 文档中，其余接口与分组不重建；
+ * 无法增量刷新的文档（YAML、不满足 {@link ApiDocPatcher} 条件的分组）以及不属于任何分组的文档
+ * （包含全部接口的 /v3/api-docs 与 swagger-config）直接失效，下次访问时重新构建。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@Slf4j
+public class ApiDocCache {
+
+    private final ApiDocDependencyTracker dependencyTracker;
+
+    private final ApiDocPatcher patcher;
+
+    /**
+     * 小于该字节数的文档不压缩
+     */
+    private final int compressMinSize;
+
+    /**
+     * 按访问顺序排列，超出上限时淘汰最久未访问的文档
+     */
+    private final Map<String, CachedDoc> docs;
+
+    public ApiDocCache(ApiDocDependencyTracker dependencyTracker, ApiDocPatcher patcher, int compressMinSize,
+                       int maxEntries) {
+        this.dependencyTracker = dependencyTracker;
+        this.patcher = patcher;
+        this.compressMinSize = compressMinSize;
+        this.docs = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedDoc> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * 缓存 key：分组与格式，非分组文档的 group 为 null
+     *
+     * @param yaml  是否为 YAML 格式
+     * @param group 分组
+     */
+    public static String key(boolean yaml, String group) {
+        return (yaml ? "yaml:" : "json:") + (group == null ? "" : group);
+    }
+
+    /**
+     * 缓存 key：分组、格式与服务地址，用于 servers 取自请求地址、文档随入口变化的情况
+     *
+     * @param yaml   是否为 YAML 格式
+     * @param group  分组
+     * @param origin 服务地址（协议、主机、端口与上下文路径），见 {@link #origin(String, String, int, String)}
+     */
+    public static String key(boolean yaml, String group, String origin) {
+        return key(yaml, group) + "@" + origin;
+    }
+
+    /**
+     * 服务地址：协议://主机:端口上下文路径，端口始终写出，保证请求与预热得到同一个 key
+     */
+    public static String origin(String scheme, String host, int port, String contextPath) {
+        return scheme + "://" + host + ":" + port + (contextPath == null ? "" : contextPath);
+    }
+
+    public CachedDoc get(String key) {
+        return docs.get(key);
+    }
+
+    public CachedDoc put(String key, String group, byte[] body, String contentType) {
+        CachedDoc doc = newDoc(group, body, contentType);
+        docs.put(key, doc);
+        log.debug("接口文档已缓存：{}，大小：{} bytes，ETag：{}", key, body.length, doc.content().getEtag());
+        return doc;
+    }
+
+    public int size() {
+        return docs.size();
+    }
+
+    /**
+     * 清空缓存
+     *
+     * @return 失效的文档数量
+     */
+    public int evictAll() {
+        synchronized (docs) {
+            int size = docs.size();
+            docs.clear();
+            return size;
+        }
+    }
+
+    /**
+     * 失效指定分组的缓存
+     *
+     * @return 失效的文档数量
+     */
+    public int evictGroups(Set<String> groups) {
+        synchronized (docs) {
+            int size = docs.size();
+            docs.values().removeIf(doc -> groups.contains(doc.group()));
+            return size - docs.size();
+        }
+    }
+
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        dependencyTracker.clear();
+        int evicted = evictAll();
+        if (evicted > 0) {
+            log.info("接口文档缓存已失效，共 {} 份", evicted);
+        }
+    }
+
+    @EventListener
+    public void onRefresh(ApiDocRefreshEvent event) {
+        if (event.isFull()) {
+            log.info("接口文档缓存已失效，共 {} 份", evictAll());
+            return;
+        }
+        Map<String, Set<String>> operations = dependencyTracker.affectedOperations(event.getChangedClasses());
+        Set<String> schemas = dependencyTracker.affectedSchemas(event.getChangedClasses());
+        int patched = 0;
+        int evicted = 0;
+        for (Map.Entry<String, Set<String>> entry : operations.entrySet()) {
+            int[] result = patchGroup(entry.getKey(), entry.getValue(), schemas);
+            patched += result[0];
+            evicted += result[1];
+        }
+        // 非分组文档与 swagger-config 不记录依赖，直接失效
+        evicted += evictGroups(Collections.singleton(null));
+        log.info("类变更 {} 影响分组 {}，涉及模型 {}：增量刷新 {} 份文档，失效 {} 份，其余分组继续使用缓存",
+                event.getChangedClasses(), operations.keySet(), schemas, patched, evicted);
+        log.debug("受影响的接口：{}", operations);
+    }
+
+    /**
+     * 增量刷新分组的缓存文档，无法增量刷新的失效
+     *
+     * @return [增量刷新的文档数, 失效的文档数]
+     */
+    private int[] patchGroup(String group, Set<String> operations, Collection<String> schemas) {
+        Map<String, CachedDoc> cached = new LinkedHashMap<>();
+        synchronized (docs) {
+            docs.forEach((key, doc) -> {
+                if (group.equals(doc.group())) {
+                    cached.put(key, doc);
+                }
+            });
+        }
+        if (cached.isEmpty()) {
+            return new int[]{0, 0};
+        }
+
+        ApiDocPatcher.Patch patch = null;
+        if (patcher != null) {
+            try {
+                patch = patcher.prepare(group, operations, Set.copyOf(schemas));
+            } catch (RuntimeException e) {
+                log.warn("分组 [{}] 增量构建失败，改为失效缓存", group, e);
+            }
+        }
+        int patched = 0;
+        int evicted = 0;
+        for (Map.Entry<String, CachedDoc> entry : cached.entrySet()) {
+            CachedDoc doc = entry.getValue();
+            byte[] body = null;
+            if (patch != null && isJson(doc)) {
+                try {
+                    body = patch.apply(doc.content().getBody());
+                } catch (Exception e) {
+                    log.warn("接口文档 {} 增量刷新失败，改为失效缓存", entry.getKey(), e);
+                }
+            }
+            // 期间被重新构建或淘汰的条目不覆盖
+            if (body != null && docs.replace(entry.getKey(), doc, newDoc(group, body, doc.contentType()))) {
+                patched++;
+            } else if (body == null && docs.remove(entry.getKey(), doc)) {
+                evicted++;
+            }
+        }
+        return new int[]{patched, evicted};
+    }
+
+    private CachedDoc newDoc(String group, byte[] body, String contentType) {
+        return new CachedDoc(group, PrecompressedContent.of(body, compressMinSize), contentType);
+    }
+
+    private static boolean isJson(CachedDoc doc) {
+        return doc.contentType() != null && doc.contentType().startsWith(MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    /**
+     * 已缓存的文档
+     *
+     * @param group       分组（非分组文档时为 null）
+     * @param content     序列化后的文档及其预压缩版本
+     * @param contentType 响应类型
+     */
+    public record CachedDoc(String group, PrecompressedContent content, String contentType) {
+
+        @Override
+        public String toString() {
+            return "CachedDoc[" + group + ", " + content.getBody().length + " bytes, " + contentType + ", "
+                    + content.getEtag() + "]";
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package top.nextdoc4j.demo.springboot.configuration.apidoc;
+
+import org.springdoc.core.customizers.GlobalOpenApiCustomizer;
+import org.springdoc.core.customizers.GlobalOperationCustomizer;
+import org.springdoc.core.customizers.ServerBaseUrlCustomizer;
+import org.springdoc.core.properties.SpringDocConfigProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+import top.nextdoc4j.demo.springboot.configuration.properties.ApiDocProperties;
+
+/**
+ * 接口文档缓存配置
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "project.api-doc.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ApiDocCacheConfiguration {
+
+    @Bean
+    public ApiDocDependencyTracker apiDocDependencyTracker() {
+        return new ApiDocDependencyTracker();
+    }
+
+    @Bean
+    public ApiDocCache apiDocCache(ApiDocDependencyTracker apiDocDependencyTracker,
+                                   StreamingMultipleOpenApiResource multipleOpenApiResource,
+                                   ApiDocProperties apiDocProperties) {
+        return new ApiDocCache(apiDocDependencyTracker,
+                new ApiDocPatcher(multipleOpenApiResource, apiDocDependencyTracker),
+                apiDocProperties.getCompression().minSizeOrDisabled(), apiDocProperties.getCache().getMaxEntries());
+    }
+
+    /**
+     * servers 使用相对地址（上下文路径）：文档与请求的协议、主机、端口无关，同一份缓存供所有入口（直连、反向代理）共享；
+     * 会改变文档的 servers，需显式开启
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "project.api-doc.cache", name = "relative-server-url", havingValue = "true")
+    public ServerBaseUrlCustomizer relativeServerBaseUrlCustomizer() {
+        return (serverBaseUrl, request) -> {
+            String path = UriComponentsBuilder.fromUriString(serverBaseUrl).build().getPath();
+            return StringUtils.hasLength(path) ? path : "/";
+        };
+    }
+
+    /**
+     * 构建文档时记录每个接口依赖的控制器与模型
+     */
+    @Bean
+    public GlobalOperationCustomizer apiDocDependencyOperationCustomizer(ApiDocDependencyTracker apiDocDependencyTracker) {
+        return (operation, handlerMethod) -> {
+            apiDocDependencyTracker.record(operation, handlerMethod);
+            return operation;
+        };
+    }
+
+    /**
+     * 构建文档时记录每个接口在文档中的位置
+     */
+    @Bean
+    public GlobalOpenApiCustomizer apiDocDependencyOpenApiCustomizer(ApiDocDependencyTracker apiDocDependencyTracker) {
+        return apiDocDependencyTracker::locate;
+    }
+
+    /**
+     * 编译输出目录中的类变更后自动刷新受影响的接口；devtools 会重启应用上下文，存在时不注册
+     */
+    @Bean
+    @ConditionalOnMissingClass("org.springframework.boot.devtools.restart.Restarter")
+    @ConditionalOnProperty(prefix = "project.api-doc.cache", name = "watch-classes", havingValue = "true", matchIfMissing = true)
+    public ApiDocClassChangeWatcher apiDocClassChangeWatcher(ApplicationEventPublisher eventPublisher) {
+        return new ApiDocClassChangeWatcher(eventPublisher);
+    }
+
+    @Bean
+    public ApiDocCacheFilter apiDocCacheFilter(ApiDocCache apiDocCache,
+                                               ApiDocDependencyTracker apiDocDependencyTracker,
+                                               SpringDocConfigProperties springDocConfigProperties,
+                                               ApiDocProperties apiDocProperties) {
+        return new ApiDocCacheFilter(apiDocCache, apiDocDependencyTracker,
+                springDocConfigProperties.getApiDocs().getPath(), !apiDocProperties.getCache().isRelativeServerUrl());
+    }
+}
@@ -0,0 +1,141 @@
+package top.nextdoc4j.demo.springboot.configuration.apidoc;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UriUtils;
+import top.nextdoc4j.demo.core.compression.PrecompressedContent;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 接口文档缓存过滤器
+ * <p>
+ * 拦截 /v3/api-docs/**（含 swagger-config 与 .yaml）的 GET 请求：
+ * 1. 未命中时交给 springdoc 构建，截获序列化结果写入 {@link ApiDocCache}
+ * 2. 命中时直接输出缓存字节，不再触发扫描与定制
+ * 3. 按 Accept-Encoding 输出预压缩版本（br / zstd / gzip），每种编码每个文档版本只压缩一次
+ * 4. If-None-Match 与所选表示的 ETag 一致时返回 304，不输出响应体
+ * <p>
+ * 缓存 key 只包含分组与格式，查询参数不参与：springdoc 不读取查询参数，纳入 key 只会让任意 ?x=N 触发一次完整构建。
+ * servers 默认取自请求地址，文档随入口变化，key 加上服务地址；开启 project.api-doc.cache.relative-server-url
+ * 改用相对地址后 key 不含服务地址，所有入口共享同一份缓存。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@RequiredArgsConstructor
+public class ApiDocCacheFilter extends OncePerRequestFilter {
+
+    /**
+     * swagger-ui 配置（/v3/api-docs/swagger-config），不属于任何分组
+     */
+    private static final String SWAGGER_CONFIG = "swagger-config";
+
+    private final ApiDocCache apiDocCache;
+
+    private final ApiDocDependencyTracker dependencyTracker;
+
+    private final String apiDocsPath;
+
+    /**
+     * 文档的 servers 取自请求地址，key 需区分服务地址
+     */
+    private final boolean serverScoped;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        return !getPath(request).startsWith(apiDocsPath);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String group = resolveGroup(request);
+        String key = buildKey(request, group);
+        ApiDocCache.CachedDoc doc = apiDocCache.get(key);
+
+        if (doc == null) {
+            ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+            dependencyTracker.begin();
+            try {
+                // 取原文，压缩由缓存统一完成
+                filterChain.doFilter(new IdentityEncodingRequestWrapper(request), wrapper);
+            } finally {
+                dependencyTracker.end(group);
+            }
+            if (wrapper.getStatus() != HttpServletResponse.SC_OK) {
+                wrapper.copyBodyToResponse();
+                return;
+            }
+            doc = apiDocCache.put(key, group, wrapper.getContentAsByteArray(), wrapper.getContentType());
+        }
+
+        PrecompressedContent.Representation representation = doc.content()
+                .select(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        if (new ServletWebRequest(request, response).checkNotModified(representation.etag())) {
+            return;
+        }
+
+        response.setContentType(doc.contentType());
+        if (representation.contentEncoding() != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, representation.contentEncoding());
+        }
+        response.setContentLength(representation.body().length);
+        response.getOutputStream().write(representation.body());
+    }
+
+    /**
+     * 解析分组：/v3/api-docs/{group} 或 /v3/api-docs.yaml/{group}，非分组文档与 swagger-config 为 null
+     */
+    private String resolveGroup(HttpServletRequest request) {
+        if (isSwaggerConfig(request)) {
+            return null;
+        }
+        String rest = getPath(request).substring(apiDocsPath.length());
+        if (rest.startsWith(".yaml")) {
+            rest = rest.substring(".yaml".length());
+        }
+        return rest.length() > 1 && rest.startsWith("/")
+                ? UriUtils.decode(rest.substring(1), StandardCharsets.UTF_8)
+                : null;
+    }
+
+    private String getPath(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private boolean isSwaggerConfig(HttpServletRequest request) {
+        return getPath(request).equals(apiDocsPath + "/" + SWAGGER_CONFIG);
+    }
+
+    private boolean isYaml(HttpServletRequest request) {
+        return getPath(request).startsWith(".yaml", apiDocsPath.length());
+    }
+
+    /**
+     * 构建缓存 key：分组与格式；servers 取自请求地址时加上协议、主机、端口与上下文路径，
+     * 避免不同入口（如内网直连与反向代理）拿到彼此的 servers 信息
+     */
+    private String buildKey(HttpServletRequest request, String group) {
+        String key = isSwaggerConfig(request) ? SWAGGER_CONFIG : ApiDocCache.key(isYaml(request), group);
+        if (!serverScoped) {
+            return key;
+        }
+        return key + "@" + ApiDocCache.origin(request.getScheme(), request.getServerName(), request.getServerPort(),
+                request.getContextPath());
+    }
+}
@@ -0,0 +1,185 @@
+package top.nextdoc4j.demo.springboot.configuration.apidoc;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 类变更监听
+ * <p>
+ * 监听 classpath 中的目录（开发时的编译输出目录，如 target/classes），.class 文件变更后发布指定了变更类的
+ * {@link ApiDocRefreshEvent}，由文档缓存只刷新受影响的接口：IDE 重新编译并通过 HotswapAgent、JRebel 等替换类后，
+ * 文档随之更新，无需手动调用刷新接口。JVM 自带的 HotSwap 不会刷新 Spring 已持有的 {@link java.lang.reflect.Method}
+ * 上的注解，仅用它替换类时重新生成的文档不变。一次编译通常写出多个类，收到变更后等待 {@link #QUIET_PERIOD_MILLIS}
+ * 内没有新的变更再统一发布。
+ * <p>
+ * 以 jar 运行时 classpath 中没有目录，不启动监听；使用 devtools 时类变更会重启应用上下文，不注册本监听。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@Slf4j
+public class ApiDocClassChangeWatcher implements DisposableBean {
+
+    private static final long QUIET_PERIOD_MILLIS = 500;
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 已注册的目录 -> 所属的 classpath 目录
+     */
+    private final Map<WatchKey, Watched> watched = new ConcurrentHashMap<>();
+
+    private volatile WatchService watchService;
+
+    public ApiDocClassChangeWatcher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        List<Path> roots = classpathDirectories();
+        if (roots.isEmpty() || watchService != null) {
+            return;
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            for (Path root : roots) {
+                register(root, root);
+            }
+        } catch (IOException e) {
+            log.warn("类变更监听启动失败，类变更后需调用刷新接口更新文档", e);
+            destroy();
+            return;
+        }
+        Thread thread = new Thread(this::watch, "api-doc-class-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("类变更监听已启动：{}", roots);
+    }
+
+    @Override
+    public void destroy() {
+        WatchService service = watchService;
+        watchService = null;
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException e) {
+                log.debug("关闭类变更监听失败", e);
+            }
+        }
+    }
+
+    private void watch() {
+        Set<String> changed = new TreeSet<>();
+        try {
+            while (watchService != null) {
+                WatchKey key = changed.isEmpty()
+                        ? watchService.take()
+                        : watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+                if (key == null) {
+                    // 静默期内没有新的变更，统一发布
+                    publish(changed);
+                    changed.clear();
+                    continue;
+                }
+                Watched dir = watched.get(key);
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (dir != null && event.kind() != StandardWatchEventKinds.OVERFLOW) {
+                        onEvent(dir, dir.path().resolve((Path) event.context()), event.kind(), changed);
+                    }
+                }
+                if (!key.reset()) {
+                    watched.remove(key);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // 应用关闭
+        }
+    }
+
+    private void onEvent(Watched dir, Path path, WatchEvent.Kind<?> kind, Set<String> changed) {
+        if (kind == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+            try {
+                register(dir.root(), path);
+            } catch (IOException e) {
+                log.debug("无法监听新目录 {}", path, e);
+            }
+            return;
+        }
+        String name = dir.root().relativize(path).toString();
+        if (name.endsWith(CLASS_SUFFIX)) {
+            changed.add(name.substring(0, name.length() - CLASS_SUFFIX.length()).replace(File.separatorChar, '.'));
+        }
+    }
+
+    private void publish(Set<String> classes) {
+        try {
+            eventPublisher.publishEvent(new ApiDocRefreshEvent(this, List.copyOf(classes)));
+        } catch (RuntimeException e) {
+            log.warn("类变更 {} 后刷新接口文档失败", classes, e);
+        }
+    }
+
+    private void register(Path root, Path dir) throws IOException {
+        WatchService service = watchService;
+        if (service == null) {
+            return;
+        }
+        try (Stream<Path> dirs = Files.walk(dir)) {
+            for (Path path : dirs.filter(Files::isDirectory).toList()) {
+                WatchKey key = path.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                watched.put(key, new Watched(root, path));
+            }
+        }
+    }
+
+    private static List<Path> classpathDirectories() {
+        List<Path> roots = new ArrayList<>();
+        for (String entry : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+            if (!entry.isBlank()) {
+                Path path = Path.of(entry).toAbsolutePath().normalize();
+                if (Files.isDirectory(path)) {
+                    roots.add(path);
+                }
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * 已注册的目录
+     *
+     * @param root 所属的 classpath 目录（类名相对于该目录）
+     * @param path 目录
+     */
+    private record Watched(Path root, Path path) {
+    }
+}
@@ -0,0 +1,40 @@
+package top.nextdoc4j.demo.springboot.configuration.apidoc;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 接口文档刷新事件
+ * <p>
+ * 未指定变更类时文档缓存整体失效；指定变更类时只失效依赖这些类的分组，下一次访问 /v3/api-docs/** 时重新构建。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public class ApiDocRefreshEvent extends ApplicationEvent {
+
+    /**
+     * 变更的类（全限定名或简单类名）
+     */
+    @Getter
+    private final List<String> changedClasses;
+
+    public ApiDocRefreshEvent(Object source) {
+        this(source, List.of());
+    }
+
+    public ApiDocRefreshEvent(Object source, Collection<String> changedClasses) {
+        super(source);
+        this.changedClasses = changedClasses == null ? List.of() : List.copyOf(changedClasses);
+    }
+
+    /**
+     * 是否为全量刷新
+     */
+    public boolean isFull() {
+        return changedClasses.isEmpty();
+    }
+}
@@ -0,0 +1,177 @@
+package top.nextdoc4j.demo.springboot.configuration.apidoc;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import top.nextdoc4j.demo.core.compression.PrecompressedContent;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 文档界面静态资源预压缩过滤器
+ * <p>
+ * 文档界面的 js/css/html 等资源在运行期间不会变化，首次请求时取原文并按 br / zstd / gzip 各压缩一次，
+ * 之后按 Accept-Encoding 直接输出预压缩版本，并支持 ETag 协商。容器刷新时失效。
+ * <p>
+ * 只缓存由静态资源处理器从文档界面资源位置（默认 classpath:/META-INF/resources/，即 UI jar 与 webjars）输出的资源，
+ * 路径匹配但来自业务接口或应用自身静态目录的响应照常输出、不缓存。
+ * 缓存 key 为路径与查询参数，条目数有上限，超出时淘汰最久未访问的资源。
+ * 其余响应（业务接口等）由 server.compression 按需即时压缩。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@Slf4j
+public class ApiDocStaticResourceFilter extends OncePerRequestFilter {
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    private final List<String> patterns;
+
+    /**
+     * 文档界面资源位置（classpath 下的目录，如 META-INF/resources/）
+     */
+    private final List<String> locations;
+
+    private final int compressMinSize;
+
+    /**
+     * 按访问顺序排列，超出上限时淘汰最久未访问的资源
+     */
+    private final Map<String, CachedResource> resources;
+
+    public ApiDocStaticResourceFilter(List<String> patterns, List<String> locations, int compressMinSize,
+                                      int maxEntries) {
+        this.patterns = patterns;
+        this.locations = locations.stream().map(ApiDocStaticResourceFilter::classpathDir).toList();
+        this.compressMinSize = compressMinSize;
+        this.resources = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResource> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        String path = getPath(request);
+        return patterns.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String key = buildKey(request);
+        CachedResource resource = resources.get(key);
+
+        if (resource == null) {
+            ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+            filterChain.doFilter(new IdentityEncodingRequestWrapper(request), wrapper);
+            if (wrapper.getStatus() != HttpServletResponse.SC_OK || wrapper.containsHeader(HttpHeaders.SET_COOKIE)
+                    || !isDocUiResource(request)) {
+                wrapper.copyBodyToResponse();
+                return;
+            }
+            resource = new CachedResource(PrecompressedContent.of(wrapper.getContentAsByteArray(), compressMinSize),
+                    wrapper.getContentType(), wrapper.getHeader(HttpHeaders.CACHE_CONTROL));
+            resources.put(key, resource);
+            log.debug("静态资源已预压缩：{}，大小：{} bytes", key, resource.content().getBody().length);
+        }
+
+        PrecompressedContent.Representation representation = resource.content()
+                .select(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (resource.cacheControl() != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, resource.cacheControl());
+        }
+        if (new ServletWebRequest(request, response).checkNotModified(representation.etag())) {
+            return;
+        }
+
+        if (resource.contentType() != null) {
+            response.setContentType(resource.contentType());
+        }
+        if (representation.contentEncoding() != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, representation.contentEncoding());
+        }
+        response.setContentLength(representation.body().length);
+        response.getOutputStream().write(representation.body());
+    }
+
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        resources.clear();
+    }
+
+    private String getPath(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private String buildKey(HttpServletRequest request) {
+        String query = request.getQueryString();
+        return query == null ? getPath(request) : getPath(request) + "?" + query;
+    }
+
+    /**
+     * 是否由静态资源处理器从文档界面资源位置输出：按处理器的资源位置顺序查找，取第一个存在该资源的位置判断
+     */
+    private boolean isDocUiResource(HttpServletRequest request) {
+        if (!(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof ResourceHttpRequestHandler handler)
+                || !(request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE) instanceof String path)) {
+            return false;
+        }
+        for (Resource location : handler.getLocations()) {
+            try {
+                if (location.createRelative(path).isReadable()) {
+                    return location instanceof ClassPathResource classPathLocation
+                            && locations.stream().anyMatch(classpathDir(classPathLocation.getPath())::startsWith);
+                }
+            } catch (IOException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * classpath:/META-INF/resources -> META-INF/resources/
+     */
+    private static String classpathDir(String location) {
+        String dir = location.startsWith("classpath:") ? location.substring("classpath:".length()) : location;
+        dir = dir.startsWith("/") ? dir.substring(1) : dir;
+        return dir.endsWith("/") ? dir : dir + "/";
+    }
+
+    /**
+     * 已预压缩的静态资源
+     *
+     * @param content      原文及其预压缩版本
+     * @param contentType  响应类型
+     * @param cacheControl 原响应的 Cache-Control
+     */
+    private record CachedResource(PrecompressedContent content, String contentType, String cacheControl) {
+    }
+}
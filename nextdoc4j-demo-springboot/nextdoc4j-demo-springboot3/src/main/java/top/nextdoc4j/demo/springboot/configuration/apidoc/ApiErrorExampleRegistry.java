@@ -0,0 +1,211 @@
+package top.nextdoc4j.demo.springboot.configuration.apidoc;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.swagger.v3.oas.models.examples.Example;
+import org.springframework.stereotype.Component;
+import top.nextdoc4j.demo.core.model.base.R;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 错误示例注册表
+ * <p>
+ * 进程级、按内容寻址：summary、code、message 相同的示例只创建一次，所有分组、所有接口、每次构建都引用同一实例；
+ * components/examples 的 $ref 示例按地址同样只创建一次。
+ * <p>
+ * 共享的示例不可修改（{@link Example} 与其 value {@link R} 的 setter 均抛出 {@link UnsupportedOperationException}），
+ * 目前的定制器（含 components/examples 提升）只移动引用、不修改示例；需要修改时应新建 {@link Example} 替换文档中的引用。
+ * <p>
+ * 指标：
+ * 1. api.doc.examples.distinct：共享的不同示例数（含 $ref 示例）
+ * 2. api.doc.examples.reused：直接返回共享实例、未新建示例的次数
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@Component
+public class ApiErrorExampleRegistry implements MeterBinder {
+
+    private final Map<ExampleKey, Example> examples = new ConcurrentHashMap<>();
+
+    private final Map<String, Example> refs = new ConcurrentHashMap<>();
+
+    private final AtomicLong reused = new AtomicLong();
+
+    /**
+     * 获取错误示例（共享实例，不可修改）
+     */
+    public Example example(String summary, String code, String message) {
+        ExampleKey key = new ExampleKey(summary, code, message);
+        Example example = examples.get(key);
+        if (example != null) {
+            reused.incrementAndGet();
+            return example;
+        }
+        return examples.computeIfAbsent(key, k -> new SharedExample(k.summary(), null,
+                new SharedValue(k.code(), k.message(), System.currentTimeMillis()), null));
+    }
+
+    /**
+     * 获取 components/examples 引用（共享实例，不可修改）
+     */
+    public Example ref(String ref) {
+        Example example = refs.get(ref);
+        if (example != null) {
+            reused.incrementAndGet();
+            return example;
+        }
+        return refs.computeIfAbsent(ref, k -> new SharedExample(null, null, null, k));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("api.doc.examples.distinct", this, r -> r.examples.size() + r.refs.size())
+                .description("共享的不同错误示例数")
+                .register(registry);
+        FunctionCounter.builder("api.doc.examples.reused", reused, AtomicLong::get)
+                .description("直接返回共享错误示例、未新建示例的次数")
+                .register(registry);
+    }
+
+    private record ExampleKey(String summary, String code, String message) {
+    }
+
+    /**
+     * 不可修改的示例：字段在构造时写入，之后的修改均抛出异常
+     */
+    private static final class SharedExample extends Example {
+
+        private final boolean frozen;
+
+        SharedExample(String summary, String description, Object value, String ref) {
+            super.setSummary(summary);
+            super.setDescription(description);
+            if (value != null) {
+                super.setValue(value);
+            }
+            if (ref != null) {
+                super.set$ref(ref);
+            }
+            this.frozen = true;
+        }
+
+        private void checkMutable() {
+            if (frozen) {
+                throw new UnsupportedOperationException("共享的错误示例不可修改，请新建示例替换");
+            }
+        }
+
+        @Override
+        public void setSummary(String summary) {
+            checkMutable();
+            super.setSummary(summary);
+        }
+
+        @Override
+        public Example summary(String summary) {
+            checkMutable();
+            return super.summary(summary);
+        }
+
+        @Override
+        public void setDescription(String description) {
+            checkMutable();
+            super.setDescription(description);
+        }
+
+        @Override
+        public Example description(String description) {
+            checkMutable();
+            return super.description(description);
+        }
+
+        @Override
+        public void setValue(Object value) {
+            checkMutable();
+            super.setValue(value);
+        }
+
+        @Override
+        public void setExternalValue(String externalValue) {
+            checkMutable();
+            super.setExternalValue(externalValue);
+        }
+
+        @Override
+        public Example externalValue(String externalValue) {
+            checkMutable();
+            return super.externalValue(externalValue);
+        }
+
+        @Override
+        public void set$ref(String $ref) {
+            checkMutable();
+            super.set$ref($ref);
+        }
+
+        @Override
+        public void addExtension(String name, Object value) {
+            checkMutable();
+            super.addExtension(name, value);
+        }
+
+        @Override
+        public void setExtensions(Map<String, Object> extensions) {
+            checkMutable();
+            super.setExtensions(extensions);
+        }
+
+        @Override
+        public Example extensions(Map<String, Object> extensions) {
+            checkMutable();
+            return super.extensions(extensions);
+        }
+
+        @Override
+        public void setValueSetFlag(boolean valueSetFlag) {
+            checkMutable();
+            super.setValueSetFlag(valueSetFlag);
+        }
+    }
+
+    /**
+     * 不可修改的示例值：时间戳在创建时确定，保证同一示例在各次构建中输出一致
+     */
+    private static final class SharedValue extends R<Void> {
+
+        SharedValue(String code, String msg, long timestamp) {
+            super(code, msg, false, timestamp, null);
+        }
+
+        @Override
+        public void setCode(String code) {
+            throw new UnsupportedOperationException("共享的错误示例不可修改");
+        }
+
+        @Override
+        public void setMsg(String msg) {
+            throw new UnsupportedOperationException("共享的错误示例不可修改");
+        }
+
+        @Override
+        public void setSuccess(boolean success) {
+            throw new UnsupportedOperationException("共享的错误示例不可修改");
+        }
+
+        @Override
+        public void setTimestamp(Long timestamp) {
+            throw new UnsupportedOperationException("共享的错误示例不可修改");
+        }
+
+        @Override
+        public void setData(Void data) {
+            throw new UnsupportedOperationException("共享的错误示例不可修改");
+        }
+    }
+}
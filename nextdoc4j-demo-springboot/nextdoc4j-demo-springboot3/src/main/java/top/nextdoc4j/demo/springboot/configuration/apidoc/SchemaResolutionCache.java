@@ -0,0 +1,311 @@
+package top.nextdoc4j.demo.springboot.configuration.apidoc;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.swagger.v3.core.converter.AnnotatedType;
+import io.swagger.v3.core.converter.ModelConverter;
+import io.swagger.v3.core.converter.ModelConverterContext;
+import io.swagger.v3.core.converter.ModelConverters;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Json31;
+import io.swagger.v3.oas.models.media.Schema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 模型解析缓存
+ * <p>
+ * springdoc 为每个参数、请求体、响应体单独调用一次 {@link ModelConverters#resolveAsResolvedSchema}，
+ * 每次都新建解析上下文，同一个模型（及其 oneOf / anyOf / 子类型展开出的整棵模型树）在每个接口、每个分组、
+ * 每次重建时都会重新反射解析一遍。这里作为解析链上的第一个 {@link ModelConverter}，以类型与解析上下文
+ * （上下文注解、JsonView、resolveAsRef 等）为 key，缓存一次完整解析的结果：返回的 Schema 与期间定义的全部模型，
+ * 后续命中时直接将模型登记到新的上下文中，跳过整棵模型树的解析。
+ * <p>
+ * 只缓存最外层解析：内层解析得到的模型会被外层继续修改（如子类型移除父类属性），不能跨上下文共享。
+ * 返回的 Schema 与模型会被 springdoc、枚举插件、国际化定制器等就地修改，因此缓存中只保存解析结果的 JSON，
+ * 每次命中都反序列化出新的实例，各分组、各次重建与并行预热之间不共享任何可变的 Schema。
+ * <p>
+ * 容器刷新或收到全量 {@link ApiDocRefreshEvent} 时整体失效；事件指定了变更类时，只失效解析过程中用到这些类的条目
+ * （按实际解析的类匹配，不依赖模型名）。
+ * <p>
+ * 指标：
+ * 1. api.doc.schema.cache.hits：命中次数
+ * 2. api.doc.schema.cache.misses：未命中（完整解析）次数
+ * 3. api.doc.schema.cache.size：已缓存的解析结果数
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@Slf4j
+public class SchemaResolutionCache implements ModelConverter, MeterBinder, SmartInitializingSingleton, DisposableBean {
+
+    /**
+     * 当前线程正在进行最外层解析的上下文，及解析过程中用到的类
+     */
+    private static final ThreadLocal<Map<ModelConverterContext, Set<Class<?>>>> ACTIVE = ThreadLocal
+            .withInitial(IdentityHashMap::new);
+
+    private final boolean openapi31;
+
+    private final Map<SchemaKey, Resolved> cache = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    public SchemaResolutionCache(boolean openapi31) {
+        this.openapi31 = openapi31;
+    }
+
+    /**
+     * springdoc 注册的转换器均插入到解析链头部，这里在其之后重新注册，确保位于链首
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        ModelConverters converters = ModelConverters.getInstance(openapi31);
+        converters.removeConverter(this);
+        converters.addConverter(this);
+    }
+
+    @Override
+    public void destroy() {
+        ModelConverters.getInstance(openapi31).removeConverter(this);
+    }
+
+    @Override
+    public Schema resolve(AnnotatedType type, ModelConverterContext context, Iterator<ModelConverter> chain) {
+        if (!chain.hasNext()) {
+            return null;
+        }
+        ModelConverter next = chain.next();
+        Map<ModelConverterContext, Set<Class<?>>> active = ACTIVE.get();
+        // 内层解析或已有模型的上下文（结果依赖上下文状态），直接交给后续转换器
+        Set<Class<?>> resolving = active.get(context);
+        if (resolving != null || !context.getDefinedModels().isEmpty()) {
+            if (resolving != null) {
+                collectClasses(type.getType(), resolving);
+            }
+            return next.resolve(type, context, chain);
+        }
+
+        SchemaKey key = SchemaKey.of(type);
+        Resolved resolved = key == null ? null : cache.get(key);
+        if (resolved != null) {
+            hits.incrementAndGet();
+            resolved.models().forEach((name, model) -> context.defineModel(name, fromJson(model)));
+            return fromJson(resolved.schema());
+        }
+
+        Set<Class<?>> classes = new HashSet<>();
+        collectClasses(type.getType(), classes);
+        active.put(context, classes);
+        Schema schema;
+        try {
+            schema = next.resolve(type, context, chain);
+        } finally {
+            active.remove(context);
+        }
+        if (key != null && schema != null) {
+            misses.incrementAndGet();
+            cache(key, schema, context.getDefinedModels(), classes);
+        }
+        return schema;
+    }
+
+    @Override
+    public boolean isOpenapi31() {
+        return openapi31;
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * 清空缓存
+     *
+     * @return 失效的条目数量
+     */
+    public int evictAll() {
+        int size = cache.size();
+        cache.clear();
+        return size;
+    }
+
+    /**
+     * 失效涉及指定类的条目（解析类型或解析其模型树时用到这些类）
+     *
+     * @param classNames 变更的类（全限定名或简单类名）
+     * @return 失效的条目数量
+     */
+    public int evict(Collection<String> classNames) {
+        int size = cache.size();
+        cache.values().removeIf(resolved -> resolved.classes().stream()
+                .anyMatch(clazz -> classNames.contains(clazz.getName()) || classNames.contains(clazz.getSimpleName())));
+        return size - cache.size();
+    }
+
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        evictAll();
+    }
+
+    @EventListener
+    public void onRefresh(ApiDocRefreshEvent event) {
+        int evicted = event.isFull() ? evictAll() : evict(event.getChangedClasses());
+        log.info("模型解析缓存已失效 {} 条，剩余 {} 条", evicted, cache.size());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("api.doc.schema.cache.hits", hits, AtomicLong::get)
+                .description("模型解析缓存命中次数")
+                .register(registry);
+        FunctionCounter.builder("api.doc.schema.cache.misses", misses, AtomicLong::get)
+                .description("模型解析缓存未命中（完整解析）次数")
+                .register(registry);
+        Gauge.builder("api.doc.schema.cache.size", cache, Map::size)
+                .description("已缓存的模型解析结果数")
+                .register(registry);
+    }
+
+    /**
+     * 缓存一次完整解析的结果，无法序列化的模型不缓存（每次完整解析）
+     */
+    private void cache(SchemaKey key, Schema schema, Map<String, Schema> models, Set<Class<?>> classes) {
+        try {
+            Map<String, SchemaJson> modelJson = new LinkedHashMap<>();
+            models.forEach((name, model) -> modelJson.put(name, toJson(model)));
+            cache.putIfAbsent(key, new Resolved(toJson(schema), modelJson, Set.copyOf(classes)));
+        } catch (UncheckedIOException e) {
+            log.warn("模型 {} 无法序列化，不缓存：{}", key.type().getTypeName(), e.getMessage());
+        }
+    }
+
+    private ObjectMapper mapper() {
+        return openapi31 ? Json31.mapper() : Json.mapper();
+    }
+
+    private SchemaJson toJson(Schema schema) {
+        try {
+            return new SchemaJson(schema.getName(), mapper().writeValueAsBytes(schema));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 反序列化出新的 Schema 实例（与 AnnotationsUtils#clone 相同，保留不参与序列化的 name）
+     */
+    private Schema fromJson(SchemaJson json) {
+        try {
+            Schema schema = mapper().readValue(json.json(), Schema.class);
+            schema.setName(json.name());
+            return schema;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 类型中出现的类（含泛型参数、数组与集合元素）
+     */
+    private static void collectClasses(Type type, Set<Class<?>> classes) {
+        if (type instanceof Class<?> clazz) {
+            if (classes.add(clazz) && clazz.isArray()) {
+                collectClasses(clazz.getComponentType(), classes);
+            }
+        } else if (type instanceof JavaType javaType) {
+            collectClasses(javaType.getRawClass(), classes);
+            for (int i = 0; i < javaType.containedTypeCount(); i++) {
+                collectClasses(javaType.containedType(i), classes);
+            }
+            if (javaType.getContentType() != null) {
+                collectClasses(javaType.getContentType(), classes);
+            }
+        } else if (type instanceof ParameterizedType parameterizedType) {
+            collectClasses(parameterizedType.getRawType(), classes);
+            for (Type argument : parameterizedType.getActualTypeArguments()) {
+                collectClasses(argument, classes);
+            }
+        }
+    }
+
+    /**
+     * Schema 的 JSON（name 不参与序列化，单独保存）
+     */
+    private record SchemaJson(String name, byte[] json) {
+    }
+
+    /**
+     * 一次完整解析的结果
+     *
+     * @param schema  返回的 Schema
+     * @param models  解析期间定义的模型
+     * @param classes 解析过程中用到的类
+     */
+    private record Resolved(SchemaJson schema, Map<String, SchemaJson> models, Set<Class<?>> classes) {
+    }
+
+    /**
+     * 解析 key：{@link AnnotatedType} 中影响解析结果的属性（其 equals 只比较类型与上下文注解）
+     */
+    private record SchemaKey(Type type,
+                             List<Annotation> ctxAnnotations,
+                             JsonView jsonView,
+                             boolean includePropertiesWithoutJsonView,
+                             boolean resolveAsRef,
+                             boolean schemaProperty,
+                             boolean skipOverride,
+                             boolean skipSchemaName,
+                             boolean skipJsonIdentity,
+                             String name,
+                             String propertyName) {
+
+        /**
+         * 带有父模型或 JsonUnwrapped 回调的解析会修改外部模型，不缓存
+         */
+        static SchemaKey of(AnnotatedType type) {
+            if (type.getType() == null || type.getParent() != null || type.getJsonUnwrappedHandler() != null) {
+                return null;
+            }
+            Annotation[] annotations = type.getCtxAnnotations();
+            return new SchemaKey(type.getType(),
+                    annotations == null ? List.of() : List.of(annotations),
+                    type.getJsonViewAnnotation(),
+                    type.isIncludePropertiesWithoutJSONView(),
+                    type.isResolveAsRef(),
+                    type.isSchemaProperty(),
+                    type.isSkipOverride(),
+                    type.isSkipSchemaName(),
+                    type.isSkipJsonIdentity(),
+                    type.getName(),
+                    type.getPropertyName());
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package top.nextdoc4j.demo.springboot.configuration.apidoc;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.swagger.v3.oas.models.OpenAPI;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springdoc.core.customizers.SpringDocCustomizers;
+import org.springdoc.core.properties.SpringDocConfigProperties;
+import org.springdoc.core.providers.ObjectMapperProvider;
+import org.springdoc.core.providers.SpringDocProviders;
+import org.springdoc.core.service.AbstractRequestService;
+import org.springdoc.core.service.GenericResponseService;
+import org.springdoc.core.service.OpenAPIService;
+import org.springdoc.core.service.OperationService;
+import org.springdoc.webmvc.api.OpenApiWebMvcResource;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * 支持流式输出的分组文档资源
+ * <p>
+ * springdoc 默认先将 {@link OpenAPI} 序列化为完整的 String，再转换为 byte[] 返回，
+ * 大文档每次请求都会产生数十 MB 的临时对象。这里复用 springdoc 的文档构建（含全部定制器）与 ObjectMapper 配置，
+ * 改为通过 Jackson 流式生成器直接写入输出流，输出内容与默认方式逐字节一致。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public class StreamingOpenApiResource extends OpenApiWebMvcResource {
+
+    /**
+     * 部分构建时只生成满足条件的接口
+     */
+    private static final ThreadLocal<Predicate<HandlerMethod>> INCLUDE = new ThreadLocal<>();
+
+    public StreamingOpenApiResource(String groupName,
+                                    ObjectFactory<OpenAPIService> openAPIBuilderObjectFactory,
+                                    AbstractRequestService requestBuilder,
+                                    GenericResponseService responseBuilder,
+                                    OperationService operationParser,
+                                    SpringDocConfigProperties springDocConfigProperties,
+                                    SpringDocProviders springDocProviders,
+                                    SpringDocCustomizers springDocCustomizers) {
+        super(groupName, openAPIBuilderObjectFactory, requestBuilder, responseBuilder, operationParser,
+                springDocConfigProperties, springDocProviders, springDocCustomizers);
+    }
+
+    /**
+     * 构建文档（已执行 GlobalOpenApiCustomizer 等全部定制器）
+     */
+    public OpenAPI openApi(HttpServletRequest request, String apiDocsUrl, Locale locale) {
+        return getOpenApi(calculateServerUrl(request, apiDocsUrl, locale), locale);
+    }
+
+    /**
+     * 不经请求构建文档（启动预热使用），servers 为 serverBaseUrl 经 ServerBaseUrlCustomizer 处理后的地址
+     */
+    public OpenAPI openApi(String serverBaseUrl, Locale locale) {
+        initOpenAPIBuilder(locale);
+        return getOpenApi(openAPIService.calculateServerBaseUrl(serverBaseUrl, null), locale);
+    }
+
+    /**
+     * 只构建满足条件的接口（增量刷新使用），文档仍经过全部定制器，components 只包含这些接口用到的模型
+     */
+    public OpenAPI openApi(String serverBaseUrl, Locale locale, Predicate<HandlerMethod> include) {
+        INCLUDE.set(include);
+        try {
+            return openApi(serverBaseUrl, locale);
+        } finally {
+            INCLUDE.remove();
+        }
+    }
+
+    @Override
+    protected void calculatePath(Map<String, Object> restControllers, Map<RequestMappingInfo, HandlerMethod> map,
+                                 Locale locale, OpenAPI openAPI) {
+        Predicate<HandlerMethod> include = INCLUDE.get();
+        if (include != null) {
+            Map<RequestMappingInfo, HandlerMethod> included = new LinkedHashMap<>();
+            map.forEach((info, handlerMethod) -> {
+                if (include.test(handlerMethod)) {
+                    included.put(info, handlerMethod);
+                }
+            });
+            map = included;
+        }
+        super.calculatePath(restControllers, map, locale, openAPI);
+    }
+
+    /**
+     * 读取 {@link #writeJson} 输出的 JSON 文档（与 springdoc 使用相同的 ObjectMapper）
+     */
+    public OpenAPI readJson(byte[] json) throws IOException {
+        return springDocProviders.jsonMapper().readValue(json, OpenAPI.class);
+    }
+
+    /**
+     * 是否可以部分构建：springdoc 自身的文档缓存开启时，构建直接返回缓存的完整文档
+     */
+    public boolean isPartialBuildSupported() {
+        return springDocConfigProperties.isCacheDisabled();
+    }
+
+    /**
+     * 输出 JSON 文档
+     *
+     * @param openAPI   文档
+     * @param out       输出流（不会被关闭）
+     * @param streaming 是否流式输出；为 false 时与 springdoc 默认方式一致，先完整序列化再写出
+     */
+    public void writeJson(OpenAPI openAPI, OutputStream out, boolean streaming) throws IOException {
+        if (!streaming) {
+            out.write(writeJsonValue(openAPI));
+            return;
+        }
+        // 与 AbstractOpenApiResource#writeJsonValue 使用相同的 ObjectMapper 与写出配置
+        ObjectMapper objectMapper = springDocProviders.jsonMapper();
+        if (springDocConfigProperties.isWriterWithOrderByKeys()) {
+            ObjectMapperProvider.sortOutput(objectMapper, springDocConfigProperties);
+        }
+        ObjectWriter writer = springDocConfigProperties.isWriterWithDefaultPrettyPrinter()
+                ? objectMapper.writerWithDefaultPrettyPrinter().forType(OpenAPI.class)
+                : objectMapper.writerFor(OpenAPI.class);
+        writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(out, openAPI);
+    }
+
+    /**
+     * 输出 YAML 文档（与 springdoc 默认方式一致）
+     */
+    public byte[] writeYaml(OpenAPI openAPI) throws JsonProcessingException {
+        return writeYamlValue(openAPI);
+    }
+}
@@ -11,13 +11,12 @@ import org.springdoc.core.customizers.GlobalOpenApiCustomizer;
 import org.springdoc.core.customizers.GlobalOperationCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.annotation.AnnotatedElementUtils;
-import top.nextdoc4j.demo.core.annotation.ApiError;
+import top.nextdoc4j.demo.core.annotation.index.ApiErrorIndexes;
+import top.nextdoc4j.demo.core.annotation.index.ApiErrorMeta;
 
-import java.lang.reflect.Method;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 @Configuration(proxyBeanMethods = false)
 public class GlobalOpenApiAutoConfiguration {
@@ -71,7 +70,7 @@ public class GlobalOpenApiAutoConfiguration {
     }
 
 
-    public static ApiResponse createErrorResponseExample(ApiError apiError) {
+    public static ApiResponse createErrorResponseExample(ApiErrorMeta apiError) {
 
         Map<String, Object> example = new HashMap<>();
         example.put("code", apiError.code());
@@ -93,9 +92,8 @@ public class GlobalOpenApiAutoConfiguration {
     public GlobalOperationCustomizer demoOperationCustomizer() {
         return (operation, handlerMethod) -> {
 
-            Method method = handlerMethod.getMethod();
-            Set<ApiError> apiErrors = AnnotatedElementUtils.getMergedRepeatableAnnotations(method, ApiError.class);
-
+            // 编译期索引（ApiErrorIndexProcessor），按声明顺序输出，这里只做一次查找
+            List<ApiErrorMeta> apiErrors = ApiErrorIndexes.declared(handlerMethod.getMethod());
 
             ApiResponses responses = operation.getResponses();
             if (responses == null) {
@@ -103,7 +101,7 @@ public class GlobalOpenApiAutoConfiguration {
                 operation.setResponses(responses);
             }
 
-            for (ApiError apiError : apiErrors) {
+            for (ApiErrorMeta apiError : apiErrors) {
                 responses.addApiResponse(apiError.status() + " " + apiError.code(),
                         createErrorResponseExample(apiError));
             }
@@ -11,10 +11,11 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import top.nextdoc4j.demo.springboot.configuration.exception.GlobalExceptionHandler;
+import top.nextdoc4j.demo.springboot.configuration.properties.ApiDocProperties;
 import top.nextdoc4j.demo.springboot.configuration.properties.ProjectProperties;
 
 @Component
-@EnableConfigurationProperties(ProjectProperties.class)
+@EnableConfigurationProperties({ProjectProperties.class, ApiDocProperties.class})
 public class SpringDocAutoConfiguration implements WebMvcConfigurer {
 
     @Override
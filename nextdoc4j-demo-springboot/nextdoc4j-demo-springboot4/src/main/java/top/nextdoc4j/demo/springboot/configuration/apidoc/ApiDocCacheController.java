@@ -0,0 +1,63 @@
+package top.nextdoc4j.demo.springboot.configuration.apidoc;
+
+import io.swagger.v3.oas.annotations.Hidden;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import top.nextdoc4j.demo.core.apidoc.WebhookApiDocVersionPublisher;
+import top.nextdoc4j.demo.core.enums.ResultCode;
+import top.nextdoc4j.demo.core.model.base.R;
+import top.nextdoc4j.demo.springboot.configuration.properties.ApiDocProperties;
+
+import java.util.List;
+
+/**
+ * 接口文档缓存刷新接口
+ * <p>
+ * 与网关的文档推送接口一致，请求头 X-Api-Doc-Token 须与 project.api-doc.cache.refresh-token 相同，
+ * 未配置令牌时拒绝所有刷新请求（类变更监听不经过本接口）。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@Hidden
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "project.api-doc.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ApiDocCacheController {
+
+    private final ApiDocCache apiDocCache;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ApiDocProperties apiDocProperties;
+
+    /**
+     * 刷新文档缓存，返回失效的文档数量
+     *
+     * @param classes 变更的类（全限定名或简单类名），为空时全量刷新
+     */
+    @PostMapping("${project.api-doc.cache.refresh-path:/api-doc/cache/refresh}")
+    public R<Integer> refresh(@RequestParam(required = false) List<String> classes,
+                              @RequestHeader(name = WebhookApiDocVersionPublisher.TOKEN_HEADER, required = false) String token,
+                              HttpServletResponse response) {
+        String expected = apiDocProperties.getCache().getRefreshToken();
+        if (expected == null || expected.isEmpty()) {
+            response.setStatus(HttpStatus.FORBIDDEN.value());
+            return R.fail(ResultCode.FORBIDDEN.code(), "未配置刷新令牌，拒绝刷新");
+        }
+        if (!WebhookApiDocVersionPublisher.isAuthorized(expected, token)) {
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            return R.fail(ResultCode.UNAUTHORIZED.code(), "刷新令牌无效");
+        }
+        int cached = apiDocCache.size();
+        eventPublisher.publishEvent(new ApiDocRefreshEvent(this, classes));
+        return R.ok(cached - apiDocCache.size());
+    }
+}
@@ -0,0 +1,271 @@
+package top.nextdoc4j.demo.springboot.configuration.apidoc;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.method.HandlerMethod;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 接口文档依赖追踪
+ * <p>
+ * 分组文档构建期间，记录每个接口（控制器#方法）依赖的控制器类与模型类
+ * （top.nextdoc4j.demo.core.model 下的类及标注了 {@link Schema} 的类，包含字段、泛型参数、oneOf/anyOf/allOf 与子类型），
+ * 以及接口在文档中的位置（路径与请求方法）。
+ * 类发生变更时据此计算受影响的分组、接口与模型，由 {@link ApiDocPatcher} 只重新生成这些接口并替换到已缓存的文档中。
+ * <p>
+ * 变更类来自 {@link ApiDocRefreshEvent}：{@link ApiDocClassChangeWatcher} 监听编译输出目录自动发布，
+ * 也可调用刷新接口（project.api-doc.cache.refresh-path?classes=...）。devtools 检测到类变更会重启应用上下文，
+ * 缓存与依赖随 ContextRefreshedEvent 整体失效，重启后重新构建。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+public class ApiDocDependencyTracker {
+
+    private static final String MODEL_PACKAGE = "top.nextdoc4j.demo.core.model";
+
+    private static final ThreadLocal<Build> CURRENT = new ThreadLocal<>();
+
+    /**
+     * 分组 -> 接口 -> 依赖
+     */
+    private final Map<String, Map<String, Dependency>> dependencies = new ConcurrentHashMap<>();
+
+    /**
+     * 开始记录分组构建，需与 {@link #end(String)} 或 {@link #endPartial(String)} 成对调用
+     */
+    public void begin() {
+        CURRENT.set(new Build());
+    }
+
+    /**
+     * 结束记录，用本次构建的结果覆盖该分组的依赖
+     */
+    public void end(String group) {
+        Map<String, Dependency> operations = finish();
+        if (group != null && !operations.isEmpty()) {
+            dependencies.put(group, operations);
+        }
+    }
+
+    /**
+     * 结束记录（只构建了部分接口），用本次构建的结果替换该分组中这些接口的依赖
+     *
+     * @return 本次构建的接口 -> 依赖
+     */
+    public Map<String, Dependency> endPartial(String group) {
+        Map<String, Dependency> operations = finish();
+        if (group != null) {
+            dependencies.computeIfPresent(group, (k, existing) -> {
+                Map<String, Dependency> merged = new LinkedHashMap<>(existing);
+                merged.putAll(operations);
+                return merged;
+            });
+        }
+        return operations;
+    }
+
+    /**
+     * 记录接口依赖（由 GlobalOperationCustomizer 在构建线程中调用）
+     */
+    public void record(Operation operation, HandlerMethod handlerMethod) {
+        Build build = CURRENT.get();
+        if (build == null) {
+            return;
+        }
+        Method method = handlerMethod.getMethod();
+        Set<Class<?>> classes = new LinkedHashSet<>();
+        classes.add(ClassUtils.getUserClass(handlerMethod.getBeanType()));
+        Arrays.stream(method.getGenericParameterTypes()).forEach(type -> collectModels(type, classes));
+        collectModels(method.getGenericReturnType(), classes);
+        String key = operationKey(handlerMethod);
+        build.classes().put(key, classes);
+        build.operations().put(operation, key);
+    }
+
+    /**
+     * 记录接口在文档中的位置（由 GlobalOpenApiCustomizer 在构建线程中调用，此时文档已包含全部接口）
+     */
+    public void locate(OpenAPI openAPI) {
+        Build build = CURRENT.get();
+        if (build == null || openAPI.getPaths() == null) {
+            return;
+        }
+        openAPI.getPaths().forEach((path, pathItem) -> pathItem.readOperationsMap().forEach((method, operation) -> {
+            String key = build.operations().get(operation);
+            if (key != null) {
+                build.locations().computeIfAbsent(key, k -> new ArrayList<>()).add(new Location(path, method));
+            }
+        }));
+    }
+
+    /**
+     * 分组中指定接口的依赖
+     *
+     * @return 接口 -> 依赖，未记录的接口不包含在内
+     */
+    public Map<String, Dependency> dependencies(String group, Collection<String> operations) {
+        Map<String, Dependency> recorded = dependencies.getOrDefault(group, Map.of());
+        Map<String, Dependency> result = new LinkedHashMap<>();
+        operations.forEach(operation -> {
+            Dependency dependency = recorded.get(operation);
+            if (dependency != null) {
+                result.put(operation, dependency);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 接口标识：控制器简单类名#方法名
+     */
+    public static String operationKey(HandlerMethod handlerMethod) {
+        return ClassUtils.getUserClass(handlerMethod.getBeanType()).getSimpleName() + "#"
+                + handlerMethod.getMethod().getName();
+    }
+
+    /**
+     * 计算受变更类影响的分组与接口
+     *
+     * @param classNames 变更的类（全限定名或简单类名）
+     * @return 分组 -> 受影响的接口
+     */
+    public Map<String, Set<String>> affectedOperations(Collection<String> classNames) {
+        Map<String, Set<String>> affected = new TreeMap<>();
+        dependencies.forEach((group, operations) -> operations.forEach((operation, dependency) -> {
+            if (dependency.classes().stream().anyMatch(clazz -> matches(clazz, classNames))) {
+                affected.computeIfAbsent(group, k -> new TreeSet<>()).add(operation);
+            }
+        }));
+        return affected;
+    }
+
+    /**
+     * 计算受变更类影响的模型（即需要重新生成的 components/schemas）
+     */
+    public Set<String> affectedSchemas(Collection<String> classNames) {
+        Set<String> schemas = new TreeSet<>();
+        dependencies.values().forEach(operations -> operations.values().forEach(dependency -> dependency.classes().stream()
+                .filter(clazz -> isModel(clazz) && matches(clazz, classNames))
+                .forEach(clazz -> schemas.add(clazz.getSimpleName()))));
+        return schemas;
+    }
+
+    public void clear() {
+        dependencies.clear();
+    }
+
+    private static Map<String, Dependency> finish() {
+        Build build = CURRENT.get();
+        CURRENT.remove();
+        Map<String, Dependency> operations = new LinkedHashMap<>();
+        if (build != null) {
+            build.classes().forEach((key, classes) -> operations.put(key,
+                    new Dependency(classes, List.copyOf(build.locations().getOrDefault(key, List.of())))));
+        }
+        return operations;
+    }
+
+    private static boolean matches(Class<?> clazz, Collection<String> classNames) {
+        return classNames.contains(clazz.getName()) || classNames.contains(clazz.getSimpleName());
+    }
+
+    private static void collectModels(Type type, Set<Class<?>> classes) {
+        if (type instanceof ParameterizedType parameterizedType) {
+            collectModels(parameterizedType.getRawType(), classes);
+            Arrays.stream(parameterizedType.getActualTypeArguments()).forEach(arg -> collectModels(arg, classes));
+        } else if (type instanceof GenericArrayType arrayType) {
+            collectModels(arrayType.getGenericComponentType(), classes);
+        } else if (type instanceof WildcardType wildcardType) {
+            Arrays.stream(wildcardType.getUpperBounds()).forEach(bound -> collectModels(bound, classes));
+        } else if (type instanceof Class<?> clazz) {
+            if (clazz.isArray()) {
+                collectModels(clazz.getComponentType(), classes);
+            } else if (isModel(clazz) && classes.add(clazz)) {
+                collectModelMembers(clazz, classes);
+            }
+        }
+    }
+
+    private static void collectModelMembers(Class<?> clazz, Set<Class<?>> classes) {
+        collectModels(clazz.getGenericSuperclass(), classes);
+        for (Field field : clazz.getDeclaredFields()) {
+            collectModels(field.getGenericType(), classes);
+            collectSchemaReferences(field.getAnnotation(Schema.class), classes);
+        }
+        collectSchemaReferences(clazz.getAnnotation(Schema.class), classes);
+        JsonSubTypes subTypes = clazz.getAnnotation(JsonSubTypes.class);
+        if (subTypes != null) {
+            Arrays.stream(subTypes.value()).forEach(subType -> collectModels(subType.value(), classes));
+        }
+    }
+
+    private static void collectSchemaReferences(Schema schema, Set<Class<?>> classes) {
+        if (schema == null) {
+            return;
+        }
+        collectModels(schema.implementation(), classes);
+        Arrays.stream(schema.oneOf()).forEach(type -> collectModels(type, classes));
+        Arrays.stream(schema.anyOf()).forEach(type -> collectModels(type, classes));
+        Arrays.stream(schema.allOf()).forEach(type -> collectModels(type, classes));
+        Arrays.stream(schema.subTypes()).forEach(type -> collectModels(type, classes));
+    }
+
+    private static boolean isModel(Class<?> clazz) {
+        if (clazz.isPrimitive() || clazz.getName().startsWith("java.")) {
+            return false;
+        }
+        return clazz.getPackageName().startsWith(MODEL_PACKAGE) || clazz.isAnnotationPresent(Schema.class);
+    }
+
+    /**
+     * 接口依赖
+     *
+     * @param classes   依赖的控制器类与模型类
+     * @param locations 接口在文档中的位置，同一方法映射多个路径或请求方法时有多个
+     */
+    public record Dependency(Set<Class<?>> classes, List<Location> locations) {
+    }
+
+    /**
+     * 接口在文档中的位置
+     *
+     * @param path   路径
+     * @param method 请求方法
+     */
+    public record Location(String path, PathItem.HttpMethod method) {
+    }
+
+    /**
+     * 一次构建中记录的接口：接口 -> 依赖的类、文档中的接口对象 -> 接口、接口 -> 位置
+     */
+    private record Build(Map<String, Set<Class<?>>> classes, Map<Operation, String> operations,
+                         Map<String, List<Location>> locations) {
+
+        Build() {
+            this(new LinkedHashMap<>(), new IdentityHashMap<>(), new LinkedHashMap<>());
+        }
+    }
+}
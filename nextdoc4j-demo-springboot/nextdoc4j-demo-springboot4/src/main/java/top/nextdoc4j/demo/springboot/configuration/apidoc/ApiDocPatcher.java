@@ -0,0 +1,232 @@
+package top.nextdoc4j.demo.springboot.configuration.apidoc;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 接口文档增量刷新
+ * <p>
+ * 类变更通常只影响少数接口，不必重新构建整个分组：这里只为受影响的接口运行一次 springdoc 构建（经过全部定制器，
+ * 模型解析缓存中未失效的模型直接复用），再将结果替换到已缓存的 JSON 文档中：
+ * 1. paths：删除这些接口原来的位置，写入新生成的接口，路径未变时位置不变
+ * 2. components：新生成的模型、示例等覆盖同名条目，新增的追加到末尾；不再生成且文档中已无引用的受影响模型被删除
+ * 3. tags：新生成的标签覆盖同名标签，新增的追加到末尾
+ * <p>
+ * 以下情况不做增量刷新，由调用方失效该分组，下次访问时完整构建：springdoc 自身的文档缓存开启（无法部分构建）、
+ * 有接口未记录位置、缓存的文档读出后无法逐字节还原（替换后的输出将与完整构建不一致）。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@Slf4j
+public class ApiDocPatcher {
+
+    private static final String SCHEMA_REF = "\"#/components/schemas/";
+
+    private final StreamingMultipleOpenApiResource multipleOpenApiResource;
+
+    private final ApiDocDependencyTracker dependencyTracker;
+
+    public ApiDocPatcher(StreamingMultipleOpenApiResource multipleOpenApiResource,
+                         ApiDocDependencyTracker dependencyTracker) {
+        this.multipleOpenApiResource = multipleOpenApiResource;
+        this.dependencyTracker = dependencyTracker;
+    }
+
+    /**
+     * 重新生成分组中受影响的接口
+     *
+     * @param group      分组
+     * @param operations 受影响的接口
+     * @param schemas    受影响的模型
+     * @return 可替换到该分组各份缓存文档中的结果；无法增量刷新时返回 null
+     */
+    public Patch prepare(String group, Set<String> operations, Set<String> schemas) {
+        if (!multipleOpenApiResource.getStreamingGroups().contains(group)) {
+            return null;
+        }
+        StreamingOpenApiResource resource = multipleOpenApiResource.getStreamingResource(group);
+        if (!resource.isPartialBuildSupported()) {
+            return null;
+        }
+        Map<String, ApiDocDependencyTracker.Dependency> previous = dependencyTracker.dependencies(group, operations);
+        if (previous.size() < operations.size()
+                || previous.values().stream().anyMatch(dependency -> dependency.locations().isEmpty())) {
+            log.debug("分组 [{}] 有接口未记录文档位置，不做增量刷新", group);
+            return null;
+        }
+
+        // servers 不参与替换，按上下文根路径构建即可
+        dependencyTracker.begin();
+        OpenAPI partial;
+        Map<String, ApiDocDependencyTracker.Dependency> rebuilt;
+        try {
+            partial = resource.openApi("", Locale.getDefault(),
+                    handlerMethod -> operations.contains(ApiDocDependencyTracker.operationKey(handlerMethod)));
+        } finally {
+            rebuilt = dependencyTracker.endPartial(group);
+        }
+        if (rebuilt.values().stream().anyMatch(dependency -> dependency.locations().isEmpty())) {
+            log.debug("分组 [{}] 重新生成的接口未记录文档位置，不做增量刷新", group);
+            return null;
+        }
+        return new Patch(resource, partial, previous, rebuilt, schemas);
+    }
+
+    /**
+     * 重新生成的接口，可替换到同一分组的多份缓存文档中（按服务地址区分的缓存只有 servers 不同）
+     */
+    public static final class Patch {
+
+        private final StreamingOpenApiResource resource;
+
+        private final OpenAPI partial;
+
+        private final Map<String, ApiDocDependencyTracker.Dependency> previous;
+
+        private final Map<String, ApiDocDependencyTracker.Dependency> rebuilt;
+
+        private final Set<String> schemas;
+
+        private Patch(StreamingOpenApiResource resource, OpenAPI partial,
+                      Map<String, ApiDocDependencyTracker.Dependency> previous,
+                      Map<String, ApiDocDependencyTracker.Dependency> rebuilt, Set<String> schemas) {
+            this.resource = resource;
+            this.partial = partial;
+            this.previous = previous;
+            this.rebuilt = rebuilt;
+            this.schemas = schemas;
+        }
+
+        /**
+         * 替换到缓存的 JSON 文档中
+         *
+         * @return 替换后的文档；无法逐字节还原缓存的文档时返回 null
+         */
+        public byte[] apply(byte[] cached) throws IOException {
+            OpenAPI openAPI = resource.readJson(cached);
+            if (!Arrays.equals(write(openAPI), cached)) {
+                return null;
+            }
+            patchPaths(openAPI);
+            patchComponents(openAPI);
+            patchTags(openAPI);
+            byte[] patched = write(openAPI);
+            return removeUnreferencedSchemas(openAPI, patched) ? write(openAPI) : patched;
+        }
+
+        private void patchPaths(OpenAPI openAPI) {
+            Paths paths = openAPI.getPaths() == null ? new Paths() : openAPI.getPaths();
+            previous.values().forEach(dependency -> dependency.locations().forEach(location -> {
+                PathItem pathItem = paths.get(location.path());
+                if (pathItem != null) {
+                    pathItem.operation(location.method(), null);
+                }
+            }));
+            rebuilt.values().forEach(dependency -> dependency.locations().forEach(location -> {
+                Operation operation = partial.getPaths().get(location.path()).readOperationsMap()
+                        .get(location.method());
+                PathItem pathItem = paths.get(location.path());
+                if (pathItem == null) {
+                    pathItem = new PathItem();
+                    paths.addPathItem(location.path(), pathItem);
+                }
+                pathItem.operation(location.method(), operation);
+            }));
+            paths.values().removeIf(pathItem -> pathItem.readOperations().isEmpty());
+            openAPI.setPaths(paths);
+        }
+
+        private void patchComponents(OpenAPI openAPI) {
+            Components from = partial.getComponents();
+            if (from == null) {
+                return;
+            }
+            Components to = openAPI.getComponents() == null ? new Components() : openAPI.getComponents();
+            to.setSchemas(merge(to.getSchemas(), from.getSchemas()));
+            to.setResponses(merge(to.getResponses(), from.getResponses()));
+            to.setParameters(merge(to.getParameters(), from.getParameters()));
+            to.setExamples(merge(to.getExamples(), from.getExamples()));
+            to.setRequestBodies(merge(to.getRequestBodies(), from.getRequestBodies()));
+            to.setHeaders(merge(to.getHeaders(), from.getHeaders()));
+            openAPI.setComponents(to);
+        }
+
+        private void patchTags(OpenAPI openAPI) {
+            if (partial.getTags() == null || partial.getTags().isEmpty()) {
+                return;
+            }
+            List<Tag> tags = openAPI.getTags() == null ? new ArrayList<>() : new ArrayList<>(openAPI.getTags());
+            for (Tag tag : partial.getTags()) {
+                int index = indexOf(tags, tag.getName());
+                if (index >= 0) {
+                    tags.set(index, tag);
+                } else {
+                    tags.add(tag);
+                }
+            }
+            openAPI.setTags(tags);
+        }
+
+        /**
+         * 删除不再生成且已无引用的受影响模型（与 springdoc 的 remove-broken-reference-definitions 一致）
+         *
+         * @return 是否有模型被删除
+         */
+        private boolean removeUnreferencedSchemas(OpenAPI openAPI, byte[] json) {
+            Map<String, ?> current = openAPI.getComponents() == null ? null : openAPI.getComponents().getSchemas();
+            Map<String, ?> generated = partial.getComponents() == null ? null : partial.getComponents().getSchemas();
+            if (current == null) {
+                return false;
+            }
+            String text = new String(json, StandardCharsets.UTF_8);
+            Collection<String> stale = schemas.stream()
+                    .filter(name -> current.containsKey(name) && (generated == null || !generated.containsKey(name)))
+                    .filter(name -> !text.contains(SCHEMA_REF + name + "\""))
+                    .toList();
+            stale.forEach(current::remove);
+            return !stale.isEmpty();
+        }
+
+        private byte[] write(OpenAPI openAPI) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            resource.writeJson(openAPI, out, true);
+            return out.toByteArray();
+        }
+
+        private static <T> Map<String, T> merge(Map<String, T> target, Map<String, T> source) {
+            if (source == null || source.isEmpty()) {
+                return target;
+            }
+            Map<String, T> merged = target == null ? new LinkedHashMap<>() : target;
+            merged.putAll(source);
+            return merged;
+        }
+
+        private static int indexOf(List<Tag> tags, String name) {
+            for (int i = 0; i < tags.size(); i++) {
+                if (tags.get(i).getName().equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
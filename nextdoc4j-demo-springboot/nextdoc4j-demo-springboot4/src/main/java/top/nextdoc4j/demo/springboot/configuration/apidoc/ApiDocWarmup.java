@@ -0,0 +1,184 @@
+package top.nextdoc4j.demo.springboot.configuration.apidoc;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import top.nextdoc4j.demo.springboot.configuration.properties.ApiDocProperties;
+
+import java.io.ByteArrayOutputStream;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 接口文档启动预热
+ * <p>
+ * springdoc 默认在首次访问时按分组串行构建文档，发布后首次打开文档页需要数秒。
+ * 这里在 ApplicationReadyEvent 阶段并行构建各分组文档，直接调用分组资源完成扫描、定制与序列化，
+ * 不经过 HTTP 请求，也就不受监听地址、SSL 与过滤器的影响，并输出每个分组的构建耗时。
+ * 开启 spring.threads.virtual.enabled（JDK 21+）时使用虚拟线程，否则退化为平台线程，并发数均受 parallelism 限制。
+ * <p>
+ * 文档缓存开启时，构建结果按与 {@link ApiDocCacheFilter} 相同的 key 写入 {@link ApiDocCache}：servers 使用相对地址时
+ * 每个分组构建一次，之后任何入口的首次请求都直接命中；servers 取自请求地址（默认）时文档随入口变化，
+ * 按 project.api-doc.warmup.server-urls 中的每个入口各构建一次（未配置时为本机地址 http://localhost:端口）。
+ * <p>
+ * 预热在监听器中同步执行，Spring Boot 会在其完成后才发布 ACCEPTING_TRAFFIC；
+ * 任一分组构建失败时，将就绪状态改回 REFUSING_TRAFFIC，避免就绪探针在文档不可用时放行。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "project.api-doc.warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ApiDocWarmup {
+
+    private final StreamingMultipleOpenApiResource multipleOpenApiResource;
+
+    private final ObjectProvider<ApiDocCache> apiDocCache;
+
+    private final ObjectProvider<ApiDocDependencyTracker> dependencyTracker;
+
+    private final ApiDocProperties apiDocProperties;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Set<String> failedGroups = ConcurrentHashMap.newKeySet();
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        Environment environment = event.getApplicationContext().getEnvironment();
+        ApiDocCache cache = apiDocCache.getIfAvailable();
+        List<Server> servers = servers(environment);
+        Set<String> groups = multipleOpenApiResource.getStreamingGroups();
+
+        ApiDocProperties.Warmup warmup = apiDocProperties.getWarmup();
+        int parallelism = Math.max(1, Math.min(warmup.getParallelism(), groups.size()));
+        Map<String, Long> costs = new ConcurrentHashMap<>();
+
+        long start = System.nanoTime();
+        try (SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("api-doc-warmup-")) {
+            executor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+            executor.setConcurrencyLimit(parallelism);
+            CompletableFuture.allOf(groups.stream()
+                            .map(group -> CompletableFuture.runAsync(
+                                    () -> build(servers, group, cache, costs), executor))
+                            .toArray(CompletableFuture[]::new))
+                    .orTimeout(warmup.getTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                    .join();
+        } catch (CompletionException e) {
+            Set<String> unfinished = new HashSet<>(groups);
+            unfinished.removeAll(costs.keySet());
+            unfinished.removeAll(failedGroups);
+            failedGroups.addAll(unfinished);
+            log.error("接口文档预热超过 {}，未完成的分组：{}", warmup.getTimeout(), unfinished);
+        }
+
+        log.info("接口文档预热完成：{} 个分组，总耗时 {} ms，分组耗时 {}，写入缓存：{}，入口：{}",
+                groups.size(), (System.nanoTime() - start) / 1_000_000, costs, cache != null,
+                servers.stream().map(Server::baseUrl).toList());
+        if (!failedGroups.isEmpty()) {
+            log.error("接口文档分组构建失败：{}，应用将保持未就绪状态", failedGroups);
+        }
+    }
+
+    /**
+     * Spring Boot 在 ApplicationReadyEvent 之后发布 ACCEPTING_TRAFFIC，预热失败时需要覆盖回去
+     */
+    @EventListener
+    public void onReadinessChange(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC && !failedGroups.isEmpty()) {
+            AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        }
+    }
+
+    private void build(List<Server> servers, String group, ApiDocCache cache, Map<String, Long> costs) {
+        long start = System.nanoTime();
+        ApiDocDependencyTracker tracker = cache != null ? dependencyTracker.getIfAvailable() : null;
+        try {
+            StreamingOpenApiResource resource = multipleOpenApiResource.getStreamingResource(group);
+            for (Server server : servers) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                if (tracker != null) {
+                    tracker.begin();
+                }
+                try {
+                    OpenAPI openAPI = resource.openApi(server.baseUrl(), Locale.getDefault());
+                    resource.writeJson(openAPI, out, true);
+                } finally {
+                    if (tracker != null) {
+                        tracker.end(group);
+                    }
+                }
+                if (cache != null) {
+                    String key = server.origin() == null
+                            ? ApiDocCache.key(false, group)
+                            : ApiDocCache.key(false, group, server.origin());
+                    cache.put(key, group, out.toByteArray(), MediaType.APPLICATION_JSON_VALUE);
+                }
+            }
+            costs.put(group, (System.nanoTime() - start) / 1_000_000);
+            log.debug("接口文档分组 [{}] 构建完成，耗时 {} ms", group, costs.get(group));
+        } catch (Exception e) {
+            failedGroups.add(group);
+            log.error("接口文档分组 [{}] 构建失败", group, e);
+        }
+    }
+
+    /**
+     * 预热的入口：servers 使用相对地址时只有上下文路径一个（由 ServerBaseUrlCustomizer 改写，缓存 key 不含服务地址）；
+     * 否则为配置的入口地址，未配置时为本机地址，key 与 {@link ApiDocCacheFilter} 按请求得到的一致
+     */
+    private List<Server> servers(Environment environment) {
+        String contextPath = environment.getProperty("server.servlet.context-path", "");
+        if (apiDocProperties.getCache().isRelativeServerUrl()) {
+            return List.of(new Server(contextPath, null));
+        }
+        List<String> urls = apiDocProperties.getWarmup().getServerUrls();
+        if (urls.isEmpty()) {
+            int port = environment.getProperty("local.server.port", Integer.class,
+                    environment.getProperty("server.port", Integer.class, 8080));
+            urls = List.of("http://localhost:" + port + contextPath);
+        }
+        return urls.stream().map(Server::of).toList();
+    }
+
+    /**
+     * 预热的入口
+     *
+     * @param baseUrl 传给 springdoc 的服务地址（与请求时由请求地址得出的一致）
+     * @param origin  缓存 key 中的服务地址，servers 使用相对地址时为 null
+     */
+    private record Server(String baseUrl, String origin) {
+
+        static Server of(String url) {
+            UriComponents uri = UriComponentsBuilder.fromUriString(url).build();
+            int port = uri.getPort() != -1 ? uri.getPort() : "https".equals(uri.getScheme()) ? 443 : 80;
+            String path = StringUtils.trimTrailingCharacter(uri.getPath() == null ? "" : uri.getPath(), '/');
+            String baseUrl = uri.getScheme() + "://" + uri.getHost() + (uri.getPort() != -1 ? ":" + port : "") + path;
+            return new Server(baseUrl, ApiDocCache.origin(uri.getScheme(), uri.getHost(), port, path));
+        }
+    }
+}
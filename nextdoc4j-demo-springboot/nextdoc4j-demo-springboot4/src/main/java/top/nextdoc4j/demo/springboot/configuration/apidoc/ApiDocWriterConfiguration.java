@@ -0,0 +1,66 @@
+package top.nextdoc4j.demo.springboot.configuration.apidoc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springdoc.core.customizers.SpringDocCustomizers;
+import org.springdoc.core.models.GroupedOpenApi;
+import org.springdoc.core.properties.SpringDocConfigProperties;
+import org.springdoc.core.providers.SpringDocProviders;
+import org.springdoc.core.service.AbstractRequestService;
+import org.springdoc.core.service.GenericResponseService;
+import org.springdoc.core.service.OpenAPIService;
+import org.springdoc.core.service.OperationService;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import top.nextdoc4j.demo.springboot.configuration.properties.ApiDocProperties;
+
+import java.util.List;
+
+/**
+ * 接口文档输出配置
+ * <p>
+ * springdoc 的 multipleOpenApiResource 声明了 @ConditionalOnMissingBean，这里注册的子类会替换默认实现。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@Configuration(proxyBeanMethods = false)
+public class ApiDocWriterConfiguration {
+
+    @Bean
+    public StreamingMultipleOpenApiResource multipleOpenApiResource(List<GroupedOpenApi> groupedOpenApis,
+                                                                    ObjectFactory<OpenAPIService> defaultOpenAPIBuilder,
+                                                                    AbstractRequestService requestBuilder,
+                                                                    GenericResponseService responseBuilder,
+                                                                    OperationService operationParser,
+                                                                    SpringDocConfigProperties springDocConfigProperties,
+                                                                    SpringDocProviders springDocProviders,
+                                                                    SpringDocCustomizers springDocCustomizers,
+                                                                    ApiDocProperties apiDocProperties,
+                                                                    MeterRegistry meterRegistry) {
+        return new StreamingMultipleOpenApiResource(groupedOpenApis, defaultOpenAPIBuilder, requestBuilder,
+                responseBuilder, operationParser, springDocConfigProperties, springDocProviders,
+                springDocCustomizers, apiDocProperties, meterRegistry);
+    }
+
+    /**
+     * 文档界面静态资源预压缩
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "project.api-doc.compression", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public ApiDocStaticResourceFilter apiDocStaticResourceFilter(ApiDocProperties apiDocProperties) {
+        ApiDocProperties.Compression compression = apiDocProperties.getCompression();
+        return new ApiDocStaticResourceFilter(compression.getStaticPatterns(), compression.getStaticLocations(),
+                compression.minSizeOrDisabled(), compression.getStaticMaxEntries());
+    }
+
+    /**
+     * 模型解析缓存
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "project.api-doc.schema-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SchemaResolutionCache schemaResolutionCache(SpringDocConfigProperties springDocConfigProperties) {
+        return new SchemaResolutionCache(springDocConfigProperties.isOpenapi31());
+    }
+}
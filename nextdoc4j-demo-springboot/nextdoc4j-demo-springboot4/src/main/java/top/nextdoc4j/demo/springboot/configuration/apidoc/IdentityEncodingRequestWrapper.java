@@ -0,0 +1,42 @@
+package top.nextdoc4j.demo.springboot.configuration.apidoc;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.springframework.http.HttpHeaders;
+
+import java.util.Collections;
+import java.util.Enumeration;
+
+/**
+ * 隐藏 Accept-Encoding 的请求包装
+ * <p>
+ * 预压缩过滤器在未命中时需要拿到原文再自行压缩，避免下游按客户端的 Accept-Encoding 提前压缩。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+class IdentityEncodingRequestWrapper extends HttpServletRequestWrapper {
+
+    IdentityEncodingRequestWrapper(HttpServletRequest request) {
+        super(request);
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return HttpHeaders.ACCEPT_ENCODING.equalsIgnoreCase(name) ? null : super.getHeader(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        return HttpHeaders.ACCEPT_ENCODING.equalsIgnoreCase(name)
+                ? Collections.emptyEnumeration()
+                : super.getHeaders(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(Collections.list(super.getHeaderNames()).stream()
+                .filter(name -> !HttpHeaders.ACCEPT_ENCODING.equalsIgnoreCase(name))
+                .toList());
+    }
+}
@@ -0,0 +1,204 @@
+package top.nextdoc4j.demo.springboot.configuration.apidoc;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.swagger.v3.oas.models.OpenAPI;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springdoc.api.OpenApiResourceNotFoundException;
+import org.springdoc.core.customizers.SpringDocCustomizers;
+import org.springdoc.core.models.GroupedOpenApi;
+import org.springdoc.core.properties.SpringDocConfigProperties;
+import org.springdoc.core.providers.SpringDocProviders;
+import org.springdoc.core.service.AbstractRequestService;
+import org.springdoc.core.service.GenericResponseService;
+import org.springdoc.core.service.OpenAPIService;
+import org.springdoc.core.service.OperationService;
+import org.springdoc.webmvc.api.MultipleOpenApiWebMvcResource;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import top.nextdoc4j.demo.core.compression.ContentCoding;
+import top.nextdoc4j.demo.springboot.configuration.properties.ApiDocProperties;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 分组文档接口（/v3/api-docs/{group}）
+ * <p>
+ * 替换 springdoc 默认的 {@link MultipleOpenApiWebMvcResource}，JSON 文档改为由 {@link StreamingOpenApiResource}
+ * 直接写入响应流，客户端支持时使用 gzip 压缩；YAML 与 actuator 分组仍走 springdoc 默认实现。
+ * <p>
+ * 文档缓存（{@link ApiDocCacheFilter}）开启时，未命中的请求由缓存过滤器包装：输出写入缓存的缓冲区，
+ * 且请求的 Accept-Encoding 已被移除，这里不做 gzip，压缩由缓存完成。真正写入响应流、按请求 gzip 只在缓存关闭时发生。
+ * <p>
+ * 每次输出记录序列化阶段的线程内存分配量（api.doc.write.allocated.bytes，按 mode=streaming/buffered 区分），
+ * 切换 project.api-doc.writer.streaming 即可对比两种方式的内存开销。
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@Slf4j
+public class StreamingMultipleOpenApiResource extends MultipleOpenApiWebMvcResource {
+
+    private final List<GroupedOpenApi> groupedOpenApis;
+
+    private final ObjectFactory<OpenAPIService> defaultOpenAPIBuilder;
+
+    private final AbstractRequestService requestBuilder;
+
+    private final GenericResponseService responseBuilder;
+
+    private final OperationService operationParser;
+
+    private final SpringDocConfigProperties springDocConfigProperties;
+
+    private final SpringDocProviders springDocProviders;
+
+    private final ApiDocProperties.Writer writer;
+
+    private final DistributionSummary allocatedBytes;
+
+    private Map<String, StreamingOpenApiResource> streamingResources;
+
+    public StreamingMultipleOpenApiResource(List<GroupedOpenApi> groupedOpenApis,
+                                            ObjectFactory<OpenAPIService> defaultOpenAPIBuilder,
+                                            AbstractRequestService requestBuilder,
+                                            GenericResponseService responseBuilder,
+                                            OperationService operationParser,
+                                            SpringDocConfigProperties springDocConfigProperties,
+                                            SpringDocProviders springDocProviders,
+                                            SpringDocCustomizers springDocCustomizers,
+                                            ApiDocProperties apiDocProperties,
+                                            MeterRegistry meterRegistry) {
+        super(groupedOpenApis, defaultOpenAPIBuilder, requestBuilder, responseBuilder, operationParser,
+                springDocConfigProperties, springDocProviders, springDocCustomizers);
+        this.groupedOpenApis = groupedOpenApis;
+        this.defaultOpenAPIBuilder = defaultOpenAPIBuilder;
+        this.requestBuilder = requestBuilder;
+        this.responseBuilder = responseBuilder;
+        this.operationParser = operationParser;
+        this.springDocConfigProperties = springDocConfigProperties;
+        this.springDocProviders = springDocProviders;
+        this.writer = apiDocProperties.getWriter();
+        this.allocatedBytes = DistributionSummary.builder("api.doc.write.allocated.bytes")
+                .description("接口文档序列化阶段的线程内存分配量")
+                .baseUnit("bytes")
+                .tag("mode", writer.isStreaming() ? "streaming" : "buffered")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        // 父类会先将全局定制器合并到各分组，这里再按同样的方式构建支持流式输出的分组资源
+        super.afterPropertiesSet();
+        this.streamingResources = groupedOpenApis.stream()
+                .filter(group -> !springDocConfigProperties.isUseManagementPort()
+                        && !"x-actuator".equals(group.getGroup()))
+                .collect(Collectors.toMap(GroupedOpenApi::getGroup, this::buildStreamingResource,
+                        (existing, replacement) -> existing));
+    }
+
+    @Override
+    public byte[] openapiJson(HttpServletRequest request, String apiDocsUrl, String group, Locale locale)
+            throws JsonProcessingException {
+        // 与父类一致，按分组文档地址计算 servers
+        String groupDocsUrl = apiDocsUrl + "/" + group;
+        StreamingOpenApiResource resource = streamingResources.get(group);
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+        HttpServletResponse response = attributes.getResponse();
+        if (resource == null || response == null) {
+            return getOpenApiResourceOrThrow(group).openapiJson(request, groupDocsUrl, locale);
+        }
+
+        OpenAPI openAPI = resource.openApi(request, groupDocsUrl, locale);
+        boolean gzip = writer.isGzip() && ContentCoding.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING),
+                EnumSet.of(ContentCoding.GZIP)) == ContentCoding.GZIP;
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (writer.isGzip()) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, ContentCoding.GZIP.getValue());
+        }
+
+        long start = currentThreadAllocatedBytes();
+        try {
+            if (gzip) {
+                GZIPOutputStream out = new GZIPOutputStream(response.getOutputStream(), 8192);
+                resource.writeJson(openAPI, out, writer.isStreaming());
+                out.finish();
+            } else {
+                OutputStream out = response.getOutputStream();
+                resource.writeJson(openAPI, out, writer.isStreaming());
+                out.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (start >= 0) {
+            long allocated = currentThreadAllocatedBytes() - start;
+            allocatedBytes.record(allocated);
+            log.debug("接口文档分组 [{}] 输出完成，模式：{}，gzip：{}，序列化内存分配：{} bytes",
+                    group, writer.isStreaming() ? "streaming" : "buffered", gzip, allocated);
+        }
+        // 响应体已直接写出
+        return null;
+    }
+
+    /**
+     * 获取分组资源，可单独构建文档或序列化（基准测试等场景使用）
+     */
+    public StreamingOpenApiResource getStreamingResource(String group) {
+        StreamingOpenApiResource resource = streamingResources.get(group);
+        if (resource == null) {
+            throw new OpenApiResourceNotFoundException("No OpenAPI resource found for group: " + group);
+        }
+        return resource;
+    }
+
+    /**
+     * 支持流式输出的分组（不含 actuator 分组）
+     */
+    public Set<String> getStreamingGroups() {
+        return streamingResources.keySet();
+    }
+
+    private StreamingOpenApiResource buildStreamingResource(GroupedOpenApi group) {
+        return new StreamingOpenApiResource(group.getGroup(), defaultOpenAPIBuilder, requestBuilder,
+                responseBuilder, operationParser, springDocConfigProperties, springDocProviders,
+                new SpringDocCustomizers(Optional.of(group.getOpenApiCustomizers()),
+                        Optional.of(group.getOperationCustomizers()),
+                        Optional.of(group.getRouterOperationCustomizers()),
+                        Optional.of(group.getOpenApiMethodFilters()),
+                        Optional.empty(),
+                        Optional.empty()));
+    }
+
+    /**
+     * 当前线程累计分配的内存，不支持时返回 -1
+     */
+    private static long currentThreadAllocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean
+                && threadMXBean.isThreadAllocatedMemorySupported()
+                && threadMXBean.isThreadAllocatedMemoryEnabled()) {
+            return threadMXBean.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+}
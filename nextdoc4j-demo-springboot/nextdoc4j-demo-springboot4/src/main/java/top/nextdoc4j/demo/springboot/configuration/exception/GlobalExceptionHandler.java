@@ -20,8 +20,11 @@ import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartException;
 import org.springframework.web.servlet.NoHandlerFoundException;
+import top.nextdoc4j.demo.controller.file.upload.ChunkedUploadException;
+import top.nextdoc4j.demo.controller.file.upload.StreamingUploadException;
 import top.nextdoc4j.demo.core.enums.ResultCode;
 import top.nextdoc4j.demo.core.model.base.R;
 
@@ -107,6 +110,13 @@ public class GlobalExceptionHandler {
                                             HttpServletResponse response) {
         log.error("[{}] {}", request.getMethod(), request.getRequestURI(), e);
         response.setStatus(HttpStatus.BAD_REQUEST.value());
+        if (e instanceof StreamingUploadException) {
+            return R.fail(ResultCode.BAD_REQUEST.code(), e.getMessage());
+        }
+        if (e instanceof MaxUploadSizeExceededException ex && ex.getMaxUploadSize() > 0) {
+            return R.fail(ResultCode.FILE_TOO_LARGE.code(),
+                    "文件大小超出限制，最大允许: " + FileUtil.readableFileSize(ex.getMaxUploadSize()));
+        }
         String msg = e.getMessage();
         R<Void> defaultFail = R.fail(ResultCode.PAYLOAD_TOO_LARGE.code(), "文件上传失败");
         if (CharSequenceUtil.isBlank(msg)) {
@@ -132,6 +142,15 @@ public class GlobalExceptionHandler {
         }
     }
 
+    @ExceptionHandler(ChunkedUploadException.class)
+    public R<Void> handleChunkedUploadException(ChunkedUploadException e,
+                                                HttpServletRequest request,
+                                                HttpServletResponse response) {
+        log.warn("[{}] {} - Chunked Upload Exception: {}", request.getMethod(), request.getRequestURI(), e.getMessage());
+        response.setStatus(e.getStatus());
+        return R.fail(e.getResultCode().code(), e.getMessage());
+    }
+
     @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
     public R<Void> handleHttpMediaTypeNotSupportedException(HttpMediaTypeNotSupportedException e,
                                                             HttpServletRequest request,
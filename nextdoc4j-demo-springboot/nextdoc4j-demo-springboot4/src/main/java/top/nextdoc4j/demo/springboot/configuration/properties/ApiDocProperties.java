@@ -0,0 +1,174 @@
+package top.nextdoc4j.demo.springboot.configuration.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 接口文档属性
+ *
+ * @author echo
+ * @since 2026/10/18
+ */
+@Data
+@ConfigurationProperties("project.api-doc")
+public class ApiDocProperties {
+
+    /**
+     * 文档缓存
+     */
+    private Cache cache = new Cache();
+
+    /**
+     * 启动预热
+     */
+    private Warmup warmup = new Warmup();
+
+    /**
+     * 文档输出
+     */
+    private Writer writer = new Writer();
+
+    /**
+     * 预压缩
+     */
+    private Compression compression = new Compression();
+
+    /**
+     * 模型解析缓存
+     */
+    private SchemaCache schemaCache = new SchemaCache();
+
+    /**
+     * 文档缓存配置属性
+     */
+    @Data
+    public static class Cache {
+        /**
+         * 是否启用（启用后 /v3/api-docs/** 的序列化结果按分组缓存，并支持 ETag 协商）
+         */
+        private boolean enabled = true;
+
+        /**
+         * 手动刷新缓存的接口路径
+         */
+        private String refreshPath = "/api-doc/cache/refresh";
+
+        /**
+         * 刷新接口的鉴权令牌（请求头 X-Api-Doc-Token），未配置时拒绝所有刷新请求
+         */
+        private String refreshToken;
+
+        /**
+         * 最多缓存的文档数（分组 × 格式），超出时淘汰最久未访问的文档
+         */
+        private int maxEntries = 64;
+
+        /**
+         * servers 是否使用相对地址（上下文路径），所有入口共享同一份缓存；默认关闭，servers 与 springdoc 默认一致为请求地址，
+         * 缓存按服务地址分别保存
+         */
+        private boolean relativeServerUrl = false;
+
+        /**
+         * 是否监听 classpath 中编译输出目录的类变更，自动刷新受影响的接口（以 jar 运行或使用 devtools 时不生效）
+         */
+        private boolean watchClasses = true;
+    }
+
+    /**
+     * 启动预热配置属性
+     */
+    @Data
+    public static class Warmup {
+        /**
+         * 是否启用（启用后在 ApplicationReadyEvent 阶段并行构建所有分组文档）
+         */
+        private boolean enabled = true;
+
+        /**
+         * 最大并行构建分组数
+         */
+        private int parallelism = 4;
+
+        /**
+         * 预热超时时间，超时未完成的分组按构建失败处理
+         */
+        private Duration timeout = Duration.ofSeconds(60);
+
+        /**
+         * servers 取自请求地址时预热写入缓存的入口地址（如 https://api.example.com），未配置时为本机地址 http://localhost:端口
+         */
+        private List<String> serverUrls = new ArrayList<>();
+    }
+
+    /**
+     * 文档输出配置属性
+     */
+    @Data
+    public static class Writer {
+        /**
+         * 是否流式输出（通过 Jackson 流式生成器直接写入响应流，不再先序列化为完整字符串）；
+         * 文档缓存开启时写入的是缓存的缓冲区，省去中间字符串，但整份文档仍需保存一份用于缓存
+         */
+        private boolean streaming = true;
+
+        /**
+         * 客户端支持时是否使用 gzip 压缩；仅在文档缓存关闭时生效，缓存开启时由缓存按 br / zstd / gzip 预压缩
+         */
+        private boolean gzip = true;
+    }
+
+    /**
+     * 预压缩配置属性
+     */
+    @Data
+    public static class Compression {
+        /**
+         * 是否启用（启用后缓存的文档与文档界面静态资源按 br / zstd / gzip 各预压缩一次，按 Accept-Encoding 输出）
+         */
+        private boolean enabled = true;
+
+        /**
+         * 最小压缩大小，小于该值的内容直接输出原文
+         */
+        private DataSize minSize = DataSize.ofKilobytes(1);
+
+        /**
+         * 需要预压缩的静态资源路径
+         */
+        private List<String> staticPatterns = List.of("/**/*.js", "/**/*.css", "/**/*.html", "/**/*.svg");
+
+        /**
+         * 文档界面资源所在的 classpath 位置，只缓存从这些位置输出的静态资源
+         */
+        private List<String> staticLocations = List.of("classpath:/META-INF/resources/");
+
+        /**
+         * 最多缓存的静态资源数，超出时淘汰最久未访问的资源
+         */
+        private int staticMaxEntries = 256;
+
+        /**
+         * 生效的最小压缩大小，未启用时返回 {@link Integer#MAX_VALUE}（即不压缩）
+         */
+        public int minSizeOrDisabled() {
+            return enabled ? (int) minSize.toBytes() : Integer.MAX_VALUE;
+        }
+    }
+
+    /**
+     * 模型解析缓存配置属性
+     */
+    @Data
+    public static class SchemaCache {
+        /**
+         * 是否启用（启用后同一类型在相同解析上下文下只完整解析一次，各接口、各分组及重建时复用）
+         */
+        private boolean enabled = true;
+    }
+}